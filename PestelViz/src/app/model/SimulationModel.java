@@ -4,7 +4,7 @@ import javafx.concurrent.Task;
 import simu.framework.Event;
 import simu.model.AIEnhancedPESTELEngineOllama;
 import simu.model.EnhancedFutureScenarioManager;
-import simu.model.PESTELState;
+import simu.model.PESTELSnapshot;
 
 import java.util.List;
 
@@ -69,8 +69,8 @@ public class SimulationModel {
                 // Create realistic event descriptions based on the simulation
                 String event = generateRealisticEvent(currentDay);
                 
-                // Get the current PESTEL state (this will evolve as we progress)
-                PESTELState currentState = engine.getGlobalPESTEL();
+                // Get the PESTEL state published at the end of this day
+                PESTELSnapshot currentState = engine.getPESTELSnapshot(currentDay);
                 
                 // Get the current future scenarios with updated probabilities
                 List<EnhancedFutureScenarioManager.FutureScenario> futures = engine.getEnhancedFutureManager().getAllScenarios();
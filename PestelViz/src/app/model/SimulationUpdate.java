@@ -1,21 +1,22 @@
 package app.model;
 
 import simu.model.EnhancedFutureScenarioManager.FutureScenario;
-import simu.model.PESTELState;
+import simu.model.PESTELSnapshot;
 import java.util.List;
 import java.util.Map;
 
 /**
  * A simple data class to hold a snapshot of the simulation's state at a given time.
  * This is used to pass data from the background simulation thread to the UI thread.
+ * The PESTEL state is an immutable snapshot, so the UI can read it while the engine keeps running.
  */
 public class SimulationUpdate {
     private final int currentDay;
     private final String latestEvent;
-    private final PESTELState pestelState;
+    private final PESTELSnapshot pestelState;
     private final List<FutureScenario> futureScenarios;
 
-    public SimulationUpdate(int currentDay, String latestEvent, PESTELState pestelState, List<FutureScenario> futureScenarios) {
+    public SimulationUpdate(int currentDay, String latestEvent, PESTELSnapshot pestelState, List<FutureScenario> futureScenarios) {
         this.currentDay = currentDay;
         this.latestEvent = latestEvent;
         this.pestelState = pestelState;
@@ -30,7 +31,7 @@ public class SimulationUpdate {
         return latestEvent;
     }
 
-    public PESTELState getPestelState() {
+    public PESTELSnapshot getPestelState() {
         return pestelState;
     }
 
@@ -0,0 +1,41 @@
+package app.model;
+
+import simu.model.SimulationCodec;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Binary encoding of SimulationUpdate in the SimulationCodec format, so updates can be
+ * recorded or sent to another process and read back without going through Java serialization.
+ */
+public final class SimulationUpdateCodec {
+    public static final int TAG_UPDATE = SimulationCodec.FIRST_EXTERNAL_TAG;
+
+    private SimulationUpdateCodec() {
+    }
+
+    public static void write(SimulationCodec.Writer writer, SimulationUpdate update) {
+        writer.writeTag(TAG_UPDATE);
+        writer.writeSignedVarInt(update.getCurrentDay());
+        writer.writeString(update.getLatestEvent());
+        writer.writeState(update.getPestelState());
+        writer.writeScenarios(update.getFutureScenarios());
+    }
+
+    public static SimulationUpdate read(SimulationCodec.Reader reader) {
+        reader.readTag(TAG_UPDATE);
+        int day = reader.readSignedVarInt();
+        String latestEvent = reader.readString();
+        return new SimulationUpdate(day, latestEvent, reader.readSnapshot(), reader.readScenarios());
+    }
+
+    public static byte[] encode(SimulationUpdate update) {
+        SimulationCodec.Writer writer = new SimulationCodec.Writer(4096);
+        write(writer, update);
+        return writer.toByteArray();
+    }
+
+    public static SimulationUpdate decode(ByteBuffer buffer) {
+        return read(new SimulationCodec.Reader(buffer));
+    }
+}
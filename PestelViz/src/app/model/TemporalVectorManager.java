@@ -1,7 +1,10 @@
 package app.model;
 
 import simu.model.EnhancedFutureScenarioManager;
-import simu.model.PESTELState;
+import simu.model.PESTELCategory;
+import simu.model.PESTELFactorIndex;
+import simu.model.PESTELIndicators.Theme;
+import simu.model.PESTELView;
 import java.util.*;
 
 /**
@@ -13,6 +16,11 @@ public class TemporalVectorManager {
     private final Map<String, List<double[]>> compressed3DPaths;
     private final int vectorDimensions;
     
+    private static final int POLITICAL_STABILITY = PESTELFactorIndex.slotOf(PESTELCategory.POLITICAL, "stability");
+    private static final int ECONOMIC_GROWTH = PESTELFactorIndex.slotOf(PESTELCategory.ECONOMIC, "growth");
+    private static final int ENV_CLIMATE_CHANGE = PESTELFactorIndex.slotOf(PESTELCategory.ENVIRONMENTAL, "climate_change");
+    private static final double TREND_STEP = 0.01; // Shift of a band whose category's indicators change by 100% or more
+    
     public TemporalVectorManager() {
         this.temporalVectors = new HashMap<>();
         this.compressed3DPaths = new HashMap<>();
@@ -34,7 +42,7 @@ public class TemporalVectorManager {
         }
     }
     
-    public void addDay(int day, List<EnhancedFutureScenarioManager.FutureScenario> scenarios, PESTELState pestelState) {
+    public void addDay(int day, List<EnhancedFutureScenarioManager.FutureScenario> scenarios, PESTELView pestelState) {
         for (EnhancedFutureScenarioManager.FutureScenario scenario : scenarios) {
             String name = scenario.getName();
             
@@ -62,32 +70,47 @@ public class TemporalVectorManager {
         }
     }
     
-    private void applyPESTELInfluence(HighDimensionalVector vector, PESTELState pestelState) {
+    private void applyPESTELInfluence(HighDimensionalVector vector, PESTELView pestelState) {
         // Apply PESTEL state influence to the high-dimensional vector
         // This creates realistic evolution based on current global conditions
         
         double[] dimensions = vector.getDimensions();
         
         // Political influence (dimensions 1200-1499)
-        if (pestelState.getPolitical("stability").contains("stable")) {
+        if (pestelState.hasTheme(POLITICAL_STABILITY, Theme.STABLE)) {
             for (int i = 1200; i < 1500; i++) {
                 dimensions[i] = Math.min(1.0, dimensions[i] + 0.01);
             }
         }
         
         // Economic influence (dimensions 0-299)
-        if (pestelState.getEconomic("growth").contains("growth")) {
+        if (pestelState.hasTheme(ECONOMIC_GROWTH, Theme.GROWTH)) {
             for (int i = 0; i < 300; i++) {
                 dimensions[i] = Math.min(1.0, dimensions[i] + 0.01);
             }
         }
         
         // Environmental influence (dimensions 900-1199)
-        if (pestelState.getEnvironmental("climate_change").contains("renewable")) {
+        if (pestelState.hasTheme(ENV_CLIMATE_CHANGE, Theme.RENEWABLE)) {
             for (int i = 900; i < 1200; i++) {
                 dimensions[i] = Math.min(1.0, dimensions[i] + 0.01);
             }
         }
+        
+        // Indicator trends move each band the way its category's numbers moved
+        shiftBand(dimensions, 1200, 1500, pestelState.getCategoryTrend(PESTELCategory.POLITICAL));
+        shiftBand(dimensions, 0, 300, pestelState.getCategoryTrend(PESTELCategory.ECONOMIC));
+        shiftBand(dimensions, 900, 1200, pestelState.getCategoryTrend(PESTELCategory.ENVIRONMENTAL));
+    }
+    
+    private static void shiftBand(double[] dimensions, int from, int to, double trend) {
+        double step = TREND_STEP * Math.max(-1.0, Math.min(1.0, trend));
+        if (step == 0.0) {
+            return;
+        }
+        for (int i = from; i < to; i++) {
+            dimensions[i] = Math.max(0.0, Math.min(1.0, dimensions[i] + step));
+        }
     }
     
     public Map<String, List<double[]>> get3DPaths(int startDay, int endDay) {
@@ -26,9 +26,12 @@ public class ArrivalProcess {
 
 	/**
 	 * Create a new customer (Generate customer arrival event and put it to the event list)
+	 *
+	 * @return The scheduled arrival event
 	 */
-	public void generateNextEvent() {
+	public Event generateNextEvent() {
 		Event t = new Event(type, Clock.getInstance().getClock() + generator.sample());
 		eventList.add(t);
+		return t;
 	}
 }
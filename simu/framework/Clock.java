@@ -1,21 +1,33 @@
 package simu.framework;
 
 /**
- * Singleton for holding global simulation time
+ * Singleton for holding global simulation time.
+ *
+ * Every thread shares the same clock, unless a thread asks for a clock of its own with
+ * newThreadClock to run a simulation alongside others; threads it starts afterwards share its clock.
  */
 public class Clock {
 	private double clock;
-	private static Clock instance;
+	private static final Clock instance = new Clock();
+	private static final InheritableThreadLocal<Clock> threadInstance = new InheritableThreadLocal<>();
 	
 	private Clock(){
 		clock = 0;
 	}
 	
 	public static Clock getInstance(){
-		if (instance == null){
-			instance = new Clock();
-		}
-		return instance;
+		Clock own = threadInstance.get();
+		return own != null ? own : instance;
+	}
+	
+	/**
+	 * Give the calling thread a clock of its own, starting from 0
+	 * @return The new clock
+	 */
+	public static Clock newThreadClock(){
+		Clock own = new Clock();
+		threadInstance.set(own);
+		return own;
 	}
 	
 	public void setClock(double clock){
@@ -1,7 +1,17 @@
 package simu.model;
 
+import eduni.distributions.Negexp;
 import simu.framework.*;
 import java.util.*;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeoutException;
+import java.util.function.IntConsumer;
 import java.util.stream.Collectors;
 
 /**
@@ -17,43 +27,135 @@ public class AIEnhancedPESTELEngine extends Engine {
     private List<String> countryUnionNames;
     private SimpleLocalAIService aiService;
     private EnhancedFutureScenarioManager enhancedFutureManager;
-    private List<AgentAction> recentActions;
-    private List<PESTELChange> recentChanges;
-    private Map<String, List<String>> agentConnections; // Agent influence network
+    private ColumnarEventStore<AgentAction> actionLog;
+    private ColumnarEventStore<PESTELChange> changeLog;
+    private AgentRegistry agentRegistry;
+    private InfluenceNetwork influenceNetwork; // Weighted agent-to-agent influence, nodes are AgentRegistry IDs
+    private InfluenceDiffusion influenceDiffusion; // Spreads each day's decisions over several hops of the network
+    private AgentDecision[] diffusedDecisions; // Today's decision of every agent that sent an impulse, by AgentRegistry ID
     private int currentDay;
     private int simulationDays;
     private boolean aiEnabled;
-    private Random random;
+    private long seed; // Every agent draws its decisions from a stream derived from (seed, day, agent)
+    private SyntheticPopulation population; // Entities used instead of the real-world data, or null
+    
+    // Decision phase: agents decide concurrently against a frozen view of the day
+    private int decisionThreads;
+    private ExecutorService decisionExecutor;
     
     // Enhanced tracking
-    private Map<String, Double> agentInfluenceScores;
+    private double[] agentInfluenceScores; // Influence received in the last diffusion, indexed by AgentRegistry ID
+    private ActivityGate activityGate; // Picks the agents worth a prompt on AI days
     private Map<String, List<AgentDecision>> dailyDecisions;
+    
+    // Event-driven activation: each agent schedules its own decisions instead of the daily sweep
+    private boolean eventDriven;
+    private ArrivalProcess[] activationProcesses; // By AgentRegistry ID, null for IDs that are not agents
+    private double[] nextActivation; // Time of each agent's pending activation; other activation events are stale
+    private double[] lastActivation;
+    private int[] activationCounts;
+    private long activations;
+    private long earlyWakeUps;
+    private long staleActivations;
+    private int dayActivations;
+    private int lastCoordinationDay = -1;
     private List<CrossAgentInteraction> crossAgentInteractions;
+    private PESTELHistory pestelHistory; // Every global change plus periodic keyframes
+    private ConcurrentPESTELState publishedPESTEL; // Global state as of the last commit, read by the decision threads
+    private ConcurrentPESTELState.Batch pestelBatch; // Global changes not yet published, or null
+    private IntConsumer dayObserver; // Told the number of each day once it is closed, or null
+    private DayDeadlineScheduler deadlineScheduler; // Latency budget of each day's AI calls, or null to wait for every answer
+    
+    // Speculative execution: fallback decisions go ahead while the AI answers are pending
+    private boolean speculative;
+    private final List<Speculation> speculations = new ArrayList<>(); // Pending speculations, oldest first
+    private Speculation recordingSpeculation; // Speculation whose global changes are being applied, or null
+    private List<CompletableFuture<String>> reconciledImpacts; // AI impacts asked ahead for the decision being reconciled, or null
+    private final Map<Integer, SlotWrites> slotWrites = new HashMap<>(); // Global writes by slot since the oldest pending speculation
+    private long speculationCount;
+    private long confirmedSpeculations;
+    private long reconciledSpeculations;
+    private long expiredSpeculations;
+    private long failedSpeculations; // AI requests that failed or were cancelled, leaving the fallback decision
+    private long answerWaits; // Answers the engine stopped to wait for, the AI having fallen behind
+    private long undoneChanges; // Speculative writes taken out of the global state's history
+    private long restoredFactors; // Factors whose value changed back when a write was undone
+    private long withdrawnDecisions;
+    
+    private static final int RECENT_DAYS = 7; // Window treated as "recent" by decisions and future updates
+    private static final double GATE_INFLUENCE_WEIGHT = 0.2; // Activity score added by a full unit of received influence
+    private static final double GATE_CHANGE_WEIGHT = 0.2; // Activity score added by GATE_CHANGE_SATURATION relevant changes
+    private static final int GATE_CHANGE_SATURATION = 10;
+    public static final int SPECULATION_WINDOW = 7; // Days an AI answer may take before its speculative decision is final
+    public static final int PENDING_SPECULATIONS_PER_THREAD = 4; // AI requests of earlier days that may be unanswered per decision thread
+    public static final double WAKE_UP_DELAY = 0.1; // Days between a relevant change and the woken agent's decision
+    public static final double WAKE_UP_COOLDOWN = 1.0; // Agents that decided more recently are not woken again
+    public static final int DEFAULT_DECISION_THREADS = Math.min(8, Math.max(2, Runtime.getRuntime().availableProcessors()));
+    
+    // Factor slots resolved once so prompt building and influence updates are plain array loads
+    private static final int ECONOMIC_MARKET_DYNAMICS = PESTELFactorIndex.slotOf(PESTELCategory.ECONOMIC, "market_dynamics");
+    private static final int ECONOMIC_GROWTH = PESTELFactorIndex.slotOf(PESTELCategory.ECONOMIC, "growth");
+    private static final int TECH_INNOVATION_ECOSYSTEM = PESTELFactorIndex.slotOf(PESTELCategory.TECHNOLOGICAL, "innovation_ecosystem");
+    private static final int TECH_RD_ACTIVITY = PESTELFactorIndex.slotOf(PESTELCategory.TECHNOLOGICAL, "rd_activity");
+    private static final int POLITICAL_INTERNATIONAL_RELATIONS = PESTELFactorIndex.slotOf(PESTELCategory.POLITICAL, "international_relations");
+    private static final int SOCIAL_EDUCATION_LEVELS = PESTELFactorIndex.slotOf(PESTELCategory.SOCIAL, "education_levels");
+    private static final int ENV_CLIMATE_LEADERSHIP = PESTELFactorIndex.slotOf(PESTELCategory.ENVIRONMENTAL, "climate_leadership");
+    
+    // Local factor updated by each diffusion channel; see diffusionChannelOf
+    private static final int[] DIFFUSION_SLOTS = {
+        ECONOMIC_MARKET_DYNAMICS, TECH_INNOVATION_ECOSYSTEM, POLITICAL_INTERNATIONAL_RELATIONS, ENV_CLIMATE_LEADERSHIP
+    };
     
     public AIEnhancedPESTELEngine(int simulationDays) {
+        this(simulationDays, new Random().nextLong());
+    }
+    
+    /**
+     * @param seed Seed of the fallback decision logic; two runs with the same seed and AI
+     *             disabled make the same decisions, whatever the number of decision threads
+     */
+    public AIEnhancedPESTELEngine(int simulationDays, long seed) {
+        this(simulationDays, seed, null);
+    }
+    
+    /**
+     * Stress-test mode: run a synthetic population on the fallback decision logic only
+     * @param population Entities replacing the real-world data, or null for the real-world data and the AI service
+     */
+    public AIEnhancedPESTELEngine(int simulationDays, long seed, SyntheticPopulation population) {
         super();
         this.simulationDays = simulationDays;
         this.currentDay = 0;
-        this.random = new Random();
+        this.seed = seed;
+        this.population = population;
+        this.decisionThreads = DEFAULT_DECISION_THREADS;
         
         // Initialize collections
         this.companies = new ArrayList<>();
         this.countries = new ArrayList<>();
         this.researchers = new ArrayList<>();
         this.countryUnionNames = new ArrayList<>();
-        this.recentActions = new ArrayList<>();
-        this.recentChanges = new ArrayList<>();
-        this.agentConnections = new HashMap<>();
-        this.agentInfluenceScores = new HashMap<>();
+        this.agentRegistry = new AgentRegistry();
+        this.actionLog = ColumnarEventStore.forActions(agentRegistry, ColumnarEventStore.UNLIMITED);
+        this.changeLog = ColumnarEventStore.forChanges(agentRegistry, ColumnarEventStore.UNLIMITED);
+        this.influenceNetwork = InfluenceNetwork.EMPTY;
+        this.agentInfluenceScores = new double[0];
+        this.activityGate = new ActivityGate();
         this.dailyDecisions = new HashMap<>();
         this.crossAgentInteractions = new ArrayList<>();
         
         // Initialize global PESTEL state with enhanced variables
         this.globalPESTEL = new PESTELState();
-        initializeEnhancedGlobalPESTEL();
+        initializeEnhancedGlobalPESTEL(globalPESTEL);
+        this.pestelHistory = new PESTELHistory(globalPESTEL.snapshot());
+        this.publishedPESTEL = new ConcurrentPESTELState(globalPESTEL);
         
-        // Initialize AI service
-        initializeAIService();
+        // Initialize AI service; synthetic populations run on the fallback logic only
+        if (population == null) {
+            initializeAIService();
+        } else {
+            Trace.out(Trace.Level.INFO, "🧪 " + population + " - advanced fallback logic only");
+        }
         
         // Initialize comprehensive real-world entities
         initializeUltraComprehensiveEntities();
@@ -66,6 +168,7 @@ public class AIEnhancedPESTELEngine extends Engine {
         
         Trace.out(Trace.Level.INFO, "=== AI-ENHANCED PESTEL SIMULATION INITIALIZATION ===");
         Trace.out(Trace.Level.INFO, "Duration: " + simulationDays + " days");
+        Trace.out(Trace.Level.INFO, "Seed: " + seed);
         Trace.out(Trace.Level.INFO, "AI Model: " + (aiEnabled ? "Qwen3-Next-80B-A3B-Thinking" : "Advanced Fallback Logic"));
         
         displayInitialConfiguration();
@@ -87,22 +190,25 @@ public class AIEnhancedPESTELEngine extends Engine {
         }
     }
     
-    private void initializeEnhancedGlobalPESTEL() {
+    /**
+     * Set every enhanced PESTEL variable to its initial value
+     */
+    static void initializeEnhancedGlobalPESTEL(PESTELState state) {
         // Initialize with enhanced PESTEL variables
         Map<String, String[]> variables = UltraComprehensiveRealWorldData.ENHANCED_PESTEL_VARIABLES;
         
-        for (Map.Entry<String, String[]> category : variables.entrySet()) {
+        for (PESTELCategory category : PESTELCategory.values()) {
             String categoryName = category.getKey();
-            for (String variable : category.getValue()) {
+            for (String variable : variables.get(categoryName)) {
                 String initialValue = generateInitialPESTELValue(categoryName, variable);
-                globalPESTEL.updateFactor(categoryName, variable, initialValue);
+                state.updateFactor(category, variable, initialValue);
             }
         }
         
         // globalPESTEL.setLastUpdate(0.0); // Not needed
     }
     
-    private String generateInitialPESTELValue(String category, String variable) {
+    private static String generateInitialPESTELValue(String category, String variable) {
         // Generate realistic initial values for each PESTEL variable
         switch (category) {
             case "political":
@@ -122,7 +228,7 @@ public class AIEnhancedPESTELEngine extends Engine {
         }
     }
     
-    private String generatePoliticalValue(String variable) {
+    private static String generatePoliticalValue(String variable) {
         switch (variable) {
             case "tax_labour": return "Corporate tax rate 25%, flexible labor laws";
             case "trade": return "Open trade policies with moderate protectionism";
@@ -139,7 +245,7 @@ public class AIEnhancedPESTELEngine extends Engine {
         }
     }
     
-    private String generateEconomicValue(String variable) {
+    private static String generateEconomicValue(String variable) {
         switch (variable) {
             case "income": return "Median household income €52,000, growing middle class";
             case "interest_rates": return "Central bank rate 2.5%, moderate monetary policy";
@@ -156,7 +262,7 @@ public class AIEnhancedPESTELEngine extends Engine {
         }
     }
     
-    private String generateSocialValue(String variable) {
+    private static String generateSocialValue(String variable) {
         switch (variable) {
             case "ageing": return "28% population over 65, increasing healthcare needs";
             case "career_views": return "Strong work-life balance emphasis, flexible careers";
@@ -173,7 +279,7 @@ public class AIEnhancedPESTELEngine extends Engine {
         }
     }
     
-    private String generateTechnologicalValue(String variable) {
+    private static String generateTechnologicalValue(String variable) {
         switch (variable) {
             case "innovation": return "High innovation index, strong startup ecosystem";
             case "automation": return "Advanced automation adoption, human-AI collaboration";
@@ -189,7 +295,7 @@ public class AIEnhancedPESTELEngine extends Engine {
         }
     }
     
-    private String generateEnvironmentalValue(String variable) {
+    private static String generateEnvironmentalValue(String variable) {
         switch (variable) {
             case "climate_change": return "Carbon neutral by 2030 goal, renewable transition";
             case "recycling_disposal": return "90% recycling rate, circular economy principles";
@@ -205,7 +311,7 @@ public class AIEnhancedPESTELEngine extends Engine {
         }
     }
     
-    private String generateLegalValue(String variable) {
+    private static String generateLegalValue(String variable) {
         switch (variable) {
             case "data_protection": return "GDPR+ compliance, advanced privacy protection";
             case "antitrust": return "Strong competition laws, tech platform regulation";
@@ -223,19 +329,31 @@ public class AIEnhancedPESTELEngine extends Engine {
     }
     
     private void initializeUltraComprehensiveEntities() {
+        // Agent characteristics are drawn from the engine seed so a seeded run is repeatable
+        Random random = new Random(seed);
+        
         // Create ultra-comprehensive companies (100 companies)
-        for (UltraComprehensiveRealWorldData.CompanyData companyData : UltraComprehensiveRealWorldData.TOP_COMPANIES) {
-            companies.add(new RealWorldCompany(companyData));
+        for (UltraComprehensiveRealWorldData.CompanyData companyData : population == null
+                ? UltraComprehensiveRealWorldData.TOP_COMPANIES : population.getCompanies()) {
+            RealWorldCompany company = new RealWorldCompany(companyData, random);
+            agentRegistry.register(company);
+            companies.add(company);
         }
         
         // Create ultra-comprehensive countries (50 countries)
-        for (UltraComprehensiveRealWorldData.CountryData countryData : UltraComprehensiveRealWorldData.TOP_COUNTRIES) {
-            countries.add(new RealWorldCountry(countryData));
+        for (UltraComprehensiveRealWorldData.CountryData countryData : population == null
+                ? UltraComprehensiveRealWorldData.TOP_COUNTRIES : population.getCountries()) {
+            RealWorldCountry country = new RealWorldCountry(countryData, random);
+            agentRegistry.register(country);
+            countries.add(country);
         }
         
         // Create ultra-comprehensive research institutions (40 institutions)
-        for (UltraComprehensiveRealWorldData.ResearchData researchData : UltraComprehensiveRealWorldData.TOP_RESEARCH_CENTERS) {
-            researchers.add(new RealWorldResearcher(researchData));
+        for (UltraComprehensiveRealWorldData.ResearchData researchData : population == null
+                ? UltraComprehensiveRealWorldData.TOP_RESEARCH_CENTERS : population.getResearchers()) {
+            RealWorldResearcher researcher = new RealWorldResearcher(researchData, random);
+            agentRegistry.register(researcher);
+            researchers.add(researcher);
         }
         
         // Create enhanced country unions (using existing data)
@@ -251,96 +369,33 @@ public class AIEnhancedPESTELEngine extends Engine {
     private void createEnhancedCountryUnions() {
         // Use existing comprehensive country unions data
         for (ComprehensiveRealWorldData.CountryUnion unionData : ComprehensiveRealWorldData.COUNTRY_UNIONS) {
+            agentRegistry.registerName(unionData.name);
             countryUnionNames.add(unionData.name);
         }
     }
     
+    /**
+     * Build the agent influence network from hash indexes of the entities' industries,
+     * countries, regions and research fields
+     */
     private void buildAgentInfluenceNetwork() {
-        // Build comprehensive agent-to-agent influence network
+        agentInfluenceScores = new double[agentRegistry.size()];
+        
+        AgentInfluenceIndex index = new AgentInfluenceIndex();
         for (RealWorldCompany company : companies) {
-            List<String> influences = new ArrayList<>();
-            
-            // Companies influence other companies in same industry
-            companies.stream()
-                .filter(c -> !c.equals(company) && 
-                           c.getCompanyData().industry.equals(company.getCompanyData().industry))
-                .limit(3)
-                .forEach(c -> influences.add(c.getAgentId()));
-            
-            // Companies influence countries where they operate
-            countries.stream()
-                .filter(country -> country.getCountryData().name.equals(company.getCompanyData().country))
-                .forEach(country -> influences.add(country.getAgentId()));
-            
-            // Tech companies influence research institutions
-            if (company.getCompanyData().industry.toLowerCase().contains("technology")) {
-                researchers.stream()
-                    .filter(r -> r.getResearchData().fields.toLowerCase().contains("technology") ||
-                               r.getResearchData().fields.toLowerCase().contains("ai"))
-                    .limit(2)
-                    .forEach(r -> influences.add(r.getAgentId()));
-            }
-            
-            agentConnections.put(company.getAgentId(), influences);
+            index.addCompany(company);
         }
-        
-        // Build country influence networks
         for (RealWorldCountry country : countries) {
-            List<String> influences = new ArrayList<>();
-            
-            // Countries influence companies based in their territory
-            companies.stream()
-                .filter(c -> c.getCompanyData().country.equals(country.getCountryData().name))
-                .forEach(c -> influences.add(c.getAgentId()));
-            
-            // Countries influence research institutions in their territory
-            researchers.stream()
-                .filter(r -> r.getResearchData().country.equals(country.getCountryData().name))
-                .forEach(r -> influences.add(r.getAgentId()));
-            
-            // Regional influence between countries
-            countries.stream()
-                .filter(c -> !c.equals(country) && 
-                           c.getCountryData().region.equals(country.getCountryData().region))
-                .limit(3)
-                .forEach(c -> influences.add(c.getAgentId()));
-            
-            agentConnections.put(country.getAgentId(), influences);
+            index.addCountry(country);
         }
-        
-        // Build research institution networks
         for (RealWorldResearcher researcher : researchers) {
-            List<String> influences = new ArrayList<>();
-            
-            // Research institutions influence companies in related fields
-            companies.stream()
-                .filter(c -> isRelatedField(researcher.getResearchData().fields, c.getCompanyData().industry))
-                .limit(2)
-                .forEach(c -> influences.add(c.getAgentId()));
-            
-            // Research institutions influence their host countries
-            countries.stream()
-                .filter(country -> country.getCountryData().name.equals(researcher.getResearchData().country))
-                .forEach(country -> influences.add(country.getAgentId()));
-            
-            agentConnections.put(researcher.getAgentId(), influences);
+            index.addResearcher(researcher);
         }
+        influenceNetwork = index.build(agentRegistry.size());
+        influenceDiffusion = new InfluenceDiffusion(influenceNetwork, DIFFUSION_SLOTS.length);
+        diffusedDecisions = new AgentDecision[agentRegistry.size()];
         
-        Trace.out(Trace.Level.INFO, "Built agent influence network with " + 
-                 agentConnections.values().stream().mapToInt(List::size).sum() + " connections");
-    }
-    
-    private boolean isRelatedField(String researchFields, String industry) {
-        String fieldsLower = researchFields.toLowerCase();
-        String industryLower = industry.toLowerCase();
-        
-        if (fieldsLower.contains("technology") && industryLower.contains("technology")) return true;
-        if (fieldsLower.contains("medicine") && industryLower.contains("healthcare")) return true;
-        if (fieldsLower.contains("engineering") && industryLower.contains("automotive")) return true;
-        if (fieldsLower.contains("ai") && industryLower.contains("technology")) return true;
-        if (fieldsLower.contains("economics") && industryLower.contains("financial")) return true;
-        
-        return false;
+        Trace.out(Trace.Level.INFO, "Built agent influence network with " + influenceNetwork.getEdgeCount() + " connections");
     }
     
     private RealWorldCountry findCountryByName(String name) {
@@ -366,12 +421,24 @@ public class AIEnhancedPESTELEngine extends Engine {
     
     @Override
     protected void runEvent(Event event) {
+        if (event.getType() instanceof AgentActivation) {
+            runActivation(event, ((AgentActivation) event.getType()).getAgentIndex());
+            return;
+        }
         currentDay = (int) event.getTime();
         
         Trace.out(Trace.Level.INFO, "\n========== DAY " + currentDay + " ==========\n");
         
-        // Process daily simulation
-        processDailySimulation();
+        // Process daily simulation; in event-driven mode the agents have already decided and the day is only closed
+        if (eventDriven) {
+            Trace.out(Trace.Level.INFO, String.format("⏰ %d agent activations today, %d early wake-ups so far",
+                dayActivations, earlyWakeUps));
+            dayActivations = 0;
+            endDay();
+            dailyDecisions.clear();
+        } else {
+            processDailySimulation();
+        }
         
         // Schedule next day if within simulation time
         if (currentDay < simulationDays) {
@@ -381,37 +448,605 @@ public class AIEnhancedPESTELEngine extends Engine {
     
     private void processDailySimulation() {
         dailyDecisions.clear();
-        
-        // Process all companies with AI decision making
+        commitGlobalChanges();
+        
+        // Phase 1: every agent decides against the state as it was at the start of the day;
+        // with the AI, only the agents picked by the activity gate are consulted
+        List<PESTELAgent> agents = new ArrayList<>(companies.size() + countries.size() + researchers.size());
+        agents.addAll(companies);
+        agents.addAll(countries);
+        agents.addAll(researchers);
+        Speculation[] speculated = aiEnabled && speculative ? new Speculation[agents.size()] : null;
+        AgentDecision[] decisions = speculated != null
+            ? speculateAll(agents, selectConsultedAgents(agents), speculated)
+            : decideAll(agents, aiEnabled ? selectConsultedAgents(agents) : null);
+        
+        // Phase 2: apply the decisions in agent order
+        int index = 0;
         Trace.out(Trace.Level.INFO, "--- GLOBAL COMPANIES (AI-DRIVEN) ---");
         for (RealWorldCompany company : companies) {
-            processAIEnhancedAgentDecision(company);
+            applyAgentDecision(company, decisions, speculated, index++);
         }
         
-        // Process all countries with AI decision making
         Trace.out(Trace.Level.INFO, "\n--- WORLD COUNTRIES (AI-DRIVEN) ---");
         for (RealWorldCountry country : countries) {
-            processAIEnhancedAgentDecision(country);
+            applyAgentDecision(country, decisions, speculated, index++);
         }
         
-        // Process all research institutions with AI decision making
         Trace.out(Trace.Level.INFO, "\n--- RESEARCH INSTITUTIONS (AI-DRIVEN) ---");
         for (RealWorldResearcher researcher : researchers) {
-            processAIEnhancedAgentDecision(researcher);
+            applyAgentDecision(researcher, decisions, speculated, index++);
         }
         
+        // Settle the answers in before the day's impulses spread, so a mispredicted decision can be fully withdrawn;
+        // the run ends with every answer settled
+        if (!speculations.isEmpty()) {
+            if (currentDay >= simulationDays) {
+                awaitSpeculations(0);
+            }
+            reconcileSpeculations();
+        }
+        
+        endDay();
+    }
+    
+    private void endDay() {
+        commitGlobalChanges();
+        
+        // Spread the day's decisions through the influence network
+        diffuseInfluence();
+        
         // Update alternative futures based on all decisions
         updateEnhancedAlternativeFutures();
         
         // Clean up old data
         cleanupOldData();
+        
+        recordDailySnapshot();
+    }
+    
+    /**
+     * Stage a global change for the next commit of the published state
+     */
+    private void stageGlobalChange(int slot, String value, PESTELAgent agent) {
+        if (pestelBatch == null) {
+            pestelBatch = publishedPESTEL.begin(currentDay);
+        }
+        pestelBatch.put(slot, value, agent.getAgentId());
+    }
+    
+    /**
+     * Publish the global changes staged since the last commit in one compare-and-set. Agents
+     * that wrote different values to the same factor in between are reported; the later write
+     * stands, as it does in the engine's own state.
+     */
+    private void commitGlobalChanges() {
+        if (pestelBatch == null) {
+            return;
+        }
+        List<ConcurrentPESTELState.Conflict> conflicts = pestelBatch.commit();
+        pestelBatch = null;
+        if (!conflicts.isEmpty()) {
+            Trace.out(Trace.Level.INFO, "⚔️ " + conflicts.size() + " conflicting PESTEL writes on day " + currentDay);
+            for (ConcurrentPESTELState.Conflict conflict : conflicts) {
+                Trace.out(Trace.Level.INFO, "  ⚔️ " + conflict);
+            }
+        }
+    }
+    
+    /**
+     * Give every agent its own arrival process: decisions arrive with exponential gaps whose
+     * mean is the inverse of the agent's action probability, so an agent acts as often as in
+     * the daily sweep but only the agents actually acting cost any work. Each process draws
+     * from its own stream derived from (seed, agent).
+     */
+    private void scheduleFirstActivations() {
+        int nodes = agentRegistry.size();
+        activationProcesses = new ArrivalProcess[nodes];
+        nextActivation = new double[nodes];
+        lastActivation = new double[nodes];
+        activationCounts = new int[nodes];
+        Arrays.fill(lastActivation, Double.NEGATIVE_INFINITY);
+        
+        List<PESTELAgent> agents = new ArrayList<>(companies.size() + countries.size() + researchers.size());
+        agents.addAll(companies);
+        agents.addAll(countries);
+        agents.addAll(researchers);
+        for (PESTELAgent agent : agents) {
+            int node = agent.getAgentIndex();
+            double meanInterval = 1.0 / calculateActionProbability(agent);
+            activationProcesses[node] = new ArrivalProcess(new Negexp(meanInterval, activationSeed(node)),
+                eventList, new AgentActivation(node));
+            nextActivation[node] = activationProcesses[node].generateNextEvent().getTime();
+        }
+        Trace.out(Trace.Level.INFO, "⏰ Event-driven activation: " + agents.size() + " agents scheduled");
     }
     
-    private void processAIEnhancedAgentDecision(PESTELAgent agent) {
+    /**
+     * Seed of an agent's arrival process, inside the range accepted by the eduni generators
+     */
+    private long activationSeed(int node) {
+        long z = (seed ^ 0x5DEECE66DL) + (node + 1L) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return 1 + Math.floorMod(z ^ (z >>> 31), 2147483646L);
+    }
+    
+    /**
+     * One agent decides against the live state and schedules its next decision. Events left
+     * behind by an early wake-up no longer match the agent's pending activation and are skipped.
+     */
+    private void runActivation(Event event, int node) {
+        if (event.getTime() != nextActivation[node]) {
+            staleActivations++;
+            return;
+        }
+        currentDay = (int) Math.ceil(event.getTime());
+        PESTELAgent agent = agentRegistry.get(node);
+        activations++;
+        dayActivations++;
+        lastActivation[node] = event.getTime();
+        
+        AgentDecision decision;
         try {
-            // Get AI-driven decision
-            AgentDecision decision = getAIEnhancedDecision(agent);
+            decision = getAIEnhancedDecision(agent, globalPESTEL, decisionRandom(agent, ++activationCounts[node]));
+        } catch (Exception e) {
+            Trace.out(Trace.Level.WAR, "Error processing " + agent.getAgentId() + ": " + e.getMessage());
+            decision = null;
+        }
+        processAIEnhancedAgentDecision(agent, decision);
+        
+        nextActivation[node] = activationProcesses[node].generateNextEvent().getTime();
+    }
+    
+    /**
+     * Wake the agents the change's source influences directly and whose prompt covers the
+     * changed category, unless they are about to decide anyway or have just decided
+     */
+    private void wakeInterestedAgents(PESTELChange change) {
+        PESTELCategory category = PESTELCategory.fromName(change.getCategory());
+        double wakeTime = clock.getClock() + WAKE_UP_DELAY;
+        int source = change.getSourceAgentIndex();
+        for (int edge = influenceNetwork.firstEdge(source); edge < influenceNetwork.firstEdge(source + 1); edge++) {
+            int target = influenceNetwork.getTarget(edge);
+            if (activationProcesses[target] == null || nextActivation[target] <= wakeTime
+                    || wakeTime - lastActivation[target] < WAKE_UP_COOLDOWN
+                    || !Arrays.asList(relevantCategoriesOf(agentRegistry.get(target))).contains(category)) {
+                continue;
+            }
+            nextActivation[target] = wakeTime;
+            eventList.add(new Event(new AgentActivation(target), wakeTime));
+            earlyWakeUps++;
+        }
+    }
+    
+    /**
+     * Close the day in the PESTEL history, which keeps a keyframe of the state every few days
+     */
+    private void recordDailySnapshot() {
+        pestelHistory.endDay(currentDay, globalPESTEL);
+        if (dayObserver != null) {
+            dayObserver.accept(currentDay);
+        }
+    }
+    
+    /**
+     * First stage of an AI day: score every agent from cheap signals and let the activity gate
+     * pick the ones that get a prompt. The score is the fallback action probability, plus the
+     * influence received in the last diffusion and the recent changes in the categories the
+     * agent's prompt covers.
+     */
+    private boolean[] selectConsultedAgents(List<PESTELAgent> agents) {
+        int[] recentChanges = new int[PESTELCategory.count()];
+        for (PESTELCategory category : PESTELCategory.values()) {
+            recentChanges[category.ordinal()] = changeLog.countByCategory(category, currentDay - 3);
+        }
+        
+        double[] scores = new double[agents.size()];
+        for (int i = 0; i < scores.length; i++) {
+            PESTELAgent agent = agents.get(i);
+            int changes = 0;
+            for (PESTELCategory category : relevantCategoriesOf(agent)) {
+                changes += recentChanges[category.ordinal()];
+            }
+            scores[i] = calculateActionProbability(agent)
+                + GATE_INFLUENCE_WEIGHT * Math.min(1.0, agentInfluenceScores[agent.getAgentIndex()])
+                + GATE_CHANGE_WEIGHT * Math.min(1.0, (double) changes / GATE_CHANGE_SATURATION);
+        }
+        
+        boolean[] consulted = activityGate.select(scores);
+        Trace.out(Trace.Level.INFO, String.format("🚦 Activity gate: consulting %d of %d agents (%d below score, %d over budget)",
+            activityGate.getLastConsultedCount(), scores.length,
+            activityGate.getLastBelowMinScoreCount(), activityGate.getLastOverBudgetCount()));
+        return consulted;
+    }
+    
+    /**
+     * PESTEL categories shown to an agent by getRelevantPESTELState
+     */
+    private static PESTELCategory[] relevantCategoriesOf(PESTELAgent agent) {
+        if (agent instanceof RealWorldCompany) {
+            return new PESTELCategory[]{PESTELCategory.ECONOMIC, PESTELCategory.TECHNOLOGICAL};
+        } else if (agent instanceof RealWorldCountry) {
+            return new PESTELCategory[]{PESTELCategory.POLITICAL, PESTELCategory.ECONOMIC};
+        } else if (agent instanceof RealWorldResearcher) {
+            return new PESTELCategory[]{PESTELCategory.TECHNOLOGICAL, PESTELCategory.SOCIAL};
+        }
+        return new PESTELCategory[0];
+    }
+    
+    /**
+     * Decide for every consulted agent, on the decision executor when more than one thread is
+     * configured; agents that are not consulted take no action. Deciding only reads the frozen
+     * view, the agent's own memory and its own random stream, so the result does not depend on
+     * the order in which the agents run.
+     * @param consulted Whether each agent is consulted, or null to consult every agent
+     */
+    private AgentDecision[] decideAll(List<PESTELAgent> agents, boolean[] consulted) {
+        PESTELSnapshot view = publishedPESTEL.current();
+        AgentDecision[] decisions = new AgentDecision[agents.size()];
+        if (aiEnabled && deadlineScheduler != null) {
+            return decideWithinBudget(agents, consulted, view, decisions);
+        }
+        if (decisionThreads <= 1 || agents.size() < 2) {
+            for (int i = 0; i < decisions.length; i++) {
+                if (consulted == null || consulted[i]) {
+                    decisions[i] = decide(agents.get(i), view);
+                }
+            }
+            return decisions;
+        }
+        
+        ExecutorService executor = getDecisionExecutor();
+        List<Future<AgentDecision>> pending = new ArrayList<>(agents.size());
+        for (int i = 0; i < decisions.length; i++) {
+            PESTELAgent agent = agents.get(i);
+            pending.add(consulted == null || consulted[i] ? executor.submit(() -> decide(agent, view)) : null);
+        }
+        for (int i = 0; i < decisions.length; i++) {
+            if (pending.get(i) == null) {
+                continue;
+            }
+            try {
+                decisions[i] = pending.get(i).get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                for (Future<AgentDecision> future : pending) {
+                    if (future != null) {
+                        future.cancel(true);
+                    }
+                }
+                break;
+            } catch (ExecutionException e) {
+                Trace.out(Trace.Level.WAR, "Error processing " + agents.get(i).getAgentId() + ": " + e.getCause());
+            }
+        }
+        return decisions;
+    }
+    
+    /**
+     * Ask the AI on the decision executor within the day's latency budget. The prompts are built
+     * here, as they read the agents' memories, after the day's clock has started, so building them
+     * counts against the budget; only the calls run on the executor. An agent whose
+     * answer misses its deadline takes its fallback decision: a call that has not started by then
+     * is cancelled, and the raw answer of one already running is kept as a late answer.
+     */
+    private AgentDecision[] decideWithinBudget(List<PESTELAgent> agents, boolean[] consulted, PESTELView view,
+                                               AgentDecision[] decisions) {
+        ExecutorService executor = getDecisionExecutor();
+        int callers = 0;
+        for (int i = 0; i < decisions.length; i++) {
+            if (consulted == null || consulted[i]) {
+                callers++;
+            }
+        }
+        deadlineScheduler.startDay(currentDay, callers, decisionThreads);
+        
+        List<DayDeadlineScheduler.Call<String>> pending = new ArrayList<>(agents.size());
+        for (int i = 0; i < decisions.length; i++) {
+            if (consulted != null && !consulted[i]) {
+                pending.add(null);
+                continue;
+            }
+            String prompt = buildDecisionPrompt(agents.get(i), view);
+            activityGate.recordPrompt(prompt.length());
+            pending.add(deadlineScheduler.submit(() -> aiService.analyzeDecision(prompt, "DECISION_ANALYSIS"), executor));
+        }
+        
+        int caller = 0;
+        for (int i = 0; i < decisions.length; i++) {
+            if (pending.get(i) == null) {
+                continue;
+            }
+            PESTELAgent agent = agents.get(i);
+            try {
+                String answer = deadlineScheduler.await(pending.get(i), deadlineScheduler.agentDeadline(caller++), agent.getAgentId());
+                decisions[i] = parseAIDecision(answer, agent);
+            } catch (TimeoutException e) {
+                Trace.out(Trace.Level.WAR, "⏱️ " + agent.getAgentId() + " missed its deadline - using fallback decision");
+                decisions[i] = getEnhancedFallbackDecision(agent, decisionRandom(agent, 0));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                pending.stream().filter(Objects::nonNull).forEach(DayDeadlineScheduler.Call::cancel);
+                break;
+            } catch (ExecutionException e) {
+                Trace.out(Trace.Level.WAR, "AI decision failed for " + agent.getAgentId() + ": " + e.getCause());
+                decisions[i] = getEnhancedFallbackDecision(agent, decisionRandom(agent, 0));
+            }
+        }
+        return decisions;
+    }
+    
+    /**
+     * Speculative decisions: every consulted agent goes ahead with its fallback decision while its
+     * prompt is answered, and reconcileSpeculations settles the speculation once the answer
+     * arrives. Every consulted agent's prompt is sent: the day's requests are queued on top of
+     * at most PENDING_SPECULATIONS_PER_THREAD unanswered ones per decision thread from earlier
+     * days, and the engine waits for the oldest answers when the AI has fallen further behind.
+     */
+    private AgentDecision[] speculateAll(List<PESTELAgent> agents, boolean[] consulted, Speculation[] speculated) {
+        awaitSpeculations(decisionThreads * PENDING_SPECULATIONS_PER_THREAD);
+        PESTELSnapshot view = publishedPESTEL.current();
+        ExecutorService executor = getDecisionExecutor();
+        AgentDecision[] decisions = new AgentDecision[agents.size()];
+        for (int i = 0; i < decisions.length; i++) {
+            if (consulted != null && !consulted[i]) {
+                continue;
+            }
+            PESTELAgent agent = agents.get(i);
+            String prompt = buildDecisionPrompt(agent, view);
+            activityGate.recordPrompt(prompt.length());
+            CompletableFuture<String> answer = CompletableFuture.supplyAsync(
+                () -> aiService.analyzeDecision(prompt, "DECISION_ANALYSIS"), executor);
+            
+            decisions[i] = getEnhancedFallbackDecision(agent, decisionRandom(agent, 0));
+            speculated[i] = new Speculation(agent, currentDay, decisions[i], answer);
+            speculations.add(speculated[i]);
+            speculationCount++;
+        }
+        return decisions;
+    }
+    
+    /**
+     * Wait for the oldest unanswered AI requests until at most the given number are left
+     */
+    private void awaitSpeculations(int unanswered) {
+        for (Speculation speculation : speculations) {
+            if (countUnanswered() <= unanswered) {
+                return;
+            }
+            if (speculation.answer.isDone()) {
+                continue;
+            }
+            answerWaits++;
+            try {
+                speculation.answer.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (ExecutionException | CancellationException e) {
+                // Settled as a failed speculation
+            }
+        }
+    }
+    
+    private int countUnanswered() {
+        int unanswered = 0;
+        for (Speculation speculation : speculations) {
+            if (!speculation.answer.isDone()) {
+                unanswered++;
+            }
+        }
+        return unanswered;
+    }
+    
+    /**
+     * Apply an agent's decision of the day, recording the global changes of a speculative one
+     */
+    private void applyAgentDecision(PESTELAgent agent, AgentDecision[] decisions, Speculation[] speculated, int index) {
+        recordingSpeculation = speculated != null ? speculated[index] : null;
+        processAIEnhancedAgentDecision(agent, decisions[index]);
+        recordingSpeculation = null;
+    }
+    
+    /**
+     * Settle the speculations whose AI answers have arrived, oldest first. An answer of the same
+     * decision type as the fallback confirms it. Otherwise the speculative decision is withdrawn
+     * and the AI decision is applied today with its own PESTEL changes and cross-agent effects;
+     * the AI is asked for the impacts of all the reconciled decisions at once. Answers still
+     * missing after SPECULATION_WINDOW days are given up, as are failed ones, and the fallback
+     * decision is final.
+     */
+    private void reconcileSpeculations() {
+        List<Speculation> mispredicted = new ArrayList<>();
+        List<AgentDecision> answers = new ArrayList<>();
+        Iterator<Speculation> pending = speculations.iterator();
+        while (pending.hasNext()) {
+            Speculation speculation = pending.next();
+            if (!speculation.answer.isDone()) {
+                if (currentDay - speculation.day > SPECULATION_WINDOW) {
+                    speculation.answer.cancel(true);
+                    pending.remove();
+                    expiredSpeculations++;
+                }
+                continue;
+            }
+            pending.remove();
+            
+            AgentDecision decision;
+            try {
+                decision = parseAIDecision(speculation.answer.join(), speculation.agent);
+            } catch (CompletionException | CancellationException e) {
+                Trace.out(Trace.Level.WAR, "AI decision failed for " + speculation.agent.getAgentId() + ": " + e.getMessage());
+                failedSpeculations++;
+                continue;
+            }
+            if (decisionTypeOf(decision).equals(decisionTypeOf(speculation.decision))) {
+                confirmedSpeculations++;
+                continue;
+            }
+            
+            reconciledSpeculations++;
+            Trace.out(Trace.Level.INFO, "↩️ " + speculation.agent.getAgentId() + " reconciles its decision of day "
+                + speculation.day + " with the AI answer");
+            undoSpeculation(speculation);
+            withdrawSpeculativeDecision(speculation);
+            mispredicted.add(speculation);
+            answers.add(decision);
+        }
+        
+        List<List<CompletableFuture<String>>> impacts = new ArrayList<>(answers.size());
+        for (int i = 0; i < answers.size(); i++) {
+            impacts.add(answers.get(i) != null ? askImpacts(answers.get(i), mispredicted.get(i).agent) : null);
+        }
+        for (int i = 0; i < answers.size(); i++) {
+            reconciledImpacts = impacts.get(i);
+            processAIEnhancedAgentDecision(mispredicted.get(i).agent, answers.get(i));
+        }
+        reconciledImpacts = null;
+        trimSlotWrites();
+    }
+    
+    /**
+     * Ask the AI for the impact of a decision on every category, in category order, without waiting
+     */
+    private List<CompletableFuture<String>> askImpacts(AgentDecision decision, PESTELAgent agent) {
+        ExecutorService executor = getDecisionExecutor();
+        List<CompletableFuture<String>> impacts = new ArrayList<>(PESTELCategory.count());
+        for (PESTELCategory category : PESTELCategory.values()) {
+            String prompt = buildImpactPrompt(decision, category.getKey(), agent);
+            impacts.add(CompletableFuture.supplyAsync(() -> aiService.analyzeDecision(prompt, "PESTEL_ANALYSIS"), executor));
+        }
+        return impacts;
+    }
+    
+    private static String decisionTypeOf(AgentDecision decision) {
+        return decision == null ? "NO_ACTION" : decision.getDecisionType();
+    }
+    
+    /**
+     * Take a speculation's writes out of the global state, latest first. A factor gets back the
+     * latest value written since that was not taken out, so a write is undone even after a later
+     * write to the same factor has been; while a later write stands, the factor keeps it. Each
+     * factor whose value changes back is logged as a change of today.
+     */
+    private void undoSpeculation(Speculation speculation) {
+        for (int i = speculation.changes.size() - 1; i >= 0; i--) {
+            PESTELChange change = speculation.changes.get(i);
+            int slot = PESTELFactorIndex.slotOf(PESTELCategory.fromName(change.getCategory()), change.getFactor());
+            SlotWrites writes = slotWrites.get(slot);
+            if (writes == null || !writes.remove(change)) {
+                continue;
+            }
+            undoneChanges++;
+            String current = globalPESTEL.getFactor(slot);
+            String restored = writes.latest();
+            if (current.equals(restored)) {
+                continue; // A later write stands
+            }
+            globalPESTEL.updateFactor(slot, restored);
+            stageGlobalChange(slot, restored, speculation.agent);
             
+            PESTELChange undo = new PESTELChange(change.getCategory(), change.getFactor(), current, restored,
+                "Undo speculative decision of day " + speculation.day,
+                speculation.agent.getAgentIndex(), speculation.agent.getAgentId(), currentDay);
+            changeLog.append(undo);
+            pestelHistory.record(slot, undo);
+            restoredFactors++;
+            Trace.out(Trace.Level.INFO, "  ↩️ " + undo.toString());
+        }
+    }
+    
+    /**
+     * Take a mispredicted decision out of the action log, the agent's memory and the cross-agent
+     * interactions. Settled on its own day, its impulse is also taken back before it spreads.
+     */
+    private void withdrawSpeculativeDecision(Speculation speculation) {
+        AgentDecision decision = speculation.decision;
+        if (decision == null) {
+            return;
+        }
+        PESTELAgent agent = speculation.agent;
+        agent.forgetAction(decision);
+        withdrawnDecisions++;
+        if (speculation.action != null) {
+            actionLog.remove(speculation.action);
+        }
+        if (speculation.interaction != null) {
+            crossAgentInteractions.remove(speculation.interaction);
+        }
+        if (speculation.day != currentDay) {
+            return;
+        }
+        
+        List<AgentDecision> today = dailyDecisions.get(agent.getAgentId());
+        if (today != null) {
+            today.remove(decision);
+        }
+        if (speculation.interaction != null) {
+            influenceDiffusion.retract(agent.getAgentIndex(), diffusionChannelOf(decision), decision.getConfidence());
+            if (diffusedDecisions[agent.getAgentIndex()] == decision) {
+                diffusedDecisions[agent.getAgentIndex()] = null;
+            }
+        }
+    }
+    
+    /**
+     * Forget the global writes made before the oldest pending speculation, which can no longer be undone
+     */
+    private void trimSlotWrites() {
+        int oldestDay = speculations.isEmpty() ? Integer.MAX_VALUE : speculations.get(0).day;
+        slotWrites.values().removeIf(writes -> writes.trimBefore(oldestDay));
+    }
+    
+    private AgentDecision decide(PESTELAgent agent, PESTELView view) {
+        try {
+            return getAIEnhancedDecision(agent, view, decisionRandom(agent, 0));
+        } catch (Exception e) {
+            Trace.out(Trace.Level.WAR, "Error processing " + agent.getAgentId() + ": " + e.getMessage());
+            return null;
+        }
+    }
+    
+    /**
+     * Random stream of one agent for the current day, independent of every other agent's draws
+     * @param activation Number of the agent's activation in event-driven mode, 0 in the daily sweep
+     */
+    private Random decisionRandom(PESTELAgent agent, int activation) {
+        return new Random(decisionSeed(seed, currentDay, agent.getAgentIndex(), activation));
+    }
+    
+    /**
+     * Seed of an agent's random stream for one day and activation, mixed from the engine seed
+     */
+    static long decisionSeed(long seed, int day, int agentIndex, int activation) {
+        long z = seed ^ (((long) day << 32) | (agentIndex & 0xFFFFFFFFL)) * 0x9E3779B97F4A7C15L;
+        z ^= activation * 0xD1B54A32D192ED03L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+    
+    private synchronized ExecutorService getDecisionExecutor() {
+        if (decisionExecutor == null) {
+            decisionExecutor = Executors.newFixedThreadPool(decisionThreads, runnable -> {
+                Thread thread = new Thread(runnable, "pestel-decision");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return decisionExecutor;
+    }
+    
+    private synchronized void shutdownDecisionExecutor() {
+        if (decisionExecutor != null) {
+            decisionExecutor.shutdownNow();
+            decisionExecutor = null;
+        }
+    }
+    
+    private void processAIEnhancedAgentDecision(PESTELAgent agent, AgentDecision decision) {
+        try {
             if (decision == null) {
                 Trace.out(Trace.Level.INFO, agent.getAgentId() + ": No action taken");
                 return;
@@ -421,11 +1056,15 @@ public class AIEnhancedPESTELEngine extends Engine {
             
             // Record the decision
             dailyDecisions.computeIfAbsent(agent.getAgentId(), k -> new ArrayList<>()).add(decision);
+            agent.recordAction(decision);
             
             // Create agent action
-            AgentAction action = new AgentAction(agent.getAgentId(), currentDay, 
+            AgentAction action = new AgentAction(agent.getAgentIndex(), agent.getAgentId(), currentDay, 
                                                decision.getDescription(), decision.getDecisionType());
-            recentActions.add(action);
+            actionLog.append(action);
+            if (recordingSpeculation != null) {
+                recordingSpeculation.action = action;
+            }
             
             // Process comprehensive PESTEL impacts
             processComprehensivePESTELImpacts(decision, agent);
@@ -438,42 +1077,46 @@ public class AIEnhancedPESTELEngine extends Engine {
         }
     }
     
-    private AgentDecision getAIEnhancedDecision(PESTELAgent agent) {
+    private AgentDecision getAIEnhancedDecision(PESTELAgent agent, PESTELView view, Random random) {
         if (aiEnabled) {
-            return getAIDecision(agent);
+            return getAIDecision(agent, view, random);
         } else {
-            return getEnhancedFallbackDecision(agent);
+            return getEnhancedFallbackDecision(agent, random);
         }
     }
     
-    private AgentDecision getAIDecision(PESTELAgent agent) {
+    private AgentDecision getAIDecision(PESTELAgent agent, PESTELView view, Random random) {
         try {
-            // Build comprehensive context for AI
-            String context = buildAIContext(agent);
-            
-            // Get AI decision
-            String prompt = String.format(
-                "You are %s on day %d of a 30-day global simulation. " +
-                "Context: %s\n\n" +
-                "Current global PESTEL state: %s\n\n" +
-                "Your recent actions: %s\n\n" +
-                "Should you take an action today? If yes, provide a specific, realistic strategic decision. " +
-                "If no, respond with 'NO_ACTION'. " +
-                "Format: ACTION_TYPE|DESCRIPTION|CONFIDENCE(0.0-1.0)",
-                agent.getAgentId(), currentDay, context,
-                getRelevantPESTELState(agent),
-                getRecentActionsForAgent(agent)
-            );
+            String prompt = buildDecisionPrompt(agent, view);
+            activityGate.recordPrompt(prompt.length());
             
             String aiResponse = aiService.analyzeDecision(prompt, "DECISION_ANALYSIS");
             return parseAIDecision(aiResponse, agent);
             
         } catch (Exception e) {
             Trace.out(Trace.Level.WAR, "AI decision failed for " + agent.getAgentId() + ": " + e.getMessage());
-            return getEnhancedFallbackDecision(agent);
+            return getEnhancedFallbackDecision(agent, random);
         }
     }
     
+    private String buildDecisionPrompt(PESTELAgent agent, PESTELView view) {
+        // Build comprehensive context for AI
+        String context = buildAIContext(agent);
+        
+        return String.format(
+            "You are %s on day %d of a 30-day global simulation. " +
+            "Context: %s\n\n" +
+            "Current global PESTEL state: %s\n\n" +
+            "Your recent actions: %s\n\n" +
+            "Should you take an action today? If yes, provide a specific, realistic strategic decision. " +
+            "If no, respond with 'NO_ACTION'. " +
+            "Format: ACTION_TYPE|DESCRIPTION|CONFIDENCE(0.0-1.0)",
+            agent.getAgentId(), currentDay, context,
+            getRelevantPESTELState(agent, view),
+            getRecentActionsForAgent(agent)
+        );
+    }
+    
     private String buildAIContext(PESTELAgent agent) {
         StringBuilder context = new StringBuilder();
         
@@ -485,7 +1128,7 @@ public class AIEnhancedPESTELEngine extends Engine {
         } else if (agent instanceof RealWorldCountry) {
             RealWorldCountry country = (RealWorldCountry) agent;
             context.append(String.format("Country: %s, GDP: $%.0fB, Population: %dM, Region: %s. ",
-                country.getCountryData().name, country.getCountryData().gdp / 1000,
+                country.getCountryData().name, country.getCountryData().gdp / 1000.0,
                 country.getCountryData().population / 1000000, country.getCountryData().region));
         } else if (agent instanceof RealWorldResearcher) {
             RealWorldResearcher researcher = (RealWorldResearcher) agent;
@@ -495,38 +1138,38 @@ public class AIEnhancedPESTELEngine extends Engine {
         }
         
         // Add influence network context
-        List<String> influences = agentConnections.get(agent.getAgentId());
-        if (influences != null && !influences.isEmpty()) {
-            context.append("Connected to: ").append(String.join(", ", influences.subList(0, Math.min(3, influences.size())))).append(". ");
+        int[] influences = influenceNetwork.targetsOf(agent.getAgentIndex(), 3);
+        if (influences.length > 0) {
+            context.append("Connected to: ");
+            for (int i = 0; i < influences.length; i++) {
+                context.append(i > 0 ? ", " : "").append(agentRegistry.nameOf(influences[i]));
+            }
+            context.append(". ");
         }
         
         return context.toString();
     }
     
-    private String getRelevantPESTELState(PESTELAgent agent) {
+    private String getRelevantPESTELState(PESTELAgent agent, PESTELView view) {
         // Return relevant PESTEL factors based on agent type
         StringBuilder relevant = new StringBuilder();
         
         if (agent instanceof RealWorldCompany) {
-            relevant.append("Economic: ").append(globalPESTEL.getEconomic("market_dynamics")).append(". ");
-            relevant.append("Technological: ").append(globalPESTEL.getTechnological("innovation_ecosystem")).append(". ");
+            relevant.append("Economic: ").append(view.getFactor(ECONOMIC_MARKET_DYNAMICS)).append(". ");
+            relevant.append("Technological: ").append(view.getFactor(TECH_INNOVATION_ECOSYSTEM)).append(". ");
         } else if (agent instanceof RealWorldCountry) {
-            relevant.append("Political: ").append(globalPESTEL.getPolitical("international_relations")).append(". ");
-            relevant.append("Economic: ").append(globalPESTEL.getEconomic("growth")).append(". ");
+            relevant.append("Political: ").append(view.getFactor(POLITICAL_INTERNATIONAL_RELATIONS)).append(". ");
+            relevant.append("Economic: ").append(view.getFactor(ECONOMIC_GROWTH)).append(". ");
         } else if (agent instanceof RealWorldResearcher) {
-            relevant.append("Technological: ").append(globalPESTEL.getTechnological("rd_activity")).append(". ");
-            relevant.append("Social: ").append(globalPESTEL.getSocial("education_levels")).append(". ");
+            relevant.append("Technological: ").append(view.getFactor(TECH_RD_ACTIVITY)).append(". ");
+            relevant.append("Social: ").append(view.getFactor(SOCIAL_EDUCATION_LEVELS)).append(". ");
         }
         
         return relevant.toString();
     }
     
     private String getRecentActionsForAgent(PESTELAgent agent) {
-        return recentActions.stream()
-            .filter(action -> action.getAgentId().equals(agent.getAgentId()))
-            .limit(3)
-            .map(AgentAction::getActionDescription)
-            .collect(Collectors.joining("; "));
+        return agent.getMemory().appendRecent(new StringBuilder(), currentDay - RECENT_DAYS, 3, "; ").toString();
     }
     
     private AgentDecision parseAIDecision(String aiResponse, PESTELAgent agent) {
@@ -552,15 +1195,16 @@ public class AIEnhancedPESTELEngine extends Engine {
                                "Strategic decision based on current conditions", "STRATEGIC", 0.7);
     }
     
-    private AgentDecision getEnhancedFallbackDecision(PESTELAgent agent) {
+    private AgentDecision getEnhancedFallbackDecision(PESTELAgent agent, Random random) {
         // Enhanced fallback logic with realistic decision patterns
         double actionProbability = calculateActionProbability(agent);
         
-        if (random.nextDouble() > actionProbability) {
+        // An event-driven activation is already the agent's decision to act
+        if (!eventDriven && random.nextDouble() > actionProbability) {
             return null; // No action
         }
         
-        String decision = generateRealisticDecision(agent);
+        String decision = generateRealisticDecision(agent, random);
         String decisionType = determineDecisionType(decision);
         double confidence = 0.6 + random.nextDouble() * 0.3;
         
@@ -568,6 +1212,13 @@ public class AIEnhancedPESTELEngine extends Engine {
     }
     
     private double calculateActionProbability(PESTELAgent agent) {
+        return actionProbability(baseActionProbability(agent), agent.getMemory().countSince(currentDay - 3));
+    }
+    
+    /**
+     * Action probability of an agent from its type and influence, before its recent activity is considered
+     */
+    static double baseActionProbability(PESTELAgent agent) {
         double baseProbability = 0.3;
         
         // Increase probability based on agent type and current conditions
@@ -581,13 +1232,14 @@ public class AIEnhancedPESTELEngine extends Engine {
             RealWorldResearcher researcher = (RealWorldResearcher) agent;
             baseProbability += researcher.getResearchImpact() * 0.1;
         }
-        
+        return baseProbability;
+    }
+    
+    /**
+     * @param recentActions Actions of the agent in the last three days
+     */
+    static double actionProbability(double baseProbability, int recentActions) {
         // Adjust based on recent activity
-        long recentActions = this.recentActions.stream()
-            .filter(action -> action.getAgentId().equals(agent.getAgentId()) && 
-                            action.getDay() >= currentDay - 3)
-            .count();
-        
         if (recentActions > 2) {
             baseProbability *= 0.7; // Reduce probability if very active recently
         }
@@ -595,7 +1247,15 @@ public class AIEnhancedPESTELEngine extends Engine {
         return Math.min(0.8, baseProbability);
     }
     
-    private String generateRealisticDecision(PESTELAgent agent) {
+    private String generateRealisticDecision(PESTELAgent agent, Random random) {
+        List<String> decisions = fallbackDecisionsOf(agent);
+        return decisions.get(random.nextInt(decisions.size()));
+    }
+    
+    /**
+     * Decisions the fallback logic picks from for an agent, by its type and industry or research fields
+     */
+    static List<String> fallbackDecisionsOf(PESTELAgent agent) {
         List<String> decisions = new ArrayList<>();
         
         if (agent instanceof RealWorldCompany) {
@@ -663,10 +1323,10 @@ public class AIEnhancedPESTELEngine extends Engine {
             }
         }
         
-        return decisions.get(random.nextInt(decisions.size()));
+        return decisions;
     }
     
-    private String determineDecisionType(String decision) {
+    static String determineDecisionType(String decision) {
         String decisionLower = decision.toLowerCase();
         
         if (decisionLower.contains("research") || decisionLower.contains("innovation")) return "RESEARCH";
@@ -680,43 +1340,68 @@ public class AIEnhancedPESTELEngine extends Engine {
     
     private void processComprehensivePESTELImpacts(AgentDecision decision, PESTELAgent agent) {
         // Process impacts across all enhanced PESTEL categories
-        Map<String, String[]> variables = UltraComprehensiveRealWorldData.ENHANCED_PESTEL_VARIABLES;
-        
-        for (Map.Entry<String, String[]> category : variables.entrySet()) {
-            String categoryName = category.getKey();
-            String impact = analyzeEnhancedPESTELImpact(decision, categoryName, agent);
+        for (PESTELCategory category : PESTELCategory.values()) {
+            String impact = reconciledImpacts != null
+                ? awaitImpact(reconciledImpacts.get(category.ordinal()), decision, category.getKey(), agent)
+                : analyzeEnhancedPESTELImpact(decision, category.getKey(), agent);
             
             if (!impact.equals("NO_IMPACT")) {
-                applyEnhancedPESTELChange(impact, categoryName, agent.getAgentId());
+                applyEnhancedPESTELChange(impact, category, agent);
             }
         }
     }
     
+    private String awaitImpact(CompletableFuture<String> impact, AgentDecision decision, String category, PESTELAgent agent) {
+        try {
+            return impact.join();
+        } catch (CompletionException | CancellationException e) {
+            return getEnhancedFallbackPESTELImpact(decision, category, agent);
+        }
+    }
+    
     private String analyzeEnhancedPESTELImpact(AgentDecision decision, String category, PESTELAgent agent) {
-        if (aiEnabled) {
+        // A speculative fallback decision takes the fallback impacts; its AI answer is still pending
+        if (aiEnabled && recordingSpeculation == null) {
             return getAIPESTELAnalysis(decision, category, agent);
         } else {
             return getEnhancedFallbackPESTELImpact(decision, category, agent);
         }
     }
     
+    private String buildImpactPrompt(AgentDecision decision, String category, PESTELAgent agent) {
+        return String.format(
+            "Analyze the PESTEL impact of this decision in the %s category:\n" +
+            "Agent: %s\n" +
+            "Decision: %s\n" +
+            "Current %s state: %s\n\n" +
+            "How does this decision specifically affect the %s category? " +
+            "Respond with a specific variable and new value in format: " +
+            "VARIABLE:variable_name|VALUE:new_description|REASON:explanation " +
+            "or NO_IMPACT if no significant impact.",
+            category, agent.getAgentId(), decision.getDescription(),
+            category, getCurrentCategoryState(category),
+            category
+        );
+    }
+    
     private String getAIPESTELAnalysis(AgentDecision decision, String category, PESTELAgent agent) {
         try {
-            String prompt = String.format(
-                "Analyze the PESTEL impact of this decision in the %s category:\n" +
-                "Agent: %s\n" +
-                "Decision: %s\n" +
-                "Current %s state: %s\n\n" +
-                "How does this decision specifically affect the %s category? " +
-                "Respond with a specific variable and new value in format: " +
-                "VARIABLE:variable_name|VALUE:new_description|REASON:explanation " +
-                "or NO_IMPACT if no significant impact.",
-                category, agent.getAgentId(), decision.getDescription(),
-                category, getCurrentCategoryState(category),
-                category
-            );
+            String prompt = buildImpactPrompt(decision, category, agent);
             
-            return aiService.analyzeDecision(prompt, "PESTEL_ANALYSIS");
+            if (deadlineScheduler == null || eventDriven) {
+                return aiService.analyzeDecision(prompt, "PESTEL_ANALYSIS");
+            }
+            
+            // Impacts are asked once the day's decisions are in, so they only get what is left of the day's budget
+            if (deadlineScheduler.isDayOver()) {
+                return getEnhancedFallbackPESTELImpact(decision, category, agent);
+            }
+            DayDeadlineScheduler.Call<String> answer = deadlineScheduler.submit(
+                () -> aiService.analyzeDecision(prompt, "PESTEL_ANALYSIS"), getDecisionExecutor());
+            return deadlineScheduler.await(answer, deadlineScheduler.getDayDeadline(), agent.getAgentId());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return getEnhancedFallbackPESTELImpact(decision, category, agent);
         } catch (Exception e) {
             return getEnhancedFallbackPESTELImpact(decision, category, agent);
         }
@@ -726,11 +1411,12 @@ public class AIEnhancedPESTELEngine extends Engine {
         // Get current state summary for the category
         StringBuilder state = new StringBuilder();
         String[] variables = UltraComprehensiveRealWorldData.ENHANCED_PESTEL_VARIABLES.get(category);
+        PESTELCategory resolved = PESTELCategory.fromName(category);
         
-        if (variables != null) {
-            for (String variable : Arrays.copyOf(variables, Math.min(3, variables.length))) {
-                String value = globalPESTEL.getFactor(category, variable);
-                state.append(variable).append(": ").append(value).append(". ");
+        if (variables != null && resolved != null) {
+            for (int i = 0; i < Math.min(3, variables.length); i++) {
+                String value = globalPESTEL.getFactor(resolved, variables[i]);
+                state.append(variables[i]).append(": ").append(value).append(". ");
             }
         }
         
@@ -738,105 +1424,113 @@ public class AIEnhancedPESTELEngine extends Engine {
     }
     
     private String getEnhancedFallbackPESTELImpact(AgentDecision decision, String category, PESTELAgent agent) {
-        String decisionLower = decision.getDescription().toLowerCase();
-        String agentType = agent.getClass().getSimpleName();
+        return fallbackPESTELImpact(decision.getDescription(), category, agent.getClass().getSimpleName(), agent.getAgentId());
+    }
+    
+    /**
+     * Impact the fallback logic gives a decision in one category, as "VARIABLE:...|VALUE:...|REASON:..."
+     * or NO_IMPACT; the new value starts with the agent ID
+     * @param agentType Simple class name of the deciding agent
+     */
+    static String fallbackPESTELImpact(String decision, String category, String agentType, String agentId) {
+        String decisionLower = decision.toLowerCase();
         
         // Enhanced fallback logic based on decision content and agent type
         switch (category) {
             case "political":
-                return analyzeEnhancedPoliticalImpact(decisionLower, agentType, agent);
+                return analyzeEnhancedPoliticalImpact(decisionLower, agentType, agentId);
             case "economic":
-                return analyzeEnhancedEconomicImpact(decisionLower, agentType, agent);
+                return analyzeEnhancedEconomicImpact(decisionLower, agentType, agentId);
             case "social":
-                return analyzeEnhancedSocialImpact(decisionLower, agentType, agent);
+                return analyzeEnhancedSocialImpact(decisionLower, agentType, agentId);
             case "technological":
-                return analyzeEnhancedTechnologicalImpact(decisionLower, agentType, agent);
+                return analyzeEnhancedTechnologicalImpact(decisionLower, agentType, agentId);
             case "environmental":
-                return analyzeEnhancedEnvironmentalImpact(decisionLower, agentType, agent);
+                return analyzeEnhancedEnvironmentalImpact(decisionLower, agentType, agentId);
             case "legal":
-                return analyzeEnhancedLegalImpact(decisionLower, agentType, agent);
+                return analyzeEnhancedLegalImpact(decisionLower, agentType, agentId);
             default:
                 return "NO_IMPACT";
         }
     }
     
-    private String analyzeEnhancedPoliticalImpact(String decision, String agentType, PESTELAgent agent) {
+    private static String analyzeEnhancedPoliticalImpact(String decision, String agentType, String agentId) {
         if (agentType.equals("RealWorldCountry")) {
             if (decision.contains("cooperation") || decision.contains("alliance")) {
-                return "VARIABLE:international_relations|VALUE:" + agent.getAgentId() + 
+                return "VARIABLE:international_relations|VALUE:" + agentId + 
                        " strengthens diplomatic cooperation through strategic partnerships|REASON:International cooperation initiative";
             }
             if (decision.contains("regulation") || decision.contains("policy")) {
-                return "VARIABLE:regulatory_environment|VALUE:" + agent.getAgentId() + 
+                return "VARIABLE:regulatory_environment|VALUE:" + agentId + 
                        " enhances regulatory framework for innovation|REASON:Policy reform initiative";
             }
         }
         return "NO_IMPACT";
     }
     
-    private String analyzeEnhancedEconomicImpact(String decision, String agentType, PESTELAgent agent) {
+    private static String analyzeEnhancedEconomicImpact(String decision, String agentType, String agentId) {
         if (agentType.equals("RealWorldCompany")) {
             if (decision.contains("investment") || decision.contains("expansion")) {
-                return "VARIABLE:investment_climate|VALUE:" + agent.getAgentId() + 
+                return "VARIABLE:investment_climate|VALUE:" + agentId + 
                        " drives economic growth through strategic investment|REASON:Major corporate investment";
             }
             if (decision.contains("market") || decision.contains("global")) {
-                return "VARIABLE:market_dynamics|VALUE:" + agent.getAgentId() + 
+                return "VARIABLE:market_dynamics|VALUE:" + agentId + 
                        " transforms market dynamics through innovation|REASON:Market expansion strategy";
             }
         }
         return "NO_IMPACT";
     }
     
-    private String analyzeEnhancedSocialImpact(String decision, String agentType, PESTELAgent agent) {
+    private static String analyzeEnhancedSocialImpact(String decision, String agentType, String agentId) {
         if (decision.contains("education") || decision.contains("training") || decision.contains("development")) {
-            return "VARIABLE:social_development|VALUE:" + agent.getAgentId() + 
+            return "VARIABLE:social_development|VALUE:" + agentId + 
                    " promotes social progress through education and workforce development|REASON:Human development initiative";
         }
         if (decision.contains("health") || decision.contains("healthcare")) {
-            return "VARIABLE:health_consciousness|VALUE:" + agent.getAgentId() + 
+            return "VARIABLE:health_consciousness|VALUE:" + agentId + 
                    " advances public health through healthcare innovation|REASON:Health improvement initiative";
         }
         return "NO_IMPACT";
     }
     
-    private String analyzeEnhancedTechnologicalImpact(String decision, String agentType, PESTELAgent agent) {
+    private static String analyzeEnhancedTechnologicalImpact(String decision, String agentType, String agentId) {
         if (decision.contains("ai") || decision.contains("technology") || decision.contains("innovation")) {
-            return "VARIABLE:innovation_ecosystem|VALUE:" + agent.getAgentId() + 
+            return "VARIABLE:innovation_ecosystem|VALUE:" + agentId + 
                    " advances global innovation through breakthrough technology development|REASON:Technology leadership";
         }
         if (decision.contains("research") || decision.contains("development")) {
-            return "VARIABLE:rd_activity|VALUE:" + agent.getAgentId() + 
+            return "VARIABLE:rd_activity|VALUE:" + agentId + 
                    " enhances R&D capabilities through strategic research investment|REASON:Research investment";
         }
         return "NO_IMPACT";
     }
     
-    private String analyzeEnhancedEnvironmentalImpact(String decision, String agentType, PESTELAgent agent) {
+    private static String analyzeEnhancedEnvironmentalImpact(String decision, String agentType, String agentId) {
         if (decision.contains("climate") || decision.contains("sustainability") || decision.contains("renewable")) {
-            return "VARIABLE:climate_leadership|VALUE:" + agent.getAgentId() + 
+            return "VARIABLE:climate_leadership|VALUE:" + agentId + 
                    " demonstrates environmental leadership through comprehensive sustainability initiatives|REASON:Climate action commitment";
         }
         if (decision.contains("green") || decision.contains("environment")) {
-            return "VARIABLE:environmental_regulations|VALUE:" + agent.getAgentId() + 
+            return "VARIABLE:environmental_regulations|VALUE:" + agentId + 
                    " strengthens environmental standards through green initiatives|REASON:Environmental protection";
         }
         return "NO_IMPACT";
     }
     
-    private String analyzeEnhancedLegalImpact(String decision, String agentType, PESTELAgent agent) {
+    private static String analyzeEnhancedLegalImpact(String decision, String agentType, String agentId) {
         if (decision.contains("regulation") || decision.contains("compliance") || decision.contains("governance")) {
-            return "VARIABLE:regulatory_framework|VALUE:" + agent.getAgentId() + 
+            return "VARIABLE:regulatory_framework|VALUE:" + agentId + 
                    " strengthens regulatory framework through governance innovation|REASON:Regulatory improvement";
         }
         if (decision.contains("intellectual property") || decision.contains("patent")) {
-            return "VARIABLE:intellectual_property|VALUE:" + agent.getAgentId() + 
+            return "VARIABLE:intellectual_property|VALUE:" + agentId + 
                    " enhances IP protection through innovation incentives|REASON:IP development";
         }
         return "NO_IMPACT";
     }
     
-    private void applyEnhancedPESTELChange(String impact, String category, String agentId) {
+    private void applyEnhancedPESTELChange(String impact, PESTELCategory category, PESTELAgent agent) {
         if (impact.startsWith("VARIABLE:")) {
             String[] parts = impact.split("\\|");
             if (parts.length >= 3) {
@@ -844,34 +1538,47 @@ public class AIEnhancedPESTELEngine extends Engine {
                 String newValue = parts[1].substring(6);
                 String reason = parts[2].substring(7);
                 
-                String oldValue = globalPESTEL.getFactor(category, variable);
+                int slot = PESTELFactorIndex.slotOf(category, variable);
+                String oldValue = globalPESTEL.getFactor(slot);
                 
                 // Only apply change if it's actually different
                 if (!oldValue.equals(newValue)) {
-                    globalPESTEL.updateFactor(category, variable, newValue);
+                    globalPESTEL.updateFactor(slot, newValue);
+                    stageGlobalChange(slot, newValue, agent);
                     
-                    PESTELChange change = new PESTELChange(category, variable, oldValue, newValue, reason, agentId, currentDay);
-                    recentChanges.add(change);
+                    PESTELChange change = new PESTELChange(category.getKey(), variable, oldValue, newValue, reason,
+                                                           agent.getAgentIndex(), agent.getAgentId(), currentDay);
+                    changeLog.append(change);
+                    pestelHistory.record(slot, change);
+                    if (recordingSpeculation != null) {
+                        recordingSpeculation.changes.add(change);
+                    }
+                    if (!speculations.isEmpty()) {
+                        slotWrites.computeIfAbsent(slot, k -> new SlotWrites(oldValue)).add(change);
+                    }
+                    if (eventDriven) {
+                        wakeInterestedAgents(change);
+                    }
                     
                     Trace.out(Trace.Level.INFO, "  🔄 " + change.toString());
                 } else {
-                    Trace.out(Trace.Level.INFO, "  ⚪ No change needed for " + category + "." + variable);
+                    Trace.out(Trace.Level.INFO, "  ⚪ No change needed for " + category.getKey() + "." + variable);
                 }
             }
         }
     }
     
     private void processCrossAgentInteractions(AgentDecision decision, PESTELAgent sourceAgent) {
-        List<String> influencedAgents = agentConnections.get(sourceAgent.getAgentId());
-        if (influencedAgents == null || influencedAgents.isEmpty()) {
+        // Limit the number of affected agents to prevent excessive updates
+        int[] affected = influenceNetwork.targetsOf(sourceAgent.getAgentIndex(), 3);
+        if (affected.length == 0) {
             return;
         }
         
-        // Limit the number of affected agents to prevent excessive updates
-        int maxAffected = Math.min(3, influencedAgents.size());
-        List<String> affectedIds = influencedAgents.stream()
-            .limit(maxAffected)
-            .collect(Collectors.toList());
+        List<String> affectedIds = new ArrayList<>(affected.length);
+        for (int index : affected) {
+            affectedIds.add(agentRegistry.nameOf(index));
+        }
         
         if (!affectedIds.isEmpty()) {
             Trace.out(Trace.Level.INFO, "    📡 Cross-agent effects: " + String.join(", ", affectedIds));
@@ -880,68 +1587,70 @@ public class AIEnhancedPESTELEngine extends Engine {
             CrossAgentInteraction interaction = new CrossAgentInteraction(
                 sourceAgent.getAgentId(), affectedIds, decision.getDescription(), currentDay);
             crossAgentInteractions.add(interaction);
-            
-            // Update affected agents' local PESTEL states
-            updateAffectedAgentsStates(affectedIds, decision, sourceAgent);
-        }
-    }
-    
-    private void updateAffectedAgentsStates(List<String> affectedIds, AgentDecision decision, PESTELAgent sourceAgent) {
-        for (String affectedId : affectedIds) {
-            PESTELAgent affectedAgent = findAgentById(affectedId);
-            if (affectedAgent != null) {
-                updateAgentLocalPESTEL(affectedAgent, decision, sourceAgent);
+            if (recordingSpeculation != null) {
+                recordingSpeculation.interaction = interaction;
             }
+            
+            // Affected agents' local PESTEL states are updated once the day's impulses are diffused
+            influenceDiffusion.inject(sourceAgent.getAgentIndex(), diffusionChannelOf(decision), decision.getConfidence());
+            diffusedDecisions[sourceAgent.getAgentIndex()] = decision;
         }
     }
     
-    private PESTELAgent findAgentById(String agentId) {
-        // Search in companies
-        for (RealWorldCompany company : companies) {
-            if (company.getAgentId().equals(agentId)) {
-                return company;
-            }
+    /**
+     * Spread the day's decision impulses through the influence network and update the local
+     * PESTEL state of every agent reached, citing the decision that influenced it most
+     */
+    private void diffuseInfluence() {
+        int hops = influenceDiffusion.propagate();
+        Arrays.fill(agentInfluenceScores, 0.0);
+        if (hops == 0) {
+            return;
         }
         
-        // Search in countries
-        for (RealWorldCountry country : countries) {
-            if (country.getAgentId().equals(agentId)) {
-                return country;
+        for (int node = 0; node < influenceDiffusion.getNodeCount(); node++) {
+            PESTELAgent affectedAgent = agentRegistry.get(node);
+            if (affectedAgent == null) {
+                continue;
             }
-        }
-        
-        // Search in researchers
-        for (RealWorldResearcher researcher : researchers) {
-            if (researcher.getAgentId().equals(agentId)) {
-                return researcher;
+            for (int channel = 0; channel < DIFFUSION_SLOTS.length; channel++) {
+                agentInfluenceScores[node] += influenceDiffusion.getReceived(node, channel);
+                int source = influenceDiffusion.getStrongestSource(node, channel);
+                if (source < 0 || source == node) {
+                    continue;
+                }
+                String influence = String.format("Influenced by %s at %d hops (strength %.2f): %s",
+                    agentRegistry.nameOf(source), influenceDiffusion.getStrongestHop(node, channel),
+                    influenceDiffusion.getReceived(node, channel), diffusedDecisions[source].getDescription());
+                affectedAgent.getLocalPESTEL().updateFactor(DIFFUSION_SLOTS[channel], influence);
             }
         }
+        Arrays.fill(diffusedDecisions, null);
         
-        return null;
+        Trace.out(Trace.Level.INFO, "🌊 Influence diffusion reached " + influenceDiffusion.getLastReachedCount()
+            + " agents in " + hops + " hops");
     }
     
-    private void updateAgentLocalPESTEL(PESTELAgent affectedAgent, AgentDecision decision, PESTELAgent sourceAgent) {
-        // Update the affected agent's local PESTEL state based on the source decision
-        PESTELState localState = affectedAgent.getLocalPESTEL();
-        
-        // Simple influence propagation - could be enhanced with AI
-        String influence = "Influenced by " + sourceAgent.getAgentId() + ": " + decision.getDescription();
-        
-        // Update a relevant PESTEL factor in the affected agent
-        if (decision.getDecisionType().equals("TECHNOLOGY") || decision.getDecisionType().equals("RESEARCH")) {
-            localState.updateFactor("technological", "innovation_ecosystem", influence);
-        } else if (decision.getDecisionType().equals("PARTNERSHIP")) {
-            localState.updateFactor("political", "international_relations", influence);
-        } else if (decision.getDecisionType().equals("SUSTAINABILITY")) {
-            localState.updateFactor("environmental", "climate_leadership", influence);
-        } else {
-            localState.updateFactor("economic", "market_dynamics", influence);
+    /**
+     * Diffusion channel of a decision: economic, technology and research, partnership or sustainability
+     */
+    private static int diffusionChannelOf(AgentDecision decision) {
+        switch (decision.getDecisionType()) {
+            case "TECHNOLOGY":
+            case "RESEARCH":
+                return 1;
+            case "PARTNERSHIP":
+                return 2;
+            case "SUSTAINABILITY":
+                return 3;
+            default:
+                return 0;
         }
     }
     
     private void updateEnhancedAlternativeFutures() {
         if (currentDay % 7 == 0) { // Weekly scenario updates
-            enhancedFutureManager.updateScenarioProbabilities(recentActions, globalPESTEL, currentDay);
+            enhancedFutureManager.updateScenarioProbabilities(actionLog.since(currentDay - RECENT_DAYS), globalPESTEL, currentDay);
             
             EnhancedFutureScenarioManager.FutureScenario dominant = enhancedFutureManager.getCurrentDominantScenario();
             Trace.out(Trace.Level.INFO, String.format("🔮 Dominant Future: %s (%.1f%% probability, %.2f momentum)", 
@@ -950,15 +1659,16 @@ public class AIEnhancedPESTELEngine extends Engine {
     }
     
     private void cleanupOldData() {
-        recentActions.removeIf(action -> action.getDay() < currentDay - 7);
-        recentChanges.removeIf(change -> change.getDay() < currentDay - 7);
+        actionLog.applyRetention(currentDay);
+        changeLog.applyRetention(currentDay);
         crossAgentInteractions.removeIf(interaction -> interaction.getDay() < currentDay - 7);
     }
     
     @Override
     protected void tryCEvents() {
-        // Country union coordination
-        if (currentDay % 3 == 0) {
+        // Country union coordination, once a day even when agents are activated many times a day
+        if (currentDay % 3 == 0 && currentDay != lastCoordinationDay) {
+            lastCoordinationDay = currentDay;
             for (String unionName : countryUnionNames) {
                 Trace.out(Trace.Level.INFO, "🤝 " + unionName + " coordinates response to global challenges affecting member states");
             }
@@ -967,11 +1677,18 @@ public class AIEnhancedPESTELEngine extends Engine {
     
     @Override
     protected void initialize() {
-        // Initialization already done in constructor
+        // Initialization already done in constructor, except the agents' own activations
+        if (eventDriven) {
+            scheduleFirstActivations();
+        }
     }
     
     @Override
     protected void results() {
+        for (Speculation speculation : speculations) {
+            speculation.answer.cancel(true);
+        }
+        shutdownDecisionExecutor();
         displayComprehensiveResults();
     }
     
@@ -986,9 +1703,42 @@ public class AIEnhancedPESTELEngine extends Engine {
         // Display comprehensive alternative futures analysis
         displayComprehensiveAlternativeFuturesResults();
         
+        // Display how the global changes were published
+        Trace.out(Trace.Level.INFO, "\n=== PUBLISHED PESTEL STATE ===");
+        Trace.out(Trace.Level.INFO, String.format("%d commits, %d conflicting writes",
+            publishedPESTEL.getCommitCount(), publishedPESTEL.getConflictCount()));
+        
         // Display cross-agent interaction statistics
         displayCrossAgentInteractionStats();
         
+        // Display the work saved by the activity gate
+        if (activityGate.getEvaluatedCount() > 0) {
+            Trace.out(Trace.Level.INFO, "\n=== ACTIVITY GATE ===");
+            Trace.out(Trace.Level.INFO, activityGate.toString());
+        }
+        
+        // Display the work done by event-driven activation
+        if (eventDriven) {
+            Trace.out(Trace.Level.INFO, "\n=== EVENT-DRIVEN ACTIVATION ===");
+            Trace.out(Trace.Level.INFO, String.format("%d activations (%d early wake-ups, %d stale events skipped)",
+                activations, earlyWakeUps, staleActivations));
+        }
+        
+        // Display the AI calls that missed their deadlines
+        if (deadlineScheduler != null) {
+            Trace.out(Trace.Level.INFO, "\n=== AI LATENCY BUDGET ===");
+            Trace.out(Trace.Level.INFO, deadlineScheduler.toString());
+        }
+        
+        // Display how the speculative decisions were settled
+        if (speculationCount > 0) {
+            Trace.out(Trace.Level.INFO, "\n=== SPECULATIVE EXECUTION ===");
+            Trace.out(Trace.Level.INFO, String.format("%d speculative decisions: %d confirmed, %d reconciled (%d decisions withdrawn, %d writes undone, %d factors restored), %d failed, %d expired, %d pending",
+                speculationCount, confirmedSpeculations, reconciledSpeculations, withdrawnDecisions, undoneChanges, restoredFactors,
+                failedSpeculations, expiredSpeculations, speculations.size()));
+            Trace.out(Trace.Level.INFO, "Waited for " + answerWaits + " answers while the AI had fallen behind");
+        }
+        
         // Display entity statistics
         displayEnhancedEntityStatistics();
         
@@ -1081,6 +1831,75 @@ public class AIEnhancedPESTELEngine extends Engine {
         }
     }
     
+    /**
+     * Fallback decision applied while the agent's AI answer is pending, with the global changes it made
+     */
+    private static final class Speculation {
+        final PESTELAgent agent;
+        final int day;
+        final AgentDecision decision; // null when the fallback took no action
+        final CompletableFuture<String> answer;
+        final List<PESTELChange> changes = new ArrayList<>(2);
+        AgentAction action; // Logged action of the decision, or null
+        CrossAgentInteraction interaction; // Recorded effect on other agents, or null
+        
+        Speculation(PESTELAgent agent, int day, AgentDecision decision, CompletableFuture<String> answer) {
+            this.agent = agent;
+            this.day = day;
+            this.decision = decision;
+            this.answer = answer;
+        }
+    }
+    
+    /**
+     * Global writes of one factor since the oldest pending speculation, oldest first
+     */
+    private static final class SlotWrites {
+        private String before; // Value before the first kept write
+        private final List<PESTELChange> writes = new ArrayList<>(4);
+        
+        SlotWrites(String before) {
+            this.before = before;
+        }
+        
+        void add(PESTELChange change) {
+            writes.add(change);
+        }
+        
+        boolean remove(PESTELChange change) {
+            for (int i = writes.size() - 1; i >= 0; i--) {
+                if (writes.get(i) == change) {
+                    writes.remove(i);
+                    return true;
+                }
+            }
+            return false;
+        }
+        
+        /**
+         * Value of the factor given the writes kept
+         */
+        String latest() {
+            return writes.isEmpty() ? before : writes.get(writes.size() - 1).getNewValue();
+        }
+        
+        /**
+         * Fold the writes of days before the given one into the value before the others
+         * @return True if no write is left
+         */
+        boolean trimBefore(int day) {
+            int dropped = 0;
+            while (dropped < writes.size() && writes.get(dropped).getDay() < day) {
+                dropped++;
+            }
+            if (dropped > 0) {
+                before = writes.get(dropped - 1).getNewValue();
+                writes.subList(0, dropped).clear();
+            }
+            return writes.isEmpty();
+        }
+    }
+    
     // Cross-agent interaction class
     public static class CrossAgentInteraction {
         private String sourceAgentId;
@@ -1103,13 +1922,131 @@ public class AIEnhancedPESTELEngine extends Engine {
     
     // Getters
     public PESTELState getGlobalPESTEL() { return globalPESTEL; }
+    
+    /**
+     * Global state as of the last commit, safe to read from any thread
+     */
+    public ConcurrentPESTELState getPublishedPESTEL() { return publishedPESTEL; }
     public List<RealWorldCompany> getCompanies() { return new ArrayList<>(companies); }
     public List<RealWorldCountry> getCountries() { return new ArrayList<>(countries); }
     public List<RealWorldResearcher> getResearchers() { return new ArrayList<>(researchers); }
     public List<String> getCountryUnionNames() { return new ArrayList<>(countryUnionNames); }
     public EnhancedFutureScenarioManager getEnhancedFutureManager() { return enhancedFutureManager; }
-    public List<PESTELChange> getRecentChanges() { return new ArrayList<>(recentChanges); }
-    public List<AgentAction> getRecentActions() { return new ArrayList<>(recentActions); }
+    public AgentRegistry getAgentRegistry() { return agentRegistry; }
+    public InfluenceNetwork getInfluenceNetwork() { return influenceNetwork; }
+    public InfluenceDiffusion getInfluenceDiffusion() { return influenceDiffusion; }
+    public ActivityGate getActivityGate() { return activityGate; }
+    public List<PESTELChange> getRecentChanges() { return new ArrayList<>(changeLog.since(currentDay - RECENT_DAYS)); }
+    public List<AgentAction> getRecentActions() { return new ArrayList<>(actionLog.since(currentDay - RECENT_DAYS)); }
+    public ColumnarEventStore<PESTELChange> getChangeLog() { return changeLog; }
+    public ColumnarEventStore<AgentAction> getActionLog() { return actionLog; }
     public List<CrossAgentInteraction> getCrossAgentInteractions() { return new ArrayList<>(crossAgentInteractions); }
     public boolean isAIEnabled() { return aiEnabled; }
+    public long getSeed() { return seed; }
+    
+    /**
+     * Fingerprint of the run so far; equal for runs that are bit-identical
+     */
+    public String getRunDigest() {
+        return RunDigest.of(actionLog.all(), changeLog.all(), globalPESTEL, enhancedFutureManager);
+    }
+    public SyntheticPopulation getPopulation() { return population; }
+    public int getDecisionThreads() { return decisionThreads; }
+    public boolean isEventDrivenActivation() { return eventDriven; }
+    
+    /**
+     * Call the observer with the day number at the end of every simulated day, when the
+     * day's decisions, diffusion and scenario updates are done
+     */
+    public void setDayObserver(IntConsumer dayObserver) { this.dayObserver = dayObserver; }
+    public long getActivationCount() { return activations; }
+    public long getEarlyWakeUpCount() { return earlyWakeUps; }
+    public long getStaleActivationCount() { return staleActivations; }
+    
+    /**
+     * Let each agent schedule its own decision events instead of sweeping every agent every day;
+     * the activity gate is not used, an activation already selects the agent
+     */
+    public void setEventDrivenActivation(boolean eventDriven) {
+        if (currentDay > 0 || activationProcesses != null) {
+            throw new IllegalStateException("Activation mode must be chosen before the simulation starts");
+        }
+        this.eventDriven = eventDriven;
+    }
+    
+    /**
+     * Give the AI calls of each day of the daily sweep a total wall-clock budget; an agent whose
+     * answer misses its deadline takes its fallback decision. 0 waits for every answer.
+     */
+    public void setDayLatencyBudget(long millis) {
+        this.deadlineScheduler = millis > 0 ? new DayDeadlineScheduler(millis) : null;
+    }
+    
+    /**
+     * Deadlines, misses and late answers of the AI calls, or null without a day latency budget
+     */
+    public DayDeadlineScheduler getDeadlineScheduler() { return deadlineScheduler; }
+    
+    /**
+     * Let the daily sweep go on with the fallback decisions while the AI answers are pending, and
+     * reconcile each decision with its answer once it arrives; without the AI it changes nothing
+     */
+    public void setSpeculativeExecution(boolean speculative) { this.speculative = speculative; }
+    public boolean isSpeculativeExecution() { return speculative; }
+    public long getSpeculationCount() { return speculationCount; }
+    public long getConfirmedSpeculationCount() { return confirmedSpeculations; }
+    public long getReconciledSpeculationCount() { return reconciledSpeculations; }
+    public long getExpiredSpeculationCount() { return expiredSpeculations; }
+    public long getFailedSpeculationCount() { return failedSpeculations; }
+    public long getUndoneChangeCount() { return undoneChanges; }
+    public long getRestoredFactorCount() { return restoredFactors; }
+    public long getWithdrawnDecisionCount() { return withdrawnDecisions; }
+    public long getAnswerWaitCount() { return answerWaits; }
+    public int getPendingSpeculationCount() { return speculations.size(); }
+    
+    /**
+     * Number of agents deciding at the same time; 1 decides one agent after the other on the engine thread
+     */
+    public synchronized void setDecisionThreads(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("At least one decision thread is needed: " + threads);
+        }
+        if (threads != decisionThreads) {
+            shutdownDecisionExecutor();
+            decisionThreads = threads;
+        }
+    }
+    
+    /**
+     * Switch to the fallback decision logic, or back to the AI service if it is available
+     */
+    public void setAIEnabled(boolean enabled) {
+        this.aiEnabled = enabled && aiService != null && aiService.isModelAvailable();
+    }
+    
+    /**
+     * Get the published PESTEL state at the end of a day (day 0 is the initial state)
+     */
+    public PESTELSnapshot getPESTELSnapshot(int day) {
+        return pestelHistory.stateAt(Math.max(0, Math.min(day, pestelHistory.getLastDay())));
+    }
+    
+    public PESTELSnapshot getLatestPESTELSnapshot() {
+        return pestelHistory.stateAt(pestelHistory.getLastDay());
+    }
+    
+    /**
+     * Full change history with time-travel queries such as getFactorAt(category, key, day)
+     */
+    public PESTELHistory getPESTELHistory() {
+        return pestelHistory;
+    }
+    
+    /**
+     * Limit how many days of actions and changes are kept (ColumnarEventStore.UNLIMITED keeps the full history)
+     */
+    public void setEventRetentionDays(int days) {
+        actionLog.setRetentionDays(days);
+        changeLog.setRetentionDays(days);
+    }
 }
@@ -0,0 +1,184 @@
+package simu.model;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+/**
+ * Picks the agents consulted each day before any prompt is built.
+ *
+ * Stage one drops agents whose activity score is below the minimum score. Stage two keeps the
+ * highest scoring candidates within the daily budget; equal scores keep the agent order.
+ * Scores are cheap estimates of how likely an agent is to act, so most quiet agents are
+ * settled as NO_ACTION without building a prompt or calling the model.
+ *
+ * The gate also counts the consultations it allowed and the ones it skipped, and the length
+ * of the prompts actually built, which gives an estimate of the prompt text skipped.
+ */
+public class ActivityGate {
+    public static final double DEFAULT_MIN_SCORE = 0.35;
+    public static final int UNLIMITED = Integer.MAX_VALUE;
+
+    private double minScore;
+    private int dailyBudget;
+
+    // Totals since the gate was created
+    private long evaluated;
+    private long consulted;
+    private long belowMinScore;
+    private long overBudget;
+    private final AtomicLong promptsBuilt = new AtomicLong();
+    private final AtomicLong promptChars = new AtomicLong();
+
+    // Outcome of the last selection
+    private int lastConsulted;
+    private int lastBelowMinScore;
+    private int lastOverBudget;
+
+    public ActivityGate() {
+        this(DEFAULT_MIN_SCORE, UNLIMITED);
+    }
+
+    /**
+     * @param minScore    Smallest activity score that makes an agent a candidate (0 lets every agent through)
+     * @param dailyBudget Most agents consulted on one day
+     */
+    public ActivityGate(double minScore, int dailyBudget) {
+        setMinScore(minScore);
+        setDailyBudget(dailyBudget);
+    }
+
+    /**
+     * @param scores Activity score of every agent
+     * @return Whether each agent is consulted today
+     */
+    public boolean[] select(double[] scores) {
+        boolean[] selected = new boolean[scores.length];
+        int candidates = 0;
+        for (int i = 0; i < scores.length; i++) {
+            if (scores[i] >= minScore) {
+                selected[i] = true;
+                candidates++;
+            }
+        }
+
+        int dropped = 0;
+        if (candidates > dailyBudget) {
+            int[] byScore = IntStream.range(0, scores.length)
+                .filter(i -> selected[i])
+                .boxed()
+                .sorted((a, b) -> Double.compare(scores[b], scores[a]))
+                .mapToInt(Integer::intValue)
+                .toArray();
+            for (int rank = dailyBudget; rank < byScore.length; rank++) {
+                selected[byScore[rank]] = false;
+                dropped++;
+            }
+        }
+
+        lastConsulted = candidates - dropped;
+        lastBelowMinScore = scores.length - candidates;
+        lastOverBudget = dropped;
+        evaluated += scores.length;
+        consulted += lastConsulted;
+        belowMinScore += lastBelowMinScore;
+        overBudget += lastOverBudget;
+        return selected;
+    }
+
+    /**
+     * Count a prompt that was built for a consulted agent; safe to call from decision threads
+     */
+    public void recordPrompt(int length) {
+        promptsBuilt.incrementAndGet();
+        promptChars.addAndGet(length);
+    }
+
+    public double getMinScore() {
+        return minScore;
+    }
+
+    public void setMinScore(double minScore) {
+        if (Double.isNaN(minScore)) {
+            throw new IllegalArgumentException("Minimum activity score is not a number");
+        }
+        this.minScore = minScore;
+    }
+
+    public int getDailyBudget() {
+        return dailyBudget;
+    }
+
+    public void setDailyBudget(int dailyBudget) {
+        if (dailyBudget < 0) {
+            throw new IllegalArgumentException("Daily consultation budget cannot be negative: " + dailyBudget);
+        }
+        this.dailyBudget = dailyBudget;
+    }
+
+    public long getEvaluatedCount() {
+        return evaluated;
+    }
+
+    public long getConsultedCount() {
+        return consulted;
+    }
+
+    /**
+     * Consultations skipped by both stages
+     */
+    public long getSkippedCount() {
+        return belowMinScore + overBudget;
+    }
+
+    public long getBelowMinScoreCount() {
+        return belowMinScore;
+    }
+
+    public long getOverBudgetCount() {
+        return overBudget;
+    }
+
+    public long getPromptsBuilt() {
+        return promptsBuilt.get();
+    }
+
+    public long getPromptChars() {
+        return promptChars.get();
+    }
+
+    /**
+     * Prompt text not built for skipped agents, estimated from the average prompt built so far
+     */
+    public long getEstimatedSkippedPromptChars() {
+        long built = promptsBuilt.get();
+        return built == 0 ? 0 : getSkippedCount() * (promptChars.get() / built);
+    }
+
+    public int getLastConsultedCount() {
+        return lastConsulted;
+    }
+
+    public int getLastBelowMinScoreCount() {
+        return lastBelowMinScore;
+    }
+
+    public int getLastOverBudgetCount() {
+        return lastOverBudget;
+    }
+
+    /**
+     * Share of evaluated agents that were not consulted
+     */
+    public double getSkipRate() {
+        return evaluated == 0 ? 0.0 : (double) getSkippedCount() / evaluated;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d of %d consultations made (%.1f%% skipped: %d below score %.2f, %d over budget %s), "
+                + "%d prompts built, ~%d prompt chars skipped",
+            consulted, evaluated, getSkipRate() * 100, belowMinScore, minScore, overBudget,
+            dailyBudget == UNLIMITED ? "unlimited" : String.valueOf(dailyBudget),
+            promptsBuilt.get(), getEstimatedSkippedPromptChars());
+    }
+}
@@ -1,16 +1,26 @@
 package simu.model;
 
+import java.io.Serializable;
+
 /**
  * Represents an action taken by an agent on a specific day
  */
-public class AgentAction {
+public class AgentAction implements Serializable {
+    private static final long serialVersionUID = 1L;
+    
     private String agentId;
+    private int agentIndex; // AgentRegistry ID, AgentRegistry.UNKNOWN if not known
     private int day;
     private String actionDescription;
     private String actionType;
     private double timestamp;
     
     public AgentAction(String agentId, int day, String actionDescription, String actionType) {
+        this(AgentRegistry.UNKNOWN, agentId, day, actionDescription, actionType);
+    }
+    
+    public AgentAction(int agentIndex, String agentId, int day, String actionDescription, String actionType) {
+        this.agentIndex = agentIndex;
         this.agentId = agentId;
         this.day = day;
         this.actionDescription = actionDescription;
@@ -18,10 +28,22 @@ public class AgentAction {
         this.timestamp = System.currentTimeMillis();
     }
     
+    /**
+     * Restore a recorded action, keeping its original timestamp
+     */
+    AgentAction(int agentIndex, String agentId, int day, String actionDescription, String actionType, double timestamp) {
+        this(agentIndex, agentId, day, actionDescription, actionType);
+        this.timestamp = timestamp;
+    }
+    
     public String getAgentId() {
         return agentId;
     }
     
+    public int getAgentIndex() {
+        return agentIndex;
+    }
+    
     public int getDay() {
         return day;
     }
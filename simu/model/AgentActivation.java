@@ -0,0 +1,24 @@
+package simu.model;
+
+import simu.framework.IEventType;
+
+/**
+ * Event type of one agent's own decision event in event-driven activation; the type
+ * carries the AgentRegistry ID of the agent to activate
+ */
+public final class AgentActivation implements IEventType {
+    private final int agentIndex;
+
+    public AgentActivation(int agentIndex) {
+        this.agentIndex = agentIndex;
+    }
+
+    public int getAgentIndex() {
+        return agentIndex;
+    }
+
+    @Override
+    public String toString() {
+        return "AGENT_ACTIVATION " + agentIndex;
+    }
+}
@@ -1,5 +1,6 @@
 package simu.model;
 
+import java.io.Serializable;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -7,7 +8,9 @@ import java.util.Map;
  * Represents a decision made by an agent in the forecasting system.
  * Contains information about the decision type, parameters, and expected impact.
  */
-public class AgentDecision {
+public class AgentDecision implements Serializable {
+    private static final long serialVersionUID = 1L;
+    
     private String agentId;
     private int day;
     private String description;
@@ -38,6 +41,14 @@ public class AgentDecision {
         this.decisionTime = simu.framework.Clock.getInstance().getClock();
     }
     
+    /**
+     * Restore a recorded decision, keeping its original decision time
+     */
+    AgentDecision(String agentId, int day, String description, String decisionType, double confidence, double decisionTime) {
+        this(agentId, day, description, decisionType, confidence);
+        this.decisionTime = decisionTime;
+    }
+    
     /**
      * Legacy constructor for compatibility
      */
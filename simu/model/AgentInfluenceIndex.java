@@ -0,0 +1,234 @@
+package simu.model;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Builds the influence network of real-world companies, countries and research institutions
+ * from hash indexes by industry, country, region and research field, so every entity finds
+ * its peers with a few lookups instead of scanning all other entities. Build time is linear
+ * in the number of entities.
+ *
+ * Influence rules, each edge weighted by its relationship:
+ * - a company influences up to 3 other companies of its industry, its home country and,
+ *   for technology companies, the first 2 technology or AI research institutions
+ * - a country influences the companies and research institutions based in it and up to
+ *   3 other countries of its region
+ * - a research institution influences up to 2 companies of related industries and its host country
+ */
+public class AgentInfluenceIndex {
+    public static final double INDUSTRY_PEER_WEIGHT = 0.5;
+    public static final double HOME_COUNTRY_WEIGHT = 0.7;
+    public static final double TECHNOLOGY_RESEARCH_WEIGHT = 0.4;
+    public static final double DOMESTIC_COMPANY_WEIGHT = 0.6;
+    public static final double DOMESTIC_RESEARCH_WEIGHT = 0.5;
+    public static final double REGIONAL_PEER_WEIGHT = 0.4;
+    public static final double RELATED_INDUSTRY_WEIGHT = 0.4;
+    public static final double HOST_COUNTRY_WEIGHT = 0.6;
+
+    private static final int INDUSTRY_PEERS = 3;
+    private static final int TECHNOLOGY_RESEARCH = 2;
+    private static final int REGIONAL_PEERS = 3;
+    private static final int RELATED_COMPANIES = 2;
+
+    // Research field keyword -> industry keyword of the companies it relates to
+    private static final String[][] RELATED_FIELDS = {
+        {"technology", "technology"},
+        {"medicine", "healthcare"},
+        {"engineering", "automotive"},
+        {"ai", "technology"},
+        {"economics", "financial"}
+    };
+
+    /**
+     * Growable list of entity positions
+     */
+    private static final class Positions {
+        int[] items = new int[4];
+        int size;
+
+        void add(int position) {
+            if (size == items.length) {
+                items = Arrays.copyOf(items, size * 2);
+            }
+            items[size++] = position;
+        }
+    }
+
+    private static final Positions NONE = new Positions();
+
+    // Entities in the order they were added
+    private int[] companyIds = new int[16];
+    private String[] companyIndustries = new String[16];
+    private String[] companyCountries = new String[16];
+    private int companyCount;
+    private int[] countryIds = new int[16];
+    private String[] countryNames = new String[16];
+    private String[] countryRegions = new String[16];
+    private int countryCount;
+    private int[] researcherIds = new int[16];
+    private String[] researcherFields = new String[16];
+    private String[] researcherCountries = new String[16];
+    private int researcherCount;
+
+    public void addCompany(int agentId, String industry, String country) {
+        if (companyCount == companyIds.length) {
+            int capacity = companyCount * 2;
+            companyIds = Arrays.copyOf(companyIds, capacity);
+            companyIndustries = Arrays.copyOf(companyIndustries, capacity);
+            companyCountries = Arrays.copyOf(companyCountries, capacity);
+        }
+        companyIds[companyCount] = agentId;
+        companyIndustries[companyCount] = industry;
+        companyCountries[companyCount] = country;
+        companyCount++;
+    }
+
+    public void addCountry(int agentId, String name, String region) {
+        if (countryCount == countryIds.length) {
+            int capacity = countryCount * 2;
+            countryIds = Arrays.copyOf(countryIds, capacity);
+            countryNames = Arrays.copyOf(countryNames, capacity);
+            countryRegions = Arrays.copyOf(countryRegions, capacity);
+        }
+        countryIds[countryCount] = agentId;
+        countryNames[countryCount] = name;
+        countryRegions[countryCount] = region;
+        countryCount++;
+    }
+
+    public void addResearcher(int agentId, String fields, String country) {
+        if (researcherCount == researcherIds.length) {
+            int capacity = researcherCount * 2;
+            researcherIds = Arrays.copyOf(researcherIds, capacity);
+            researcherFields = Arrays.copyOf(researcherFields, capacity);
+            researcherCountries = Arrays.copyOf(researcherCountries, capacity);
+        }
+        researcherIds[researcherCount] = agentId;
+        researcherFields[researcherCount] = fields;
+        researcherCountries[researcherCount] = country;
+        researcherCount++;
+    }
+
+    public void addCompany(RealWorldCompany company) {
+        addCompany(company.getAgentIndex(), company.getCompanyData().industry, company.getCompanyData().country);
+    }
+
+    public void addCountry(RealWorldCountry country) {
+        addCountry(country.getAgentIndex(), country.getCountryData().name, country.getCountryData().region);
+    }
+
+    public void addResearcher(RealWorldResearcher researcher) {
+        addResearcher(researcher.getAgentIndex(), researcher.getResearchData().fields, researcher.getResearchData().country);
+    }
+
+    /**
+     * @param nodeCount Number of network nodes, at least one more than the highest agent ID
+     */
+    public InfluenceNetwork build(int nodeCount) {
+        Map<String, Positions> companiesByIndustry = index(companyIndustries, companyCount);
+        Map<String, Positions> companiesByCountry = index(companyCountries, companyCount);
+        Map<String, Positions> countriesByName = index(countryNames, countryCount);
+        Map<String, Positions> countriesByRegion = index(countryRegions, countryCount);
+        Map<String, Positions> researchersByCountry = index(researcherCountries, researcherCount);
+
+        // Companies whose industry matches each related-field rule, and the technology research institutions
+        Positions[] companiesByRule = new Positions[RELATED_FIELDS.length];
+        for (int rule = 0; rule < RELATED_FIELDS.length; rule++) {
+            companiesByRule[rule] = new Positions();
+        }
+        boolean[] technologyCompany = new boolean[companyCount];
+        for (int c = 0; c < companyCount; c++) {
+            String industry = companyIndustries[c].toLowerCase();
+            technologyCompany[c] = industry.contains("technology");
+            for (int rule = 0; rule < RELATED_FIELDS.length; rule++) {
+                if (industry.contains(RELATED_FIELDS[rule][1])) {
+                    companiesByRule[rule].add(c);
+                }
+            }
+        }
+        Positions technologyResearchers = new Positions();
+        for (int r = 0; r < researcherCount && technologyResearchers.size < TECHNOLOGY_RESEARCH; r++) {
+            String fields = researcherFields[r].toLowerCase();
+            if (fields.contains("technology") || fields.contains("ai")) {
+                technologyResearchers.add(r);
+            }
+        }
+
+        InfluenceNetwork.Builder builder = new InfluenceNetwork.Builder(nodeCount);
+        for (int c = 0; c < companyCount; c++) {
+            int source = companyIds[c];
+            addPeers(builder, source, companiesByIndustry.getOrDefault(companyIndustries[c], NONE), c, INDUSTRY_PEERS,
+                companyIds, INDUSTRY_PEER_WEIGHT);
+            addAll(builder, source, countriesByName.getOrDefault(companyCountries[c], NONE), countryIds, HOME_COUNTRY_WEIGHT);
+            if (technologyCompany[c]) {
+                addAll(builder, source, technologyResearchers, researcherIds, TECHNOLOGY_RESEARCH_WEIGHT);
+            }
+        }
+
+        for (int k = 0; k < countryCount; k++) {
+            int source = countryIds[k];
+            addAll(builder, source, companiesByCountry.getOrDefault(countryNames[k], NONE), companyIds, DOMESTIC_COMPANY_WEIGHT);
+            addAll(builder, source, researchersByCountry.getOrDefault(countryNames[k], NONE), researcherIds,
+                DOMESTIC_RESEARCH_WEIGHT);
+            addPeers(builder, source, countriesByRegion.getOrDefault(countryRegions[k], NONE), k, REGIONAL_PEERS,
+                countryIds, REGIONAL_PEER_WEIGHT);
+        }
+
+        int[] related = new int[RELATED_FIELDS.length * RELATED_COMPANIES];
+        for (int r = 0; r < researcherCount; r++) {
+            int source = researcherIds[r];
+            // The first companies of related industries are among the first ones of each matching rule
+            String fields = researcherFields[r].toLowerCase();
+            int candidates = 0;
+            for (int rule = 0; rule < RELATED_FIELDS.length; rule++) {
+                if (fields.contains(RELATED_FIELDS[rule][0])) {
+                    Positions matches = companiesByRule[rule];
+                    for (int i = 0; i < Math.min(RELATED_COMPANIES, matches.size); i++) {
+                        related[candidates++] = matches.items[i];
+                    }
+                }
+            }
+            Arrays.sort(related, 0, candidates);
+            int added = 0;
+            for (int i = 0; i < candidates && added < RELATED_COMPANIES; i++) {
+                if (i == 0 || related[i] != related[i - 1]) {
+                    builder.addEdge(source, companyIds[related[i]], RELATED_INDUSTRY_WEIGHT);
+                    added++;
+                }
+            }
+            addAll(builder, source, countriesByName.getOrDefault(researcherCountries[r], NONE), countryIds, HOST_COUNTRY_WEIGHT);
+        }
+
+        return builder.build();
+    }
+
+    private static Map<String, Positions> index(String[] keys, int count) {
+        Map<String, Positions> index = new HashMap<>();
+        for (int i = 0; i < count; i++) {
+            index.computeIfAbsent(keys[i], key -> new Positions()).add(i);
+        }
+        return index;
+    }
+
+    private static void addAll(InfluenceNetwork.Builder builder, int source, Positions positions, int[] ids, double weight) {
+        for (int i = 0; i < positions.size; i++) {
+            builder.addEdge(source, ids[positions.items[i]], weight);
+        }
+    }
+
+    /**
+     * The first limit entries of a group, skipping the entity itself
+     */
+    private static void addPeers(InfluenceNetwork.Builder builder, int source, Positions group, int self, int limit,
+                                 int[] ids, double weight) {
+        int added = 0;
+        for (int i = 0; i < group.size && added < limit; i++) {
+            if (group.items[i] != self) {
+                builder.addEdge(source, ids[group.items[i]], weight);
+                added++;
+            }
+        }
+    }
+}
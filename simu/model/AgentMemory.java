@@ -0,0 +1,211 @@
+package simu.model;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Fixed-capacity memory of an agent's most recent actions.
+ * Records are kept in a ring buffer of parallel arrays (day, description, type, confidence),
+ * so recording an action overwrites the oldest slot instead of shifting a list, and readers
+ * index into the buffer directly. Index 0 is the oldest remembered action.
+ */
+public class AgentMemory {
+    public static final int DEFAULT_DEPTH = 5;
+    public static final double NO_CONFIDENCE = Double.NaN;
+
+    private int[] days;
+    private String[] descriptions;
+    private String[] types;
+    private double[] confidences;
+    private int head;  // slot of the oldest record
+    private int count;
+    private final List<String> descriptionView;
+
+    public AgentMemory() {
+        this(DEFAULT_DEPTH);
+    }
+
+    public AgentMemory(int depth) {
+        allocate(depth);
+        this.descriptionView = new AbstractList<String>() {
+            @Override
+            public String get(int index) {
+                return getDescription(index);
+            }
+
+            @Override
+            public int size() {
+                return count;
+            }
+        };
+    }
+
+    /**
+     * Remember an action, forgetting the oldest one when the memory is full
+     */
+    public void record(int day, String description, String type, double confidence) {
+        int slot;
+        if (count < days.length) {
+            slot = (head + count) % days.length;
+            count++;
+        } else {
+            slot = head;
+            head = (head + 1) % days.length;
+        }
+        days[slot] = day;
+        descriptions[slot] = description;
+        types[slot] = type;
+        confidences[slot] = confidence;
+    }
+
+    /**
+     * Forget the most recent record of an action, for one that was withdrawn after it was recorded
+     * @return False if the action is not remembered, for instance because newer ones pushed it out
+     */
+    public boolean forget(int day, String description) {
+        for (int i = count - 1; i >= 0; i--) {
+            int slot = slotOf(i);
+            if (days[slot] != day || !Objects.equals(descriptions[slot], description)) {
+                continue;
+            }
+            for (int j = i; j < count - 1; j++) {
+                int to = slotOf(j);
+                int from = slotOf(j + 1);
+                days[to] = days[from];
+                descriptions[to] = descriptions[from];
+                types[to] = types[from];
+                confidences[to] = confidences[from];
+            }
+            int last = slotOf(count - 1);
+            descriptions[last] = null;
+            types[last] = null;
+            confidences[last] = NO_CONFIDENCE;
+            count--;
+            return true;
+        }
+        return false;
+    }
+
+    public void record(AgentDecision decision) {
+        record(decision.getDay(), decision.getDescription(), decision.getDecisionType(), decision.getConfidence());
+    }
+
+    public int size() {
+        return count;
+    }
+
+    public boolean isEmpty() {
+        return count == 0;
+    }
+
+    public int getDepth() {
+        return days.length;
+    }
+
+    /**
+     * Change how many actions are remembered, keeping the most recent ones
+     */
+    public void setDepth(int depth) {
+        if (depth == days.length) {
+            return;
+        }
+        int kept = Math.min(count, depth);
+        int[] oldDays = days;
+        String[] oldDescriptions = descriptions;
+        String[] oldTypes = types;
+        double[] oldConfidences = confidences;
+        int oldHead = head;
+        int skipped = count - kept;
+
+        allocate(depth);
+        for (int i = 0; i < kept; i++) {
+            int from = (oldHead + skipped + i) % oldDays.length;
+            days[i] = oldDays[from];
+            descriptions[i] = oldDescriptions[from];
+            types[i] = oldTypes[from];
+            confidences[i] = oldConfidences[from];
+        }
+        count = kept;
+    }
+
+    public int getDay(int index) {
+        return days[slotOf(index)];
+    }
+
+    public String getDescription(int index) {
+        return descriptions[slotOf(index)];
+    }
+
+    public String getType(int index) {
+        return types[slotOf(index)];
+    }
+
+    /**
+     * @return The confidence of the action, or NaN if it was recorded without one
+     */
+    public double getConfidence(int index) {
+        return confidences[slotOf(index)];
+    }
+
+    /**
+     * Number of remembered actions taken on or after a day
+     */
+    public int countSince(int fromDay) {
+        int found = 0;
+        for (int i = count - 1; i >= 0 && days[slotOf(i)] >= fromDay; i--) {
+            found++;
+        }
+        return found;
+    }
+
+    /**
+     * Day of the most recent action, or -1 if nothing is remembered
+     */
+    public int getLastDay() {
+        return count > 0 ? days[slotOf(count - 1)] : -1;
+    }
+
+    /**
+     * Read-only view of the remembered descriptions, oldest first. The view is live:
+     * it reflects later records without being copied.
+     */
+    public List<String> descriptions() {
+        return descriptionView;
+    }
+
+    /**
+     * Append up to limit of the most recent descriptions taken on or after a day, oldest first
+     */
+    public StringBuilder appendRecent(StringBuilder sb, int fromDay, int limit, String separator) {
+        int first = Math.max(count - countSince(fromDay), count - limit);
+        for (int i = first; i < count; i++) {
+            if (i > first) {
+                sb.append(separator);
+            }
+            sb.append(getDescription(i));
+        }
+        return sb;
+    }
+
+    private int slotOf(int index) {
+        if (index < 0 || index >= count) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + count);
+        }
+        return (head + index) % days.length;
+    }
+
+    private void allocate(int depth) {
+        if (depth < 1) {
+            throw new IllegalArgumentException("Memory depth must be at least 1: " + depth);
+        }
+        days = new int[depth];
+        descriptions = new String[depth];
+        types = new String[depth];
+        confidences = new double[depth];
+        Arrays.fill(confidences, NO_CONFIDENCE);
+        head = 0;
+        count = 0;
+    }
+}
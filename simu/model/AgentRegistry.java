@@ -0,0 +1,96 @@
+package simu.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Dense integer IDs for the agents of one simulation.
+ * Agents are numbered 0..size()-1 in registration order, so lookups by ID are array loads
+ * and per-agent data (influence networks, scores, event columns) can live in plain arrays.
+ * Actors that act without an agent object, such as country unions, can be registered by
+ * name and get an ID from the same sequence.
+ */
+public class AgentRegistry {
+    public static final int UNKNOWN = -1;
+
+    private final List<PESTELAgent> agents;
+    private final List<String> names;
+    private final Map<String, Integer> ids;
+
+    public AgentRegistry() {
+        this.agents = new ArrayList<>();
+        this.names = new ArrayList<>();
+        this.ids = new HashMap<>();
+    }
+
+    /**
+     * Register an agent and assign its ID. Registering the same agent ID twice returns
+     * the existing ID.
+     */
+    public int register(PESTELAgent agent) {
+        int id = registerName(agent.getAgentId());
+        if (agents.get(id) == null) {
+            agents.set(id, agent);
+        }
+        agent.setAgentIndex(id);
+        return id;
+    }
+
+    /**
+     * Register an actor that has no agent object
+     * @return The ID of the name, newly assigned if it was not registered yet
+     */
+    public int registerName(String name) {
+        Integer id = ids.get(name);
+        if (id == null) {
+            id = names.size();
+            ids.put(name, id);
+            names.add(name);
+            agents.add(null);
+        }
+        return id;
+    }
+
+    /**
+     * @return The ID of an agent or actor name, or UNKNOWN if it is not registered
+     */
+    public int idOf(String name) {
+        Integer id = name != null ? ids.get(name) : null;
+        return id != null ? id : UNKNOWN;
+    }
+
+    /**
+     * @return The agent with an ID, or null for unknown IDs and name-only actors
+     */
+    public PESTELAgent get(int id) {
+        return id >= 0 && id < agents.size() ? agents.get(id) : null;
+    }
+
+    /**
+     * @return The agent with an agent ID string, or null if there is none
+     */
+    public PESTELAgent get(String name) {
+        return get(idOf(name));
+    }
+
+    public String nameOf(int id) {
+        return id >= 0 && id < names.size() ? names.get(id) : null;
+    }
+
+    /**
+     * Number of assigned IDs, agents and name-only actors together
+     */
+    public int size() {
+        return names.size();
+    }
+
+    /**
+     * Agents by ID; entries of name-only actors are null
+     */
+    public List<PESTELAgent> getAgents() {
+        return Collections.unmodifiableList(agents);
+    }
+}
@@ -0,0 +1,508 @@
+package simu.model;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Day-indexed store for simulation events (PESTEL changes and agent actions), appended in day
+ * order; an event withdrawn after the fact can be removed.
+ * Agents are coded by their AgentRegistry ID and categories are dictionary-coded into an int
+ * column. Per-day offsets and per-agent / per-category posting lists make "since day",
+ * "by agent" and "by category" queries cost O(result) instead of a scan, and counts cost a
+ * binary search; counts of every category over a window are read from the category column
+ * without touching the events.
+ * Old days are dropped according to a configurable retention, so long runs can keep
+ * their full history or a bounded window.
+ */
+public class ColumnarEventStore<E> {
+    public static final int UNLIMITED = Integer.MAX_VALUE;
+    private static final int NO_CODE = -1;
+
+    /**
+     * Extracts the indexed columns of an event
+     */
+    public interface Columns<E> {
+        int day(E event);
+        /**
+         * AgentRegistry ID of the event's agent, or AgentRegistry.UNKNOWN to resolve agentId by name
+         */
+        int agentIndex(E event);
+        String agentId(E event);
+        String category(E event);
+    }
+
+    private final Columns<E> columns;
+    private final AgentRegistry registry;
+    private int retentionDays;
+
+    // Column storage; positions [start, size) are retained
+    private int[] categories;
+    private Object[] events;
+    private int start;
+    private int size;
+
+    // dayOffsets[d - baseDay] = position of the first event recorded on or after day d
+    private int[] dayOffsets;
+    private int baseDay;
+    private int lastDay;
+
+    // Posting lists (ascending positions) per agent ID and per dictionary-coded category
+    private int[][] agentPostings;
+    private int[] agentPostingCounts;
+    private final Map<String, Integer> categoryCodes;
+    private final List<String> categoryNames;
+    private int[][] categoryPostings;
+    private int[] categoryPostingCounts;
+
+    /**
+     * @param registry Registry whose IDs code the agent column; actors missing from it are registered by name
+     */
+    public ColumnarEventStore(Columns<E> columns, AgentRegistry registry, int retentionDays) {
+        this.columns = columns;
+        this.registry = registry;
+        this.retentionDays = retentionDays;
+        this.categories = new int[64];
+        this.events = new Object[64];
+        this.dayOffsets = new int[16];
+        this.lastDay = Integer.MIN_VALUE;
+        this.agentPostings = new int[16][];
+        this.agentPostingCounts = new int[16];
+        this.categoryCodes = new HashMap<>();
+        this.categoryNames = new ArrayList<>();
+        this.categoryPostings = new int[8][];
+        this.categoryPostingCounts = new int[8];
+    }
+
+    /**
+     * Store for PESTEL changes: agent = source agent, category = PESTEL category key
+     */
+    public static ColumnarEventStore<PESTELChange> forChanges(AgentRegistry registry, int retentionDays) {
+        return new ColumnarEventStore<>(new Columns<PESTELChange>() {
+            public int day(PESTELChange change) { return change.getDay(); }
+            public int agentIndex(PESTELChange change) { return change.getSourceAgentIndex(); }
+            public String agentId(PESTELChange change) { return change.getSourceAgentId(); }
+            public String category(PESTELChange change) {
+                PESTELCategory category = PESTELCategory.fromName(change.getCategory());
+                return category != null ? category.getKey() : change.getCategory();
+            }
+        }, registry, retentionDays);
+    }
+
+    public static ColumnarEventStore<PESTELChange> forChanges(int retentionDays) {
+        return forChanges(new AgentRegistry(), retentionDays);
+    }
+
+    /**
+     * Store for agent actions: category = action type
+     */
+    public static ColumnarEventStore<AgentAction> forActions(AgentRegistry registry, int retentionDays) {
+        return new ColumnarEventStore<>(new Columns<AgentAction>() {
+            public int day(AgentAction action) { return action.getDay(); }
+            public int agentIndex(AgentAction action) { return action.getAgentIndex(); }
+            public String agentId(AgentAction action) { return action.getAgentId(); }
+            public String category(AgentAction action) { return action.getActionType(); }
+        }, registry, retentionDays);
+    }
+
+    public static ColumnarEventStore<AgentAction> forActions(int retentionDays) {
+        return forActions(new AgentRegistry(), retentionDays);
+    }
+
+    /**
+     * Append an event. Events are expected in non-decreasing day order; an event dated
+     * earlier than the last recorded day is indexed under that last day.
+     */
+    public void append(E event) {
+        advanceDayIndex(Math.max(columns.day(event), lastDay));
+
+        ensureCapacity(size + 1);
+        int agent = agentCodeOf(event);
+        int category = codeOf(columns.category(event), categoryCodes, categoryNames);
+        categories[size] = category;
+        events[size] = event;
+
+        if (agent != NO_CODE) {
+            agentPostings = growPostings(agentPostings, agent);
+            agentPostingCounts = growCounts(agentPostingCounts, agent);
+            addPosting(agentPostings, agentPostingCounts, agent, size);
+        }
+        if (category != NO_CODE) {
+            categoryPostings = growPostings(categoryPostings, category);
+            categoryPostingCounts = growCounts(categoryPostingCounts, category);
+            addPosting(categoryPostings, categoryPostingCounts, category, size);
+        }
+        size++;
+    }
+
+    /**
+     * Remove an event that was withdrawn, searching from the most recent one. The retained events
+     * are copied so earlier views stay valid, which makes this a correction, not a bulk operation.
+     * @return False if the event is not retained
+     */
+    public boolean remove(E event) {
+        int position = size - 1;
+        while (position >= start && events[position] != event) {
+            position--;
+        }
+        if (position < start) {
+            return false;
+        }
+
+        Object[] movedEvents = new Object[events.length];
+        System.arraycopy(events, start, movedEvents, start, position - start);
+        System.arraycopy(events, position + 1, movedEvents, position, size - position - 1);
+        events = movedEvents;
+        System.arraycopy(categories, position + 1, categories, position, size - position - 1);
+        size--;
+
+        for (int i = 0; i <= lastDay - baseDay; i++) {
+            if (dayOffsets[i] > position) {
+                dayOffsets[i]--;
+            }
+        }
+        removePosting(agentPostings, agentPostingCounts, position);
+        removePosting(categoryPostings, categoryPostingCounts, position);
+        return true;
+    }
+
+    /**
+     * Drop days that fall outside the retention window ending at currentDay
+     */
+    public void applyRetention(int currentDay) {
+        if (retentionDays == UNLIMITED || size == start) {
+            return;
+        }
+        start = positionOfDay(currentDay - retentionDays);
+
+        // Compact once at least half of the storage is dead, so the cost is amortized per event
+        if (start > 0 && start >= (size - start)) {
+            compact(currentDay - retentionDays);
+        }
+    }
+
+    /**
+     * Events recorded on or after a day, in append order. The view is backed by the store
+     * and is not affected by later appends.
+     */
+    public List<E> since(int fromDay) {
+        return view(positionOfDay(fromDay), size);
+    }
+
+    /**
+     * Events of the last n days ending at currentDay (inclusive)
+     */
+    public List<E> lastDays(int n, int currentDay) {
+        return since(currentDay - n + 1);
+    }
+
+    /**
+     * All retained events in append order
+     */
+    public List<E> all() {
+        return view(start, size);
+    }
+
+    /**
+     * Events of one agent recorded on or after a day, oldest first
+     * @param limit Maximum number of events to return
+     */
+    public List<E> byAgent(int agentIndex, int fromDay, int limit) {
+        return agentIndex < 0 || agentIndex >= agentPostingCounts.length ? Collections.emptyList()
+            : collect(agentPostings[agentIndex], agentPostingCounts[agentIndex], positionOfDay(fromDay), limit);
+    }
+
+    public List<E> byAgent(String agentId, int fromDay, int limit) {
+        return byAgent(registry.idOf(agentId), fromDay, limit);
+    }
+
+    public List<E> byAgent(String agentId, int fromDay) {
+        return byAgent(agentId, fromDay, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Number of events of one agent recorded on or after a day, without materializing them
+     */
+    public int countByAgent(int agentIndex, int fromDay) {
+        if (agentIndex < 0 || agentIndex >= agentPostingCounts.length) {
+            return 0;
+        }
+        int count = agentPostingCounts[agentIndex];
+        return count - lowerBound(agentPostings[agentIndex], count, positionOfDay(fromDay));
+    }
+
+    public int countByAgent(String agentId, int fromDay) {
+        return countByAgent(registry.idOf(agentId), fromDay);
+    }
+
+    /**
+     * Events of one category (PESTEL category key for changes, action type for actions)
+     * recorded on or after a day, oldest first
+     */
+    public List<E> byCategory(String category, int fromDay) {
+        Integer code = categoryCodes.get(category);
+        return code == null || code >= categoryPostingCounts.length ? Collections.emptyList()
+            : collect(categoryPostings[code], categoryPostingCounts[code], positionOfDay(fromDay), Integer.MAX_VALUE);
+    }
+
+    public List<E> byCategory(PESTELCategory category, int fromDay) {
+        return byCategory(category.getKey(), fromDay);
+    }
+
+    /**
+     * Number of events of one category recorded on or after a day, without materializing them
+     */
+    public int countByCategory(String category, int fromDay) {
+        Integer code = categoryCodes.get(category);
+        if (code == null || code >= categoryPostingCounts.length) {
+            return 0;
+        }
+        int count = categoryPostingCounts[code];
+        return count - lowerBound(categoryPostings[code], count, positionOfDay(fromDay));
+    }
+
+    public int countByCategory(PESTELCategory category, int fromDay) {
+        return countByCategory(category.getKey(), fromDay);
+    }
+
+    /**
+     * Number of events of every category recorded on or after a day, read from the category column
+     * @return Counts by category, in the order the categories were first recorded; categories without events are left out
+     */
+    public Map<String, Integer> countByCategory(int fromDay) {
+        int[] counts = new int[categoryNames.size()];
+        for (int position = positionOfDay(fromDay); position < size; position++) {
+            if (categories[position] != NO_CODE) {
+                counts[categories[position]]++;
+            }
+        }
+        Map<String, Integer> result = new LinkedHashMap<>();
+        for (int code = 0; code < counts.length; code++) {
+            if (counts[code] > 0) {
+                result.put(categoryNames.get(code), counts[code]);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Number of retained events
+     */
+    public int size() {
+        return size - start;
+    }
+
+    public int getRetentionDays() {
+        return retentionDays;
+    }
+
+    public void setRetentionDays(int retentionDays) {
+        this.retentionDays = retentionDays;
+    }
+
+    /**
+     * Position of the first retained event recorded on or after a day
+     */
+    private int positionOfDay(int day) {
+        if (size == 0 || day <= baseDay) {
+            return start;
+        }
+        if (day > lastDay) {
+            return size;
+        }
+        return Math.max(start, dayOffsets[day - baseDay]);
+    }
+
+    private void advanceDayIndex(int day) {
+        if (lastDay == Integer.MIN_VALUE) {
+            baseDay = day;
+            lastDay = day;
+            dayOffsets[0] = size;
+            return;
+        }
+        while (lastDay < day) {
+            lastDay++;
+            int index = lastDay - baseDay;
+            if (index == dayOffsets.length) {
+                dayOffsets = Arrays.copyOf(dayOffsets, index * 2);
+            }
+            dayOffsets[index] = size;
+        }
+    }
+
+    /**
+     * Copy the retained events into fresh arrays so earlier views stay valid, then rebase
+     * the day offsets and posting lists
+     */
+    private void compact(int cutoffDay) {
+        int shift = start;
+        int retained = size - start;
+        int capacity = Math.max(64, retained * 2);
+        categories = copyRange(categories, shift, retained, capacity);
+        Object[] movedEvents = new Object[capacity];
+        System.arraycopy(events, shift, movedEvents, 0, retained);
+        events = movedEvents;
+
+        if (cutoffDay > baseDay && cutoffDay <= lastDay) {
+            int dropped = cutoffDay - baseDay;
+            dayOffsets = Arrays.copyOfRange(dayOffsets, dropped, Math.max(dayOffsets.length, dropped + 16));
+            baseDay = cutoffDay;
+        }
+        for (int i = 0; i <= lastDay - baseDay; i++) {
+            dayOffsets[i] = Math.max(0, dayOffsets[i] - shift);
+        }
+
+        rebasePostings(agentPostings, agentPostingCounts, shift);
+        rebasePostings(categoryPostings, categoryPostingCounts, shift);
+        start = 0;
+        size = retained;
+    }
+
+    private static void rebasePostings(int[][] postings, int[] counts, int shift) {
+        for (int code = 0; code < counts.length; code++) {
+            int count = counts[code];
+            if (count == 0) {
+                continue;
+            }
+            int[] list = postings[code];
+            int first = lowerBound(list, count, shift);
+            int kept = count - first;
+            for (int i = 0; i < kept; i++) {
+                list[i] = list[first + i] - shift;
+            }
+            counts[code] = kept;
+        }
+    }
+
+    /**
+     * Drop a removed position from the posting lists and move the later positions down
+     */
+    private static void removePosting(int[][] postings, int[] counts, int position) {
+        for (int code = 0; code < counts.length; code++) {
+            int count = counts[code];
+            if (count == 0) {
+                continue;
+            }
+            int[] list = postings[code];
+            int first = lowerBound(list, count, position);
+            if (first < count && list[first] == position) {
+                System.arraycopy(list, first + 1, list, first, count - first - 1);
+                counts[code] = --count;
+            }
+            for (int i = first; i < count; i++) {
+                list[i]--;
+            }
+        }
+    }
+
+    private List<E> collect(int[] postings, int count, int fromPosition, int limit) {
+        int first = lowerBound(postings, count, fromPosition);
+        int resultSize = Math.min(limit, count - first);
+        List<E> result = new ArrayList<>(resultSize);
+        for (int i = 0; i < resultSize; i++) {
+            result.add(eventAt(postings[first + i]));
+        }
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    private E eventAt(int position) {
+        return (E) events[position];
+    }
+
+    private List<E> view(int from, int to) {
+        final Object[] backing = events;
+        return new AbstractList<E>() {
+            @SuppressWarnings("unchecked")
+            @Override
+            public E get(int index) {
+                if (index < 0 || index >= to - from) {
+                    throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + (to - from));
+                }
+                return (E) backing[from + index];
+            }
+
+            @Override
+            public int size() {
+                return to - from;
+            }
+        };
+    }
+
+    private int agentCodeOf(E event) {
+        int agent = columns.agentIndex(event);
+        if (agent != AgentRegistry.UNKNOWN) {
+            return agent;
+        }
+        String agentId = columns.agentId(event);
+        return agentId != null ? registry.registerName(agentId) : NO_CODE;
+    }
+
+    private static int codeOf(String key, Map<String, Integer> codes, List<String> names) {
+        if (key == null) {
+            return NO_CODE;
+        }
+        Integer code = codes.get(key);
+        if (code == null) {
+            code = names.size();
+            codes.put(key, code);
+            names.add(key);
+        }
+        return code;
+    }
+
+    /**
+     * First index in postings[0, count) whose position is at least the given position
+     */
+    private static int lowerBound(int[] postings, int count, int position) {
+        int low = 0;
+        int high = count;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (postings[mid] < position) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static int[][] growPostings(int[][] postings, int code) {
+        return code < postings.length ? postings : Arrays.copyOf(postings, Math.max(code + 1, postings.length * 2));
+    }
+
+    private static int[] growCounts(int[] counts, int code) {
+        return code < counts.length ? counts : Arrays.copyOf(counts, Math.max(code + 1, counts.length * 2));
+    }
+
+    private static void addPosting(int[][] postings, int[] counts, int code, int position) {
+        int[] list = postings[code];
+        if (list == null) {
+            list = new int[8];
+        } else if (counts[code] == list.length) {
+            list = Arrays.copyOf(list, list.length * 2);
+        }
+        list[counts[code]++] = position;
+        postings[code] = list;
+    }
+
+    private static int[] copyRange(int[] source, int from, int length, int capacity) {
+        int[] copy = new int[capacity];
+        System.arraycopy(source, from, copy, 0, length);
+        return copy;
+    }
+
+    private void ensureCapacity(int required) {
+        if (required > events.length) {
+            int capacity = Math.max(required, events.length * 2);
+            categories = Arrays.copyOf(categories, capacity);
+            events = Arrays.copyOf(events, capacity);
+        }
+    }
+}
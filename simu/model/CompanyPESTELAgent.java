@@ -1,6 +1,7 @@
 package simu.model;
 
 import java.util.List;
+import java.util.Random;
 
 /**
  * Company agent with PESTEL-based decision making
@@ -9,18 +10,27 @@ public class CompanyPESTELAgent extends PESTELAgent {
     private String industry;
     private String companySize;
     private String marketPosition;
+    private final Random random;
     
     public CompanyPESTELAgent(String agentId) {
+        this(agentId, new Random());
+    }
+    
+    /**
+     * @param random Source of the company's randomly drawn attributes and decisions
+     */
+    public CompanyPESTELAgent(String agentId, Random random) {
         super(agentId, AgentType.COMPANY);
+        this.random = random;
         
         // Initialize company-specific attributes
         String[] industries = {"technology", "manufacturing", "services", "finance", "healthcare", "energy"};
         String[] sizes = {"startup", "small", "medium", "large", "enterprise"};
         String[] positions = {"leader", "challenger", "follower", "niche"};
         
-        this.industry = industries[(int)(Math.random() * industries.length)];
-        this.companySize = sizes[(int)(Math.random() * sizes.length)];
-        this.marketPosition = positions[(int)(Math.random() * positions.length)];
+        this.industry = industries[(int)(random.nextDouble() * industries.length)];
+        this.companySize = sizes[(int)(random.nextDouble() * sizes.length)];
+        this.marketPosition = positions[(int)(random.nextDouble() * positions.length)];
     }
     
     @Override
@@ -83,7 +93,7 @@ public class CompanyPESTELAgent extends PESTELAgent {
             return "Conduct monthly business review and adjust strategy based on market conditions";
         }
         
-        if (Math.random() < 0.3) { // 30% chance of taking action
+        if (random.nextDouble() < 0.3) { // 30% chance of taking action
             String[] actions = {
                 "Form strategic partnership with industry leader",
                 "Launch new product line based on market research",
@@ -91,7 +101,7 @@ public class CompanyPESTELAgent extends PESTELAgent {
                 "Expand into new geographic market",
                 "Acquire smaller competitor to increase market share"
             };
-            return actions[(int)(Math.random() * actions.length)];
+            return actions[(int)(random.nextDouble() * actions.length)];
         }
         
         return "no_action";
@@ -0,0 +1,309 @@
+package simu.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Thread-safe PESTEL state for agents that run in parallel.
+ * Readers see the latest published PESTELSnapshot through a single volatile read and never
+ * block. Writers stage factor updates in a Batch (typically one per simulation day) and
+ * publish it with a compare-and-set; a batch that lost the race is re-applied on top of the
+ * newer version. Two agents writing different values to the same factor in one batch, or a
+ * batch overwriting a factor that another batch changed since it was opened, is reported
+ * as a Conflict.
+ * The PESTELView methods each read the latest version; use current() to read several
+ * factors from one consistent version.
+ */
+public class ConcurrentPESTELState implements PESTELView {
+
+    /**
+     * A published version of the state
+     */
+    private static final class Version {
+        final PESTELSnapshot snapshot;
+        final long number;
+        final String[] writers; // Agent that last wrote each slot, null if none
+
+        Version(PESTELSnapshot snapshot, long number, String[] writers) {
+            this.snapshot = snapshot;
+            this.number = number;
+            this.writers = writers;
+        }
+
+        String writerOf(int slot) {
+            return slot < writers.length ? writers[slot] : null;
+        }
+    }
+
+    /**
+     * Two writes to the same factor that could not both take effect
+     */
+    public static final class Conflict {
+        private final int slot;
+        private final String firstAgentId;
+        private final String firstValue;
+        private final String secondAgentId;
+        private final String secondValue;
+        private final boolean concurrent;
+
+        Conflict(int slot, String firstAgentId, String firstValue, String secondAgentId, String secondValue, boolean concurrent) {
+            this.slot = slot;
+            this.firstAgentId = firstAgentId;
+            this.firstValue = firstValue;
+            this.secondAgentId = secondAgentId;
+            this.secondValue = secondValue;
+            this.concurrent = concurrent;
+        }
+
+        public int getSlot() { return slot; }
+        public PESTELCategory getCategory() { return PESTELFactorIndex.categoryOf(slot); }
+        public String getFactor() { return PESTELFactorIndex.keyOf(slot); }
+        public String getFirstAgentId() { return firstAgentId; }
+        public String getFirstValue() { return firstValue; }
+        /** Agent whose value was published */
+        public String getSecondAgentId() { return secondAgentId; }
+        public String getSecondValue() { return secondValue; }
+        /** True if the first write came from another batch committed after this batch was opened */
+        public boolean isConcurrent() { return concurrent; }
+
+        @Override
+        public String toString() {
+            return String.format("%s conflict on %s.%s: %s wrote '%s', %s wrote '%s'",
+                concurrent ? "Concurrent" : "Same-day", getCategory().getKey(), getFactor(),
+                firstAgentId, firstValue, secondAgentId, secondValue);
+        }
+    }
+
+    /**
+     * Factor updates staged against one published version. Staging is thread-safe, so the
+     * agents of a day can share one batch; a later write to the same factor replaces the
+     * earlier one and is reported as a conflict if the values differ.
+     */
+    public final class Batch {
+        private final Version base;
+        private final int day;
+        private int[] slots = new int[16];
+        private String[] values = new String[16];
+        private String[] agentIds = new String[16];
+        private int count;
+        private final List<Conflict> conflicts = new ArrayList<>();
+        private boolean committed;
+
+        private Batch(Version base, int day) {
+            this.base = base;
+            this.day = day;
+        }
+
+        public synchronized void put(int slot, String value, String agentId) {
+            if (committed) {
+                throw new IllegalStateException("Batch for day " + day + " is already committed");
+            }
+            for (int i = 0; i < count; i++) {
+                if (slots[i] == slot) {
+                    if (!values[i].equals(value)) {
+                        conflicts.add(new Conflict(slot, agentIds[i], values[i], agentId, value, false));
+                    }
+                    values[i] = value;
+                    agentIds[i] = agentId;
+                    return;
+                }
+            }
+            if (count == slots.length) {
+                slots = Arrays.copyOf(slots, count * 2);
+                values = Arrays.copyOf(values, count * 2);
+                agentIds = Arrays.copyOf(agentIds, count * 2);
+            }
+            slots[count] = slot;
+            values[count] = value;
+            agentIds[count] = agentId;
+            count++;
+        }
+
+        public void put(PESTELCategory category, String key, String value, String agentId) {
+            put(PESTELFactorIndex.slotOf(category, key), value, agentId);
+        }
+
+        /**
+         * The version this batch was opened against; agents read it as their frozen view of the day
+         */
+        public PESTELSnapshot getBase() {
+            return base.snapshot;
+        }
+
+        public int getDay() {
+            return day;
+        }
+
+        public synchronized int size() {
+            return count;
+        }
+
+        /**
+         * Publish the staged updates atomically
+         * @return Conflicts found while staging and while publishing
+         */
+        public synchronized List<Conflict> commit() {
+            if (committed) {
+                throw new IllegalStateException("Batch for day " + day + " is already committed");
+            }
+            committed = true;
+            if (count == 0) {
+                return Collections.unmodifiableList(conflicts);
+            }
+
+            double time = simu.framework.Clock.getInstance().getClock();
+            int maxSlot = 0;
+            for (int i = 0; i < count; i++) {
+                maxSlot = Math.max(maxSlot, slots[i]);
+            }
+            int raceConflicts = 0;
+            while (true) {
+                Version current = published.get();
+                // Factors changed by batches committed since this one was opened; snapshots are
+                // immutable, so a different value reference means another writer touched the slot
+                conflicts.subList(conflicts.size() - raceConflicts, conflicts.size()).clear();
+                raceConflicts = 0;
+                if (current != base) {
+                    for (int i = 0; i < count; i++) {
+                        String seen = base.snapshot.hasFactor(slots[i]) ? base.snapshot.getFactor(slots[i]) : null;
+                        String now = current.snapshot.hasFactor(slots[i]) ? current.snapshot.getFactor(slots[i]) : null;
+                        if (seen != now) {
+                            conflicts.add(new Conflict(slots[i], current.writerOf(slots[i]), now, agentIds[i], values[i], true));
+                            raceConflicts++;
+                        }
+                    }
+                }
+
+                PESTELSnapshot next = current.snapshot.withFactors(slots, values, count, time);
+                String[] writers = Arrays.copyOf(current.writers, Math.max(current.writers.length, maxSlot + 1));
+                for (int i = 0; i < count; i++) {
+                    writers[slots[i]] = agentIds[i];
+                }
+                if (published.compareAndSet(current, new Version(next, current.number + 1, writers))) {
+                    commits.incrementAndGet();
+                    if (current != base) {
+                        rebasedCommits.incrementAndGet();
+                    }
+                    conflictCount.addAndGet(conflicts.size());
+                    return Collections.unmodifiableList(conflicts);
+                }
+                retries.incrementAndGet();
+            }
+        }
+    }
+
+    private final AtomicReference<Version> published;
+    private final AtomicLong commits = new AtomicLong();
+    private final AtomicLong rebasedCommits = new AtomicLong();
+    private final AtomicLong retries = new AtomicLong();
+    private final AtomicLong conflictCount = new AtomicLong();
+
+    public ConcurrentPESTELState(PESTELSnapshot initial) {
+        this.published = new AtomicReference<>(new Version(initial, 0, new String[0]));
+    }
+
+    public ConcurrentPESTELState(PESTELState initial) {
+        this(initial.snapshot());
+    }
+
+    /**
+     * Open a batch of updates against the currently published version
+     */
+    public Batch begin(int day) {
+        return new Batch(published.get(), day);
+    }
+
+    /**
+     * Update a single factor in its own batch
+     */
+    public List<Conflict> updateFactor(int slot, String value, String agentId) {
+        Batch batch = begin(-1);
+        batch.put(slot, value, agentId);
+        return batch.commit();
+    }
+
+    /**
+     * The latest published snapshot; a lock-free read
+     */
+    public PESTELSnapshot current() {
+        return published.get().snapshot;
+    }
+
+    /**
+     * Number of the latest published version, incremented by every non-empty commit
+     */
+    public long getVersion() {
+        return published.get().number;
+    }
+
+    public long getCommitCount() {
+        return commits.get();
+    }
+
+    /**
+     * Commits that were re-applied on top of a version published after they were opened
+     */
+    public long getRebasedCommitCount() {
+        return rebasedCommits.get();
+    }
+
+    /**
+     * Failed compare-and-set attempts
+     */
+    public long getRetryCount() {
+        return retries.get();
+    }
+
+    public long getConflictCount() {
+        return conflictCount.get();
+    }
+
+    @Override
+    public String getFactor(int slot) {
+        return current().getFactor(slot);
+    }
+
+    @Override
+    public boolean hasFactor(int slot) {
+        return current().hasFactor(slot);
+    }
+
+    @Override
+    public double getLastUpdateTime() {
+        return current().getLastUpdateTime();
+    }
+
+    @Override
+    public double getIndicator(int slot) {
+        return current().getIndicator(slot);
+    }
+
+    @Override
+    public double getPreviousIndicator(int slot) {
+        return current().getPreviousIndicator(slot);
+    }
+
+    @Override
+    public PESTELIndicators.Kind getIndicatorKind(int slot) {
+        return current().getIndicatorKind(slot);
+    }
+
+    @Override
+    public long getThemes(int slot) {
+        return current().getThemes(slot);
+    }
+
+    @Override
+    public String toCompactString() {
+        return current().toCompactString();
+    }
+
+    @Override
+    public String toString() {
+        return current().toString();
+    }
+}
@@ -1,6 +1,7 @@
 package simu.model;
 
 import java.util.List;
+import java.util.Random;
 
 /**
  * Country agent with PESTEL-based decision making
@@ -9,18 +10,27 @@ public class CountryPESTELAgent extends PESTELAgent {
     private String region;
     private String developmentLevel;
     private String governmentType;
+    private final Random random;
     
     public CountryPESTELAgent(String agentId) {
+        this(agentId, new Random());
+    }
+    
+    /**
+     * @param random Source of the country's randomly drawn attributes and decisions
+     */
+    public CountryPESTELAgent(String agentId, Random random) {
         super(agentId, AgentType.COUNTRY);
+        this.random = random;
         
         // Initialize country-specific attributes
         String[] regions = {"North America", "Europe", "Asia", "South America", "Africa", "Oceania"};
         String[] levels = {"developing", "emerging", "developed", "advanced"};
         String[] govTypes = {"democracy", "republic", "monarchy", "federation"};
         
-        this.region = regions[(int)(Math.random() * regions.length)];
-        this.developmentLevel = levels[(int)(Math.random() * levels.length)];
-        this.governmentType = govTypes[(int)(Math.random() * govTypes.length)];
+        this.region = regions[(int)(random.nextDouble() * regions.length)];
+        this.developmentLevel = levels[(int)(random.nextDouble() * levels.length)];
+        this.governmentType = govTypes[(int)(random.nextDouble() * govTypes.length)];
     }
     
     @Override
@@ -103,7 +113,7 @@ public class CountryPESTELAgent extends PESTELAgent {
         }
         
         // Random policy initiatives
-        if (Math.random() < 0.25) { // 25% chance of taking action
+        if (random.nextDouble() < 0.25) { // 25% chance of taking action
             String[] policies = {
                 "Launch national infrastructure modernization program",
                 "Implement education reform to improve digital literacy",
@@ -112,7 +122,7 @@ public class CountryPESTELAgent extends PESTELAgent {
                 "Strengthen healthcare system resilience and capacity",
                 "Develop strategic partnerships with neighboring countries"
             };
-            return policies[(int)(Math.random() * policies.length)];
+            return policies[(int)(random.nextDouble() * policies.length)];
         }
         
         return "no_action";
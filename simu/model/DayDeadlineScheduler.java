@@ -0,0 +1,277 @@
+package simu.model;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Wall-clock budget for the AI calls of one simulated day.
+ *
+ * At the start of each day the budget is split into per-agent deadlines: agents are taken in
+ * waves of as many as can call at the same time, and each wave gets an equal slice of the
+ * budget, so one slow answer costs its own agent's decision but never the whole day. An
+ * engine waits for an answer until the agent's deadline and falls back when it is missed. A
+ * call submitted through the scheduler that is still waiting for a thread at its deadline is
+ * cancelled, so it never runs after its day; one already running is not interrupted, and its
+ * answer is kept as a late answer once it arrives, for a response cache or for analysis.
+ */
+public class DayDeadlineScheduler {
+    public static final int DEFAULT_LATE_ANSWER_CAPACITY = 256;
+
+    private final long budgetNanos;
+    private final int lateAnswerCapacity;
+    private final Deque<LateAnswer> lateAnswers = new ArrayDeque<>();
+    private Consumer<LateAnswer> lateAnswerListener;
+
+    private int day;
+    private long dayStart;
+    private int parallelism = 1;
+    private int waves = 1;
+
+    private long onTime;
+    private long missed;
+    private long failed;
+    private long cancelled;
+    private long lateAnswerCount;
+    private int dayMissed;
+
+    /**
+     * A call that missed its deadline but answered afterwards
+     */
+    public static final class LateAnswer {
+        private final int day;
+        private final String agentId;
+        private final String answer;
+        private final double overrunMillis;
+
+        LateAnswer(int day, String agentId, String answer, double overrunMillis) {
+            this.day = day;
+            this.agentId = agentId;
+            this.answer = answer;
+            this.overrunMillis = overrunMillis;
+        }
+
+        public int getDay() { return day; }
+        public String getAgentId() { return agentId; }
+        public String getAnswer() { return answer; }
+
+        /**
+         * Time between the deadline and the answer
+         */
+        public double getOverrunMillis() { return overrunMillis; }
+
+        @Override
+        public String toString() {
+            return String.format("Day %d: %s answered %.0f ms after its deadline", day, agentId, overrunMillis);
+        }
+    }
+
+    /**
+     * A call submitted through the scheduler, which runs it unless it is cancelled first
+     */
+    public static final class Call<T> {
+        private final CompletableFuture<T> future = new CompletableFuture<>();
+        private final AtomicBoolean claimed = new AtomicBoolean(); // Set by whichever of run and cancel comes first
+
+        private void run(Supplier<T> supplier) {
+            if (!claimed.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                future.complete(supplier.get());
+            } catch (RuntimeException | Error e) {
+                future.completeExceptionally(e);
+            }
+        }
+
+        /**
+         * Cancel the call if it has not started
+         * @return True if the call will never run, false if it is already running or done
+         */
+        public boolean cancel() {
+            if (!claimed.compareAndSet(false, true)) {
+                return false;
+            }
+            future.cancel(false);
+            return true;
+        }
+
+        public CompletableFuture<T> getFuture() { return future; }
+    }
+
+    public DayDeadlineScheduler(long budgetMillis) {
+        this(budgetMillis, DEFAULT_LATE_ANSWER_CAPACITY);
+    }
+
+    /**
+     * @param budgetMillis       Wall-clock time all the AI calls of a day may take together
+     * @param lateAnswerCapacity Late answers kept; older ones are dropped
+     */
+    public DayDeadlineScheduler(long budgetMillis, int lateAnswerCapacity) {
+        if (budgetMillis <= 0 || lateAnswerCapacity < 0) {
+            throw new IllegalArgumentException("The day budget must be positive: " + budgetMillis + " ms, "
+                + lateAnswerCapacity + " late answers");
+        }
+        this.budgetNanos = TimeUnit.MILLISECONDS.toNanos(budgetMillis);
+        this.lateAnswerCapacity = lateAnswerCapacity;
+    }
+
+    /**
+     * Start the budget of a day now
+     * @param agents      Agents that will call the AI today
+     * @param parallelism Calls that can run at the same time
+     */
+    public synchronized void startDay(int day, int agents, int parallelism) {
+        this.day = day;
+        this.dayStart = System.nanoTime();
+        this.parallelism = Math.max(1, parallelism);
+        this.waves = Math.max(1, (agents + this.parallelism - 1) / this.parallelism);
+        this.dayMissed = 0;
+    }
+
+    /**
+     * Deadline, in System.nanoTime, of the agent at the given position among the day's callers
+     */
+    public synchronized long agentDeadline(int agent) {
+        int wave = Math.min(waves - 1, agent / parallelism);
+        return dayStart + budgetNanos * (wave + 1) / waves;
+    }
+
+    /**
+     * Deadline, in System.nanoTime, of the last calls of the day
+     */
+    public synchronized long getDayDeadline() {
+        return dayStart + budgetNanos;
+    }
+
+    public synchronized boolean isDayOver() {
+        return System.nanoTime() - getDayDeadline() >= 0;
+    }
+
+    /**
+     * Run a call on an executor, to be awaited with await(Call, ...)
+     */
+    public <T> Call<T> submit(Supplier<T> supplier, Executor executor) {
+        Call<T> call = new Call<>();
+        executor.execute(() -> call.run(supplier));
+        return call;
+    }
+
+    /**
+     * Wait for a submitted call until a deadline. A missed deadline is recorded; the call is
+     * cancelled if it has not started, otherwise its answer is kept as a late answer when it arrives.
+     * @throws TimeoutException   If the deadline passed first; the caller takes its fallback
+     * @throws ExecutionException If the call failed
+     */
+    public <T> T await(Call<T> call, long deadline, String agentId)
+            throws TimeoutException, ExecutionException, InterruptedException {
+        try {
+            return await(call.future, deadline, agentId);
+        } catch (TimeoutException e) {
+            if (call.cancel()) {
+                synchronized (this) {
+                    cancelled++;
+                }
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Wait for an answer until a deadline. A missed deadline is recorded and the answer,
+     * when it arrives, is kept as a late answer.
+     * @throws TimeoutException   If the deadline passed first; the caller takes its fallback
+     * @throws ExecutionException If the call failed
+     */
+    public <T> T await(CompletableFuture<T> future, long deadline, String agentId)
+            throws TimeoutException, ExecutionException, InterruptedException {
+        try {
+            T answer = future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            synchronized (this) {
+                onTime++;
+            }
+            return answer;
+        } catch (TimeoutException e) {
+            int missedDay;
+            synchronized (this) {
+                missed++;
+                dayMissed++;
+                missedDay = day;
+            }
+            future.whenComplete((answer, error) -> {
+                if (error == null) {
+                    recordLateAnswer(new LateAnswer(missedDay, agentId, String.valueOf(answer),
+                        (System.nanoTime() - deadline) / 1e6));
+                }
+            });
+            throw e;
+        } catch (ExecutionException e) {
+            synchronized (this) {
+                failed++;
+            }
+            throw e;
+        }
+    }
+
+    private void recordLateAnswer(LateAnswer late) {
+        Consumer<LateAnswer> listener;
+        synchronized (this) {
+            lateAnswerCount++;
+            if (lateAnswerCapacity > 0) {
+                if (lateAnswers.size() == lateAnswerCapacity) {
+                    lateAnswers.removeFirst();
+                }
+                lateAnswers.addLast(late);
+            }
+            listener = lateAnswerListener;
+        }
+        if (listener != null) {
+            listener.accept(late);
+        }
+    }
+
+    /**
+     * @param listener Told every late answer on the thread that completed it, or null
+     */
+    public synchronized void setLateAnswerListener(Consumer<LateAnswer> listener) {
+        this.lateAnswerListener = listener;
+    }
+
+    /**
+     * Most recent late answers, oldest first
+     */
+    public synchronized List<LateAnswer> getLateAnswers() {
+        return new ArrayList<>(lateAnswers);
+    }
+
+    public long getBudgetMillis() { return TimeUnit.NANOSECONDS.toMillis(budgetNanos); }
+    public synchronized long getOnTimeCount() { return onTime; }
+    public synchronized long getMissedCount() { return missed; }
+    public synchronized long getFailedCount() { return failed; }
+
+    /**
+     * Calls that missed their deadline before they started, and never ran
+     */
+    public synchronized long getCancelledCount() { return cancelled; }
+    public synchronized long getLateAnswerCount() { return lateAnswerCount; }
+
+    /**
+     * Deadlines missed since the current day started
+     */
+    public synchronized int getDayMissedCount() { return dayMissed; }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("Day budget %d ms: %d answers on time, %d deadlines missed (%d calls cancelled before they started), %d failed calls, %d late answers",
+            getBudgetMillis(), onTime, missed, cancelled, failed, lateAnswerCount);
+    }
+}
@@ -15,10 +15,22 @@ public class EnhancedFutureScenarioManager {
     private int daysSinceLastUpdate;
     private List<ScenarioTransition> transitions;
     
+    private static final int TECH_INNOVATION = PESTELFactorIndex.slotOf(PESTELCategory.TECHNOLOGICAL, "innovation");
+    private static final int ENV_CLIMATE_CHANGE = PESTELFactorIndex.slotOf(PESTELCategory.ENVIRONMENTAL, "climate_change");
+    private static final int ENV_SUSTAINABILITY = PESTELFactorIndex.slotOf(PESTELCategory.ENVIRONMENTAL, "sustainability");
+    private static final int POLITICAL_INTERNATIONAL_RELATIONS = PESTELFactorIndex.slotOf(PESTELCategory.POLITICAL, "international_relations");
+    private static final int POLITICAL_STABILITY = PESTELFactorIndex.slotOf(PESTELCategory.POLITICAL, "stability");
+    
+    // Theme masks tested against the themes matched when the factors were set
+    private static final long ADVANCED_TECH = PESTELIndicators.Theme.AI.bit() | PESTELIndicators.Theme.ADVANCED.bit();
+    private static final double TREND_ALIGNMENT_CAP = 0.2; // Alignment a fast-moving sector can add
+    
     /**
      * Enhanced Future Scenario with detailed tracking
      */
-    public static class FutureScenario {
+    public static class FutureScenario implements java.io.Serializable {
+        private static final long serialVersionUID = 1L;
+        
         private String name;
         private String description;
         private double probability;
@@ -43,6 +55,22 @@ public class EnhancedFutureScenarioManager {
             initializeKeyIndicators();
         }
         
+        /**
+         * Restore a scenario exactly as it was recorded
+         */
+        FutureScenario(String name, String description, double probability, double baseProbability, String implications,
+                       List<String> keyIndicators, List<String> supportingActions, double momentum, String dominantSector) {
+            this.name = name;
+            this.description = description;
+            this.probability = probability;
+            this.baseProbability = baseProbability;
+            this.implications = implications;
+            this.keyIndicators = new ArrayList<>(keyIndicators);
+            this.supportingActions = new ArrayList<>(supportingActions);
+            this.momentum = momentum;
+            this.dominantSector = dominantSector;
+        }
+        
         private void initializeKeyIndicators() {
             // Set key indicators based on scenario type
             switch (name.toLowerCase()) {
@@ -116,28 +144,49 @@ public class EnhancedFutureScenarioManager {
             
             switch (dominantSector) {
                 case "Technology":
-                    if (globalPESTEL.getTechnological("innovation").contains("AI") || 
-                        globalPESTEL.getTechnological("innovation").contains("advanced")) {
+                    if ((globalPESTEL.getThemes(TECH_INNOVATION) & ADVANCED_TECH) != 0) {
                         alignment += 0.4;
                     }
                     break;
                 case "Environment":
-                    if (globalPESTEL.getEnvironmental("climate_change").contains("transition") || 
-                        globalPESTEL.getEnvironmental("sustainability").contains("progress")) {
+                    if (globalPESTEL.hasTheme(ENV_CLIMATE_CHANGE, PESTELIndicators.Theme.TRANSITION) || 
+                        globalPESTEL.hasTheme(ENV_SUSTAINABILITY, PESTELIndicators.Theme.PROGRESS)) {
                         alignment += 0.4;
                     }
                     break;
                 case "Geopolitics":
-                    if (globalPESTEL.getPolitical("international_relations").contains("cooperation") || 
-                        globalPESTEL.getPolitical("stability").contains("alliance")) {
+                    if (globalPESTEL.hasTheme(POLITICAL_INTERNATIONAL_RELATIONS, PESTELIndicators.Theme.COOPERATION) || 
+                        globalPESTEL.hasTheme(POLITICAL_STABILITY, PESTELIndicators.Theme.ALLIANCE)) {
                         alignment += 0.3;
                     }
                     break;
             }
             
+            // A sector whose indicators are moving supports its scenario, whichever way they move
+            PESTELCategory category = categoryOf(dominantSector);
+            if (category != null) {
+                alignment += Math.min(TREND_ALIGNMENT_CAP, Math.abs(globalPESTEL.getCategoryTrend(category)));
+            }
+            
             return Math.min(1.0, alignment);
         }
         
+        private static PESTELCategory categoryOf(String sector) {
+            switch (sector) {
+                case "Technology":
+                case "Digital":
+                    return PESTELCategory.TECHNOLOGICAL;
+                case "Environment":
+                    return PESTELCategory.ENVIRONMENTAL;
+                case "Geopolitics":
+                    return PESTELCategory.POLITICAL;
+                case "Healthcare":
+                    return PESTELCategory.SOCIAL;
+                default:
+                    return null;
+            }
+        }
+        
         // Getters and setters
         public String getName() { return name; }
         public String getDescription() { return description; }
@@ -216,6 +265,54 @@ public class EnhancedFutureScenarioManager {
     public void updateScenarioProbabilities(List<AgentAction> recentActions, PESTELState globalPESTEL, int currentDay) {
         if (recentActions.isEmpty()) return;
 
+        startProbabilityUpdate();
+
+        for (AgentAction action : recentActions) {
+            String actionDesc = action.getActionDescription().toLowerCase();
+            
+            for (FutureScenario scenario : scenarios) {
+                scenario.adjustProbability(actionBoost(scenario.getName().toLowerCase(), actionDesc));
+            }
+        }
+
+        normalizeProbabilities();
+        updateDominantScenario();
+    }
+    
+    /**
+     * Same update as updateScenarioProbabilities, for actions whose boosts were computed once with actionBoosts
+     * @param boosts  Boosts of every kind of action
+     * @param actions Kind of each action, the recent ones being those from index from to index to
+     */
+    public void updateScenarioProbabilities(double[][] boosts, int[] actions, int from, int to) {
+        if (from >= to) return;
+
+        startProbabilityUpdate();
+
+        for (int i = from; i < to; i++) {
+            double[] actionBoosts = boosts[actions[i]];
+            for (int s = 0; s < actionBoosts.length; s++) {
+                scenarios.get(s).adjustProbability(actionBoosts[s]);
+            }
+        }
+
+        normalizeProbabilities();
+        updateDominantScenario();
+    }
+    
+    /**
+     * Probability added to every scenario, in getAllScenarios order, by one recent action
+     */
+    public double[] actionBoosts(String actionDescription) {
+        String actionDesc = actionDescription.toLowerCase();
+        double[] boosts = new double[scenarios.size()];
+        for (int s = 0; s < boosts.length; s++) {
+            boosts[s] = actionBoost(scenarios.get(s).getName().toLowerCase(), actionDesc);
+        }
+        return boosts;
+    }
+    
+    private void startProbabilityUpdate() {
         // Apply a slight decay to all scenarios to allow for shifts
         scenarios.forEach(s -> s.adjustProbability(-0.001));
         
@@ -226,35 +323,26 @@ public class EnhancedFutureScenarioManager {
                 scenario.adjustProbability(0.01); // Give them a head start
             }
         }
+    }
+    
+    private double actionBoost(String scenarioName, String actionDesc) {
+        double boost = 0.0;
 
-        for (AgentAction action : recentActions) {
-            String actionDesc = action.getActionDescription().toLowerCase();
-            
-            for (FutureScenario scenario : scenarios) {
-                double boost = 0.0;
-                String scenarioName = scenario.getName().toLowerCase();
-
-                // --- NARRATIVE INJECTION ---
-                // Major boost for key narrative themes
-                if (isTechScenario(scenarioName) && isTechAction(actionDesc)) {
-                    boost += 0.025; // Significant boost for tech actions
-                } else if (isGreenScenario(scenarioName) && isGreenAction(actionDesc)) {
-                    boost += 0.020; // Significant boost for green actions
-                } else if (scenarioName.contains(getKeyword(actionDesc))) {
-                    boost += 0.005; // Standard boost for other related actions
-                } else {
-                    // Penalize unrelated scenarios slightly when a major theme event occurs
-                    if (isTechAction(actionDesc) || isGreenAction(actionDesc)) {
-                        boost -= 0.002;
-                    }
-                }
-                
-                scenario.adjustProbability(boost);
+        // --- NARRATIVE INJECTION ---
+        // Major boost for key narrative themes
+        if (isTechScenario(scenarioName) && isTechAction(actionDesc)) {
+            boost += 0.025; // Significant boost for tech actions
+        } else if (isGreenScenario(scenarioName) && isGreenAction(actionDesc)) {
+            boost += 0.020; // Significant boost for green actions
+        } else if (scenarioName.contains(getKeyword(actionDesc))) {
+            boost += 0.005; // Standard boost for other related actions
+        } else {
+            // Penalize unrelated scenarios slightly when a major theme event occurs
+            if (isTechAction(actionDesc) || isGreenAction(actionDesc)) {
+                boost -= 0.002;
             }
         }
-
-        normalizeProbabilities();
-        updateDominantScenario();
+        return boost;
     }
     
     private boolean isTechScenario(String scenarioName) {
@@ -333,6 +421,18 @@ public class EnhancedFutureScenarioManager {
             .orElse(scenarios.get(0));
     }
     
+    /**
+     * Take over another manager's scenario probabilities, for a copy of a run that goes on separately
+     */
+    void copyProbabilitiesFrom(EnhancedFutureScenarioManager other) {
+        for (int s = 0; s < scenarios.size(); s++) {
+            FutureScenario scenario = scenarios.get(s);
+            scenario.setProbability(other.scenarios.get(s).getProbability());
+            scenarioProbabilities.put(scenario.getName(), scenario.getProbability());
+        }
+        updateDominantScenario();
+    }
+    
     /**
      * Generate comprehensive scenario analysis
      */
@@ -0,0 +1,489 @@
+package simu.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Headless fast path of the AI-enhanced engine for fallback-only runs.
+ *
+ * Unless steered, makes the same decisions, PESTEL changes and scenario updates as AIEnhancedPESTELEngine
+ * running the daily sweep on the same seed and population, so both give the same run digest,
+ * but without the event list, tracing or any string on the hot path. Everything the fallback
+ * logic derives from decision text is compiled once into int-coded tables when the engine is
+ * built: each agent's decision catalogue, the PESTEL impacts of every decision for every agent
+ * type and the boost of every decision to every scenario. A simulated day is then a loop over
+ * primitive arrays, with each agent's random stream stepped inline.
+ *
+ * Actions and changes are logged as ints; AgentAction and PESTELChange objects, the global
+ * PESTEL state and the digest are rebuilt from the logs only when asked for. Influence
+ * diffusion and cross-agent interactions only update the agents' local states, which the
+ * fallback logic never reads, so they are left out.
+ *
+ * A run can be forked: the fork shares the compiled tables, copies the state and logs, and goes
+ * on from the same day with a random stream of its own, so one history can branch into several
+ * futures. A fork can be steered toward a scenario: its agents then pick the decisions that boost
+ * the scenario more often than the others, and the engine keeps the log of how likely the picks
+ * are without steering relative to how likely they were with it.
+ */
+public class FastFallbackEngine {
+    private static final int RECENT_DAYS = 7; // Window of the weekly scenario update, as in AIEnhancedPESTELEngine
+    private static final int RECENT_ACTION_DAYS = 3; // Window of the activity check of the action probability
+    private static final int RECENT_ACTION_MASK = (1 << RECENT_ACTION_DAYS) - 1;
+
+    // java.util.Random's generator, stepped inline so deciding allocates nothing
+    private static final long MULTIPLIER = 0x5DEECE66DL;
+    private static final long ADDEND = 0xBL;
+    private static final long MASK = (1L << 48) - 1;
+    private static final double DOUBLE_UNIT = 0x1.0p-53;
+
+    private final long seed;
+    private final SyntheticPopulation population;
+    private final AgentRegistry agentRegistry;
+    private final EnhancedFutureScenarioManager enhancedFutureManager;
+
+    // Agents in sweep order: companies, countries, researchers
+    private final int[] agentIndexes; // AgentRegistry ID of each agent
+    private final double[] baseProbabilities;
+    private final int[] agentTypes; // Row of impactTable
+    private final int[][] catalogues; // Decision codes each agent picks from
+    private final int[] recentActions; // Bit k set if the agent acted k + 1 days ago
+
+    // Compiled decisions, by decision code
+    private final String[] decisionTexts;
+    private final String[] decisionTypes;
+    private final double[][] scenarioBoosts;
+    private final int[][][] impactTable; // Impact codes by [agent type][decision code], in category order
+
+    // Compiled impacts, by impact code
+    private final int[] impactSlots;
+    private final PESTELCategory[] impactCategories;
+    private final String[] impactVariables;
+    private final String[] impactValues; // New value without the leading agent ID
+    private final String[] impactReasons;
+
+    // Global state: last writer of each factor slot, or -1 while it has its initial value
+    private int[] writerIndexes;
+    private int[] writerImpacts;
+
+    // Int-coded logs, in append order
+    private int[] actionAgents = new int[1024]; // AgentRegistry IDs
+    private int[] actionDays = new int[1024];
+    private int[] actionDecisions = new int[1024];
+    private int actionCount;
+    private int[] changeAgents = new int[1024];
+    private int[] changeDays = new int[1024];
+    private int[] changeImpacts = new int[1024];
+    private int changeCount;
+    private int[] dayStarts = new int[64]; // First action of each day
+    private int currentDay;
+
+    // Steering toward a scenario, or -1; steeringWeights holds each agent's total pick weight
+    private int steeredScenario = -1;
+    private double steering;
+    private double[] steeringWeights;
+    private double logLikelihoodRatio;
+
+    /**
+     * @param population Entities of the run, such as SyntheticPopulation.realWorld()
+     */
+    public FastFallbackEngine(long seed, SyntheticPopulation population) {
+        if (population == null) {
+            throw new IllegalArgumentException("The fast path needs a population");
+        }
+        this.seed = seed;
+        this.population = population;
+        this.agentRegistry = new AgentRegistry();
+        this.enhancedFutureManager = new EnhancedFutureScenarioManager();
+
+        // Same agents, drawn in the same order from the same seed, as in AIEnhancedPESTELEngine
+        Random random = new Random(seed);
+        List<PESTELAgent> agents = new ArrayList<>(population.size());
+        for (UltraComprehensiveRealWorldData.CompanyData companyData : population.getCompanies()) {
+            agents.add(new RealWorldCompany(companyData, random));
+        }
+        for (UltraComprehensiveRealWorldData.CountryData countryData : population.getCountries()) {
+            agents.add(new RealWorldCountry(countryData, random));
+        }
+        for (UltraComprehensiveRealWorldData.ResearchData researchData : population.getResearchers()) {
+            agents.add(new RealWorldResearcher(researchData, random));
+        }
+        for (PESTELAgent agent : agents) {
+            agentRegistry.register(agent);
+        }
+        for (ComprehensiveRealWorldData.CountryUnion unionData : ComprehensiveRealWorldData.COUNTRY_UNIONS) {
+            agentRegistry.registerName(unionData.name);
+        }
+
+        // Decision codes and agent types
+        Map<String, Integer> decisionCodes = new HashMap<>();
+        Map<String, Integer> typeCodes = new HashMap<>();
+        List<String> typeNames = new ArrayList<>();
+        agentIndexes = new int[agents.size()];
+        baseProbabilities = new double[agents.size()];
+        agentTypes = new int[agents.size()];
+        catalogues = new int[agents.size()][];
+        recentActions = new int[agents.size()];
+        for (int i = 0; i < agents.size(); i++) {
+            PESTELAgent agent = agents.get(i);
+            agentIndexes[i] = agent.getAgentIndex();
+            baseProbabilities[i] = AIEnhancedPESTELEngine.baseActionProbability(agent);
+            String typeName = agent.getClass().getSimpleName();
+            agentTypes[i] = typeCodes.computeIfAbsent(typeName, name -> {
+                typeNames.add(name);
+                return typeNames.size() - 1;
+            });
+            List<String> decisions = AIEnhancedPESTELEngine.fallbackDecisionsOf(agent);
+            catalogues[i] = new int[decisions.size()];
+            for (int d = 0; d < decisions.size(); d++) {
+                catalogues[i][d] = decisionCodes.computeIfAbsent(decisions.get(d), text -> decisionCodes.size());
+            }
+        }
+
+        decisionTexts = new String[decisionCodes.size()];
+        for (Map.Entry<String, Integer> entry : decisionCodes.entrySet()) {
+            decisionTexts[entry.getValue()] = entry.getKey();
+        }
+        decisionTypes = new String[decisionTexts.length];
+        scenarioBoosts = new double[decisionTexts.length][];
+        for (int d = 0; d < decisionTexts.length; d++) {
+            decisionTypes[d] = AIEnhancedPESTELEngine.determineDecisionType(decisionTexts[d]);
+            scenarioBoosts[d] = enhancedFutureManager.actionBoosts(decisionTexts[d]);
+        }
+
+        // Impacts of every decision for every agent type, parsed once from the fallback impact strings
+        Map<String, Integer> impactCodes = new HashMap<>();
+        List<String[]> impacts = new ArrayList<>();
+        impactTable = new int[typeNames.size()][decisionTexts.length][];
+        for (int type = 0; type < typeNames.size(); type++) {
+            for (int d = 0; d < decisionTexts.length; d++) {
+                List<Integer> codes = new ArrayList<>();
+                for (PESTELCategory category : PESTELCategory.values()) {
+                    String impact = AIEnhancedPESTELEngine.fallbackPESTELImpact(decisionTexts[d], category.getKey(),
+                        typeNames.get(type), "");
+                    String[] parts = impact.split("\\|");
+                    if (!impact.startsWith("VARIABLE:") || parts.length < 3) {
+                        continue;
+                    }
+                    String[] compiled = {category.getKey(), parts[0].substring(9), parts[1].substring(6), parts[2].substring(7)};
+                    codes.add(impactCodes.computeIfAbsent(String.join("|", compiled), key -> {
+                        impacts.add(compiled);
+                        return impacts.size() - 1;
+                    }));
+                }
+                impactTable[type][d] = codes.stream().mapToInt(Integer::intValue).toArray();
+            }
+        }
+
+        impactSlots = new int[impacts.size()];
+        impactCategories = new PESTELCategory[impacts.size()];
+        impactVariables = new String[impacts.size()];
+        impactValues = new String[impacts.size()];
+        impactReasons = new String[impacts.size()];
+        int slots = 0;
+        for (int k = 0; k < impacts.size(); k++) {
+            String[] impact = impacts.get(k);
+            impactCategories[k] = PESTELCategory.fromName(impact[0]);
+            impactVariables[k] = impact[1];
+            impactValues[k] = impact[2];
+            impactReasons[k] = impact[3];
+            impactSlots[k] = PESTELFactorIndex.slotOf(impactCategories[k], impact[1]);
+            slots = Math.max(slots, impactSlots[k] + 1);
+        }
+        writerIndexes = new int[slots];
+        writerImpacts = new int[slots];
+        Arrays.fill(writerIndexes, -1);
+        Arrays.fill(writerImpacts, -1);
+    }
+
+    /**
+     * Copy of a run that goes on with its own seed
+     */
+    private FastFallbackEngine(FastFallbackEngine parent, long seed) {
+        this.seed = seed;
+        this.population = parent.population;
+        this.agentRegistry = parent.agentRegistry;
+        this.enhancedFutureManager = new EnhancedFutureScenarioManager();
+        enhancedFutureManager.copyProbabilitiesFrom(parent.enhancedFutureManager);
+
+        this.agentIndexes = parent.agentIndexes;
+        this.baseProbabilities = parent.baseProbabilities;
+        this.agentTypes = parent.agentTypes;
+        this.catalogues = parent.catalogues;
+        this.recentActions = parent.recentActions.clone();
+        this.decisionTexts = parent.decisionTexts;
+        this.decisionTypes = parent.decisionTypes;
+        this.scenarioBoosts = parent.scenarioBoosts;
+        this.impactTable = parent.impactTable;
+        this.impactSlots = parent.impactSlots;
+        this.impactCategories = parent.impactCategories;
+        this.impactVariables = parent.impactVariables;
+        this.impactValues = parent.impactValues;
+        this.impactReasons = parent.impactReasons;
+        this.writerIndexes = parent.writerIndexes.clone();
+        this.writerImpacts = parent.writerImpacts.clone();
+
+        int actions = Math.max(16, parent.actionCount);
+        this.actionAgents = Arrays.copyOf(parent.actionAgents, actions);
+        this.actionDays = Arrays.copyOf(parent.actionDays, actions);
+        this.actionDecisions = Arrays.copyOf(parent.actionDecisions, actions);
+        this.actionCount = parent.actionCount;
+        int changes = Math.max(16, parent.changeCount);
+        this.changeAgents = Arrays.copyOf(parent.changeAgents, changes);
+        this.changeDays = Arrays.copyOf(parent.changeDays, changes);
+        this.changeImpacts = Arrays.copyOf(parent.changeImpacts, changes);
+        this.changeCount = parent.changeCount;
+        this.dayStarts = parent.dayStarts.clone();
+        this.currentDay = parent.currentDay;
+        this.logLikelihoodRatio = parent.logLikelihoodRatio;
+    }
+
+    /**
+     * Branch the run: the fork has the same history and draws the decisions of the following
+     * days from the given seed. Forking with the engine's own seed gives the same run as carrying
+     * on. The fork only reads this engine, which must not run meanwhile.
+     */
+    public FastFallbackEngine fork(long seed) {
+        return new FastFallbackEngine(this, seed);
+    }
+
+    /**
+     * Steer the following days toward a scenario: a decision that boosts it is picked with
+     * weight 1 + strength, the others with weight 1. A fork starts unsteered.
+     * @param scenario Scenario by getAllScenarios position
+     */
+    public void steerToward(int scenario, double strength) {
+        if (scenario < 0 || scenario >= enhancedFutureManager.getAllScenarios().size()) {
+            throw new IllegalArgumentException("No such scenario: " + scenario);
+        }
+        if (!(strength >= 0)) {
+            throw new IllegalArgumentException("The steering strength cannot be negative: " + strength);
+        }
+        steeredScenario = scenario;
+        steering = strength;
+        steeringWeights = new double[agentIndexes.length];
+        for (int i = 0; i < agentIndexes.length; i++) {
+            steeringWeights[i] = catalogues[i].length;
+            for (int decision : catalogues[i]) {
+                if (scenarioBoosts[decision][scenario] > 0) {
+                    steeringWeights[i] += strength;
+                }
+            }
+        }
+    }
+
+    /**
+     * Simulate the following days; calling it again carries on from the last simulated day
+     */
+    public void run(int days) {
+        for (int day = 0; day < days; day++) {
+            simulateDay(++currentDay);
+        }
+    }
+
+    private void simulateDay(int day) {
+        if (day + 1 >= dayStarts.length) {
+            dayStarts = Arrays.copyOf(dayStarts, dayStarts.length * 2);
+        }
+        dayStarts[day] = actionCount;
+
+        for (int i = 0; i < agentIndexes.length; i++) {
+            int agentIndex = agentIndexes[i];
+            int recent = recentActions[i];
+            double probability = AIEnhancedPESTELEngine.actionProbability(baseProbabilities[i], Integer.bitCount(recent));
+
+            // Draws of getEnhancedFallbackDecision: nextDouble, then nextInt over the agent's catalogue
+            long state = (AIEnhancedPESTELEngine.decisionSeed(seed, day, agentIndex, 0) ^ MULTIPLIER) & MASK;
+            state = (state * MULTIPLIER + ADDEND) & MASK;
+            long high = state >>> 22;
+            state = (state * MULTIPLIER + ADDEND) & MASK;
+            double roll = ((high << 27) + (state >>> 21)) * DOUBLE_UNIT;
+            if (roll > probability) {
+                recentActions[i] = (recent << 1) & RECENT_ACTION_MASK;
+                continue;
+            }
+            recentActions[i] = ((recent << 1) | 1) & RECENT_ACTION_MASK;
+
+            int[] catalogue = catalogues[i];
+            int bound = catalogue.length;
+            int decision;
+            if (steeredScenario >= 0 && steeringWeights[i] > bound) {
+                // Weighted pick from a uniform draw of the same stream
+                state = (state * MULTIPLIER + ADDEND) & MASK;
+                high = state >>> 22;
+                state = (state * MULTIPLIER + ADDEND) & MASK;
+                double target = ((high << 27) + (state >>> 21)) * DOUBLE_UNIT * steeringWeights[i];
+                int pick = 0;
+                double weight = pickWeight(catalogue[0]);
+                while (target >= weight && pick < bound - 1) {
+                    target -= weight;
+                    weight = pickWeight(catalogue[++pick]);
+                }
+                decision = catalogue[pick];
+                logLikelihoodRatio += Math.log(steeringWeights[i] / (bound * weight));
+            } else {
+                state = (state * MULTIPLIER + ADDEND) & MASK;
+                int pick = (int) (state >>> 17);
+                if ((bound & (bound - 1)) == 0) {
+                    pick = (int) ((bound * (long) pick) >> 31);
+                } else {
+                    for (int u = pick; u - (pick = u % bound) + bound - 1 < 0; ) {
+                        state = (state * MULTIPLIER + ADDEND) & MASK;
+                        u = (int) (state >>> 17);
+                    }
+                }
+                decision = catalogue[pick];
+            }
+            appendAction(agentIndex, day, decision);
+
+            // A factor changes unless this agent already set it to the same value
+            for (int impact : impactTable[agentTypes[i]][decision]) {
+                int slot = impactSlots[impact];
+                if (writerIndexes[slot] != agentIndex || writerImpacts[slot] != impact) {
+                    writerIndexes[slot] = agentIndex;
+                    writerImpacts[slot] = impact;
+                    appendChange(agentIndex, day, impact);
+                }
+            }
+        }
+
+        if (day % 7 == 0) {
+            int from = dayStarts[Math.max(1, day - RECENT_DAYS)];
+            enhancedFutureManager.updateScenarioProbabilities(scenarioBoosts, actionDecisions, from, actionCount);
+        }
+    }
+
+    private double pickWeight(int decision) {
+        return scenarioBoosts[decision][steeredScenario] > 0 ? 1.0 + steering : 1.0;
+    }
+
+    private void appendAction(int agentIndex, int day, int decision) {
+        if (actionCount == actionAgents.length) {
+            actionAgents = Arrays.copyOf(actionAgents, actionCount * 2);
+            actionDays = Arrays.copyOf(actionDays, actionCount * 2);
+            actionDecisions = Arrays.copyOf(actionDecisions, actionCount * 2);
+        }
+        actionAgents[actionCount] = agentIndex;
+        actionDays[actionCount] = day;
+        actionDecisions[actionCount++] = decision;
+    }
+
+    private void appendChange(int agentIndex, int day, int impact) {
+        if (changeCount == changeAgents.length) {
+            changeAgents = Arrays.copyOf(changeAgents, changeCount * 2);
+            changeDays = Arrays.copyOf(changeDays, changeCount * 2);
+            changeImpacts = Arrays.copyOf(changeImpacts, changeCount * 2);
+        }
+        changeAgents[changeCount] = agentIndex;
+        changeDays[changeCount] = day;
+        changeImpacts[changeCount++] = impact;
+    }
+
+    /**
+     * Every action so far, as the AI-enhanced engine would have logged them
+     */
+    public List<AgentAction> getActions() {
+        List<AgentAction> actions = new ArrayList<>(actionCount);
+        for (int i = 0; i < actionCount; i++) {
+            actions.add(toAction(i));
+        }
+        return actions;
+    }
+
+    /**
+     * Every change of the global PESTEL state so far, with the old values replayed from the initial state
+     */
+    public List<PESTELChange> getChanges() {
+        List<PESTELChange> changes = new ArrayList<>(changeCount);
+        PESTELState state = initialState();
+        for (int i = 0; i < changeCount; i++) {
+            changes.add(replayChange(state, i));
+        }
+        return changes;
+    }
+
+    /**
+     * Global PESTEL state at the end of the last simulated day
+     */
+    public PESTELState getGlobalPESTEL() {
+        PESTELState state = initialState();
+        for (int slot = 0; slot < writerIndexes.length; slot++) {
+            if (writerIndexes[slot] >= 0) {
+                state.updateFactor(slot, valueOf(writerIndexes[slot], writerImpacts[slot]));
+            }
+        }
+        return state;
+    }
+
+    /**
+     * Fingerprint of the run so far, equal to the AI-enhanced engine's digest for the same seed,
+     * population and days
+     */
+    public String getRunDigest() {
+        RunDigest digest = new RunDigest();
+        for (int i = 0; i < actionCount; i++) {
+            digest.addAction(toAction(i));
+        }
+        PESTELState state = initialState();
+        for (int i = 0; i < changeCount; i++) {
+            digest.addChange(replayChange(state, i));
+        }
+        digest.addState(getGlobalPESTEL());
+        digest.addScenarios(enhancedFutureManager);
+        return digest.toHex();
+    }
+
+    private AgentAction toAction(int i) {
+        int decision = actionDecisions[i];
+        return new AgentAction(actionAgents[i], agentRegistry.nameOf(actionAgents[i]), actionDays[i],
+            decisionTexts[decision], decisionTypes[decision]);
+    }
+
+    private PESTELChange replayChange(PESTELState state, int i) {
+        int impact = changeImpacts[i];
+        int slot = impactSlots[impact];
+        String oldValue = state.getFactor(slot);
+        String newValue = valueOf(changeAgents[i], impact);
+        state.updateFactor(slot, newValue);
+        return new PESTELChange(impactCategories[impact].getKey(), impactVariables[impact], oldValue, newValue,
+            impactReasons[impact], changeAgents[i], agentRegistry.nameOf(changeAgents[i]), changeDays[i]);
+    }
+
+    private String valueOf(int agentIndex, int impact) {
+        return agentRegistry.nameOf(agentIndex) + impactValues[impact];
+    }
+
+    private static PESTELState initialState() {
+        PESTELState state = new PESTELState();
+        AIEnhancedPESTELEngine.initializeEnhancedGlobalPESTEL(state);
+        return state;
+    }
+
+    /**
+     * Seed of the decisions of the following days; a fork's seed differs from its parent's
+     */
+    public long getSeed() { return seed; }
+    public SyntheticPopulation getPopulation() { return population; }
+    public int getCurrentDay() { return currentDay; }
+
+    /**
+     * Log of how likely the decisions picked while steered are without steering, relative to
+     * how likely they were with it; 0 for a run that was never steered
+     */
+    public double getLogLikelihoodRatio() { return logLikelihoodRatio; }
+
+    /**
+     * Scenario the run is steered toward, or -1
+     */
+    public int getSteeredScenario() { return steeredScenario; }
+    public int getAgentCount() { return agentIndexes.length; }
+    public int getActionCount() { return actionCount; }
+    public int getChangeCount() { return changeCount; }
+    public int getDecisionCount() { return decisionTexts.length; }
+    public int getImpactCount() { return impactSlots.length; }
+    public AgentRegistry getAgentRegistry() { return agentRegistry; }
+    public EnhancedFutureScenarioManager getEnhancedFutureManager() { return enhancedFutureManager; }
+}
@@ -0,0 +1,314 @@
+package simu.model;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Pushes decision impulses through an InfluenceNetwork over several hops.
+ *
+ * Every node holds one level per channel (for example one per kind of decision). A hop is the
+ * sparse matrix-vector product next = decay * W^T * current over the transposed CSR arrays:
+ * each node sums the weighted levels of the nodes influencing it, so the rows can be split
+ * between fork-join tasks without any shared writes, and the result does not depend on the
+ * number of threads. Levels below the threshold are dropped and stop spreading; propagation
+ * ends after maxHops hops or when nothing is left above the threshold.
+ *
+ * For every node and channel the diffusion keeps the total level received and the source,
+ * and hop, of its strongest contribution. Not thread-safe: inject and propagate from one thread.
+ */
+public final class InfluenceDiffusion {
+    public static final double DEFAULT_DECAY = 0.5;
+    public static final double DEFAULT_THRESHOLD = 0.05;
+    public static final int DEFAULT_MAX_HOPS = 3;
+
+    private static final int ROWS_PER_TASK = 2048; // Nodes computed by one fork-join task
+
+    private final int nodeCount;
+    private final int channels;
+    private final double decay;
+    private final double threshold;
+    private final int maxHops;
+    private final ForkJoinPool pool;
+
+    // Transposed network: the edges entering node n are at inOffsets[n] to inOffsets[n + 1]
+    private final int[] inOffsets;
+    private final int[] inSources;
+    private final double[] inWeights;
+
+    // Levels of the current and next hop, and the source each level mostly comes from, at node * channels + channel
+    private double[] current;
+    private double[] next;
+    private int[] currentSource;
+    private int[] nextSource;
+
+    // Results of the last propagation
+    private final double[] received;
+    private final double[] strongest;
+    private final int[] strongestSource;
+    private final byte[] strongestHop;
+
+    private boolean injected;
+    private int lastHops;
+    private int lastReached;
+    private long edgesVisited;
+
+    public InfluenceDiffusion(InfluenceNetwork network, int channels) {
+        this(network, channels, DEFAULT_DECAY, DEFAULT_THRESHOLD, DEFAULT_MAX_HOPS, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param decay     Share of the weighted level passed on at every hop
+     * @param threshold Smallest level that counts and keeps spreading
+     * @param maxHops   Largest distance an impulse travels from its source
+     * @param pool      Pool running the hop computations
+     */
+    public InfluenceDiffusion(InfluenceNetwork network, int channels, double decay, double threshold, int maxHops,
+                              ForkJoinPool pool) {
+        if (channels < 1 || decay <= 0 || threshold <= 0 || maxHops < 1 || maxHops > Byte.MAX_VALUE) {
+            throw new IllegalArgumentException("Invalid diffusion parameters: channels " + channels + ", decay " + decay
+                + ", threshold " + threshold + ", max hops " + maxHops);
+        }
+        this.nodeCount = network.size();
+        this.channels = channels;
+        this.decay = decay;
+        this.threshold = threshold;
+        this.maxHops = maxHops;
+        this.pool = pool;
+
+        // Counting sort of the edges by target
+        int[] offsets = network.offsets();
+        int[] targets = network.targets();
+        double[] weights = network.weights();
+        this.inOffsets = new int[nodeCount + 1];
+        for (int target : targets) {
+            inOffsets[target + 1]++;
+        }
+        for (int node = 0; node < nodeCount; node++) {
+            inOffsets[node + 1] += inOffsets[node];
+        }
+        int[] position = Arrays.copyOf(inOffsets, nodeCount);
+        this.inSources = new int[targets.length];
+        this.inWeights = new double[targets.length];
+        for (int source = 0; source < nodeCount; source++) {
+            for (int edge = offsets[source]; edge < offsets[source + 1]; edge++) {
+                int slot = position[targets[edge]]++;
+                inSources[slot] = source;
+                inWeights[slot] = weights[edge];
+            }
+        }
+
+        int size = nodeCount * channels;
+        this.current = new double[size];
+        this.next = new double[size];
+        this.currentSource = new int[size];
+        this.nextSource = new int[size];
+        this.received = new double[size];
+        this.strongest = new double[size];
+        this.strongestSource = new int[size];
+        this.strongestHop = new byte[size];
+        Arrays.fill(strongestSource, -1);
+    }
+
+    /**
+     * Add an impulse leaving a node; impulses of one node and channel add up until the next propagation
+     */
+    public void inject(int node, int channel, double strength) {
+        if (node < 0 || node >= nodeCount || channel < 0 || channel >= channels) {
+            throw new IllegalArgumentException("No node " + node + " channel " + channel + " in the diffusion");
+        }
+        if (strength <= 0) {
+            return;
+        }
+        int cell = node * channels + channel;
+        current[cell] += strength;
+        currentSource[cell] = node;
+        injected = true;
+    }
+
+    /**
+     * Take back an impulse injected since the last propagation, for a decision that was withdrawn
+     */
+    public void retract(int node, int channel, double strength) {
+        if (node < 0 || node >= nodeCount || channel < 0 || channel >= channels) {
+            throw new IllegalArgumentException("No node " + node + " channel " + channel + " in the diffusion");
+        }
+        if (strength <= 0) {
+            return;
+        }
+        int cell = node * channels + channel;
+        current[cell] = Math.max(0.0, current[cell] - strength);
+    }
+
+    /**
+     * Spread the injected impulses and replace the previous results
+     * @return Number of hops performed
+     */
+    public int propagate() {
+        Arrays.fill(received, 0.0);
+        Arrays.fill(strongest, 0.0);
+        Arrays.fill(strongestSource, -1);
+        Arrays.fill(strongestHop, (byte) 0);
+        lastHops = 0;
+        lastReached = 0;
+        if (!injected) {
+            return 0;
+        }
+
+        for (int hop = 1; hop <= maxHops; hop++) {
+            int active = pool.invoke(new HopTask(0, nodeCount, hop));
+            edgesVisited += inSources.length;
+            lastHops = hop;
+
+            double[] levels = current;
+            current = next;
+            next = levels;
+            int[] sources = currentSource;
+            currentSource = nextSource;
+            nextSource = sources;
+            if (active == 0) {
+                break;
+            }
+        }
+        Arrays.fill(current, 0.0);
+        injected = false;
+
+        for (int node = 0; node < nodeCount; node++) {
+            for (int channel = 0; channel < channels; channel++) {
+                if (strongestSource[node * channels + channel] >= 0) {
+                    lastReached++;
+                    break;
+                }
+            }
+        }
+        return lastHops;
+    }
+
+    /**
+     * Computes one hop for a range of nodes and counts the node levels still above the threshold
+     */
+    private final class HopTask extends RecursiveTask<Integer> {
+        private static final long serialVersionUID = 1L;
+
+        private final int from;
+        private final int to;
+        private final int hop;
+
+        HopTask(int from, int to, int hop) {
+            this.from = from;
+            this.to = to;
+            this.hop = hop;
+        }
+
+        @Override
+        protected Integer compute() {
+            if (to - from > ROWS_PER_TASK) {
+                int middle = (from + to) >>> 1;
+                HopTask left = new HopTask(from, middle, hop);
+                left.fork();
+                int right = new HopTask(middle, to, hop).compute();
+                return left.join() + right;
+            }
+
+            double[] sum = new double[channels];
+            double[] best = new double[channels];
+            int[] bestSource = new int[channels];
+            int active = 0;
+            for (int node = from; node < to; node++) {
+                Arrays.fill(sum, 0.0);
+                Arrays.fill(best, 0.0);
+                for (int edge = inOffsets[node]; edge < inOffsets[node + 1]; edge++) {
+                    int base = inSources[edge] * channels;
+                    double weight = inWeights[edge];
+                    for (int channel = 0; channel < channels; channel++) {
+                        double level = current[base + channel];
+                        if (level != 0.0) {
+                            double contribution = weight * level;
+                            sum[channel] += contribution;
+                            if (contribution > best[channel]) {
+                                best[channel] = contribution;
+                                bestSource[channel] = currentSource[base + channel];
+                            }
+                        }
+                    }
+                }
+
+                int cell = node * channels;
+                for (int channel = 0; channel < channels; channel++, cell++) {
+                    double level = decay * sum[channel];
+                    if (level < threshold) {
+                        next[cell] = 0.0;
+                        continue;
+                    }
+                    next[cell] = level;
+                    nextSource[cell] = bestSource[channel];
+                    received[cell] += level;
+                    if (level > strongest[cell]) {
+                        strongest[cell] = level;
+                        strongestSource[cell] = bestSource[channel];
+                        strongestHop[cell] = (byte) hop;
+                    }
+                    active++;
+                }
+            }
+            return active;
+        }
+    }
+
+    /**
+     * Total level a node received on a channel during the last propagation, summed over all hops
+     */
+    public double getReceived(int node, int channel) {
+        return received[node * channels + channel];
+    }
+
+    /**
+     * Level of the strongest single hop that reached a node on a channel
+     */
+    public double getStrongest(int node, int channel) {
+        return strongest[node * channels + channel];
+    }
+
+    /**
+     * Source node of the strongest level that reached a node on a channel, or -1 if nothing did
+     */
+    public int getStrongestSource(int node, int channel) {
+        return strongestSource[node * channels + channel];
+    }
+
+    /**
+     * Distance from the source of the strongest level, 0 if nothing reached the node
+     */
+    public int getStrongestHop(int node, int channel) {
+        return strongestHop[node * channels + channel];
+    }
+
+    public int getNodeCount() {
+        return nodeCount;
+    }
+
+    public int getChannels() {
+        return channels;
+    }
+
+    /**
+     * Hops performed by the last propagation
+     */
+    public int getLastHops() {
+        return lastHops;
+    }
+
+    /**
+     * Nodes reached on at least one channel by the last propagation
+     */
+    public int getLastReachedCount() {
+        return lastReached;
+    }
+
+    /**
+     * Edges processed by all propagations so far
+     */
+    public long getEdgesVisited() {
+        return edgesVisited;
+    }
+}
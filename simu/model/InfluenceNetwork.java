@@ -0,0 +1,137 @@
+package simu.model;
+
+import java.util.Arrays;
+
+/**
+ * Weighted, directed agent influence network in compressed sparse row form.
+ * Nodes are AgentRegistry IDs; the edges leaving node n are at positions
+ * offsets[n] to offsets[n + 1] of the targets and weights arrays, in the order they were added.
+ * Immutable once built.
+ */
+public final class InfluenceNetwork {
+    public static final InfluenceNetwork EMPTY = new InfluenceNetwork(new int[1], new int[0], new double[0]);
+
+    private static final int[] NO_TARGETS = new int[0];
+
+    private final int[] offsets;
+    private final int[] targets;
+    private final double[] weights;
+
+    private InfluenceNetwork(int[] offsets, int[] targets, double[] weights) {
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+    }
+
+    /**
+     * Collects edges in any order and lays them out by source node in linear time
+     */
+    public static final class Builder {
+        private final int nodeCount;
+        private int[] sources = new int[64];
+        private int[] targets = new int[64];
+        private double[] weights = new double[64];
+        private int edgeCount;
+
+        public Builder(int nodeCount) {
+            this.nodeCount = nodeCount;
+        }
+
+        public Builder addEdge(int source, int target, double weight) {
+            if (source < 0 || source >= nodeCount || target < 0 || target >= nodeCount) {
+                throw new IllegalArgumentException("Edge " + source + " -> " + target + " outside of " + nodeCount + " nodes");
+            }
+            if (edgeCount == sources.length) {
+                int capacity = edgeCount * 2;
+                sources = Arrays.copyOf(sources, capacity);
+                targets = Arrays.copyOf(targets, capacity);
+                weights = Arrays.copyOf(weights, capacity);
+            }
+            sources[edgeCount] = source;
+            targets[edgeCount] = target;
+            weights[edgeCount] = weight;
+            edgeCount++;
+            return this;
+        }
+
+        /**
+         * Counting sort of the edges by source; edges of one source keep their insertion order
+         */
+        public InfluenceNetwork build() {
+            int[] offsets = new int[nodeCount + 1];
+            for (int i = 0; i < edgeCount; i++) {
+                offsets[sources[i] + 1]++;
+            }
+            for (int node = 0; node < nodeCount; node++) {
+                offsets[node + 1] += offsets[node];
+            }
+            int[] next = Arrays.copyOf(offsets, nodeCount);
+            int[] sortedTargets = new int[edgeCount];
+            double[] sortedWeights = new double[edgeCount];
+            for (int i = 0; i < edgeCount; i++) {
+                int position = next[sources[i]]++;
+                sortedTargets[position] = targets[i];
+                sortedWeights[position] = weights[i];
+            }
+            return new InfluenceNetwork(offsets, sortedTargets, sortedWeights);
+        }
+    }
+
+    /**
+     * Number of nodes
+     */
+    public int size() {
+        return offsets.length - 1;
+    }
+
+    public int getEdgeCount() {
+        return targets.length;
+    }
+
+    public int degreeOf(int node) {
+        return node >= 0 && node < size() ? offsets[node + 1] - offsets[node] : 0;
+    }
+
+    /**
+     * Nodes influenced by a node, in insertion order
+     */
+    public int[] targetsOf(int node) {
+        return targetsOf(node, Integer.MAX_VALUE);
+    }
+
+    /**
+     * The first limit nodes influenced by a node
+     */
+    public int[] targetsOf(int node, int limit) {
+        int degree = Math.min(degreeOf(node), limit);
+        return degree > 0 ? Arrays.copyOfRange(targets, offsets[node], offsets[node] + degree) : NO_TARGETS;
+    }
+
+    /**
+     * Position of the first edge leaving a node; the node's edges end at firstEdge(node + 1)
+     */
+    public int firstEdge(int node) {
+        return offsets[node];
+    }
+
+    public int getTarget(int edge) {
+        return targets[edge];
+    }
+
+    public double getWeight(int edge) {
+        return weights[edge];
+    }
+
+    // Raw CSR arrays for the sparse kernels of this package; never modified
+    int[] offsets() {
+        return offsets;
+    }
+
+    int[] targets() {
+        return targets;
+    }
+
+    double[] weights() {
+        return weights;
+    }
+}
@@ -18,6 +18,7 @@ public class LocalOllamaAIService {
     private final Map<String, String> responseCache;
     private final boolean ollamaAvailable;
     private final HttpClient httpClient;
+    private Random random = new Random(); // Draws of the fallback decisions
     
     public LocalOllamaAIService() {
         this("http://localhost:11434", "deepseek-r1:7b"); // Default model
@@ -39,6 +40,13 @@ public class LocalOllamaAIService {
         }
     }
     
+    /**
+     * Draw the fallback decisions from the given source, such as a seeded Random for repeatable runs
+     */
+    public void setRandom(Random random) {
+        this.random = random;
+    }
+    
     /**
      * Ask Ollama for agent decision
      */
@@ -370,22 +378,22 @@ public class LocalOllamaAIService {
         
         // Real-world entity specific fallback decisions
         if (agentId.contains("Apple")) {
-            return Math.random() < 0.4 ? "Launch innovative AI-powered product with sustainability features" : "no_action";
+            return random.nextDouble() < 0.4 ? "Launch innovative AI-powered product with sustainability features" : "no_action";
         } else if (agentId.contains("Amazon")) {
-            return Math.random() < 0.35 ? "Expand AWS cloud services and sustainable delivery solutions" : "no_action";
+            return random.nextDouble() < 0.35 ? "Expand AWS cloud services and sustainable delivery solutions" : "no_action";
         } else if (agentId.contains("Walmart")) {
-            return Math.random() < 0.3 ? "Implement AI-powered supply chain optimization" : "no_action";
+            return random.nextDouble() < 0.3 ? "Implement AI-powered supply chain optimization" : "no_action";
         } else if (agentId.contains("United States")) {
-            return Math.random() < 0.4 ? "Launch strategic technology and infrastructure initiative" : "no_action";
+            return random.nextDouble() < 0.4 ? "Launch strategic technology and infrastructure initiative" : "no_action";
         } else if (agentId.contains("China")) {
-            return Math.random() < 0.35 ? "Strengthen international cooperation and innovation programs" : "no_action";
+            return random.nextDouble() < 0.35 ? "Strengthen international cooperation and innovation programs" : "no_action";
         } else if (agentId.contains("MIT")) {
-            return Math.random() < 0.45 ? "Establish breakthrough research program with industry partnerships" : "no_action";
+            return random.nextDouble() < 0.45 ? "Establish breakthrough research program with industry partnerships" : "no_action";
         } else if (agentId.contains("Stanford")) {
-            return Math.random() < 0.4 ? "Launch interdisciplinary research initiative" : "no_action";
+            return random.nextDouble() < 0.4 ? "Launch interdisciplinary research initiative" : "no_action";
         }
         
-        return Math.random() < 0.25 ? "Take strategic action based on current conditions" : "no_action";
+        return random.nextDouble() < 0.25 ? "Take strategic action based on current conditions" : "no_action";
     }
     
     private String generateIntelligentPESTELFallback(String decision, String category) {
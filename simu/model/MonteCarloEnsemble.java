@@ -0,0 +1,235 @@
+package simu.model;
+
+import simu.framework.Clock;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Monte Carlo ensemble of fallback-only AI-enhanced simulations.
+ *
+ * Every replication runs a full AIEnhancedPESTELEngine with its own seed, derived from the
+ * ensemble seed and the replication number, and on a clock of its own so replications run in
+ * parallel. The probability of each alternative future at the end of every day is folded into
+ * running statistics: a mean and streaming quantile bands per scenario and day, plus how often
+ * each scenario ends dominant. Memory depends on the days and scenarios only, not on the
+ * number of replications.
+ *
+ * Replications are folded in replication order, so the same seed gives the same bands
+ * whatever the number of threads.
+ */
+public class MonteCarloEnsemble {
+    public static final double[] DEFAULT_QUANTILES = {0.05, 0.5, 0.95};
+    public static final int DEFAULT_THREADS = Math.max(1, Runtime.getRuntime().availableProcessors());
+    private static final int EVENT_RETENTION_DAYS = 7; // Replications only look a week back in their action and change logs
+
+    private final int days;
+    private final long seed;
+    private final SyntheticPopulation population;
+    private final double[] quantiles;
+    private final int threads;
+    private final String[] scenarioNames;
+
+    // Running statistics by [scenario][day - 1], and by [scenario][quantile][day - 1] for the bands
+    private final double[][] sums;
+    private final StreamingQuantile[][][] bands;
+    private final long[] dominantCounts;
+    private int replications;
+
+    public MonteCarloEnsemble(int days, long seed, SyntheticPopulation population) {
+        this(days, seed, population, DEFAULT_QUANTILES, DEFAULT_THREADS);
+    }
+
+    /**
+     * @param population Entities of every replication, such as SyntheticPopulation.realWorld()
+     * @param quantiles  Quantiles of the bands, between 0 and 1
+     * @param threads    Replications run at the same time
+     */
+    public MonteCarloEnsemble(int days, long seed, SyntheticPopulation population, double[] quantiles, int threads) {
+        if (days < 1 || threads < 1 || population == null) {
+            throw new IllegalArgumentException("An ensemble needs a population, at least one day and one thread: "
+                + days + " days, " + threads + " threads");
+        }
+        this.days = days;
+        this.seed = seed;
+        this.population = population;
+        this.quantiles = quantiles.clone();
+        this.threads = threads;
+
+        List<EnhancedFutureScenarioManager.FutureScenario> scenarios = new EnhancedFutureScenarioManager().getAllScenarios();
+        this.scenarioNames = new String[scenarios.size()];
+        for (int s = 0; s < scenarioNames.length; s++) {
+            scenarioNames[s] = scenarios.get(s).getName();
+        }
+
+        this.sums = new double[scenarioNames.length][days];
+        this.bands = new StreamingQuantile[scenarioNames.length][quantiles.length][days];
+        for (int s = 0; s < scenarioNames.length; s++) {
+            for (int q = 0; q < quantiles.length; q++) {
+                for (int d = 0; d < days; d++) {
+                    bands[s][q][d] = new StreamingQuantile(quantiles[q]);
+                }
+            }
+        }
+        this.dominantCounts = new long[scenarioNames.length];
+    }
+
+    /**
+     * Run more replications and fold them into the statistics; calling it again extends the
+     * ensemble with the following replication numbers
+     */
+    public void run(int count) {
+        ExecutorService executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "pestel-ensemble");
+            thread.setDaemon(true);
+            return thread;
+        });
+        int first = replications;
+        try {
+            // At most a few batches of trajectories are held while waiting for the next one in order
+            int batch = threads * 2;
+            for (int start = 0; start < count; start += batch) {
+                List<Future<double[][]>> pending = new ArrayList<>(batch);
+                for (int i = start; i < Math.min(count, start + batch); i++) {
+                    int replication = first + i;
+                    pending.add(executor.submit(() -> runReplication(replication)));
+                }
+                for (Future<double[][]> future : pending) {
+                    fold(future.get());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Ensemble replication failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * One replication on the calling thread, with a clock of its own
+     * @return Probability of each scenario at the end of each day, by [day - 1][scenario]
+     */
+    private double[][] runReplication(int replication) {
+        Clock.newThreadClock();
+        AIEnhancedPESTELEngine engine = new AIEnhancedPESTELEngine(days, replicationSeed(replication), population);
+        engine.setDecisionThreads(1);
+        engine.setEventRetentionDays(EVENT_RETENTION_DAYS);
+
+        double[][] trajectory = new double[days][scenarioNames.length];
+        engine.setDayObserver(day -> {
+            if (day >= 1 && day <= days) {
+                List<EnhancedFutureScenarioManager.FutureScenario> scenarios = engine.getEnhancedFutureManager().getAllScenarios();
+                for (int s = 0; s < scenarioNames.length; s++) {
+                    trajectory[day - 1][s] = scenarios.get(s).getProbability();
+                }
+            }
+        });
+        engine.setSimulationTime(days);
+        engine.run();
+        return trajectory;
+    }
+
+    /**
+     * Independent engine seed of a replication
+     */
+    public long replicationSeed(int replication) {
+        long z = seed + (replication + 1L) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private void fold(double[][] trajectory) {
+        for (int d = 0; d < days; d++) {
+            for (int s = 0; s < scenarioNames.length; s++) {
+                double probability = trajectory[d][s];
+                sums[s][d] += probability;
+                for (int q = 0; q < quantiles.length; q++) {
+                    bands[s][q][d].add(probability);
+                }
+            }
+        }
+        int dominant = 0;
+        for (int s = 1; s < scenarioNames.length; s++) {
+            if (trajectory[days - 1][s] > trajectory[days - 1][dominant]) {
+                dominant = s;
+            }
+        }
+        dominantCounts[dominant]++;
+        replications++;
+    }
+
+    public int getReplications() {
+        return replications;
+    }
+
+    public int getDays() {
+        return days;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public int getScenarioCount() {
+        return scenarioNames.length;
+    }
+
+    public String getScenarioName(int scenario) {
+        return scenarioNames[scenario];
+    }
+
+    public double[] getQuantiles() {
+        return quantiles.clone();
+    }
+
+    /**
+     * Mean probability of a scenario at the end of a day, over all replications
+     */
+    public double getMean(int scenario, int day) {
+        return replications == 0 ? Double.NaN : sums[scenario][day - 1] / replications;
+    }
+
+    /**
+     * Estimated quantile of a scenario's probability at the end of a day
+     * @param quantile Position of the quantile in getQuantiles()
+     */
+    public double getBand(int scenario, int quantile, int day) {
+        return bands[scenario][quantile][day - 1].getValue();
+    }
+
+    /**
+     * Share of replications in which a scenario is the most probable at the end of the last day;
+     * equal probabilities count for the earlier scenario
+     */
+    public double getDominantShare(int scenario) {
+        return replications == 0 ? 0.0 : (double) dominantCounts[scenario] / replications;
+    }
+
+    /**
+     * Table of the mean and bands of every scenario at the end of every given number of days
+     */
+    public String report(int everyDays) {
+        StringBuilder report = new StringBuilder();
+        report.append(String.format("Monte Carlo ensemble: %,d replications of %d days (seed %d)%n",
+            replications, days, seed));
+        for (int s = 0; s < scenarioNames.length; s++) {
+            report.append(String.format("%s - dominant in %.1f%% of replications%n",
+                scenarioNames[s], getDominantShare(s) * 100));
+            for (int day = everyDays; day <= days; day += everyDays) {
+                report.append(String.format("  day %3d: mean %5.1f%%", day, getMean(s, day) * 100));
+                for (int q = 0; q < quantiles.length; q++) {
+                    report.append(String.format(", p%02.0f %5.1f%%", quantiles[q] * 100, getBand(s, q, day) * 100));
+                }
+                report.append(System.lineSeparator());
+            }
+        }
+        return report.toString();
+    }
+}
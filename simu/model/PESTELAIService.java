@@ -14,7 +14,9 @@ import java.util.concurrent.TimeUnit;
  * AI Service for PESTEL-based decision making using Gemma 3 model
  */
 public class PESTELAIService {
-    private static final String GEMINI_API_URL = "https://generativelanguage.googleapis.com/v1beta/models/gemini-2.0-flash-lite:generateContent";
+    // Overridden with -Dgemini.api.url, for instance to reach a proxy
+    private static final String GEMINI_API_URL = System.getProperty("gemini.api.url",
+        "https://generativelanguage.googleapis.com/v1beta/models/gemini-2.0-flash-lite:generateContent");
     private static final String API_KEY_PROPERTY = "GEMINI_API_KEY";
     private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
     private static final int MAX_RETRIES = 3;
@@ -22,6 +24,109 @@ public class PESTELAIService {
     private final HttpClient httpClient;
     private final String apiKey;
     private final Map<String, Object> requestCache;
+    private Random random = new Random(); // Draws of the fallback responses
+    
+    /**
+     * Impact of one decision on every PESTEL category and the agents it affects, as answered
+     * by a single request. A category or the agent list is missing when the response had no
+     * usable section for it.
+     */
+    public static class DecisionImpact {
+        private static final String AFFECTED_AGENTS_SECTION = "AFFECTED_AGENTS";
+        
+        private final Map<String, String> impacts;
+        private final List<String> affectedAgents;
+        
+        private DecisionImpact(Map<String, String> impacts, List<String> affectedAgents) {
+            this.impacts = impacts;
+            this.affectedAgents = affectedAgents;
+        }
+        
+        /**
+         * Split a response into its [CATEGORY] and [AFFECTED_AGENTS] sections
+         */
+        public static DecisionImpact parse(String response) {
+            Map<String, String> sections = new HashMap<>();
+            String section = null;
+            StringBuilder text = new StringBuilder();
+            for (String rawLine : response.split("\n")) {
+                String line = rawLine.trim();
+                String header = sectionHeader(line);
+                if (header != null) {
+                    if (section != null) {
+                        sections.put(section, text.toString().trim());
+                    }
+                    section = header;
+                    text.setLength(0);
+                } else if (section != null) {
+                    text.append(line).append('\n');
+                }
+            }
+            if (section != null) {
+                sections.put(section, text.toString().trim());
+            }
+            
+            Map<String, String> impacts = new HashMap<>();
+            for (PESTELCategory category : PESTELCategory.values()) {
+                String body = sections.get(category.getKey().toUpperCase());
+                String impact = body != null ? parseImpactSection(body) : null;
+                if (impact != null) {
+                    impacts.put(category.getKey(), impact);
+                }
+            }
+            String agents = sections.get(AFFECTED_AGENTS_SECTION);
+            return new DecisionImpact(impacts, agents != null && !agents.isEmpty() ? parseAgentList(agents) : null);
+        }
+        
+        /**
+         * Impact on a category in the FACTOR:...|NEW_VALUE:...|REASON:... format, NO_IMPACT,
+         * or null if the response did not cover the category
+         */
+        public String getImpact(String category) {
+            return impacts.get(category);
+        }
+        
+        /**
+         * Affected agent IDs, or null if the response did not list them
+         */
+        public List<String> getAffectedAgents() {
+            return affectedAgents;
+        }
+        
+        public int getAnsweredCategoryCount() {
+            return impacts.size();
+        }
+        
+        private static String sectionHeader(String line) {
+            String stripped = line.replace("*", "").replace("#", "").trim();
+            if (stripped.length() > 2 && stripped.startsWith("[") && stripped.endsWith("]")) {
+                return stripped.substring(1, stripped.length() - 1).trim().toUpperCase().replace(' ', '_');
+            }
+            return null;
+        }
+        
+        private static String parseImpactSection(String body) {
+            if (body.toUpperCase().startsWith("NO_IMPACT")) {
+                return "NO_IMPACT";
+            }
+            String factor = null;
+            String newValue = null;
+            String reason = "";
+            for (String line : body.split("\n")) {
+                if (line.startsWith("FACTOR:")) {
+                    factor = line.substring(7).trim();
+                } else if (line.startsWith("NEW_VALUE:")) {
+                    newValue = line.substring(10).trim();
+                } else if (line.startsWith("REASON:")) {
+                    reason = line.substring(7).trim();
+                }
+            }
+            if (factor == null || factor.isEmpty() || newValue == null) {
+                return null;
+            }
+            return String.format("FACTOR:%s|NEW_VALUE:%s|REASON:%s", factor, newValue, reason);
+        }
+    }
     
     public PESTELAIService(String apiKey) {
         this.apiKey = apiKey;
@@ -35,12 +140,27 @@ public class PESTELAIService {
         this(System.getProperty(API_KEY_PROPERTY, ""));
     }
     
+    /**
+     * Draw the fallback responses from the given source, such as a seeded Random for repeatable runs
+     */
+    public void setRandom(Random random) {
+        this.random = random;
+    }
+    
     /**
      * Ask AI if agent wants to take action
      */
     public CompletableFuture<String> askAgentDecision(PESTELAgent agent, PESTELState globalPESTEL, 
                                                      int currentDay, List<AgentAction> recentActions) {
-        String prompt = buildAgentDecisionPrompt(agent, globalPESTEL, currentDay, recentActions);
+        return askAgentDecision(agent, PESTELPromptContext.renderFull(globalPESTEL), currentDay, recentActions);
+    }
+    
+    /**
+     * Ask AI if agent wants to take action, with a PESTEL section rendered by PESTELPromptContext
+     */
+    public CompletableFuture<String> askAgentDecision(PESTELAgent agent, String pestelContext, 
+                                                     int currentDay, List<AgentAction> recentActions) {
+        String prompt = buildAgentDecisionPrompt(agent, pestelContext, currentDay, recentActions);
         return generateContent(prompt, "agent_decision")
                 .thenApply(this::parseAgentDecisionResponse);
     }
@@ -64,6 +184,16 @@ public class PESTELAIService {
                 .thenApply(this::parseAffectedAgentsResponse);
     }
     
+    /**
+     * Ask AI how a decision affects all PESTEL categories and which agents it affects, in one request
+     */
+    public CompletableFuture<DecisionImpact> askDecisionImpact(String decision, PESTELState currentState,
+                                                              List<PESTELAgent> allAgents) {
+        String prompt = buildDecisionImpactPrompt(decision, currentState, allAgents);
+        return generateContent(prompt, "decision_impact")
+                .thenApply(DecisionImpact::parse);
+    }
+    
     /**
      * Parse AI response to correct format if parsing fails
      */
@@ -72,7 +202,7 @@ public class PESTELAIService {
         return generateContent(prompt, "format_correction");
     }
     
-    private String buildAgentDecisionPrompt(PESTELAgent agent, PESTELState globalPESTEL, 
+    private String buildAgentDecisionPrompt(PESTELAgent agent, String pestelContext, 
                                           int currentDay, List<AgentAction> recentActions) {
         StringBuilder prompt = new StringBuilder();
         prompt.append("You are ").append(agent.getAgentDescription()).append(".\n\n");
@@ -81,8 +211,7 @@ public class PESTELAIService {
         prompt.append("Day: ").append(currentDay).append("\n");
         prompt.append("Your decisions made so far: ").append(agent.getDecisionCount()).append("\n\n");
         
-        prompt.append("GLOBAL PESTEL STATE:\n");
-        prompt.append(globalPESTEL.toString()).append("\n\n");
+        prompt.append(pestelContext);
         
         if (!recentActions.isEmpty()) {
             prompt.append("RECENT ACTIONS BY OTHER AGENTS:\n");
@@ -114,37 +243,9 @@ public class PESTELAIService {
         prompt.append("DECISION TAKEN: ").append(decision).append("\n\n");
         
         prompt.append("CURRENT ").append(pestelCategory.toUpperCase()).append(" STATE:\n");
-        switch (pestelCategory.toLowerCase()) {
-            case "political":
-            case "p":
-                currentState.getAllPolitical().forEach((k, v) -> 
-                    prompt.append("- ").append(k).append(": ").append(v).append("\n"));
-                break;
-            case "economic":
-            case "e":
-                currentState.getAllEconomic().forEach((k, v) -> 
-                    prompt.append("- ").append(k).append(": ").append(v).append("\n"));
-                break;
-            case "social":
-            case "s":
-                currentState.getAllSocial().forEach((k, v) -> 
-                    prompt.append("- ").append(k).append(": ").append(v).append("\n"));
-                break;
-            case "technological":
-            case "t":
-                currentState.getAllTechnological().forEach((k, v) -> 
-                    prompt.append("- ").append(k).append(": ").append(v).append("\n"));
-                break;
-            case "environmental":
-            case "env":
-                currentState.getAllEnvironmental().forEach((k, v) -> 
-                    prompt.append("- ").append(k).append(": ").append(v).append("\n"));
-                break;
-            case "legal":
-            case "l":
-                currentState.getAllLegal().forEach((k, v) -> 
-                    prompt.append("- ").append(k).append(": ").append(v).append("\n"));
-                break;
+        PESTELCategory category = PESTELCategory.fromName(pestelCategory);
+        if (category != null) {
+            prompt.append(currentState.renderCategory(category));
         }
         
         prompt.append("\nQUESTION: How does this decision affect the ").append(pestelCategory.toUpperCase()).append(" factors?\n\n");
@@ -175,6 +276,38 @@ public class PESTELAIService {
         return prompt.toString();
     }
     
+    private String buildDecisionImpactPrompt(String decision, PESTELState currentState, List<PESTELAgent> allAgents) {
+        StringBuilder prompt = new StringBuilder();
+        prompt.append("DECISION TAKEN: ").append(decision).append("\n\n");
+        
+        prompt.append("CURRENT PESTEL STATE:\n");
+        for (PESTELCategory category : PESTELCategory.values()) {
+            prompt.append(category.getKey().toUpperCase()).append(":\n");
+            prompt.append(currentState.renderCategory(category));
+        }
+        
+        prompt.append("\nAVAILABLE AGENTS:\n");
+        for (PESTELAgent agent : allAgents) {
+            prompt.append("- ").append(agent.getAgentId()).append(": ").append(agent.getAgentDescription()).append("\n");
+        }
+        
+        prompt.append("\nQUESTION: How does this decision affect each PESTEL category, and which agents might be affected?\n\n");
+        prompt.append("Respond with one section per category, in this EXACT format:\n");
+        for (PESTELCategory category : PESTELCategory.values()) {
+            prompt.append("[").append(category.getKey().toUpperCase()).append("]\n");
+        }
+        prompt.append("where each section is either:\n");
+        prompt.append("FACTOR: [factor_name]\n");
+        prompt.append("NEW_VALUE: [new description of this factor]\n");
+        prompt.append("REASON: [why this change occurred]\n");
+        prompt.append("or NO_IMPACT if no factor of that category is affected.\n\n");
+        prompt.append("End with:\n");
+        prompt.append("[AFFECTED_AGENTS]\n");
+        prompt.append("a comma-separated list of agent IDs (example: Company_1, Country_2, Researcher_1), or NONE\n");
+        
+        return prompt.toString();
+    }
+    
     private String buildParsingPrompt(String response, String expectedFormat) {
         return String.format("""
             The following response needs to be reformatted:
@@ -323,6 +456,10 @@ public class PESTELAIService {
     }
     
     private List<String> parseAffectedAgentsResponse(String response) {
+        return parseAgentList(response);
+    }
+    
+    private static List<String> parseAgentList(String response) {
         String cleaned = response.trim().toUpperCase();
         if (cleaned.equals("NONE")) {
             return new ArrayList<>();
@@ -342,11 +479,13 @@ public class PESTELAIService {
     private String generateFallbackResponse(String requestType) {
         switch (requestType) {
             case "agent_decision":
-                return Math.random() < 0.3 ? "Take standard action based on current conditions" : "no_action";
+                return random.nextDouble() < 0.3 ? "Take standard action based on current conditions" : "no_action";
             case "pestel_impact":
                 return "NO_IMPACT";
             case "affected_agents":
                 return "NONE";
+            case "decision_impact":
+                return ""; // No sections, so every category falls back to its own request
             default:
                 return "AI service unavailable";
         }
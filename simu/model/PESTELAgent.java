@@ -1,6 +1,5 @@
 package simu.model;
 
-import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -8,11 +7,12 @@ import java.util.List;
  */
 public abstract class PESTELAgent {
     protected String agentId;
+    protected int agentIndex; // Dense ID assigned by AgentRegistry
     protected AgentType agentType;
     protected PESTELState localPESTEL;
     protected double lastDecisionTime;
     protected int decisionCount;
-    protected List<String> recentActions;
+    protected AgentMemory memory; // Most recent own actions, AgentMemory.DEFAULT_DEPTH by default
     
     public enum AgentType {
         COMPANY, COUNTRY, RESEARCHER
@@ -20,11 +20,12 @@ public abstract class PESTELAgent {
     
     public PESTELAgent(String agentId, AgentType agentType) {
         this.agentId = agentId;
+        this.agentIndex = AgentRegistry.UNKNOWN;
         this.agentType = agentType;
         this.localPESTEL = new PESTELState();
         this.lastDecisionTime = 0.0;
         this.decisionCount = 0;
-        this.recentActions = new ArrayList<>();
+        this.memory = new AgentMemory();
         
         // Note: initializeLocalPESTEL() should be called by subclasses after their fields are set
     }
@@ -80,10 +81,10 @@ public abstract class PESTELAgent {
             context.append("\n");
         }
         
-        if (!recentActions.isEmpty()) {
+        if (!memory.isEmpty()) {
             context.append("=== MY RECENT ACTIONS ===\n");
-            for (String action : recentActions) {
-                context.append("- ").append(action).append("\n");
+            for (int i = 0; i < memory.size(); i++) {
+                context.append("- ").append(memory.getDescription(i)).append("\n");
             }
         }
         
@@ -94,20 +95,48 @@ public abstract class PESTELAgent {
      * Record an action taken by this agent
      */
     public void recordAction(String action) {
-        recentActions.add(action);
-        // Keep only last 5 actions
-        if (recentActions.size() > 5) {
-            recentActions.remove(0);
-        }
+        double now = simu.framework.Clock.getInstance().getClock();
+        recordAction((int) now, action, null, AgentMemory.NO_CONFIDENCE);
+    }
+    
+    /**
+     * Record an action with its day, type and confidence
+     */
+    public void recordAction(int day, String action, String actionType, double confidence) {
+        memory.record(day, action, actionType, confidence);
         decisionCount++;
         lastDecisionTime = simu.framework.Clock.getInstance().getClock();
     }
     
+    public void recordAction(AgentDecision decision) {
+        recordAction(decision.getDay(), decision.getDescription(), decision.getDecisionType(), decision.getConfidence());
+    }
+    
+    /**
+     * Forget a recorded decision that was withdrawn
+     */
+    public void forgetAction(AgentDecision decision) {
+        if (memory.forget(decision.getDay(), decision.getDescription())) {
+            decisionCount--;
+        }
+    }
+    
     // Getters
     public String getAgentId() {
         return agentId;
     }
     
+    /**
+     * Dense ID of this agent in its AgentRegistry, or AgentRegistry.UNKNOWN if not registered
+     */
+    public int getAgentIndex() {
+        return agentIndex;
+    }
+    
+    void setAgentIndex(int agentIndex) {
+        this.agentIndex = agentIndex;
+    }
+    
     public AgentType getAgentType() {
         return agentType;
     }
@@ -124,8 +153,22 @@ public abstract class PESTELAgent {
         return decisionCount;
     }
     
+    /**
+     * Read-only live view of the remembered action descriptions, oldest first
+     */
     public List<String> getRecentActions() {
-        return new ArrayList<>(recentActions);
+        return memory.descriptions();
+    }
+    
+    public AgentMemory getMemory() {
+        return memory;
+    }
+    
+    /**
+     * Change how many recent actions this agent remembers
+     */
+    public void setMemoryDepth(int depth) {
+        memory.setDepth(depth);
     }
     
     @Override
@@ -0,0 +1,86 @@
+package simu.model;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The six PESTEL categories: Political, Economic, Social, Technological, Environmental and Legal.
+ * Category names used throughout the simulation ("economic", "e", "Economic", ...) are resolved
+ * once to one of these constants, so factor tables can be indexed by ordinal.
+ */
+public enum PESTELCategory {
+    POLITICAL("political", "Political", "p"),
+    ECONOMIC("economic", "Economic", "e"),
+    SOCIAL("social", "Social", "s"),
+    TECHNOLOGICAL("technological", "Technological", "t"),
+    ENVIRONMENTAL("environmental", "Environmental", "env"),
+    LEGAL("legal", "Legal", "l");
+
+    private static final PESTELCategory[] VALUES = values();
+    private static final Map<String, PESTELCategory> BY_NAME = new HashMap<>();
+
+    static {
+        for (PESTELCategory category : VALUES) {
+            BY_NAME.put(category.key, category);
+            BY_NAME.put(category.displayName, category);
+            BY_NAME.put(category.alias, category);
+            BY_NAME.put(category.name(), category);
+        }
+    }
+
+    private final String key;
+    private final String displayName;
+    private final String alias;
+
+    PESTELCategory(String key, String displayName, String alias) {
+        this.key = key;
+        this.displayName = displayName;
+        this.alias = alias;
+    }
+
+    /**
+     * Resolve a category name or short alias, ignoring case
+     * @param name Category name such as "economic", "Economic" or "e"
+     * @return The matching category, or null if the name is not a PESTEL category
+     */
+    public static PESTELCategory fromName(String name) {
+        if (name == null) {
+            return null;
+        }
+        PESTELCategory category = BY_NAME.get(name);
+        if (category == null) {
+            // Only unusual spellings pay for the lowercase copy
+            category = BY_NAME.get(name.toLowerCase());
+        }
+        return category;
+    }
+
+    /**
+     * Get a category by ordinal without cloning the values array
+     */
+    public static PESTELCategory ofOrdinal(int ordinal) {
+        return VALUES[ordinal];
+    }
+
+    public static int count() {
+        return VALUES.length;
+    }
+
+    /**
+     * @return Lowercase key used in prompts and impact strings, e.g. "economic"
+     */
+    public String getKey() {
+        return key;
+    }
+
+    /**
+     * @return Capitalised name used in summaries, e.g. "Economic"
+     */
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    public String getAlias() {
+        return alias;
+    }
+}
@@ -1,25 +1,36 @@
 package simu.model;
 
+import java.io.Serializable;
+
 /**
  * Represents a change to a PESTEL factor
  */
-public class PESTELChange {
+public class PESTELChange implements Serializable {
+    private static final long serialVersionUID = 1L;
+    
     private String category; // P, E, S, T, E, L
     private String factor;   // specific factor within category
     private String oldValue;
     private String newValue;
     private String reason;   // why the change occurred
     private String sourceAgentId; // which agent caused this change
+    private int sourceAgentIndex; // AgentRegistry ID of the source, AgentRegistry.UNKNOWN if not known
     private int day;
     
     public PESTELChange(String category, String factor, String oldValue, String newValue, 
                        String reason, String sourceAgentId, int day) {
+        this(category, factor, oldValue, newValue, reason, AgentRegistry.UNKNOWN, sourceAgentId, day);
+    }
+    
+    public PESTELChange(String category, String factor, String oldValue, String newValue, 
+                       String reason, int sourceAgentIndex, String sourceAgentId, int day) {
         this.category = category;
         this.factor = factor;
         this.oldValue = oldValue;
         this.newValue = newValue;
         this.reason = reason;
         this.sourceAgentId = sourceAgentId;
+        this.sourceAgentIndex = sourceAgentIndex;
         this.day = day;
     }
     
@@ -47,6 +58,10 @@ public class PESTELChange {
         return sourceAgentId;
     }
     
+    public int getSourceAgentIndex() {
+        return sourceAgentIndex;
+    }
+    
     public int getDay() {
         return day;
     }
@@ -0,0 +1,99 @@
+package simu.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Global table that maps every (category, factor key) pair to a dense int slot.
+ * Keys are interned and assigned a slot the first time they are seen; every PESTELState
+ * stores its values in a flat array indexed by these slots.
+ */
+public final class PESTELFactorIndex {
+    private static final List<Map<String, Integer>> SLOTS = new ArrayList<>(PESTELCategory.count());
+    private static volatile int[][] categorySlots = new int[PESTELCategory.count()][0];
+
+    private static volatile String[] slotKeys = new String[64];
+    private static volatile PESTELCategory[] slotCategories = new PESTELCategory[64];
+    private static volatile int size = 0;
+
+    static {
+        for (int i = 0; i < PESTELCategory.count(); i++) {
+            SLOTS.add(new ConcurrentHashMap<>());
+        }
+    }
+
+    private PESTELFactorIndex() {
+    }
+
+    /**
+     * Get the slot of a factor, registering it if it has not been seen before
+     * @param category PESTEL category of the factor
+     * @param key Factor key within the category, e.g. "growth"
+     * @return Dense slot index
+     */
+    public static int slotOf(PESTELCategory category, String key) {
+        Integer slot = SLOTS.get(category.ordinal()).get(key);
+        return slot != null ? slot : register(category, key);
+    }
+
+    /**
+     * Get the slot of a factor without registering it
+     * @return Slot index, or -1 if the factor has never been registered
+     */
+    public static int find(PESTELCategory category, String key) {
+        Integer slot = SLOTS.get(category.ordinal()).get(key);
+        return slot != null ? slot : -1;
+    }
+
+    private static synchronized int register(PESTELCategory category, String key) {
+        Integer existing = SLOTS.get(category.ordinal()).get(key);
+        if (existing != null) {
+            return existing;
+        }
+
+        int slot = size;
+        if (slot == slotKeys.length) {
+            slotKeys = Arrays.copyOf(slotKeys, slot * 2);
+            slotCategories = Arrays.copyOf(slotCategories, slot * 2);
+        }
+        slotKeys[slot] = key.intern();
+        slotCategories[slot] = category;
+
+        int[][] bySlotCategory = categorySlots.clone();
+        int[] previous = bySlotCategory[category.ordinal()];
+        int[] grown = Arrays.copyOf(previous, previous.length + 1);
+        grown[previous.length] = slot;
+        bySlotCategory[category.ordinal()] = grown;
+        categorySlots = bySlotCategory;
+
+        size = slot + 1;
+        SLOTS.get(category.ordinal()).put(slotKeys[slot], slot);
+        return slot;
+    }
+
+    /**
+     * @return Number of registered factor slots
+     */
+    public static int size() {
+        return size;
+    }
+
+    public static String keyOf(int slot) {
+        return slotKeys[slot];
+    }
+
+    public static PESTELCategory categoryOf(int slot) {
+        return slotCategories[slot];
+    }
+
+    /**
+     * Slots registered for a category, in registration order. The returned array is shared
+     * and must not be modified.
+     */
+    public static int[] slotsOf(PESTELCategory category) {
+        return categorySlots[category.ordinal()];
+    }
+}
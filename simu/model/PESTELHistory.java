@@ -0,0 +1,324 @@
+package simu.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Event-sourced history of the global PESTEL state.
+ * Every factor change is appended to a compact columnar log (day, slot, value, source, reason)
+ * and indexed per factor slot and per category; a full snapshot is kept as a keyframe every
+ * few days. Point-in-time and range queries are answered with binary searches, so asking
+ * for a factor on day 143 of a multi-year run never replays the log from day 0, and
+ * rebuilding a whole state only replays the changes since the nearest keyframe.
+ */
+public class PESTELHistory {
+    public static final int DEFAULT_KEYFRAME_INTERVAL = 30;
+
+    private final int keyframeInterval;
+
+    // Change log columns in append (day) order
+    private int[] days;
+    private int[] slots;
+    private int[] previousPositions; // Earlier change of the same slot, -1 for the first one
+    private String[] values;
+    private String[] agentIds;
+    private int[] agentIndexes;
+    private String[] reasons;
+    private int size;
+
+    // Positions of each slot's and each category's changes, ascending
+    private int[][] slotPositions;
+    private int[] slotCounts;
+    private final int[][] categoryPositions;
+    private final int[] categoryCounts;
+
+    // Keyframes: end-of-day snapshots in ascending day order, the first one is the initial state
+    private final List<PESTELSnapshot> keyframes;
+    private int[] keyframeDays;
+    private int lastDay;
+
+    // Last state rebuilt by stateAt, reused while no change has been appended up to its day
+    private PESTELSnapshot cachedState;
+    private int cachedDay = -1;
+    private int cachedSize = -1;
+
+    public PESTELHistory(PESTELSnapshot initial) {
+        this(initial, DEFAULT_KEYFRAME_INTERVAL);
+    }
+
+    /**
+     * @param initial State before the first day, stored as the day-0 keyframe
+     * @param keyframeInterval Minimum number of days between two keyframes
+     */
+    public PESTELHistory(PESTELSnapshot initial, int keyframeInterval) {
+        if (keyframeInterval < 1) {
+            throw new IllegalArgumentException("Keyframe interval must be at least 1 day: " + keyframeInterval);
+        }
+        this.keyframeInterval = keyframeInterval;
+        this.days = new int[64];
+        this.slots = new int[64];
+        this.previousPositions = new int[64];
+        this.values = new String[64];
+        this.agentIds = new String[64];
+        this.agentIndexes = new int[64];
+        this.reasons = new String[64];
+        this.slotPositions = new int[Math.max(16, PESTELFactorIndex.size())][];
+        this.slotCounts = new int[slotPositions.length];
+        this.categoryPositions = new int[PESTELCategory.count()][];
+        this.categoryCounts = new int[PESTELCategory.count()];
+        this.keyframes = new ArrayList<>();
+        this.keyframeDays = new int[16];
+        keyframes.add(initial);
+        keyframeDays[0] = 0;
+        this.lastDay = 0;
+    }
+
+    /**
+     * Append a change that has just been applied to the global state
+     */
+    public void record(PESTELChange change) {
+        PESTELCategory category = PESTELCategory.fromName(change.getCategory());
+        if (category != null) {
+            record(PESTELFactorIndex.slotOf(category, change.getFactor()), change);
+        }
+    }
+
+    public void record(int slot, PESTELChange change) {
+        ensureCapacity(size + 1);
+        int day = Math.max(change.getDay(), lastDay);
+        lastDay = day;
+
+        if (slot >= slotCounts.length) {
+            int length = Math.max(slot + 1, slotCounts.length * 2);
+            slotPositions = Arrays.copyOf(slotPositions, length);
+            slotCounts = Arrays.copyOf(slotCounts, length);
+        }
+        int slotCount = slotCounts[slot];
+        days[size] = day;
+        slots[size] = slot;
+        previousPositions[size] = slotCount > 0 ? slotPositions[slot][slotCount - 1] : -1;
+        values[size] = change.getNewValue();
+        agentIds[size] = change.getSourceAgentId();
+        agentIndexes[size] = change.getSourceAgentIndex();
+        reasons[size] = change.getReason();
+
+        addPosition(slotPositions, slotCounts, slot, size);
+        addPosition(categoryPositions, categoryCounts, PESTELFactorIndex.categoryOf(slot).ordinal(), size);
+        size++;
+    }
+
+    /**
+     * Close a day, storing a keyframe of the state if the last one is at least
+     * keyframeInterval days old
+     */
+    public void endDay(int day, PESTELState state) {
+        lastDay = Math.max(lastDay, day);
+        int lastKeyframe = keyframeDays[keyframes.size() - 1];
+        if (day - lastKeyframe >= keyframeInterval) {
+            if (keyframes.size() == keyframeDays.length) {
+                keyframeDays = Arrays.copyOf(keyframeDays, keyframeDays.length * 2);
+            }
+            keyframeDays[keyframes.size()] = day;
+            keyframes.add(state.snapshot());
+        }
+    }
+
+    /**
+     * Value of a factor at the end of a day
+     * @return The value, or "Not defined" if the factor had no value on that day
+     */
+    public String getFactorAt(int slot, int day) {
+        int position = lastPositionOf(slot, day);
+        if (position >= 0) {
+            return values[position];
+        }
+        return keyframes.get(0).getFactor(slot);
+    }
+
+    public String getFactorAt(PESTELCategory category, String key, int day) {
+        int slot = PESTELFactorIndex.find(category, key);
+        return slot >= 0 ? getFactorAt(slot, day) : PESTELView.NOT_DEFINED;
+    }
+
+    public String getFactorAt(String category, String key, int day) {
+        PESTELCategory resolved = PESTELCategory.fromName(category);
+        return resolved != null ? getFactorAt(resolved, key, day) : "Invalid category";
+    }
+
+    /**
+     * Full state at the end of a day: the nearest keyframe plus the changes recorded after it
+     */
+    public PESTELSnapshot stateAt(int day) {
+        int to = lowerBound(days, 0, size, day + 1);
+        if (day == cachedDay && to == cachedSize) {
+            return cachedState;
+        }
+
+        int keyframe = Math.max(0, upperBound(keyframeDays, 0, keyframes.size(), day) - 1);
+        // Later keyframes are end-of-day states; the initial one precedes every change
+        int from = keyframe > 0 ? lowerBound(days, 0, size, keyframeDays[keyframe] + 1) : 0;
+        PESTELSnapshot state = keyframes.get(keyframe);
+        if (from < to) {
+            state = state.withFactors(Arrays.copyOfRange(slots, from, to), Arrays.copyOfRange(values, from, to),
+                to - from, day);
+        }
+
+        cachedState = state;
+        cachedDay = day;
+        cachedSize = to;
+        return state;
+    }
+
+    /**
+     * All changes recorded from fromDay to toDay (inclusive), in order
+     */
+    public List<PESTELChange> changesBetween(int fromDay, int toDay) {
+        int from = lowerBound(days, 0, size, fromDay);
+        int to = lowerBound(days, 0, size, toDay + 1);
+        List<PESTELChange> result = new ArrayList<>(Math.max(0, to - from));
+        for (int position = from; position < to; position++) {
+            result.add(changeAt(position));
+        }
+        return result;
+    }
+
+    /**
+     * All changes to the factors of one category from fromDay to toDay (inclusive), in order
+     */
+    public List<PESTELChange> changesOf(PESTELCategory category, int fromDay, int toDay) {
+        int index = category.ordinal();
+        return collect(categoryPositions[index], categoryCounts[index], fromDay, toDay);
+    }
+
+    /**
+     * All changes to one factor from fromDay to toDay (inclusive), in order
+     */
+    public List<PESTELChange> changesOf(PESTELCategory category, String key, int fromDay, int toDay) {
+        int slot = PESTELFactorIndex.find(category, key);
+        if (slot < 0 || slot >= slotCounts.length) {
+            return Collections.emptyList();
+        }
+        return collect(slotPositions[slot], slotCounts[slot], fromDay, toDay);
+    }
+
+    /**
+     * Number of recorded changes
+     */
+    public int size() {
+        return size;
+    }
+
+    public int getKeyframeCount() {
+        return keyframes.size();
+    }
+
+    public int getKeyframeInterval() {
+        return keyframeInterval;
+    }
+
+    /**
+     * Last day that has been recorded or closed
+     */
+    public int getLastDay() {
+        return lastDay;
+    }
+
+    private List<PESTELChange> collect(int[] positions, int count, int fromDay, int toDay) {
+        if (positions == null || count == 0) {
+            return Collections.emptyList();
+        }
+        int first = lowerBoundByDay(positions, count, fromDay);
+        int last = lowerBoundByDay(positions, count, toDay + 1);
+        List<PESTELChange> result = new ArrayList<>(Math.max(0, last - first));
+        for (int i = first; i < last; i++) {
+            result.add(changeAt(positions[i]));
+        }
+        return result;
+    }
+
+    private PESTELChange changeAt(int position) {
+        int slot = slots[position];
+        int previous = previousPositions[position];
+        String oldValue = previous >= 0 ? values[previous] : keyframes.get(0).getFactor(slot);
+        return new PESTELChange(PESTELFactorIndex.categoryOf(slot).getKey(), PESTELFactorIndex.keyOf(slot),
+            oldValue, values[position], reasons[position], agentIndexes[position], agentIds[position], days[position]);
+    }
+
+    /**
+     * Position of the last change of a slot recorded on or before a day, -1 if there is none
+     */
+    private int lastPositionOf(int slot, int day) {
+        if (slot < 0 || slot >= slotCounts.length || slotCounts[slot] == 0) {
+            return -1;
+        }
+        int index = lowerBoundByDay(slotPositions[slot], slotCounts[slot], day + 1) - 1;
+        return index >= 0 ? slotPositions[slot][index] : -1;
+    }
+
+    /**
+     * First index in positions[0, count) whose change was recorded on or after a day
+     */
+    private int lowerBoundByDay(int[] positions, int count, int day) {
+        int low = 0;
+        int high = count;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (days[positions[mid]] < day) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * First index in sorted[from, to) holding a value of at least key
+     */
+    private static int lowerBound(int[] sorted, int from, int to, int key) {
+        int low = from;
+        int high = to;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sorted[mid] < key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * First index in sorted[from, to) holding a value greater than key
+     */
+    private static int upperBound(int[] sorted, int from, int to, int key) {
+        return lowerBound(sorted, from, to, key + 1);
+    }
+
+    private static void addPosition(int[][] positions, int[] counts, int index, int position) {
+        int[] list = positions[index];
+        if (list == null) {
+            list = new int[8];
+        } else if (counts[index] == list.length) {
+            list = Arrays.copyOf(list, list.length * 2);
+        }
+        list[counts[index]++] = position;
+        positions[index] = list;
+    }
+
+    private void ensureCapacity(int required) {
+        if (required > days.length) {
+            int capacity = Math.max(required, days.length * 2);
+            days = Arrays.copyOf(days, capacity);
+            slots = Arrays.copyOf(slots, capacity);
+            previousPositions = Arrays.copyOf(previousPositions, capacity);
+            values = Arrays.copyOf(values, capacity);
+            agentIds = Arrays.copyOf(agentIds, capacity);
+            agentIndexes = Arrays.copyOf(agentIndexes, capacity);
+            reasons = Arrays.copyOf(reasons, capacity);
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package simu.model;
+
+/**
+ * Numeric layer derived from the textual PESTEL factors.
+ * When a factor is set, its primary indicator (the first non-year number in the text) and
+ * its kind are parsed once into primitive arrays indexed by slot, and the themes it mentions
+ * are matched into a bit mask. Trends, scenario alignment and vector influence are then
+ * arithmetic over those arrays instead of scans of the factor strings.
+ */
+public final class PESTELIndicators {
+
+    /**
+     * Kind of the primary indicator of a factor
+     */
+    public enum Kind {
+        NONE,   // no number in the text
+        RATE,   // percentage, e.g. "GDP growth 2.5% annually"
+        INDEX,  // index or score, e.g. "Low corruption index 88"
+        LEVEL   // absolute amount, e.g. "Population 5.5M"
+    }
+
+    /**
+     * Keywords the scenario and vector logic react to. Matching is case-sensitive, exactly
+     * like the String.contains checks it replaces.
+     */
+    public enum Theme {
+        AI("AI"),
+        ADVANCED("advanced"),
+        TRANSITION("transition"),
+        PROGRESS("progress"),
+        COOPERATION("cooperation"),
+        ALLIANCE("alliance"),
+        STABLE("stable"),
+        UNSTABLE("unstable"),
+        GROWTH("growth"),
+        RENEWABLE("renewable");
+
+        private final String keyword;
+
+        Theme(String keyword) {
+            this.keyword = keyword;
+        }
+
+        public String getKeyword() {
+            return keyword;
+        }
+
+        public long bit() {
+            return 1L << ordinal();
+        }
+    }
+
+    private static final Theme[] THEMES = Theme.values();
+    private static final Kind[] KINDS = Kind.values();
+
+    private PESTELIndicators() {
+    }
+
+    /**
+     * Bit mask of the themes mentioned in a factor text
+     */
+    public static long themesOf(String text) {
+        long mask = 0L;
+        if (text == null) {
+            return mask;
+        }
+        for (Theme theme : THEMES) {
+            if (text.contains(theme.keyword)) {
+                mask |= theme.bit();
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Parse the primary indicator of a factor text
+     * @return The first number that is not a bare year, signed and scaled by a K/M/B/T suffix, or NaN if there is none
+     */
+    public static double parseValue(String text) {
+        double[] value = new double[1];
+        parseInto(text, value, 0);
+        return value[0];
+    }
+
+    /**
+     * Classify the primary indicator of a factor text
+     */
+    public static Kind classify(String text) {
+        return KINDS[parseInto(text, new double[1], 0)];
+    }
+
+    static Kind kindOf(byte code) {
+        return KINDS[code];
+    }
+
+    /**
+     * Average relative change from previous to current over the given slots, counting only the
+     * slots where both indicators are numbers and the previous one is not zero
+     */
+    static double relativeTrend(double[] current, double[] previous, int[] slots) {
+        double total = 0.0;
+        int counted = 0;
+        for (int slot : slots) {
+            if (slot >= current.length) {
+                continue;
+            }
+            double before = previous[slot];
+            double after = current[slot];
+            if (!Double.isNaN(before) && !Double.isNaN(after) && before != 0.0) {
+                total += (after - before) / Math.abs(before);
+                counted++;
+            }
+        }
+        return counted > 0 ? total / counted : 0.0;
+    }
+
+    /**
+     * Parse the primary indicator of a factor text into a primitive array
+     * @param values Array receiving the indicator value (NaN if the text has no usable number)
+     * @param index Position to write in values
+     * @return Ordinal of the indicator Kind
+     */
+    static byte parseInto(String text, double[] values, int index) {
+        int length = text == null ? 0 : text.length();
+        int i = 0;
+        while (i < length) {
+            if (!isDigit(text.charAt(i))) {
+                i++;
+                continue;
+            }
+
+            // A minus sign counts unless it joins two words or numbers, as in "2024-2030"
+            boolean negative = i > 0 && text.charAt(i - 1) == '-'
+                && (i < 2 || !Character.isLetterOrDigit(text.charAt(i - 2)));
+
+            // Integer part, allowing thousands separators such as 45,000
+            long integer = 0;
+            boolean separated = false;
+            while (i < length) {
+                char c = text.charAt(i);
+                if (isDigit(c)) {
+                    integer = integer * 10 + (c - '0');
+                    i++;
+                } else if (c == ',' && isThousandsGroup(text, i + 1)) {
+                    separated = true;
+                    i++;
+                } else {
+                    break;
+                }
+            }
+
+            double value = integer;
+            boolean fractional = false;
+            if (i + 1 < length && text.charAt(i) == '.' && isDigit(text.charAt(i + 1))) {
+                fractional = true;
+                double scale = 0.1;
+                i++;
+                while (i < length && isDigit(text.charAt(i))) {
+                    value += (text.charAt(i) - '0') * scale;
+                    scale /= 10;
+                    i++;
+                }
+            }
+
+            Kind kind = Kind.LEVEL;
+            boolean suffixed = false;
+            if (i < length) {
+                char suffix = text.charAt(i);
+                boolean wordEnds = i + 1 >= length || !Character.isLetter(text.charAt(i + 1));
+                if (suffix == '%') {
+                    kind = Kind.RATE;
+                    suffixed = true;
+                } else if (wordEnds && (suffix == 'K' || suffix == 'M' || suffix == 'B' || suffix == 'T')) {
+                    value *= suffix == 'K' ? 1e3 : suffix == 'M' ? 1e6 : suffix == 'B' ? 1e9 : 1e12;
+                    suffixed = true;
+                }
+            }
+
+            // Skip target years such as "Carbon neutral by 2035"
+            if (!fractional && !separated && !suffixed && integer >= 1900 && integer <= 2100) {
+                continue;
+            }
+
+            if (kind == Kind.LEVEL && text.toLowerCase().contains("index")) {
+                kind = Kind.INDEX;
+            }
+            values[index] = negative ? -value : value;
+            return (byte) kind.ordinal();
+        }
+        values[index] = Double.NaN;
+        return (byte) Kind.NONE.ordinal();
+    }
+
+    private static boolean isThousandsGroup(String text, int start) {
+        if (start + 3 > text.length()) {
+            return false;
+        }
+        for (int i = start; i < start + 3; i++) {
+            if (!isDigit(text.charAt(i))) {
+                return false;
+            }
+        }
+        return start + 3 == text.length() || !isDigit(text.charAt(start + 3));
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+}
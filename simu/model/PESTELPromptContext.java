@@ -0,0 +1,187 @@
+package simu.model;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * PESTEL section of the agents' decision prompts.
+ *
+ * In full mode a prompt carries the whole global PESTEL state, as it always has. In delta mode
+ * it carries the categories relevant to the agent and the changes made since the agent's last
+ * prompt, read from the change log. Most of the state is the same from one day to the next, and
+ * local models take longer to process longer prompts.
+ *
+ * Both modes count the tokens they send, estimated from the prompt length, and the tokens the
+ * full state would have cost. Each day is closed with its wall-clock time, so the engines can
+ * report the tokens saved and the latency of every day. Meant for the engine thread.
+ */
+public class PESTELPromptContext {
+    public static final int CHARS_PER_TOKEN = 4; // Rough length of a token of English text
+    public static final int MAX_CHANGE_LINES = 12; // Changes listed in a prompt; older ones are only counted
+
+    private static final String FULL_HEADING = "GLOBAL PESTEL STATE:\n";
+
+    private final ColumnarEventStore<PESTELChange> changeLog;
+    private final Map<String, Integer> lastPromptDays = new HashMap<>();
+    private final List<DayStats> days = new ArrayList<>();
+    private boolean delta;
+
+    private int dayPrompts;
+    private long dayTokens;
+    private long dayFullTokens;
+    private long prompts;
+    private long tokens;
+    private long fullTokens;
+
+    /**
+     * Prompts, tokens and wall-clock time of one simulated day
+     */
+    public static final class DayStats {
+        private final int day;
+        private final int prompts;
+        private final long tokens;
+        private final long fullTokens;
+        private final double millis;
+
+        DayStats(int day, int prompts, long tokens, long fullTokens, double millis) {
+            this.day = day;
+            this.prompts = prompts;
+            this.tokens = tokens;
+            this.fullTokens = fullTokens;
+            this.millis = millis;
+        }
+
+        public int getDay() { return day; }
+        public int getPrompts() { return prompts; }
+        public long getTokens() { return tokens; }
+
+        /**
+         * Tokens the same prompts would have taken with the full state
+         */
+        public long getFullTokens() { return fullTokens; }
+        public long getSavedTokens() { return fullTokens - tokens; }
+        public double getMillis() { return millis; }
+
+        @Override
+        public String toString() {
+            return String.format("Day %d: %d prompts, ~%,d PESTEL tokens (~%,d saved), %.0f ms",
+                day, prompts, tokens, getSavedTokens(), millis);
+        }
+    }
+
+    /**
+     * @param changeLog Changes of the global state, read for the changes since each agent's last prompt
+     */
+    public PESTELPromptContext(ColumnarEventStore<PESTELChange> changeLog) {
+        this.changeLog = changeLog;
+    }
+
+    /**
+     * PESTEL section of an agent's decision prompt for the given day, heading included
+     */
+    public String render(PESTELAgent agent, PESTELState state, int day) {
+        String full = state.toString();
+        int fullLength = FULL_HEADING.length() + full.length() + 2;
+        String context = delta ? renderDelta(agent, state) : FULL_HEADING + full + "\n\n";
+        lastPromptDays.put(agent.getAgentId(), day);
+
+        dayPrompts++;
+        dayTokens += estimateTokens(context.length());
+        dayFullTokens += estimateTokens(fullLength);
+        return context;
+    }
+
+    /**
+     * Full PESTEL section, as every prompt carried it before delta encoding
+     */
+    public static String renderFull(PESTELState state) {
+        return FULL_HEADING + state + "\n\n";
+    }
+
+    private String renderDelta(PESTELAgent agent, PESTELState state) {
+        StringBuilder context = new StringBuilder();
+        context.append("YOUR RELEVANT PESTEL FACTORS:\n");
+        for (PESTELCategory category : relevantCategories(agent)) {
+            context.append("[").append(category.name()).append("]\n");
+            context.append(state.renderCategory(category));
+        }
+
+        Integer lastDay = lastPromptDays.get(agent.getAgentId());
+        List<PESTELChange> changes = changeLog.since(lastDay != null ? lastDay : 0);
+        context.append(lastDay != null ? "\nCHANGES SINCE YOUR LAST DECISION (day " + lastDay + "):\n" : "\nCHANGES SO FAR:\n");
+        if (changes.isEmpty()) {
+            context.append("- none\n");
+        }
+        int first = Math.max(0, changes.size() - MAX_CHANGE_LINES);
+        if (first > 0) {
+            context.append("- ").append(first).append(" earlier changes not listed\n");
+        }
+        for (PESTELChange change : changes.subList(first, changes.size())) {
+            context.append("- Day ").append(change.getDay()).append(": ")
+                   .append(change.getCategory()).append('.').append(change.getFactor()).append(" = ")
+                   .append(change.getNewValue()).append(" (").append(change.getSourceAgentId()).append(")\n");
+        }
+        return context.append("\n").toString();
+    }
+
+    /**
+     * Categories an agent mainly acts on, the same as the AI-enhanced engines show their agents
+     */
+    public static PESTELCategory[] relevantCategories(PESTELAgent agent) {
+        switch (agent.getAgentType()) {
+            case COMPANY: return new PESTELCategory[]{PESTELCategory.ECONOMIC, PESTELCategory.TECHNOLOGICAL};
+            case COUNTRY: return new PESTELCategory[]{PESTELCategory.POLITICAL, PESTELCategory.ECONOMIC};
+            case RESEARCHER: return new PESTELCategory[]{PESTELCategory.TECHNOLOGICAL, PESTELCategory.SOCIAL};
+            default: return PESTELCategory.values();
+        }
+    }
+
+    /**
+     * Close a day's statistics
+     * @param millis Wall-clock time the day took, prompts and AI calls included
+     */
+    public void endDay(int day, double millis) {
+        days.add(new DayStats(day, dayPrompts, dayTokens, dayFullTokens, millis));
+        prompts += dayPrompts;
+        tokens += dayTokens;
+        fullTokens += dayFullTokens;
+        dayPrompts = 0;
+        dayTokens = 0;
+        dayFullTokens = 0;
+    }
+
+    public static long estimateTokens(int chars) {
+        return (chars + CHARS_PER_TOKEN - 1) / CHARS_PER_TOKEN;
+    }
+
+    /**
+     * Send only the relevant categories and the changes since each agent's last prompt
+     */
+    public void setDeltaEncoding(boolean delta) { this.delta = delta; }
+    public boolean isDeltaEncoding() { return delta; }
+    public long getPromptCount() { return prompts; }
+    public long getTokens() { return tokens; }
+    public long getFullTokens() { return fullTokens; }
+    public long getSavedTokens() { return fullTokens - tokens; }
+    public List<DayStats> getDays() { return new ArrayList<>(days); }
+
+    public double getMeanDayMillis() {
+        return days.stream().mapToDouble(DayStats::getMillis).average().orElse(0.0);
+    }
+
+    /**
+     * Totals followed by one line per day
+     */
+    public String report() {
+        StringBuilder report = new StringBuilder();
+        report.append(String.format("%s context: %,d prompts, ~%,d PESTEL tokens instead of ~%,d (%.0f%% saved), %.0f ms per day%n",
+            delta ? "Delta" : "Full", prompts, tokens, fullTokens,
+            fullTokens == 0 ? 0.0 : 100.0 * getSavedTokens() / fullTokens, getMeanDayMillis()));
+        for (DayStats day : days) {
+            report.append("  ").append(day).append(System.lineSeparator());
+        }
+        return report.toString();
+    }
+}
@@ -4,6 +4,7 @@ import simu.framework.*;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
 
 /**
  * Main PESTEL-based simulation engine that implements the day-by-day AI-driven decision making
@@ -11,28 +12,57 @@ import java.util.concurrent.ExecutionException;
 public class PESTELSimulationEngine extends Engine {
     private PESTELState globalPESTEL;
     private List<PESTELAgent> agents;
+    private AgentRegistry agentRegistry;
     private PESTELAIService aiService;
-    private List<AgentAction> recentActions;
-    private List<PESTELChange> recentChanges;
+    private ColumnarEventStore<AgentAction> actionLog;
+    private ColumnarEventStore<PESTELChange> changeLog;
+    private PESTELHistory pestelHistory; // Every global change plus periodic keyframes
     private int currentDay;
     private int simulationDays;
     private boolean aiEnabled;
+    private long seed; // Agents and the fallback picker draw from streams derived from the seed
+    private Random fallbackRandom;
+    private boolean batchedImpactAnalysis; // Ask for all categories and affected agents in one request
+    private DayDeadlineScheduler deadlineScheduler; // Latency budget of each day's AI calls, or null to wait for every answer
+    private long agentDeadline; // Deadline of the AI calls of the agent being processed
+    private PESTELPromptContext promptContext; // PESTEL section of the decision prompts, full or delta-encoded
     
+    // LLM requests made to analyse decisions, by kind
+    private int batchedImpactRequests;
+    private int categoryImpactRequests;
+    private int affectedAgentsRequests;
+    
+    private static final int RECENT_DAYS = 10; // Window of actions and changes agents react to
     private static final String[] PESTEL_CATEGORIES = {"political", "economic", "social", "technological", "environmental", "legal"};
     
     public PESTELSimulationEngine(int companies, int countries, int researchers, int simulationDays) {
+        this(companies, countries, researchers, simulationDays, new Random().nextLong());
+    }
+    
+    /**
+     * @param seed Seed of every random draw of the agents and the fallback logic; two runs without
+     *             the AI service and with the same seed are identical
+     */
+    public PESTELSimulationEngine(int companies, int countries, int researchers, int simulationDays, long seed) {
+        this.seed = seed;
+        this.fallbackRandom = streamRandom(-1);
         this.globalPESTEL = new PESTELState();
         this.agents = new ArrayList<>();
-        this.recentActions = new ArrayList<>();
-        this.recentChanges = new ArrayList<>();
+        this.agentRegistry = new AgentRegistry();
+        this.actionLog = ColumnarEventStore.forActions(agentRegistry, ColumnarEventStore.UNLIMITED);
+        this.changeLog = ColumnarEventStore.forChanges(agentRegistry, ColumnarEventStore.UNLIMITED);
+        this.promptContext = new PESTELPromptContext(changeLog);
+        this.pestelHistory = new PESTELHistory(globalPESTEL.snapshot());
         this.currentDay = 1;
         this.simulationDays = simulationDays;
         this.aiEnabled = false;
+        this.batchedImpactAnalysis = true;
         
         // Initialize AI service
         String apiKey = System.getProperty("GEMINI_API_KEY");
         if (apiKey != null && !apiKey.isEmpty()) {
             this.aiService = new PESTELAIService(apiKey);
+            this.aiService.setRandom(streamRandom(-2));
             this.aiEnabled = true;
             Trace.out(Trace.Level.INFO, "✓ PESTEL AI service initialized successfully");
         } else {
@@ -46,17 +76,17 @@ public class PESTELSimulationEngine extends Engine {
     private void createAgents(int companies, int countries, int researchers) {
         // Create company agents
         for (int i = 1; i <= companies; i++) {
-            agents.add(new CompanyPESTELAgent("Company_" + i));
+            addAgent(new CompanyPESTELAgent("Company_" + i, streamRandom(agents.size())));
         }
         
         // Create country agents
         for (int i = 1; i <= countries; i++) {
-            agents.add(new CountryPESTELAgent("Country_" + i));
+            addAgent(new CountryPESTELAgent("Country_" + i, streamRandom(agents.size())));
         }
         
         // Create researcher agents
         for (int i = 1; i <= researchers; i++) {
-            agents.add(new ResearcherPESTELAgent("Researcher_" + i));
+            addAgent(new ResearcherPESTELAgent("Researcher_" + i, streamRandom(agents.size())));
         }
         
         Trace.out(Trace.Level.INFO, "Created " + agents.size() + " PESTEL agents:");
@@ -65,11 +95,27 @@ public class PESTELSimulationEngine extends Engine {
         Trace.out(Trace.Level.INFO, "  - " + researchers + " researchers");
     }
     
+    /**
+     * Random stream of the agent about to be added at the given position, independent of every other agent's draws
+     */
+    private Random streamRandom(long stream) {
+        long z = seed ^ (stream + 1) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return new Random(z ^ (z >>> 31));
+    }
+    
+    private void addAgent(PESTELAgent agent) {
+        agentRegistry.register(agent);
+        agents.add(agent);
+    }
+    
     @Override
     protected void initialize() {
         Trace.out(Trace.Level.INFO, "=== INITIALIZING PESTEL SIMULATION ===");
         Trace.out(Trace.Level.INFO, "Simulation Duration: " + simulationDays + " days");
         Trace.out(Trace.Level.INFO, "AI-Driven Decisions: " + (aiEnabled ? "Enabled" : "Disabled"));
+        Trace.out(Trace.Level.INFO, "Seed: " + seed);
         
         Trace.out(Trace.Level.INFO, "\n=== INITIAL GLOBAL PESTEL STATE ===");
         Trace.out(Trace.Level.INFO, globalPESTEL.toString());
@@ -110,6 +156,16 @@ public class PESTELSimulationEngine extends Engine {
         
         // Display recent changes summary
         displayChangesSummary();
+        
+        if (deadlineScheduler != null) {
+            Trace.out(Trace.Level.INFO, "\n=== AI LATENCY BUDGET ===");
+            Trace.out(Trace.Level.INFO, deadlineScheduler.toString());
+        }
+        
+        if (promptContext.getPromptCount() > 0) {
+            Trace.out(Trace.Level.INFO, "\n=== PROMPT CONTEXT ===");
+            Trace.out(Trace.Level.INFO, promptContext.report());
+        }
     }
     
     /**
@@ -117,15 +173,25 @@ public class PESTELSimulationEngine extends Engine {
      */
     private void processDailySimulation() {
         Trace.out(Trace.Level.INFO, "\n========== DAY " + currentDay + " ==========");
+        long dayStart = System.nanoTime();
         
-        // Process each agent
-        for (PESTELAgent agent : agents) {
-            processAgentDay(agent);
+        // Process each agent, one after the other, each within its share of the day's latency budget
+        if (aiEnabled && deadlineScheduler != null) {
+            deadlineScheduler.startDay(currentDay, agents.size(), 1);
+        }
+        for (int i = 0; i < agents.size(); i++) {
+            if (aiEnabled && deadlineScheduler != null) {
+                agentDeadline = deadlineScheduler.agentDeadline(i);
+            }
+            processAgentDay(agents.get(i));
         }
         
         // Clean up old actions (keep last 10 days)
         cleanupOldActions();
         
+        recordDailySnapshot();
+        promptContext.endDay(currentDay, (System.nanoTime() - dayStart) / 1e6);
+        
         // Schedule next day if simulation not complete
         if (currentDay < simulationDays) {
             currentDay++;
@@ -133,6 +199,13 @@ public class PESTELSimulationEngine extends Engine {
         }
     }
     
+    /**
+     * Close the day in the PESTEL history, which keeps a keyframe of the state every few days
+     */
+    private void recordDailySnapshot() {
+        pestelHistory.endDay(currentDay, globalPESTEL);
+    }
+    
     /**
      * Process one agent's decision for the day
      */
@@ -151,15 +224,16 @@ public class PESTELSimulationEngine extends Engine {
             Trace.out(Trace.Level.INFO, agent.getAgentId() + " decides: " + decision);
             
             // Record the action
-            AgentAction action = new AgentAction(agent.getAgentId(), currentDay, decision, "decision");
-            recentActions.add(action);
-            agent.recordAction(decision);
+            AgentAction action = new AgentAction(agent.getAgentIndex(), agent.getAgentId(), currentDay, decision, "decision");
+            actionLog.append(action);
+            agent.recordAction(currentDay, decision, "decision", AgentMemory.NO_CONFIDENCE);
             
-            // Step 2: Process PESTEL impacts
-            processPESTELImpacts(decision, agent.getAgentId());
+            // Step 2: Process PESTEL impacts, asked for all categories at once when possible
+            PESTELAIService.DecisionImpact impact = askDecisionImpact(decision);
+            processPESTELImpacts(decision, agent, impact);
             
             // Step 3: Find and update affected agents
-            updateAffectedAgents(decision, agent);
+            updateAffectedAgents(decision, agent, impact);
             
         } catch (Exception e) {
             Trace.out(Trace.Level.WAR, "Error processing " + agent.getAgentId() + ": " + e.getMessage());
@@ -172,8 +246,9 @@ public class PESTELSimulationEngine extends Engine {
     private String askAgentForDecision(PESTELAgent agent) {
         if (aiEnabled) {
             try {
-                CompletableFuture<String> future = aiService.askAgentDecision(agent, globalPESTEL, currentDay, recentActions);
-                String result = future.get();
+                String pestelContext = promptContext.render(agent, globalPESTEL, currentDay);
+                CompletableFuture<String> future = aiService.askAgentDecision(agent, pestelContext, currentDay, actionLog.since(currentDay - RECENT_DAYS));
+                String result = awaitAnswer(future, agent.getAgentId());
                 return result != null ? result : "no_action";
             } catch (Exception e) {
                 Trace.out(Trace.Level.WAR, "AI decision failed for " + agent.getAgentId() + ", using fallback");
@@ -181,20 +256,41 @@ public class PESTELSimulationEngine extends Engine {
         }
         
         // Fallback: use agent's built-in decision logic
-        AgentDecision decision = agent.makeDecision(globalPESTEL, currentDay, recentActions);
+        AgentDecision decision = agent.makeDecision(globalPESTEL, currentDay, actionLog.since(currentDay - RECENT_DAYS));
         return decision != null ? decision.getDescription() : "no_action";
     }
     
     /**
-     * Process how a decision affects each PESTEL category
+     * Ask AI for the impact of a decision on all categories and the affected agents in one request
+     * @return The parsed sections, or null if batching is off, AI is disabled or the request failed
      */
-    private void processPESTELImpacts(String decision, String agentId) {
+    private PESTELAIService.DecisionImpact askDecisionImpact(String decision) {
+        if (!aiEnabled || !batchedImpactAnalysis) {
+            return null;
+        }
+        try {
+            batchedImpactRequests++;
+            return awaitAnswer(aiService.askDecisionImpact(decision, globalPESTEL, agents), "impact analysis");
+        } catch (Exception e) {
+            Trace.out(Trace.Level.WAR, "AI batched impact analysis failed, asking per category");
+            return null;
+        }
+    }
+    
+    /**
+     * Process how a decision affects each PESTEL category. Categories missing from the batched
+     * answer are asked for one by one.
+     */
+    private void processPESTELImpacts(String decision, PESTELAgent agent, PESTELAIService.DecisionImpact batched) {
         for (String category : PESTEL_CATEGORIES) {
             try {
-                String impact = getPESTELImpact(decision, category);
+                String impact = batched != null ? batched.getImpact(category) : null;
+                if (impact == null) {
+                    impact = getPESTELImpact(decision, category);
+                }
                 
                 if (!impact.equals("NO_IMPACT")) {
-                    applyPESTELChange(impact, category, agentId);
+                    applyPESTELChange(impact, category, agent);
                 }
             } catch (Exception e) {
                 Trace.out(Trace.Level.WAR, "Error processing " + category + " impact: " + e.getMessage());
@@ -208,8 +304,9 @@ public class PESTELSimulationEngine extends Engine {
     private String getPESTELImpact(String decision, String category) {
         if (aiEnabled) {
             try {
+                categoryImpactRequests++;
                 CompletableFuture<String> future = aiService.askPESTELImpact(decision, category, globalPESTEL);
-                return future.get();
+                return awaitAnswer(future, "impact analysis");
             } catch (Exception e) {
                 Trace.out(Trace.Level.WAR, "AI PESTEL impact failed for " + category + ", using fallback");
             }
@@ -219,10 +316,23 @@ public class PESTELSimulationEngine extends Engine {
         return generateFallbackImpact(decision, category);
     }
     
+    /**
+     * Wait for an AI answer, until the current agent's deadline when a day latency budget is set
+     * @param caller Who the answer is for, as recorded with a late answer
+     * @throws TimeoutException If the deadline passed first
+     */
+    private <T> T awaitAnswer(CompletableFuture<T> future, String caller)
+            throws TimeoutException, ExecutionException, InterruptedException {
+        if (deadlineScheduler == null) {
+            return future.get();
+        }
+        return deadlineScheduler.await(future, agentDeadline, caller);
+    }
+    
     /**
      * Apply a PESTEL change to global state
      */
-    private void applyPESTELChange(String impact, String category, String agentId) {
+    private void applyPESTELChange(String impact, String category, PESTELAgent agent) {
         if (impact.startsWith("FACTOR:")) {
             // Parse structured impact
             String[] parts = impact.split("\\|");
@@ -230,15 +340,23 @@ public class PESTELSimulationEngine extends Engine {
             String newValue = parts[1].substring(10); // Remove "NEW_VALUE:"
             String reason = parts.length > 2 ? parts[2].substring(7) : ""; // Remove "REASON:"
             
+            PESTELCategory resolved = PESTELCategory.fromName(category);
+            if (resolved == null) {
+                return;
+            }
+            int slot = PESTELFactorIndex.slotOf(resolved, factor);
+            
             // Get old value
-            String oldValue = globalPESTEL.getFactor(category, factor);
+            String oldValue = globalPESTEL.getFactor(slot);
             
             // Apply change
-            globalPESTEL.updateFactor(category, factor, newValue);
+            globalPESTEL.updateFactor(slot, newValue);
             
             // Record change
-            PESTELChange change = new PESTELChange(category, factor, oldValue, newValue, reason, agentId, currentDay);
-            recentChanges.add(change);
+            PESTELChange change = new PESTELChange(category, factor, oldValue, newValue, reason,
+                                                   agent.getAgentIndex(), agent.getAgentId(), currentDay);
+            changeLog.append(change);
+            pestelHistory.record(slot, change);
             
             Trace.out(Trace.Level.INFO, "  PESTEL Change: " + change.toString());
         }
@@ -247,8 +365,11 @@ public class PESTELSimulationEngine extends Engine {
     /**
      * Update agents affected by a decision
      */
-    private void updateAffectedAgents(String decision, PESTELAgent sourceAgent) {
-        List<String> affectedAgentIds = getAffectedAgents(decision);
+    private void updateAffectedAgents(String decision, PESTELAgent sourceAgent, PESTELAIService.DecisionImpact batched) {
+        List<String> affectedAgentIds = batched != null ? batched.getAffectedAgents() : null;
+        if (affectedAgentIds == null) {
+            affectedAgentIds = getAffectedAgents(decision);
+        }
         
         for (String agentId : affectedAgentIds) {
             if (!agentId.equals(sourceAgent.getAgentId())) {
@@ -270,8 +391,9 @@ public class PESTELSimulationEngine extends Engine {
     private List<String> getAffectedAgents(String decision) {
         if (aiEnabled) {
             try {
+                affectedAgentsRequests++;
                 CompletableFuture<List<String>> future = aiService.askAffectedAgents(decision, agents);
-                return future.get();
+                return awaitAnswer(future, "affected agents analysis");
             } catch (Exception e) {
                 Trace.out(Trace.Level.WAR, "AI affected agents failed, using fallback");
             }
@@ -320,7 +442,7 @@ public class PESTELSimulationEngine extends Engine {
         if (lowerDecision.contains("policy") || lowerDecision.contains("regulation")) {
             // Add some companies
             for (PESTELAgent agent : agents) {
-                if (agent instanceof CompanyPESTELAgent && Math.random() < 0.3) {
+                if (agent instanceof CompanyPESTELAgent && fallbackRandom.nextDouble() < 0.3) {
                     affected.add(agent.getAgentId());
                 }
             }
@@ -329,7 +451,7 @@ public class PESTELSimulationEngine extends Engine {
         if (lowerDecision.contains("research") || lowerDecision.contains("innovation")) {
             // Add some researchers
             for (PESTELAgent agent : agents) {
-                if (agent instanceof ResearcherPESTELAgent && Math.random() < 0.4) {
+                if (agent instanceof ResearcherPESTELAgent && fallbackRandom.nextDouble() < 0.4) {
                     affected.add(agent.getAgentId());
                 }
             }
@@ -339,13 +461,10 @@ public class PESTELSimulationEngine extends Engine {
     }
     
     /**
-     * Find agent by ID
+     * Find agent by ID (O(1) registry lookup)
      */
     private PESTELAgent findAgentById(String agentId) {
-        return agents.stream()
-                .filter(agent -> agent.getAgentId().equals(agentId))
-                .findFirst()
-                .orElse(null);
+        return agentRegistry.get(agentId);
     }
     
     /**
@@ -353,17 +472,15 @@ public class PESTELSimulationEngine extends Engine {
      */
     private List<PESTELChange> getRecentChangesForAgent(PESTELAgent agent) {
         // Return last 5 changes that might affect this agent
-        return recentChanges.stream()
-                .filter(change -> change.getDay() >= currentDay - 5)
-                .collect(java.util.stream.Collectors.toList());
+        return changeLog.since(currentDay - 5);
     }
     
     /**
-     * Clean up old actions to prevent memory issues
+     * Drop actions and changes older than the configured retention
      */
     private void cleanupOldActions() {
-        recentActions.removeIf(action -> action.getDay() < currentDay - 10);
-        recentChanges.removeIf(change -> change.getDay() < currentDay - 10);
+        actionLog.applyRetention(currentDay);
+        changeLog.applyRetention(currentDay);
     }
     
     /**
@@ -381,6 +498,10 @@ public class PESTELSimulationEngine extends Engine {
         Trace.out(Trace.Level.INFO, "Total decisions made: " + totalDecisions);
         Trace.out(Trace.Level.INFO, "Average decisions per agent: " + 
                  String.format("%.2f", (double) totalDecisions / agents.size()));
+        if (aiEnabled) {
+            Trace.out(Trace.Level.INFO, String.format("Impact analysis requests: %d batched, %d per category, %d affected agents",
+                     batchedImpactRequests, categoryImpactRequests, affectedAgentsRequests));
+        }
     }
     
     /**
@@ -388,14 +509,9 @@ public class PESTELSimulationEngine extends Engine {
      */
     private void displayChangesSummary() {
         Trace.out(Trace.Level.INFO, "\n=== CHANGES SUMMARY ===");
-        Trace.out(Trace.Level.INFO, "Total PESTEL changes: " + recentChanges.size());
+        Trace.out(Trace.Level.INFO, "Total PESTEL changes: " + changeLog.since(currentDay - RECENT_DAYS).size());
         
-        Map<String, Integer> categoryChanges = new HashMap<>();
-        for (PESTELChange change : recentChanges) {
-            categoryChanges.merge(change.getCategory(), 1, Integer::sum);
-        }
-        
-        categoryChanges.forEach((category, count) -> 
+        changeLog.countByCategory(currentDay - RECENT_DAYS).forEach((category, count) -> 
             Trace.out(Trace.Level.INFO, "  " + category.toUpperCase() + ": " + count + " changes"));
     }
     
@@ -404,16 +520,28 @@ public class PESTELSimulationEngine extends Engine {
         return globalPESTEL;
     }
     
+    public AgentRegistry getAgentRegistry() {
+        return agentRegistry;
+    }
+    
     public List<PESTELAgent> getAgents() {
         return new ArrayList<>(agents);
     }
     
     public List<AgentAction> getRecentActions() {
-        return new ArrayList<>(recentActions);
+        return new ArrayList<>(actionLog.since(currentDay - RECENT_DAYS));
     }
     
     public List<PESTELChange> getRecentChanges() {
-        return new ArrayList<>(recentChanges);
+        return new ArrayList<>(changeLog.since(currentDay - RECENT_DAYS));
+    }
+    
+    public ColumnarEventStore<PESTELChange> getChangeLog() {
+        return changeLog;
+    }
+    
+    public ColumnarEventStore<AgentAction> getActionLog() {
+        return actionLog;
     }
     
     public int getCurrentDay() {
@@ -423,4 +551,90 @@ public class PESTELSimulationEngine extends Engine {
     public boolean isAIEnabled() {
         return aiEnabled;
     }
+    
+    public long getSeed() {
+        return seed;
+    }
+    
+    /**
+     * Fingerprint of the run so far; equal for runs that are bit-identical
+     */
+    public String getRunDigest() {
+        return RunDigest.of(actionLog.all(), changeLog.all(), globalPESTEL, null);
+    }
+    
+    /**
+     * Ask for the impact on all categories and the affected agents in one request per decision
+     * (the default), or with one request per category plus one for the affected agents
+     */
+    public void setBatchedImpactAnalysis(boolean batched) {
+        this.batchedImpactAnalysis = batched;
+    }
+    
+    public boolean isBatchedImpactAnalysis() {
+        return batchedImpactAnalysis;
+    }
+    
+    /**
+     * Give the AI calls of each day a total wall-clock budget, split into a deadline per agent;
+     * a call that misses its agent's deadline is answered by the fallback logic. 0 waits for every answer.
+     */
+    public void setDayLatencyBudget(long millis) {
+        this.deadlineScheduler = millis > 0 ? new DayDeadlineScheduler(millis) : null;
+    }
+    
+    /**
+     * Deadlines, misses and late answers of the AI calls, or null without a day latency budget
+     */
+    public DayDeadlineScheduler getDeadlineScheduler() {
+        return deadlineScheduler;
+    }
+    
+    /**
+     * Give each decision prompt the agent's relevant PESTEL categories and the changes since its
+     * last prompt instead of the whole global state
+     */
+    public void setDeltaPromptContext(boolean delta) {
+        promptContext.setDeltaEncoding(delta);
+    }
+    
+    /**
+     * Tokens sent and saved by the decision prompts, and the wall-clock time of every day
+     */
+    public PESTELPromptContext getPromptContext() {
+        return promptContext;
+    }
+    
+    /**
+     * Number of LLM requests made to analyse decisions: batched, per category and for affected agents
+     */
+    public int getImpactRequestCount() {
+        return batchedImpactRequests + categoryImpactRequests + affectedAgentsRequests;
+    }
+    
+    /**
+     * Get the published PESTEL state at the end of a day (day 0 is the initial state)
+     */
+    public PESTELSnapshot getPESTELSnapshot(int day) {
+        return pestelHistory.stateAt(Math.max(0, Math.min(day, pestelHistory.getLastDay())));
+    }
+    
+    public PESTELSnapshot getLatestPESTELSnapshot() {
+        return pestelHistory.stateAt(pestelHistory.getLastDay());
+    }
+    
+    /**
+     * Full change history with time-travel queries such as getFactorAt(category, key, day)
+     */
+    public PESTELHistory getPESTELHistory() {
+        return pestelHistory;
+    }
+    
+    /**
+     * Limit how many days of actions and changes are kept (ColumnarEventStore.UNLIMITED keeps the full history)
+     */
+    public void setEventRetentionDays(int days) {
+        actionLog.setRetentionDays(days);
+        changeLog.setRetentionDays(days);
+    }
 }
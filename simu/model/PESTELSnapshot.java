@@ -0,0 +1,218 @@
+package simu.model;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Immutable, structurally shared version of a PESTEL state.
+ * Factor values are stored in fixed-size chunks; deriving a new version copies only the chunk
+ * that changed and shares every other chunk with its parent, so keeping one snapshot per day
+ * costs roughly the size of that day's changes.
+ */
+public final class PESTELSnapshot implements PESTELView {
+    static final int CHUNK_BITS = 4;
+    static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+    static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    public static final PESTELSnapshot EMPTY = new PESTELSnapshot(new Chunk[0], 0.0);
+
+    private final Chunk[] chunks;
+    private final double lastUpdateTime;
+    
+    // Renderings are computed on first use; a snapshot never changes, so they never go stale
+    private String summary;
+    private String compact;
+
+    /**
+     * Values and numeric indicators of CHUNK_SIZE consecutive slots. Never modified once published.
+     */
+    private static final class Chunk {
+        final String[] values;
+        final double[] indicators;
+        final double[] previousIndicators;
+        final byte[] kinds;
+        final long[] themes;
+
+        Chunk(String[] values, double[] indicators, double[] previousIndicators, byte[] kinds, long[] themes) {
+            this.values = values;
+            this.indicators = indicators;
+            this.previousIndicators = previousIndicators;
+            this.kinds = kinds;
+            this.themes = themes;
+        }
+
+        Chunk copy() {
+            return new Chunk(values.clone(), indicators.clone(), previousIndicators.clone(), kinds.clone(), themes.clone());
+        }
+
+        static Chunk empty() {
+            double[] indicators = new double[CHUNK_SIZE];
+            double[] previous = new double[CHUNK_SIZE];
+            Arrays.fill(indicators, Double.NaN);
+            Arrays.fill(previous, Double.NaN);
+            return new Chunk(new String[CHUNK_SIZE], indicators, previous, new byte[CHUNK_SIZE], new long[CHUNK_SIZE]);
+        }
+
+        void set(int offset, String value) {
+            previousIndicators[offset] = indicators[offset];
+            values[offset] = value;
+            kinds[offset] = PESTELIndicators.parseInto(value, indicators, offset);
+            themes[offset] = PESTELIndicators.themesOf(value);
+        }
+    }
+
+    private PESTELSnapshot(Chunk[] chunks, double lastUpdateTime) {
+        this.chunks = chunks;
+        this.lastUpdateTime = lastUpdateTime;
+    }
+
+    /**
+     * Build a snapshot from the flat slot arrays of a PESTELState, reusing the chunks of a
+     * previous snapshot that are not marked dirty
+     * @param base Previous snapshot of the same state, or null to copy everything
+     * @param dirtyChunks Chunk indexes changed since base was taken
+     */
+    static PESTELSnapshot derive(PESTELSnapshot base, String[] values, double[] indicators, double[] previousIndicators,
+                                 byte[] kinds, long[] themes, BitSet dirtyChunks, double lastUpdateTime) {
+        int chunkCount = (values.length + CHUNK_MASK) >> CHUNK_BITS;
+        Chunk[] next = base != null ? Arrays.copyOf(base.chunks, Math.max(chunkCount, base.chunks.length)) : new Chunk[chunkCount];
+
+        for (int chunk = 0; chunk < chunkCount; chunk++) {
+            if (base == null || next[chunk] == null || dirtyChunks.get(chunk)) {
+                int from = chunk << CHUNK_BITS;
+                int to = from + CHUNK_SIZE;
+                next[chunk] = new Chunk(
+                    Arrays.copyOfRange(values, from, to),
+                    Arrays.copyOfRange(indicators, from, to),
+                    Arrays.copyOfRange(previousIndicators, from, to),
+                    Arrays.copyOfRange(kinds, from, to),
+                    Arrays.copyOfRange(themes, from, to));
+            }
+        }
+        return new PESTELSnapshot(next, lastUpdateTime);
+    }
+
+    /**
+     * Return a new version with one factor changed. This snapshot is left untouched and
+     * shares all other chunks with the result.
+     */
+    public PESTELSnapshot withFactor(int slot, String value) {
+        int chunk = slot >> CHUNK_BITS;
+        int offset = slot & CHUNK_MASK;
+        Chunk[] next = Arrays.copyOf(chunks, Math.max(chunks.length, chunk + 1));
+        Chunk changed = next[chunk] != null ? next[chunk].copy() : Chunk.empty();
+        changed.set(offset, value);
+        next[chunk] = changed;
+        return new PESTELSnapshot(next, simu.framework.Clock.getInstance().getClock());
+    }
+
+    public PESTELSnapshot withFactor(PESTELCategory category, String key, String value) {
+        return withFactor(PESTELFactorIndex.slotOf(category, key), value);
+    }
+
+    /**
+     * Return a new version with several factors changed, copying each touched chunk once
+     * @param count Number of leading entries of slots and values to apply, in order
+     */
+    public PESTELSnapshot withFactors(int[] slots, String[] values, int count, double lastUpdateTime) {
+        int maxChunk = chunks.length - 1;
+        for (int i = 0; i < count; i++) {
+            maxChunk = Math.max(maxChunk, slots[i] >> CHUNK_BITS);
+        }
+        Chunk[] next = Arrays.copyOf(chunks, maxChunk + 1);
+        for (int i = 0; i < count; i++) {
+            int chunk = slots[i] >> CHUNK_BITS;
+            int offset = slots[i] & CHUNK_MASK;
+            Chunk original = chunk < chunks.length ? chunks[chunk] : null;
+            if (next[chunk] == null || next[chunk] == original) {
+                next[chunk] = original != null ? original.copy() : Chunk.empty();
+            }
+            next[chunk].set(offset, values[i]);
+        }
+        return new PESTELSnapshot(next, lastUpdateTime);
+    }
+
+    /**
+     * Chunk holding a set slot, or null if the slot has no value in this snapshot
+     */
+    private Chunk chunkOf(int slot) {
+        int chunk = slot >> CHUNK_BITS;
+        Chunk found = chunk < chunks.length ? chunks[chunk] : null;
+        return found != null && found.values[slot & CHUNK_MASK] != null ? found : null;
+    }
+
+    @Override
+    public String getFactor(int slot) {
+        Chunk chunk = chunkOf(slot);
+        return chunk != null ? chunk.values[slot & CHUNK_MASK] : NOT_DEFINED;
+    }
+
+    @Override
+    public boolean hasFactor(int slot) {
+        return chunkOf(slot) != null;
+    }
+
+    @Override
+    public double getIndicator(int slot) {
+        Chunk chunk = chunkOf(slot);
+        return chunk != null ? chunk.indicators[slot & CHUNK_MASK] : Double.NaN;
+    }
+
+    @Override
+    public double getPreviousIndicator(int slot) {
+        Chunk chunk = chunkOf(slot);
+        return chunk != null ? chunk.previousIndicators[slot & CHUNK_MASK] : Double.NaN;
+    }
+
+    @Override
+    public PESTELIndicators.Kind getIndicatorKind(int slot) {
+        Chunk chunk = chunkOf(slot);
+        return PESTELIndicators.kindOf(chunk != null ? chunk.kinds[slot & CHUNK_MASK] : 0);
+    }
+
+    @Override
+    public long getThemes(int slot) {
+        Chunk chunk = chunkOf(slot);
+        return chunk != null ? chunk.themes[slot & CHUNK_MASK] : 0L;
+    }
+
+    @Override
+    public double getLastUpdateTime() {
+        return lastUpdateTime;
+    }
+
+    /**
+     * Check whether two snapshots share the storage chunk holding a slot
+     */
+    public boolean sharesChunk(PESTELSnapshot other, int slot) {
+        int chunk = slot >> CHUNK_BITS;
+        return chunk < chunks.length && chunk < other.chunks.length && chunks[chunk] == other.chunks[chunk];
+    }
+
+    /**
+     * Create a mutable working copy of this snapshot
+     */
+    public PESTELState toState() {
+        return new PESTELState(this);
+    }
+
+    @Override
+    public String toCompactString() {
+        String rendered = compact;
+        if (rendered == null) {
+            rendered = PESTELView.renderCompact(this);
+            compact = rendered;
+        }
+        return rendered;
+    }
+
+    @Override
+    public String toString() {
+        String rendered = summary;
+        if (rendered == null) {
+            rendered = PESTELView.summarize(this);
+            summary = rendered;
+        }
+        return rendered;
+    }
+}
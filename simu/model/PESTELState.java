@@ -1,219 +1,291 @@
 package simu.model;
 
-import java.util.HashMap;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Map;
 
 /**
  * PESTEL State represents the six key factors that influence strategic planning:
  * Political, Economic, Social, Technological, Environmental, and Legal
  */
-public class PESTELState {
-    private Map<String, String> political;
-    private Map<String, String> economic;
-    private Map<String, String> social;
-    private Map<String, String> technological;
-    private Map<String, String> environmental;
-    private Map<String, String> legal;
+public class PESTELState implements PESTELView {
+    // Factor values indexed by PESTELFactorIndex slot; null means the factor is not set
+    private String[] values;
     private double lastUpdateTime;
     
+    // Numeric layer parsed once whenever a value is set, indexed by slot like values: the primary
+    // indicator, the indicator before the most recent update, its kind and the themes matched
+    private double[] indicators;
+    private double[] previousIndicators;
+    private byte[] indicatorKinds;
+    private long[] themes;
+    
+    // Last published snapshot and the storage chunks changed since it was taken
+    private PESTELSnapshot published;
+    private final BitSet dirtyChunks;
+    
+    // Bumped by every updateFactor; memoized renderings are valid while their stamp matches
+    private long version;
+    private final long[] categoryVersions = new long[PESTELCategory.count()];
+    private String summaryCache;
+    private long summaryVersion = -1;
+    private String compactCache;
+    private long compactVersion = -1;
+    private final String[] categoryCache = new String[PESTELCategory.count()];
+    private final long[] categoryCacheVersions = new long[PESTELCategory.count()];
+    
     public PESTELState() {
-        this.political = new HashMap<>();
-        this.economic = new HashMap<>();
-        this.social = new HashMap<>();
-        this.technological = new HashMap<>();
-        this.environmental = new HashMap<>();
-        this.legal = new HashMap<>();
+        allocate(Math.max(16, PESTELFactorIndex.size()));
         this.lastUpdateTime = 0.0;
+        this.dirtyChunks = new BitSet();
+        Arrays.fill(categoryCacheVersions, -1);
         
         initializeDefaults();
     }
     
+    /**
+     * Create a mutable state starting from a snapshot
+     */
+    public PESTELState(PESTELSnapshot snapshot) {
+        allocate(Math.max(16, PESTELFactorIndex.size()));
+        this.lastUpdateTime = snapshot.getLastUpdateTime();
+        this.dirtyChunks = new BitSet();
+        Arrays.fill(categoryCacheVersions, -1);
+        
+        for (int slot = 0; slot < PESTELFactorIndex.size(); slot++) {
+            if (snapshot.hasFactor(slot)) {
+                ensureCapacity(slot);
+                values[slot] = snapshot.getFactor(slot);
+                indicators[slot] = snapshot.getIndicator(slot);
+                previousIndicators[slot] = snapshot.getPreviousIndicator(slot);
+                indicatorKinds[slot] = (byte) snapshot.getIndicatorKind(slot).ordinal();
+                themes[slot] = snapshot.getThemes(slot);
+            }
+        }
+        this.published = snapshot;
+    }
+    
     /**
      * Initialize with default PESTEL values
      */
     private void initializeDefaults() {
         // Political factors
-        political.put("policies_laws", "Moderate regulatory environment with standard business policies");
-        political.put("tax_labour", "Corporate tax rate 25%, flexible labor laws");
-        political.put("trade", "Open trade policies with EU partnerships");
-        political.put("stability", "Stable democratic government");
-        political.put("corruption", "Low corruption index, transparent institutions");
+        put(PESTELCategory.POLITICAL, "policies_laws", "Moderate regulatory environment with standard business policies");
+        put(PESTELCategory.POLITICAL, "tax_labour", "Corporate tax rate 25%, flexible labor laws");
+        put(PESTELCategory.POLITICAL, "trade", "Open trade policies with EU partnerships");
+        put(PESTELCategory.POLITICAL, "stability", "Stable democratic government");
+        put(PESTELCategory.POLITICAL, "corruption", "Low corruption index, transparent institutions");
         
         // Economic factors
-        economic.put("growth", "GDP growth 2.5% annually, steady economic expansion");
-        economic.put("inflation", "Inflation rate 2.1%, within target range");
-        economic.put("interest_rates", "Central bank rate 1.5%, accommodative monetary policy");
-        economic.put("employment", "Unemployment 6.2%, recovering job market");
-        economic.put("income", "Median household income €45,000, moderate purchasing power");
+        put(PESTELCategory.ECONOMIC, "growth", "GDP growth 2.5% annually, steady economic expansion");
+        put(PESTELCategory.ECONOMIC, "inflation", "Inflation rate 2.1%, within target range");
+        put(PESTELCategory.ECONOMIC, "interest_rates", "Central bank rate 1.5%, accommodative monetary policy");
+        put(PESTELCategory.ECONOMIC, "employment", "Unemployment 6.2%, recovering job market");
+        put(PESTELCategory.ECONOMIC, "income", "Median household income €45,000, moderate purchasing power");
         
         // Social factors
-        social.put("population", "Population 5.5M, aging demographics");
-        social.put("ageing", "25% population over 65, increasing healthcare needs");
-        social.put("career_views", "Strong emphasis on work-life balance, remote work acceptance");
-        social.put("lifestyle", "Health-conscious, environmentally aware population");
-        social.put("cultural_barriers", "Multicultural society, language diversity challenges");
+        put(PESTELCategory.SOCIAL, "population", "Population 5.5M, aging demographics");
+        put(PESTELCategory.SOCIAL, "ageing", "25% population over 65, increasing healthcare needs");
+        put(PESTELCategory.SOCIAL, "career_views", "Strong emphasis on work-life balance, remote work acceptance");
+        put(PESTELCategory.SOCIAL, "lifestyle", "Health-conscious, environmentally aware population");
+        put(PESTELCategory.SOCIAL, "cultural_barriers", "Multicultural society, language diversity challenges");
         
         // Technological factors
-        technological.put("technology_incentives", "Government R&D tax credits, innovation grants");
-        technological.put("innovation", "High digitalization rate, strong tech sector");
-        technological.put("automation", "Moderate automation adoption, focus on human-AI collaboration");
-        technological.put("rd_activity", "3.2% GDP invested in R&D, strong university-industry partnerships");
+        put(PESTELCategory.TECHNOLOGICAL, "technology_incentives", "Government R&D tax credits, innovation grants");
+        put(PESTELCategory.TECHNOLOGICAL, "innovation", "High digitalization rate, strong tech sector");
+        put(PESTELCategory.TECHNOLOGICAL, "automation", "Moderate automation adoption, focus on human-AI collaboration");
+        put(PESTELCategory.TECHNOLOGICAL, "rd_activity", "3.2% GDP invested in R&D, strong university-industry partnerships");
         
         // Environmental factors
-        environmental.put("climate_change", "Carbon neutral by 2035 goal, renewable energy transition");
-        environmental.put("ethical", "Strong environmental regulations, circular economy initiatives");
-        environmental.put("recycling_disposal", "85% recycling rate, advanced waste management");
-        environmental.put("sustainability", "Sustainable development focus, green technology investments");
+        put(PESTELCategory.ENVIRONMENTAL, "climate_change", "Carbon neutral by 2035 goal, renewable energy transition");
+        put(PESTELCategory.ENVIRONMENTAL, "ethical", "Strong environmental regulations, circular economy initiatives");
+        put(PESTELCategory.ENVIRONMENTAL, "recycling_disposal", "85% recycling rate, advanced waste management");
+        put(PESTELCategory.ENVIRONMENTAL, "sustainability", "Sustainable development focus, green technology investments");
         
         // Legal factors
-        legal.put("antitrust", "Strong competition laws, fair market practices");
-        legal.put("labour", "Progressive labor laws, strong worker protections");
-        legal.put("copyright", "Robust IP protection, digital rights enforcement");
-        legal.put("data_protection", "GDPR compliance, strict privacy regulations");
-        legal.put("health_safety", "Comprehensive health and safety standards");
+        put(PESTELCategory.LEGAL, "antitrust", "Strong competition laws, fair market practices");
+        put(PESTELCategory.LEGAL, "labour", "Progressive labor laws, strong worker protections");
+        put(PESTELCategory.LEGAL, "copyright", "Robust IP protection, digital rights enforcement");
+        put(PESTELCategory.LEGAL, "data_protection", "GDPR compliance, strict privacy regulations");
+        put(PESTELCategory.LEGAL, "health_safety", "Comprehensive health and safety standards");
     }
     
     // Political getters/setters
-    public String getPolitical(String key) {
-        return political.getOrDefault(key, "Not defined");
-    }
-    
     public void setPolitical(String key, String value) {
-        political.put(key, value);
-        updateTime();
+        updateFactor(PESTELCategory.POLITICAL, key, value);
     }
     
     public Map<String, String> getAllPolitical() {
-        return new HashMap<>(political);
+        return getAllFactors(PESTELCategory.POLITICAL);
     }
     
     // Economic getters/setters
-    public String getEconomic(String key) {
-        return economic.getOrDefault(key, "Not defined");
-    }
-    
     public void setEconomic(String key, String value) {
-        economic.put(key, value);
-        updateTime();
+        updateFactor(PESTELCategory.ECONOMIC, key, value);
     }
     
     public Map<String, String> getAllEconomic() {
-        return new HashMap<>(economic);
+        return getAllFactors(PESTELCategory.ECONOMIC);
     }
     
     // Social getters/setters
-    public String getSocial(String key) {
-        return social.getOrDefault(key, "Not defined");
-    }
-    
     public void setSocial(String key, String value) {
-        social.put(key, value);
-        updateTime();
+        updateFactor(PESTELCategory.SOCIAL, key, value);
     }
     
     public Map<String, String> getAllSocial() {
-        return new HashMap<>(social);
+        return getAllFactors(PESTELCategory.SOCIAL);
     }
     
     // Technological getters/setters
-    public String getTechnological(String key) {
-        return technological.getOrDefault(key, "Not defined");
-    }
-    
     public void setTechnological(String key, String value) {
-        technological.put(key, value);
-        updateTime();
+        updateFactor(PESTELCategory.TECHNOLOGICAL, key, value);
     }
     
     public Map<String, String> getAllTechnological() {
-        return new HashMap<>(technological);
+        return getAllFactors(PESTELCategory.TECHNOLOGICAL);
     }
     
     // Environmental getters/setters
-    public String getEnvironmental(String key) {
-        return environmental.getOrDefault(key, "Not defined");
-    }
-    
     public void setEnvironmental(String key, String value) {
-        environmental.put(key, value);
-        updateTime();
+        updateFactor(PESTELCategory.ENVIRONMENTAL, key, value);
     }
     
     public Map<String, String> getAllEnvironmental() {
-        return new HashMap<>(environmental);
+        return getAllFactors(PESTELCategory.ENVIRONMENTAL);
     }
     
     // Legal getters/setters
-    public String getLegal(String key) {
-        return legal.getOrDefault(key, "Not defined");
-    }
-    
     public void setLegal(String key, String value) {
-        legal.put(key, value);
-        updateTime();
+        updateFactor(PESTELCategory.LEGAL, key, value);
     }
     
     public Map<String, String> getAllLegal() {
-        return new HashMap<>(legal);
+        return getAllFactors(PESTELCategory.LEGAL);
     }
     
     /**
      * Update a PESTEL factor by category and key
      */
     public void updateFactor(String category, String key, String value) {
-        switch (category.toLowerCase()) {
-            case "political":
-            case "p":
-                setPolitical(key, value);
-                break;
-            case "economic":
-            case "e":
-                setEconomic(key, value);
-                break;
-            case "social":
-            case "s":
-                setSocial(key, value);
-                break;
-            case "technological":
-            case "t":
-                setTechnological(key, value);
-                break;
-            case "environmental":
-            case "env":
-                setEnvironmental(key, value);
-                break;
-            case "legal":
-            case "l":
-                setLegal(key, value);
-                break;
+        PESTELCategory resolved = PESTELCategory.fromName(category);
+        if (resolved != null) {
+            updateFactor(resolved, key, value);
+        }
+    }
+    
+    public void updateFactor(PESTELCategory category, String key, String value) {
+        updateFactor(PESTELFactorIndex.slotOf(category, key), value);
+    }
+    
+    /**
+     * Update a PESTEL factor by its slot in PESTELFactorIndex
+     */
+    public void updateFactor(int slot, String value) {
+        ensureCapacity(slot);
+        previousIndicators[slot] = indicators[slot];
+        setValue(slot, value);
+        version++;
+        categoryVersions[PESTELFactorIndex.categoryOf(slot).ordinal()]++;
+        updateTime();
+    }
+    
+    /**
+     * Get a PESTEL factor by its slot in PESTELFactorIndex
+     */
+    @Override
+    public String getFactor(int slot) {
+        String value = slot < values.length ? values[slot] : null;
+        return value != null ? value : NOT_DEFINED;
+    }
+    
+    /**
+     * Check whether a factor slot has a value in this state
+     */
+    @Override
+    public boolean hasFactor(int slot) {
+        return slot < values.length && values[slot] != null;
+    }
+    
+    @Override
+    public double getIndicator(int slot) {
+        return slot < indicators.length ? indicators[slot] : Double.NaN;
+    }
+    
+    @Override
+    public double getPreviousIndicator(int slot) {
+        return slot < previousIndicators.length ? previousIndicators[slot] : Double.NaN;
+    }
+    
+    @Override
+    public PESTELIndicators.Kind getIndicatorKind(int slot) {
+        return PESTELIndicators.kindOf(slot < indicatorKinds.length ? indicatorKinds[slot] : 0);
+    }
+    
+    /**
+     * Average relative indicator change over the factors of a category, read from the parsed arrays
+     */
+    @Override
+    public double getCategoryTrend(PESTELCategory category) {
+        return PESTELIndicators.relativeTrend(indicators, previousIndicators, PESTELFactorIndex.slotsOf(category));
+    }
+    
+    @Override
+    public long getThemes(int slot) {
+        return slot < themes.length ? themes[slot] : 0L;
+    }
+    
+    /**
+     * Publish the current values as an immutable snapshot. Chunks that have not changed since
+     * the previous call are shared with the previous snapshot; if nothing changed at all the
+     * previous snapshot is returned as is.
+     */
+    public PESTELSnapshot snapshot() {
+        if (published == null || !dirtyChunks.isEmpty() || published.getLastUpdateTime() != lastUpdateTime) {
+            published = PESTELSnapshot.derive(published, values, indicators, previousIndicators, indicatorKinds, themes,
+                dirtyChunks, lastUpdateTime);
+            dirtyChunks.clear();
         }
+        return published;
+    }
+    
+    private void put(PESTELCategory category, String key, String value) {
+        int slot = PESTELFactorIndex.slotOf(category, key);
+        ensureCapacity(slot);
+        setValue(slot, value);
     }
     
     /**
-     * Get a PESTEL factor by category and key
+     * Store a value, parse its indicator and match its themes
      */
-    public String getFactor(String category, String key) {
-        switch (category.toLowerCase()) {
-            case "political":
-            case "p":
-                return getPolitical(key);
-            case "economic":
-            case "e":
-                return getEconomic(key);
-            case "social":
-            case "s":
-                return getSocial(key);
-            case "technological":
-            case "t":
-                return getTechnological(key);
-            case "environmental":
-            case "env":
-                return getEnvironmental(key);
-            case "legal":
-            case "l":
-                return getLegal(key);
-            default:
-                return "Invalid category";
+    private void setValue(int slot, String value) {
+        values[slot] = value;
+        indicatorKinds[slot] = PESTELIndicators.parseInto(value, indicators, slot);
+        themes[slot] = PESTELIndicators.themesOf(value);
+        dirtyChunks.set(slot >> PESTELSnapshot.CHUNK_BITS);
+    }
+    
+    private void allocate(int capacity) {
+        values = new String[capacity];
+        indicators = new double[capacity];
+        previousIndicators = new double[capacity];
+        Arrays.fill(indicators, Double.NaN);
+        Arrays.fill(previousIndicators, Double.NaN);
+        indicatorKinds = new byte[capacity];
+        themes = new long[capacity];
+    }
+    
+    private void ensureCapacity(int slot) {
+        if (slot >= values.length) {
+            int newLength = Math.max(slot + 1, PESTELFactorIndex.size());
+            values = Arrays.copyOf(values, newLength);
+            int oldLength = indicators.length;
+            indicators = Arrays.copyOf(indicators, newLength);
+            previousIndicators = Arrays.copyOf(previousIndicators, newLength);
+            Arrays.fill(indicators, oldLength, newLength, Double.NaN);
+            Arrays.fill(previousIndicators, oldLength, newLength, Double.NaN);
+            indicatorKinds = Arrays.copyOf(indicatorKinds, newLength);
+            themes = Arrays.copyOf(themes, newLength);
         }
     }
     
@@ -221,49 +293,52 @@ public class PESTELState {
         lastUpdateTime = simu.framework.Clock.getInstance().getClock();
     }
     
+    @Override
     public double getLastUpdateTime() {
         return lastUpdateTime;
     }
     
     /**
-     * Get a comprehensive summary of all PESTEL factors
+     * @return Counter incremented by every factor update
+     */
+    public long getVersion() {
+        return version;
+    }
+    
+    /**
+     * Render one category as "- key: value" lines; cached until a factor of that category changes
+     */
+    @Override
+    public String renderCategory(PESTELCategory category) {
+        int index = category.ordinal();
+        if (categoryCacheVersions[index] != categoryVersions[index]) {
+            categoryCache[index] = PESTELView.renderCategory(this, category);
+            categoryCacheVersions[index] = categoryVersions[index];
+        }
+        return categoryCache[index];
+    }
+    
+    /**
+     * Compact one-line-per-category rendering for prompts; cached until the next update
+     */
+    @Override
+    public String toCompactString() {
+        if (compactVersion != version) {
+            compactCache = PESTELView.renderCompact(this);
+            compactVersion = version;
+        }
+        return compactCache;
+    }
+    
+    /**
+     * Get a comprehensive summary of all PESTEL factors; cached until the next update
      */
     @Override
     public String toString() {
-        StringBuilder sb = new StringBuilder();
-        sb.append("=== PESTEL STATE SUMMARY ===\n");
-        
-        sb.append("\n[POLITICAL]\n");
-        political.forEach((k, v) -> sb.append("  ").append(k).append(": ").append(v).append("\n"));
-        
-        sb.append("\n[ECONOMIC]\n");
-        economic.forEach((k, v) -> sb.append("  ").append(k).append(": ").append(v).append("\n"));
-        
-        sb.append("\n[SOCIAL]\n");
-        social.forEach((k, v) -> sb.append("  ").append(k).append(": ").append(v).append("\n"));
-        
-        sb.append("\n[TECHNOLOGICAL]\n");
-        technological.forEach((k, v) -> sb.append("  ").append(k).append(": ").append(v).append("\n"));
-        
-        sb.append("\n[ENVIRONMENTAL]\n");
-        environmental.forEach((k, v) -> sb.append("  ").append(k).append(": ").append(v).append("\n"));
-        
-        sb.append("\n[LEGAL]\n");
-        legal.forEach((k, v) -> sb.append("  ").append(k).append(": ").append(v).append("\n"));
-        
-        sb.append("\nLast Update: ").append(String.format("%.2f", lastUpdateTime));
-        
-        return sb.toString();
-    }
-    
-    public Map<String, Map<String, String>> getAllFactors() {
-        Map<String, Map<String, String>> factors = new HashMap<>();
-        factors.put("Political", political);
-        factors.put("Economic", economic);
-        factors.put("Social", social);
-        factors.put("Technological", technological);
-        factors.put("Environmental", environmental);
-        factors.put("Legal", legal);
-        return factors;
+        if (summaryVersion != version) {
+            summaryCache = PESTELView.summarize(this);
+            summaryVersion = version;
+        }
+        return summaryCache;
     }
 }
@@ -0,0 +1,197 @@
+package simu.model;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Read-only access to a set of PESTEL factors. Implemented by the mutable PESTELState used
+ * by the engines and by the immutable PESTELSnapshot handed to other threads and kept as history.
+ */
+public interface PESTELView {
+    String NOT_DEFINED = "Not defined";
+
+    /**
+     * Get a factor by its slot in PESTELFactorIndex
+     * @return The factor value, or "Not defined" if it is not set
+     */
+    String getFactor(int slot);
+
+    /**
+     * Check whether a factor slot has a value
+     */
+    boolean hasFactor(int slot);
+
+    double getLastUpdateTime();
+
+    /**
+     * Primary numeric indicator of a factor, parsed from its value on each call
+     * @return The indicator value, or NaN if the factor has no number or is not set
+     */
+    double getIndicator(int slot);
+
+    /**
+     * Indicator value before the most recent update of the factor, NaN if there was none
+     */
+    double getPreviousIndicator(int slot);
+
+    PESTELIndicators.Kind getIndicatorKind(int slot);
+
+    /**
+     * Bit mask of PESTELIndicators.Theme values mentioned by a factor
+     */
+    long getThemes(int slot);
+
+    default boolean hasTheme(int slot, PESTELIndicators.Theme theme) {
+        return (getThemes(slot) & theme.bit()) != 0;
+    }
+
+    /**
+     * Change of a factor's indicator caused by its most recent update, 0 if either value is missing
+     */
+    default double getIndicatorTrend(int slot) {
+        double trend = getIndicator(slot) - getPreviousIndicator(slot);
+        return Double.isNaN(trend) ? 0.0 : trend;
+    }
+
+    /**
+     * Average relative indicator change over the factors of a category that carry a number
+     */
+    default double getCategoryTrend(PESTELCategory category) {
+        double total = 0.0;
+        int counted = 0;
+        for (int slot : PESTELFactorIndex.slotsOf(category)) {
+            double previous = getPreviousIndicator(slot);
+            double current = getIndicator(slot);
+            if (!Double.isNaN(previous) && !Double.isNaN(current) && previous != 0.0) {
+                total += (current - previous) / Math.abs(previous);
+                counted++;
+            }
+        }
+        return counted > 0 ? total / counted : 0.0;
+    }
+
+    /**
+     * Get a PESTEL factor by category and key
+     */
+    default String getFactor(String category, String key) {
+        PESTELCategory resolved = PESTELCategory.fromName(category);
+        if (resolved == null) {
+            return "Invalid category";
+        }
+        return getFactor(resolved, key);
+    }
+
+    default String getFactor(PESTELCategory category, String key) {
+        int slot = PESTELFactorIndex.find(category, key);
+        return slot >= 0 ? getFactor(slot) : NOT_DEFINED;
+    }
+
+    default String getPolitical(String key) {
+        return getFactor(PESTELCategory.POLITICAL, key);
+    }
+
+    default String getEconomic(String key) {
+        return getFactor(PESTELCategory.ECONOMIC, key);
+    }
+
+    default String getSocial(String key) {
+        return getFactor(PESTELCategory.SOCIAL, key);
+    }
+
+    default String getTechnological(String key) {
+        return getFactor(PESTELCategory.TECHNOLOGICAL, key);
+    }
+
+    default String getEnvironmental(String key) {
+        return getFactor(PESTELCategory.ENVIRONMENTAL, key);
+    }
+
+    default String getLegal(String key) {
+        return getFactor(PESTELCategory.LEGAL, key);
+    }
+
+    /**
+     * Get all factors of one category, in registration order
+     */
+    default Map<String, String> getAllFactors(PESTELCategory category) {
+        Map<String, String> factors = new LinkedHashMap<>();
+        for (int slot : PESTELFactorIndex.slotsOf(category)) {
+            if (hasFactor(slot)) {
+                factors.put(PESTELFactorIndex.keyOf(slot), getFactor(slot));
+            }
+        }
+        return factors;
+    }
+
+    /**
+     * Get all factors keyed by category display name ("Political", "Economic", ...)
+     */
+    default Map<String, Map<String, String>> getAllFactors() {
+        Map<String, Map<String, String>> factors = new LinkedHashMap<>();
+        for (PESTELCategory category : PESTELCategory.values()) {
+            factors.put(category.getDisplayName(), getAllFactors(category));
+        }
+        return factors;
+    }
+
+    /**
+     * Render one category as "- key: value" lines, the form used in impact prompts
+     */
+    default String renderCategory(PESTELCategory category) {
+        return renderCategory(this, category);
+    }
+
+    /**
+     * Render all factors compactly, one "Category: key=value; ..." line per category
+     */
+    default String toCompactString() {
+        return renderCompact(this);
+    }
+
+    static String renderCategory(PESTELView view, PESTELCategory category) {
+        StringBuilder sb = new StringBuilder();
+        for (int slot : PESTELFactorIndex.slotsOf(category)) {
+            if (view.hasFactor(slot)) {
+                sb.append("- ").append(PESTELFactorIndex.keyOf(slot)).append(": ").append(view.getFactor(slot)).append("\n");
+            }
+        }
+        return sb.toString();
+    }
+
+    static String renderCompact(PESTELView view) {
+        StringBuilder sb = new StringBuilder();
+        for (PESTELCategory category : PESTELCategory.values()) {
+            sb.append(category.getDisplayName()).append(":");
+            String separator = " ";
+            for (int slot : PESTELFactorIndex.slotsOf(category)) {
+                if (view.hasFactor(slot)) {
+                    sb.append(separator).append(PESTELFactorIndex.keyOf(slot)).append("=").append(view.getFactor(slot));
+                    separator = "; ";
+                }
+            }
+            sb.append("\n");
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Render a view in the multi-section summary format used by PESTELState.toString()
+     */
+    static String summarize(PESTELView view) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("=== PESTEL STATE SUMMARY ===\n");
+
+        for (PESTELCategory category : PESTELCategory.values()) {
+            sb.append("\n[").append(category.name()).append("]\n");
+            for (int slot : PESTELFactorIndex.slotsOf(category)) {
+                if (view.hasFactor(slot)) {
+                    sb.append("  ").append(PESTELFactorIndex.keyOf(slot)).append(": ").append(view.getFactor(slot)).append("\n");
+                }
+            }
+        }
+
+        sb.append("\nLast Update: ").append(String.format("%.2f", view.getLastUpdateTime()));
+
+        return sb.toString();
+    }
+}
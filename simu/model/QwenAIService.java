@@ -26,6 +26,7 @@ public class QwenAIService {
     private final HttpClient httpClient;
     private final String apiKey;
     private final Map<String, Object> requestCache;
+    private Random random = new Random(); // Draws of the fallback decisions
     
     public QwenAIService(String apiKey) {
         this.apiKey = apiKey;
@@ -39,12 +40,27 @@ public class QwenAIService {
         this(System.getProperty(API_KEY_PROPERTY, ""));
     }
     
+    /**
+     * Draw the fallback decisions from the given source, such as a seeded Random for repeatable runs
+     */
+    public void setRandom(Random random) {
+        this.random = random;
+    }
+    
     /**
      * Ask AI if agent wants to take action using Qwen3-Next thinking capabilities
      */
     public CompletableFuture<String> askAgentDecision(PESTELAgent agent, PESTELState globalPESTEL, 
                                                      int currentDay, List<AgentAction> recentActions) {
-        String prompt = buildAgentDecisionPrompt(agent, globalPESTEL, currentDay, recentActions);
+        return askAgentDecision(agent, PESTELPromptContext.renderFull(globalPESTEL), currentDay, recentActions);
+    }
+    
+    /**
+     * Ask AI if agent wants to take action, with a PESTEL section rendered by PESTELPromptContext
+     */
+    public CompletableFuture<String> askAgentDecision(PESTELAgent agent, String pestelContext, 
+                                                     int currentDay, List<AgentAction> recentActions) {
+        String prompt = buildAgentDecisionPrompt(agent, pestelContext, currentDay, recentActions);
         return generateContent(prompt, "agent_decision")
                 .thenApply(this::parseAgentDecisionResponse);
     }
@@ -77,7 +93,7 @@ public class QwenAIService {
         return generateContent(prompt, "strategic_analysis");
     }
     
-    private String buildAgentDecisionPrompt(PESTELAgent agent, PESTELState globalPESTEL, 
+    private String buildAgentDecisionPrompt(PESTELAgent agent, String pestelContext, 
                                           int currentDay, List<AgentAction> recentActions) {
         StringBuilder prompt = new StringBuilder();
         prompt.append("<think>\n");
@@ -91,8 +107,7 @@ public class QwenAIService {
         prompt.append("Day: ").append(currentDay).append("\n");
         prompt.append("Your decisions made so far: ").append(agent.getDecisionCount()).append("\n\n");
         
-        prompt.append("GLOBAL PESTEL STATE:\n");
-        prompt.append(globalPESTEL.toString()).append("\n\n");
+        prompt.append(pestelContext);
         
         if (!recentActions.isEmpty()) {
             prompt.append("RECENT ACTIONS BY OTHER GLOBAL ENTITIES:\n");
@@ -134,37 +149,9 @@ public class QwenAIService {
         prompt.append("STRATEGIC DECISION TAKEN: ").append(decision).append("\n\n");
         
         prompt.append("CURRENT ").append(pestelCategory.toUpperCase()).append(" STATE:\n");
-        switch (pestelCategory.toLowerCase()) {
-            case "political":
-            case "p":
-                currentState.getAllPolitical().forEach((k, v) -> 
-                    prompt.append("- ").append(k).append(": ").append(v).append("\n"));
-                break;
-            case "economic":
-            case "e":
-                currentState.getAllEconomic().forEach((k, v) -> 
-                    prompt.append("- ").append(k).append(": ").append(v).append("\n"));
-                break;
-            case "social":
-            case "s":
-                currentState.getAllSocial().forEach((k, v) -> 
-                    prompt.append("- ").append(k).append(": ").append(v).append("\n"));
-                break;
-            case "technological":
-            case "t":
-                currentState.getAllTechnological().forEach((k, v) -> 
-                    prompt.append("- ").append(k).append(": ").append(v).append("\n"));
-                break;
-            case "environmental":
-            case "env":
-                currentState.getAllEnvironmental().forEach((k, v) -> 
-                    prompt.append("- ").append(k).append(": ").append(v).append("\n"));
-                break;
-            case "legal":
-            case "l":
-                currentState.getAllLegal().forEach((k, v) -> 
-                    prompt.append("- ").append(k).append(": ").append(v).append("\n"));
-                break;
+        PESTELCategory category = PESTELCategory.fromName(pestelCategory);
+        if (category != null) {
+            prompt.append(currentState.renderCategory(category));
         }
         
         prompt.append("\nANALYSIS QUESTION: How does this strategic decision impact the ").append(pestelCategory.toUpperCase()).append(" factors?\n\n");
@@ -444,28 +431,28 @@ public class QwenAIService {
         String promptLower = prompt.toLowerCase();
         
         if (promptLower.contains("apple") || promptLower.contains("technology")) {
-            if (Math.random() < 0.4) {
+            if (random.nextDouble() < 0.4) {
                 return "Invest in next-generation AI chip development and sustainable manufacturing";
             }
         } else if (promptLower.contains("walmart") || promptLower.contains("retail")) {
-            if (Math.random() < 0.3) {
+            if (random.nextDouble() < 0.3) {
                 return "Expand sustainable supply chain and renewable energy initiatives";
             }
         } else if (promptLower.contains("amazon") || promptLower.contains("cloud")) {
-            if (Math.random() < 0.35) {
+            if (random.nextDouble() < 0.35) {
                 return "Launch advanced AI services and expand global cloud infrastructure";
             }
         } else if (promptLower.contains("united states") || promptLower.contains("china")) {
-            if (Math.random() < 0.4) {
+            if (random.nextDouble() < 0.4) {
                 return "Strengthen international cooperation and technology partnerships";
             }
         } else if (promptLower.contains("mit") || promptLower.contains("stanford")) {
-            if (Math.random() < 0.45) {
+            if (random.nextDouble() < 0.45) {
                 return "Launch breakthrough research initiative with industry collaboration";
             }
         }
         
-        return Math.random() < 0.25 ? "Take strategic action based on current market conditions" : "no_action";
+        return random.nextDouble() < 0.25 ? "Take strategic action based on current market conditions" : "no_action";
     }
     
     private String generateIntelligentFallbackImpact(String prompt) {
@@ -1,6 +1,7 @@
 package simu.model;
 
 import java.util.List;
+import java.util.Random;
 
 /**
  * Real-world company implementation with actual company data and behavior
@@ -10,13 +11,22 @@ public class RealWorldCompany extends PESTELAgent {
     private double marketInfluence;
     private double innovationIndex;
     private double sustainabilityScore;
+    private final Random random;
     
     public RealWorldCompany(UltraComprehensiveRealWorldData.CompanyData companyData) {
+        this(companyData, new Random());
+    }
+    
+    /**
+     * @param random Source of the company's randomly drawn characteristics and decisions
+     */
+    public RealWorldCompany(UltraComprehensiveRealWorldData.CompanyData companyData, Random random) {
         super(companyData.name, AgentType.COMPANY);
         this.companyData = companyData;
+        this.random = random;
         this.marketInfluence = calculateMarketInfluence();
         this.innovationIndex = calculateInnovationIndex();
-        this.sustainabilityScore = Math.random() * 0.5 + 0.3; // 0.3-0.8
+        this.sustainabilityScore = random.nextDouble() * 0.5 + 0.3; // 0.3-0.8
         
         // Re-initialize PESTEL with company data now available
         initializeLocalPESTEL();
@@ -96,22 +106,22 @@ public class RealWorldCompany extends PESTELAgent {
         if (companyData.name.equals("Apple")) {
             if (currentDay % 90 == 0) {
                 return "Launch next-generation iPhone with advanced AI capabilities and sustainability features";
-            } else if (Math.random() < 0.3) {
+            } else if (random.nextDouble() < 0.3) {
                 return "Invest $2B in quantum computing research and development partnerships";
             }
         }
-        return Math.random() < 0.4 ? "Accelerate AI research and development initiatives" : "no_action";
+        return random.nextDouble() < 0.4 ? "Accelerate AI research and development initiatives" : "no_action";
     }
     
     private String generateRetailDecision(PESTELState globalPESTEL, int currentDay) {
         if (companyData.name.equals("Walmart")) {
             if (currentDay % 30 == 0) {
                 return "Expand sustainable supply chain initiatives and renewable energy adoption";
-            } else if (Math.random() < 0.25) {
+            } else if (random.nextDouble() < 0.25) {
                 return "Launch advanced e-commerce platform with AI-powered customer personalization";
             }
         }
-        return Math.random() < 0.3 ? "Implement advanced logistics optimization systems" : "no_action";
+        return random.nextDouble() < 0.3 ? "Implement advanced logistics optimization systems" : "no_action";
     }
     
     private String generateEnergyDecision(PESTELState globalPESTEL, int currentDay) {
@@ -123,7 +133,7 @@ public class RealWorldCompany extends PESTELAgent {
                 return "Accelerate renewable energy portfolio development and green technology investments";
             }
         }
-        return Math.random() < 0.2 ? "Optimize energy production efficiency and reduce emissions" : "no_action";
+        return random.nextDouble() < 0.2 ? "Optimize energy production efficiency and reduce emissions" : "no_action";
     }
     
     private String generateHealthcareDecision(PESTELState globalPESTEL, int currentDay) {
@@ -132,22 +142,22 @@ public class RealWorldCompany extends PESTELAgent {
                 return "Launch AI-powered preventive healthcare platform for early disease detection";
             }
         }
-        return Math.random() < 0.35 ? "Expand telemedicine capabilities and digital health services" : "no_action";
+        return random.nextDouble() < 0.35 ? "Expand telemedicine capabilities and digital health services" : "no_action";
     }
     
     private String generateCloudDecision(PESTELState globalPESTEL, int currentDay) {
         if (companyData.name.equals("Amazon")) {
             if (currentDay % 45 == 0) {
                 return "Launch AWS quantum computing services and expand global data center network";
-            } else if (Math.random() < 0.4) {
+            } else if (random.nextDouble() < 0.4) {
                 return "Invest in sustainable packaging solutions and carbon-neutral delivery systems";
             }
         }
-        return Math.random() < 0.3 ? "Expand cloud infrastructure and AI service offerings" : "no_action";
+        return random.nextDouble() < 0.3 ? "Expand cloud infrastructure and AI service offerings" : "no_action";
     }
     
     private String generateGenericDecision(PESTELState globalPESTEL, int currentDay) {
-        if (Math.random() < 0.25) {
+        if (random.nextDouble() < 0.25) {
             String[] decisions = {
                 String.format("Form strategic alliance with leading %s companies for market expansion", companyData.industry),
                 String.format("Launch sustainability initiative targeting 50%% carbon reduction by 2030"),
@@ -155,7 +165,7 @@ public class RealWorldCompany extends PESTELAgent {
                 String.format("Expand operations in emerging markets with focus on %s", companyData.country),
                 String.format("Implement advanced data analytics for %s optimization", companyData.industry)
             };
-            return decisions[(int)(Math.random() * decisions.length)];
+            return decisions[(int)(random.nextDouble() * decisions.length)];
         }
         return "no_action";
     }
@@ -210,11 +220,11 @@ public class RealWorldCompany extends PESTELAgent {
         // Based on industry and company characteristics
         if (companyData.industry.toLowerCase().contains("technology") || 
             companyData.industry.toLowerCase().contains("cloud")) {
-            return 0.8 + Math.random() * 0.2; // 0.8-1.0
+            return 0.8 + random.nextDouble() * 0.2; // 0.8-1.0
         } else if (companyData.industry.toLowerCase().contains("healthcare")) {
-            return 0.6 + Math.random() * 0.3; // 0.6-0.9
+            return 0.6 + random.nextDouble() * 0.3; // 0.6-0.9
         } else {
-            return 0.3 + Math.random() * 0.4; // 0.3-0.7
+            return 0.3 + random.nextDouble() * 0.4; // 0.3-0.7
         }
     }
     
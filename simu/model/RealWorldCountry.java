@@ -2,6 +2,8 @@ package simu.model;
 
 import java.util.List;
 import java.util.ArrayList;
+import java.util.Random;
+import java.util.function.DoubleConsumer;
 
 /**
  * Real-world country implementation with actual country data and geopolitical behavior
@@ -13,10 +15,20 @@ public class RealWorldCountry extends PESTELAgent {
     private double militaryStrength;
     private List<String> allianceMembers;
     private ComprehensiveRealWorldData.CountryUnion countryUnion;
+    private final Random random;
+    private final List<DoubleConsumer> influenceListeners = new ArrayList<>(); // Told every change of geopoliticalInfluence
     
     public RealWorldCountry(UltraComprehensiveRealWorldData.CountryData countryData) {
+        this(countryData, new Random());
+    }
+    
+    /**
+     * @param random Source of the country's randomly drawn characteristics and decisions
+     */
+    public RealWorldCountry(UltraComprehensiveRealWorldData.CountryData countryData, Random random) {
         super(countryData.name, AgentType.COUNTRY);
         this.countryData = countryData;
+        this.random = random;
         this.geopoliticalInfluence = calculateGeopoliticalInfluence();
         this.economicPower = calculateEconomicPower();
         this.militaryStrength = calculateMilitaryStrength();
@@ -109,10 +121,10 @@ public class RealWorldCountry extends PESTELAgent {
             return "Launch $100B infrastructure modernization program focusing on clean energy and digital connectivity";
         } else if (hasRecentConflict(recentAgentActions)) {
             return "Strengthen NATO alliance partnerships and increase defense cooperation with allies";
-        } else if (Math.random() < 0.3) {
+        } else if (random.nextDouble() < 0.3) {
             return "Announce new AI leadership initiative with $50B investment in quantum computing research";
         }
-        return Math.random() < 0.25 ? "Implement comprehensive immigration reform and workforce development programs" : "no_action";
+        return random.nextDouble() < 0.25 ? "Implement comprehensive immigration reform and workforce development programs" : "no_action";
     }
     
     private String generateChinaDecision(PESTELState globalPESTEL, int currentDay, List<AgentAction> recentAgentActions) {
@@ -120,10 +132,10 @@ public class RealWorldCountry extends PESTELAgent {
             return "Launch Belt and Road Initiative 2.0 with focus on green infrastructure and digital connectivity";
         } else if (globalPESTEL.getTechnological("innovation").contains("AI")) {
             return "Invest $80B in artificial intelligence research and semiconductor manufacturing capabilities";
-        } else if (Math.random() < 0.35) {
+        } else if (random.nextDouble() < 0.35) {
             return "Strengthen BRICS cooperation and expand yuan-based international trade agreements";
         }
-        return Math.random() < 0.2 ? "Implement carbon neutrality roadmap with massive renewable energy expansion" : "no_action";
+        return random.nextDouble() < 0.2 ? "Implement carbon neutrality roadmap with massive renewable energy expansion" : "no_action";
     }
     
     private String generateGermanyDecision(PESTELState globalPESTEL, int currentDay, List<AgentAction> recentAgentActions) {
@@ -131,32 +143,32 @@ public class RealWorldCountry extends PESTELAgent {
             return "Lead European Union green transition with €75B renewable energy investment program";
         } else if (hasEconomicStress(globalPESTEL)) {
             return "Strengthen EU economic integration and launch European digital sovereignty initiative";
-        } else if (Math.random() < 0.4) {
+        } else if (random.nextDouble() < 0.4) {
             return "Expand Industry 4.0 programs and establish European AI research consortium";
         }
-        return Math.random() < 0.3 ? "Implement comprehensive circular economy policies across EU member states" : "no_action";
+        return random.nextDouble() < 0.3 ? "Implement comprehensive circular economy policies across EU member states" : "no_action";
     }
     
     private String generateJapanDecision(PESTELState globalPESTEL, int currentDay, List<AgentAction> recentAgentActions) {
         if (currentDay % 80 == 0) {
             return "Launch Society 5.0 initiative with $40B investment in robotics and aging society solutions";
-        } else if (Math.random() < 0.3) {
+        } else if (random.nextDouble() < 0.3) {
             return "Strengthen Indo-Pacific security partnerships and expand clean energy cooperation";
         }
-        return Math.random() < 0.25 ? "Implement advanced disaster resilience systems using AI and IoT technologies" : "no_action";
+        return random.nextDouble() < 0.25 ? "Implement advanced disaster resilience systems using AI and IoT technologies" : "no_action";
     }
     
     private String generateUKDecision(PESTELState globalPESTEL, int currentDay, List<AgentAction> recentAgentActions) {
         if (currentDay % 75 == 0) {
             return "Launch Global Britain strategy with £30B investment in fintech and green technology";
-        } else if (Math.random() < 0.35) {
+        } else if (random.nextDouble() < 0.35) {
             return "Strengthen Commonwealth partnerships and establish new trade agreements with emerging economies";
         }
-        return Math.random() < 0.2 ? "Implement net-zero strategy with focus on offshore wind and nuclear energy" : "no_action";
+        return random.nextDouble() < 0.2 ? "Implement net-zero strategy with focus on offshore wind and nuclear energy" : "no_action";
     }
     
     private String generateGenericCountryDecision(PESTELState globalPESTEL, int currentDay, List<AgentAction> recentAgentActions) {
-        if (Math.random() < 0.3) {
+        if (random.nextDouble() < 0.3) {
             String[] decisions = {
                 String.format("Strengthen %s regional cooperation and expand trade partnerships", countryData.region),
                 String.format("Launch national digitalization program with focus on %s development", countryData.developmentLevel),
@@ -164,7 +176,7 @@ public class RealWorldCountry extends PESTELAgent {
                 String.format("Expand international cooperation in education and research initiatives"),
                 String.format("Strengthen climate resilience and environmental protection measures")
             };
-            return decisions[(int)(Math.random() * decisions.length)];
+            return decisions[(int)(random.nextDouble() * decisions.length)];
         }
         return "no_action";
     }
@@ -226,7 +238,7 @@ public class RealWorldCountry extends PESTELAgent {
     
     private double calculateMilitaryStrength() {
         // Estimated based on GDP and geopolitical position
-        return geopoliticalInfluence * 0.8 + Math.random() * 0.2;
+        return geopoliticalInfluence * 0.8 + random.nextDouble() * 0.2;
     }
     
     private ComprehensiveRealWorldData.CountryUnion findCountryUnion() {
@@ -251,6 +263,28 @@ public class RealWorldCountry extends PESTELAgent {
         return geopoliticalInfluence;
     }
     
+    /**
+     * Change the geopolitical influence, kept between 0 and 1, and tell every influence
+     * listener by how much it actually changed
+     */
+    public void adjustGeopoliticalInfluence(double delta) {
+        double updated = Math.max(0.0, Math.min(1.0, geopoliticalInfluence + delta));
+        double change = updated - geopoliticalInfluence;
+        geopoliticalInfluence = updated;
+        if (change != 0.0) {
+            for (DoubleConsumer listener : influenceListeners) {
+                listener.accept(change);
+            }
+        }
+    }
+    
+    /**
+     * @param listener Called with the change of every later adjustment of the geopolitical influence
+     */
+    public void addInfluenceListener(DoubleConsumer listener) {
+        influenceListeners.add(listener);
+    }
+    
     public double getEconomicPower() {
         return economicPower;
     }
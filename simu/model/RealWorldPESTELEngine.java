@@ -3,6 +3,10 @@ package simu.model;
 import simu.framework.*;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
  * Enhanced PESTEL simulation engine using real-world companies, countries, and research institutions
@@ -14,13 +18,24 @@ public class RealWorldPESTELEngine extends Engine {
     private List<RealWorldCountry> countries;
     private List<RealWorldResearcher> researchers;
     private List<CountryUnion> countryUnions;
+    private AgentRegistry agentRegistry;
     private LocalQwenAIService aiService;
     private EnhancedFutureScenarioManager enhancedFutureManager;
-    private List<AgentAction> recentActions;
-    private List<PESTELChange> recentChanges;
+    private ColumnarEventStore<AgentAction> actionLog;
+    private ColumnarEventStore<PESTELChange> changeLog;
+    private PESTELHistory pestelHistory; // Every global change plus periodic keyframes
+    
+    private static final int RECENT_DAYS = 7; // Window treated as "recent" by decisions and future updates
     private int currentDay;
     private int simulationDays;
     private boolean aiEnabled;
+    private long seed; // Every agent and union draws from its own stream derived from (seed, registry ID)
+    private SyntheticPopulation population; // Entities used instead of the real-world data, or null
+    private int unionThreads;
+    private ExecutorService unionExecutor;
+    private double unionInfluenceGain; // Geopolitical influence each member gains from a union decision, none by default
+    
+    public static final int DEFAULT_UNION_THREADS = Math.min(4, Math.max(2, Runtime.getRuntime().availableProcessors()));
     
     /**
      * Country Union class for managing alliances and regional cooperation
@@ -33,9 +48,18 @@ public class RealWorldPESTELEngine extends Engine {
         private int foundedYear;
         private PESTELState unionPESTEL;
         private double collectiveInfluence;
+        private final Random random;
         
         public CountryUnion(String name, String type, String headquarters, int foundedYear) {
+            this(name, type, headquarters, foundedYear, new Random());
+        }
+        
+        /**
+         * @param random Source of the union's unscheduled decisions
+         */
+        public CountryUnion(String name, String type, String headquarters, int foundedYear, Random random) {
             this.name = name;
+            this.random = random;
             this.type = type;
             this.headquarters = headquarters;
             this.foundedYear = foundedYear;
@@ -54,21 +78,34 @@ public class RealWorldPESTELEngine extends Engine {
                 String.format("Promotes cultural and educational exchange among %s members", name));
         }
         
+        /**
+         * Add a member; the collective influence then follows every change of its geopolitical
+         * influence instead of being summed again
+         */
         public void addMember(RealWorldCountry country) {
             memberCountries.add(country);
-            updateCollectiveInfluence();
-        }
-        
-        private void updateCollectiveInfluence() {
-            collectiveInfluence = memberCountries.stream()
-                    .mapToDouble(RealWorldCountry::getGeopoliticalInfluence)
-                    .sum();
+            collectiveInfluence += country.getGeopoliticalInfluence();
+            country.addInfluenceListener(change -> collectiveInfluence += change);
+        }
+        
+        /**
+         * Decide the union's move for a day and record it in the union's own PESTEL state.
+         * Only the union itself is written, so unions can coordinate in parallel against the
+         * same frozen view.
+         * @return The decision, or null if the union does nothing today
+         */
+        public String coordinate(int currentDay, PESTELView globalPESTEL) {
+            String decision = makeUnionDecision(currentDay, globalPESTEL);
+            if (decision != null) {
+                unionPESTEL.setPolitical("latest_initiative", decision);
+            }
+            return decision;
         }
         
-        public String makeUnionDecision(int currentDay, PESTELState globalPESTEL) {
+        public String makeUnionDecision(int currentDay, PESTELView globalPESTEL) {
             if (currentDay % 180 == 0) { // Semi-annual union decisions
                 return String.format("%s announces new strategic initiative for enhanced cooperation among member states", name);
-            } else if (Math.random() < 0.1) {
+            } else if (random.nextDouble() < 0.1) {
                 return String.format("%s coordinates response to global challenges affecting member states", name);
             }
             return null;
@@ -160,6 +197,10 @@ public class RealWorldPESTELEngine extends Engine {
      * Future Scenario implementation
      */
     public static class FutureScenario {
+        private static final int TECH_INNOVATION = PESTELFactorIndex.slotOf(PESTELCategory.TECHNOLOGICAL, "innovation");
+        private static final int ENV_CLIMATE_CHANGE = PESTELFactorIndex.slotOf(PESTELCategory.ENVIRONMENTAL, "climate_change");
+        private static final int POLITICAL_STABILITY = PESTELFactorIndex.slotOf(PESTELCategory.POLITICAL, "stability");
+        
         private String name;
         private String description;
         private double probability;
@@ -191,13 +232,13 @@ public class RealWorldPESTELEngine extends Engine {
             double alignment = 0.0;
             
             // Check alignment with global PESTEL factors
-            if (name.contains("AI") && globalPESTEL.getTechnological("innovation").contains("AI")) {
+            if (name.contains("AI") && globalPESTEL.hasTheme(TECH_INNOVATION, PESTELIndicators.Theme.AI)) {
                 alignment += 0.3;
             }
-            if (name.contains("Green") && globalPESTEL.getEnvironmental("climate_change").contains("transition")) {
+            if (name.contains("Green") && globalPESTEL.hasTheme(ENV_CLIMATE_CHANGE, PESTELIndicators.Theme.TRANSITION)) {
                 alignment += 0.3;
             }
-            if (name.contains("Geopolitical") && globalPESTEL.getPolitical("stability").contains("unstable")) {
+            if (name.contains("Geopolitical") && globalPESTEL.hasTheme(POLITICAL_STABILITY, PESTELIndicators.Theme.UNSTABLE)) {
                 alignment += 0.2;
             }
             
@@ -214,24 +255,54 @@ public class RealWorldPESTELEngine extends Engine {
     }
     
     public RealWorldPESTELEngine(int simulationDays) {
+        this(simulationDays, null);
+    }
+    
+    /**
+     * Stress-test mode: run a synthetic population on the fallback decision logic only
+     * @param population Entities replacing the real-world data, or null for the real-world data and the AI service
+     */
+    public RealWorldPESTELEngine(int simulationDays, SyntheticPopulation population) {
+        this(simulationDays, new Random().nextLong(), population);
+    }
+    
+    /**
+     * @param seed Seed of every random draw of the agents and unions; two fallback-only runs
+     *             with the same seed and population are identical
+     */
+    public RealWorldPESTELEngine(int simulationDays, long seed) {
+        this(simulationDays, seed, null);
+    }
+    
+    public RealWorldPESTELEngine(int simulationDays, long seed, SyntheticPopulation population) {
         this.globalPESTEL = new PESTELState();
         this.companies = new ArrayList<>();
         this.countries = new ArrayList<>();
         this.researchers = new ArrayList<>();
         this.countryUnions = new ArrayList<>();
-        this.recentActions = new ArrayList<>();
-        this.recentChanges = new ArrayList<>();
+        this.agentRegistry = new AgentRegistry();
+        this.actionLog = ColumnarEventStore.forActions(agentRegistry, ColumnarEventStore.UNLIMITED);
+        this.changeLog = ColumnarEventStore.forChanges(agentRegistry, ColumnarEventStore.UNLIMITED);
         this.currentDay = 1;
         this.simulationDays = simulationDays;
         this.aiEnabled = false;
-        
-        // Initialize Local Qwen3-Next AI service
-        this.aiService = new LocalQwenAIService();
-        this.aiEnabled = aiService.isModelAvailable();
+        this.seed = seed;
+        this.population = population;
+        this.unionThreads = DEFAULT_UNION_THREADS;
+        this.pestelHistory = new PESTELHistory(globalPESTEL.snapshot());
+        
+        // Initialize Local Qwen3-Next AI service; synthetic populations run on the fallback logic only
+        if (population != null) {
+            Trace.out(Trace.Level.INFO, "🧪 " + population + " - advanced fallback logic only");
+        } else {
+            this.aiService = new LocalQwenAIService();
+            this.aiService.setRandom(streamRandom(-1));
+            this.aiEnabled = aiService.isModelAvailable();
+        }
         
         if (aiEnabled) {
             Trace.out(Trace.Level.INFO, "✅ Local Qwen3-Next-80B-A3B-Thinking model initialized");
-        } else {
+        } else if (population == null) {
             Trace.out(Trace.Level.WAR, "⚠️ Local Qwen3-Next model not available - using advanced fallback logic");
             Trace.out(Trace.Level.INFO, "💡 To enable local AI: Run 'python setup_local_qwen.py' first");
         }
@@ -245,18 +316,27 @@ public class RealWorldPESTELEngine extends Engine {
     
     private void initializeRealWorldEntities() {
         // Create comprehensive real companies (Top 50)
-        for (UltraComprehensiveRealWorldData.CompanyData companyData : UltraComprehensiveRealWorldData.TOP_COMPANIES) {
-            companies.add(new RealWorldCompany(companyData));
+        for (UltraComprehensiveRealWorldData.CompanyData companyData : population == null
+                ? UltraComprehensiveRealWorldData.TOP_COMPANIES : population.getCompanies()) {
+            RealWorldCompany company = new RealWorldCompany(companyData, streamRandom(agentRegistry.size()));
+            agentRegistry.register(company);
+            companies.add(company);
         }
         
         // Create comprehensive real countries (Top 30)
-        for (UltraComprehensiveRealWorldData.CountryData countryData : UltraComprehensiveRealWorldData.TOP_COUNTRIES) {
-            countries.add(new RealWorldCountry(countryData));
+        for (UltraComprehensiveRealWorldData.CountryData countryData : population == null
+                ? UltraComprehensiveRealWorldData.TOP_COUNTRIES : population.getCountries()) {
+            RealWorldCountry country = new RealWorldCountry(countryData, streamRandom(agentRegistry.size()));
+            agentRegistry.register(country);
+            countries.add(country);
         }
         
         // Create comprehensive research institutions (Top 25)
-        for (UltraComprehensiveRealWorldData.ResearchData researchData : UltraComprehensiveRealWorldData.TOP_RESEARCH_CENTERS) {
-            researchers.add(new RealWorldResearcher(researchData));
+        for (UltraComprehensiveRealWorldData.ResearchData researchData : population == null
+                ? UltraComprehensiveRealWorldData.TOP_RESEARCH_CENTERS : population.getResearchers()) {
+            RealWorldResearcher researcher = new RealWorldResearcher(researchData, streamRandom(agentRegistry.size()));
+            agentRegistry.register(researcher);
+            researchers.add(researcher);
         }
         
         // Create enhanced country unions
@@ -272,7 +352,8 @@ public class RealWorldPESTELEngine extends Engine {
     private void createComprehensiveCountryUnions() {
         for (ComprehensiveRealWorldData.CountryUnion unionData : ComprehensiveRealWorldData.COUNTRY_UNIONS) {
             CountryUnion union = new CountryUnion(unionData.name, unionData.type, 
-                                                 unionData.headquarters, unionData.foundedYear);
+                                                 unionData.headquarters, unionData.foundedYear,
+                                                 streamRandom(agentRegistry.size()));
             
             // Add member countries
             for (String memberName : unionData.memberCountries) {
@@ -282,10 +363,21 @@ public class RealWorldPESTELEngine extends Engine {
                 }
             }
             
+            agentRegistry.registerName(union.getName());
             countryUnions.add(union);
         }
     }
     
+    /**
+     * Random stream of the entity about to get the given registry ID, independent of every other entity's draws
+     */
+    private Random streamRandom(long stream) {
+        long z = seed ^ (stream + 1) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return new Random(z ^ (z >>> 31));
+    }
+    
     private RealWorldCountry findCountryByName(String name) {
         return countries.stream()
                 .filter(country -> country.getCountryData().name.equals(name))
@@ -298,6 +390,7 @@ public class RealWorldPESTELEngine extends Engine {
         Trace.out(Trace.Level.INFO, "=== REAL-WORLD PESTEL SIMULATION INITIALIZATION ===");
         Trace.out(Trace.Level.INFO, "Duration: " + simulationDays + " days");
         Trace.out(Trace.Level.INFO, "AI Model: " + (aiEnabled ? "Qwen3-Next-80B-A3B-Thinking" : "Advanced Fallback Logic"));
+        Trace.out(Trace.Level.INFO, "Seed: " + seed);
         
         Trace.out(Trace.Level.INFO, "\n=== INITIAL GLOBAL PESTEL STATE ===");
         Trace.out(Trace.Level.INFO, globalPESTEL.toString());
@@ -336,6 +429,7 @@ public class RealWorldPESTELEngine extends Engine {
     
     @Override
     protected void results() {
+        shutdownUnionExecutor();
         Trace.out(Trace.Level.INFO, "\n=== REAL-WORLD PESTEL SIMULATION RESULTS ===");
         Trace.out(Trace.Level.INFO, "Simulation completed after " + (currentDay - 1) + " days");
         
@@ -380,6 +474,8 @@ public class RealWorldPESTELEngine extends Engine {
         // Clean up old data
         cleanupOldData();
         
+        recordDailySnapshot();
+        
         // Schedule next day
         if (currentDay < simulationDays) {
             currentDay++;
@@ -387,13 +483,20 @@ public class RealWorldPESTELEngine extends Engine {
         }
     }
     
+    /**
+     * Close the day in the PESTEL history, which keeps a keyframe of the state every few days
+     */
+    private void recordDailySnapshot() {
+        pestelHistory.endDay(currentDay, globalPESTEL);
+    }
+    
     /**
      * Process real-world agent decision making
      */
     private void processRealWorldAgent(PESTELAgent agent) {
         try {
             // Get AI decision or fallback
-            AgentDecision decision = agent.makeDecision(globalPESTEL, currentDay, recentActions);
+            AgentDecision decision = agent.makeDecision(globalPESTEL, currentDay, actionLog.since(currentDay - RECENT_DAYS));
             
             if (decision == null) {
                 Trace.out(Trace.Level.INFO, agent.getAgentId() + ": No action taken");
@@ -403,9 +506,10 @@ public class RealWorldPESTELEngine extends Engine {
             Trace.out(Trace.Level.INFO, agent.getAgentId() + " decides: " + decision.getDescription());
             
             // Record action
-            AgentAction action = new AgentAction(agent.getAgentId(), currentDay, 
+            AgentAction action = new AgentAction(agent.getAgentIndex(), agent.getAgentId(), currentDay, 
                                                decision.getDescription(), decision.getDecisionType());
-            recentActions.add(action);
+            actionLog.append(action);
+            agent.recordAction(decision);
             
             // Process PESTEL impacts for each category
             processPESTELImpactsForAllCategories(decision.getDescription(), agent.getAgentId());
@@ -501,14 +605,21 @@ public class RealWorldPESTELEngine extends Engine {
                 String newValue = parts[1].substring(10);
                 String reason = parts.length > 2 ? parts[2].substring(7) : "Strategic decision";
                 
-                String oldValue = globalPESTEL.getFactor(category, factor);
+                PESTELCategory resolved = PESTELCategory.fromName(category);
+                if (resolved == null) {
+                    return;
+                }
+                int slot = PESTELFactorIndex.slotOf(resolved, factor);
+                String oldValue = globalPESTEL.getFactor(slot);
                 
                 // Only apply change if it's actually different
                 if (!oldValue.equals(newValue)) {
-                    globalPESTEL.updateFactor(category, factor, newValue);
+                    globalPESTEL.updateFactor(slot, newValue);
                     
-                    PESTELChange change = new PESTELChange(category, factor, oldValue, newValue, reason, agentId, currentDay);
-                    recentChanges.add(change);
+                    PESTELChange change = new PESTELChange(category, factor, oldValue, newValue, reason,
+                                                           agentRegistry.idOf(agentId), agentId, currentDay);
+                    changeLog.append(change);
+                    pestelHistory.record(slot, change);
                     
                     Trace.out(Trace.Level.INFO, "  🔄 " + change.toString());
                 } else {
@@ -571,7 +682,7 @@ public class RealWorldPESTELEngine extends Engine {
         }
         
         // Remove source agent and limit total
-        affected.removeIf(agent -> agent.getAgentId().equals(sourceAgent.getAgentId()));
+        affected.removeIf(agent -> agent.getAgentIndex() == sourceAgent.getAgentIndex());
         
         return affected.stream().limit(maxAffected).collect(java.util.stream.Collectors.toList());
     }
@@ -580,26 +691,88 @@ public class RealWorldPESTELEngine extends Engine {
      * Process country union decisions
      */
     private void processCountryUnionDecisions() {
-        for (CountryUnion union : countryUnions) {
-            String unionDecision = union.makeUnionDecision(currentDay, globalPESTEL);
-            if (unionDecision != null) {
-                Trace.out(Trace.Level.INFO, "🤝 " + unionDecision);
-                
-                // Union decisions affect all member countries
-                for (RealWorldCountry member : union.getMemberCountries()) {
-                    AgentAction unionAction = new AgentAction(union.getName(), currentDay, unionDecision, "union_decision");
-                    recentActions.add(unionAction);
+        // Phase 1: every union decides against the state as it was before any union acted
+        String[] unionDecisions = coordinateAll(globalPESTEL.snapshot());
+        
+        // Phase 2: merge the decisions in union order, so members are updated in the same order whatever the threads
+        for (int i = 0; i < unionDecisions.length; i++) {
+            String unionDecision = unionDecisions[i];
+            if (unionDecision == null) {
+                continue;
+            }
+            CountryUnion union = countryUnions.get(i);
+            int unionIndex = agentRegistry.idOf(union.getName());
+            Trace.out(Trace.Level.INFO, "🤝 " + unionDecision);
+            
+            // Union decisions affect all member countries
+            for (RealWorldCountry member : union.getMemberCountries()) {
+                AgentAction unionAction = new AgentAction(unionIndex, union.getName(), currentDay, unionDecision, "union_decision");
+                actionLog.append(unionAction);
+                if (unionInfluenceGain != 0.0) {
+                    member.adjustGeopoliticalInfluence(unionInfluenceGain);
                 }
             }
         }
     }
     
+    /**
+     * Let every union coordinate, on the union executor when more than one thread is configured.
+     * A union only reads the frozen view and writes itself, and draws from its own random
+     * stream, so the result does not depend on the order in which the unions run.
+     * @return Decision of each union in countryUnions order, null where a union does nothing
+     */
+    private String[] coordinateAll(PESTELView view) {
+        String[] decisions = new String[countryUnions.size()];
+        if (unionThreads <= 1 || countryUnions.size() < 2) {
+            for (int i = 0; i < decisions.length; i++) {
+                decisions[i] = countryUnions.get(i).coordinate(currentDay, view);
+            }
+            return decisions;
+        }
+        
+        ExecutorService executor = getUnionExecutor();
+        List<Future<String>> pending = new ArrayList<>(countryUnions.size());
+        for (CountryUnion union : countryUnions) {
+            pending.add(executor.submit(() -> union.coordinate(currentDay, view)));
+        }
+        for (int i = 0; i < decisions.length; i++) {
+            try {
+                decisions[i] = pending.get(i).get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                pending.forEach(future -> future.cancel(true));
+                break;
+            } catch (ExecutionException e) {
+                Trace.out(Trace.Level.WAR, "Error coordinating " + countryUnions.get(i).getName() + ": " + e.getCause());
+            }
+        }
+        return decisions;
+    }
+    
+    private synchronized ExecutorService getUnionExecutor() {
+        if (unionExecutor == null) {
+            unionExecutor = Executors.newFixedThreadPool(unionThreads, runnable -> {
+                Thread thread = new Thread(runnable, "pestel-union");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return unionExecutor;
+    }
+    
+    private synchronized void shutdownUnionExecutor() {
+        if (unionExecutor != null) {
+            unionExecutor.shutdownNow();
+            unionExecutor = null;
+        }
+    }
+    
     /**
      * Update enhanced alternative future scenarios
      */
     private void updateAlternativeFutures() {
         if (currentDay % 7 == 0) { // Weekly scenario updates
-            enhancedFutureManager.updateScenarioProbabilities(recentActions, globalPESTEL, currentDay);
+            enhancedFutureManager.updateScenarioProbabilities(actionLog.since(currentDay - RECENT_DAYS), globalPESTEL, currentDay);
             
             EnhancedFutureScenarioManager.FutureScenario dominant = enhancedFutureManager.getCurrentDominantScenario();
             Trace.out(Trace.Level.INFO, String.format("🔮 Dominant Future: %s (%.1f%% probability, %.2f momentum)", 
@@ -608,14 +781,12 @@ public class RealWorldPESTELEngine extends Engine {
     }
     
     private List<PESTELChange> getRecentChangesForAgent(PESTELAgent agent) {
-        return recentChanges.stream()
-                .filter(change -> change.getDay() >= currentDay - 3)
-                .collect(java.util.stream.Collectors.toList());
+        return changeLog.since(currentDay - 3);
     }
     
     private void cleanupOldData() {
-        recentActions.removeIf(action -> action.getDay() < currentDay - 7);
-        recentChanges.removeIf(change -> change.getDay() < currentDay - 7);
+        actionLog.applyRetention(currentDay);
+        changeLog.applyRetention(currentDay);
     }
     
     private void displayComprehensiveAlternativeFuturesResults() {
@@ -703,7 +874,72 @@ public class RealWorldPESTELEngine extends Engine {
     public List<RealWorldResearcher> getResearchers() { return new ArrayList<>(researchers); }
     public List<CountryUnion> getCountryUnions() { return new ArrayList<>(countryUnions); }
     public EnhancedFutureScenarioManager getEnhancedFutureManager() { return enhancedFutureManager; }
-    public List<PESTELChange> getRecentChanges() { return new ArrayList<>(recentChanges); }
-    public List<AgentAction> getRecentActions() { return new ArrayList<>(recentActions); }
+    public AgentRegistry getAgentRegistry() { return agentRegistry; }
+    public SyntheticPopulation getPopulation() { return population; }
+    public List<PESTELChange> getRecentChanges() { return new ArrayList<>(changeLog.since(currentDay - RECENT_DAYS)); }
+    public List<AgentAction> getRecentActions() { return new ArrayList<>(actionLog.since(currentDay - RECENT_DAYS)); }
+    public ColumnarEventStore<PESTELChange> getChangeLog() { return changeLog; }
+    public ColumnarEventStore<AgentAction> getActionLog() { return actionLog; }
     public boolean isAIEnabled() { return aiEnabled; }
+    public long getSeed() { return seed; }
+    public int getUnionThreads() { return unionThreads; }
+    public double getUnionInfluenceGain() { return unionInfluenceGain; }
+    
+    /**
+     * Set the number of threads the country unions coordinate on; 1 coordinates them on the
+     * simulation thread. The run is the same whatever the number of threads.
+     */
+    public synchronized void setUnionThreads(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("At least one union thread is needed: " + threads);
+        }
+        if (threads != unionThreads) {
+            shutdownUnionExecutor();
+            unionThreads = threads;
+        }
+    }
+    
+    /**
+     * Let every union decision raise each member's geopolitical influence, up to 1. Off by
+     * default, which keeps the influence of every country fixed as in the original model.
+     */
+    public void setUnionInfluenceGain(double gain) {
+        if (gain < 0.0) {
+            throw new IllegalArgumentException("Union influence gain must not be negative: " + gain);
+        }
+        this.unionInfluenceGain = gain;
+    }
+    
+    /**
+     * Fingerprint of the run so far; equal for runs that are bit-identical
+     */
+    public String getRunDigest() {
+        return RunDigest.of(actionLog.all(), changeLog.all(), globalPESTEL, enhancedFutureManager);
+    }
+    
+    /**
+     * Get the published PESTEL state at the end of a day (day 0 is the initial state)
+     */
+    public PESTELSnapshot getPESTELSnapshot(int day) {
+        return pestelHistory.stateAt(Math.max(0, Math.min(day, pestelHistory.getLastDay())));
+    }
+    
+    public PESTELSnapshot getLatestPESTELSnapshot() {
+        return pestelHistory.stateAt(pestelHistory.getLastDay());
+    }
+    
+    /**
+     * Full change history with time-travel queries such as getFactorAt(category, key, day)
+     */
+    public PESTELHistory getPESTELHistory() {
+        return pestelHistory;
+    }
+    
+    /**
+     * Limit how many days of actions and changes are kept (ColumnarEventStore.UNLIMITED keeps the full history)
+     */
+    public void setEventRetentionDays(int days) {
+        actionLog.setRetentionDays(days);
+        changeLog.setRetentionDays(days);
+    }
 }
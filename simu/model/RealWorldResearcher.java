@@ -1,6 +1,7 @@
 package simu.model;
 
 import java.util.List;
+import java.util.Random;
 
 /**
  * Real-world research institution with actual research data and academic behavior
@@ -11,10 +12,19 @@ public class RealWorldResearcher extends PESTELAgent {
     private double globalRanking;
     private double fundingLevel;
     private double collaborationNetwork;
+    private final Random random;
     
     public RealWorldResearcher(UltraComprehensiveRealWorldData.ResearchData researchData) {
+        this(researchData, new Random());
+    }
+    
+    /**
+     * @param random Source of the institution's randomly drawn characteristics and decisions
+     */
+    public RealWorldResearcher(UltraComprehensiveRealWorldData.ResearchData researchData, Random random) {
         super(researchData.name, AgentType.RESEARCHER);
         this.researchData = researchData;
+        this.random = random;
         this.researchImpact = calculateResearchImpact();
         this.globalRanking = calculateGlobalRanking();
         this.fundingLevel = calculateFundingLevel();
@@ -99,50 +109,50 @@ public class RealWorldResearcher extends PESTELAgent {
             return "Launch breakthrough quantum computing initiative with $500M investment and industry partnerships";
         } else if (hasAIRelatedActivity(recentAgentActions)) {
             return "Establish new AI safety research center with focus on responsible AI development";
-        } else if (Math.random() < 0.4) {
+        } else if (random.nextDouble() < 0.4) {
             return "Create interdisciplinary climate technology lab combining engineering and policy research";
         }
-        return Math.random() < 0.3 ? "Launch startup incubator program for deep tech companies" : "no_action";
+        return random.nextDouble() < 0.3 ? "Launch startup incubator program for deep tech companies" : "no_action";
     }
     
     private String generateStanfordDecision(PESTELState globalPESTEL, int currentDay, List<AgentAction> recentAgentActions) {
         if (currentDay % 45 == 0) {
             return "Establish Human-Centered AI Institute with $300M funding from Silicon Valley partners";
-        } else if (Math.random() < 0.35) {
+        } else if (random.nextDouble() < 0.35) {
             return "Launch precision medicine initiative combining AI, genomics, and clinical research";
         }
-        return Math.random() < 0.25 ? "Create sustainable technology accelerator for clean energy startups" : "no_action";
+        return random.nextDouble() < 0.25 ? "Create sustainable technology accelerator for clean energy startups" : "no_action";
     }
     
     private String generateCASDecision(PESTELState globalPESTEL, int currentDay, List<AgentAction> recentAgentActions) {
         if (currentDay % 90 == 0) {
             return "Launch comprehensive space exploration program with lunar research station development";
-        } else if (Math.random() < 0.4) {
+        } else if (random.nextDouble() < 0.4) {
             return "Establish Belt and Road research collaboration network for sustainable development";
         }
-        return Math.random() < 0.3 ? "Invest in advanced materials research for next-generation manufacturing" : "no_action";
+        return random.nextDouble() < 0.3 ? "Invest in advanced materials research for next-generation manufacturing" : "no_action";
     }
     
     private String generateMaxPlanckDecision(PESTELState globalPESTEL, int currentDay, List<AgentAction> recentAgentActions) {
         if (currentDay % 70 == 0) {
             return "Launch European quantum research consortium with €200M EU funding";
-        } else if (Math.random() < 0.3) {
+        } else if (random.nextDouble() < 0.3) {
             return "Establish fundamental physics research program exploring dark matter and quantum gravity";
         }
-        return Math.random() < 0.2 ? "Create international fellowship program for young physicists" : "no_action";
+        return random.nextDouble() < 0.2 ? "Create international fellowship program for young physicists" : "no_action";
     }
     
     private String generateHarvardDecision(PESTELState globalPESTEL, int currentDay, List<AgentAction> recentAgentActions) {
         if (currentDay % 50 == 0) {
             return "Launch global health initiative with $400M investment in pandemic preparedness research";
-        } else if (Math.random() < 0.35) {
+        } else if (random.nextDouble() < 0.35) {
             return "Establish public policy research center focusing on AI governance and digital democracy";
         }
-        return Math.random() < 0.25 ? "Create interdisciplinary aging research institute with biotech industry partnerships" : "no_action";
+        return random.nextDouble() < 0.25 ? "Create interdisciplinary aging research institute with biotech industry partnerships" : "no_action";
     }
     
     private String generateGenericResearchDecision(PESTELState globalPESTEL, int currentDay, List<AgentAction> recentAgentActions) {
-        if (Math.random() < 0.3) {
+        if (random.nextDouble() < 0.3) {
             String[] decisions = {
                 String.format("Expand %s research capabilities with new international partnerships", researchData.fields),
                 String.format("Launch graduate fellowship program in %s for emerging researchers", researchData.fields),
@@ -150,7 +160,7 @@ public class RealWorldResearcher extends PESTELAgent {
                 String.format("Create innovation hub for %s technology transfer and startups", researchData.fields),
                 String.format("Implement open science initiatives for %s research data sharing", researchData.fields)
             };
-            return decisions[(int)(Math.random() * decisions.length)];
+            return decisions[(int)(random.nextDouble() * decisions.length)];
         }
         return "no_action";
     }
@@ -195,11 +205,11 @@ public class RealWorldResearcher extends PESTELAgent {
         // Based on institution prestige and research fields
         if (researchData.name.contains("MIT") || researchData.name.contains("Stanford") || 
             researchData.name.contains("Harvard")) {
-            return 0.9 + Math.random() * 0.1; // 0.9-1.0
+            return 0.9 + random.nextDouble() * 0.1; // 0.9-1.0
         } else if (researchData.name.contains("Chinese Academy") || researchData.name.contains("Max Planck")) {
-            return 0.8 + Math.random() * 0.2; // 0.8-1.0
+            return 0.8 + random.nextDouble() * 0.2; // 0.8-1.0
         } else {
-            return 0.6 + Math.random() * 0.3; // 0.6-0.9
+            return 0.6 + random.nextDouble() * 0.3; // 0.6-0.9
         }
     }
     
@@ -210,22 +220,22 @@ public class RealWorldResearcher extends PESTELAgent {
         if (researchData.name.contains("Harvard")) return 0.91;
         if (researchData.name.contains("Chinese Academy")) return 0.89;
         if (researchData.name.contains("Max Planck")) return 0.87;
-        return 0.7 + Math.random() * 0.2;
+        return 0.7 + random.nextDouble() * 0.2;
     }
     
     private double calculateFundingLevel() {
         // Based on country and institution type
         if (researchData.country.equals("USA") && researchData.type.equals("University")) {
-            return 0.8 + Math.random() * 0.2;
+            return 0.8 + random.nextDouble() * 0.2;
         } else if (researchData.type.equals("Government")) {
-            return 0.7 + Math.random() * 0.3;
+            return 0.7 + random.nextDouble() * 0.3;
         } else {
-            return 0.5 + Math.random() * 0.4;
+            return 0.5 + random.nextDouble() * 0.4;
         }
     }
     
     private double calculateCollaborationNetwork() {
-        return globalRanking * 0.7 + Math.random() * 0.3;
+        return globalRanking * 0.7 + random.nextDouble() * 0.3;
     }
     
     private double calculateDecisionConfidence() {
@@ -1,6 +1,7 @@
 package simu.model;
 
 import java.util.List;
+import java.util.Random;
 
 /**
  * Researcher agent with specialized PESTEL factors for academic/research context
@@ -9,9 +10,18 @@ public class ResearcherPESTELAgent extends PESTELAgent {
     private String researchField;
     private String institutionType;
     private String careerStage;
+    private final Random random;
     
     public ResearcherPESTELAgent(String agentId) {
+        this(agentId, new Random());
+    }
+    
+    /**
+     * @param random Source of the researcher's randomly drawn attributes and decisions
+     */
+    public ResearcherPESTELAgent(String agentId, Random random) {
         super(agentId, AgentType.RESEARCHER);
+        this.random = random;
         
         // Initialize researcher-specific attributes
         String[] fields = {"artificial_intelligence", "biotechnology", "climate_science", 
@@ -21,9 +31,9 @@ public class ResearcherPESTELAgent extends PESTELAgent {
         String[] stages = {"graduate_student", "postdoc", "assistant_professor", 
                           "associate_professor", "full_professor", "research_director"};
         
-        this.researchField = fields[(int)(Math.random() * fields.length)];
-        this.institutionType = institutions[(int)(Math.random() * institutions.length)];
-        this.careerStage = stages[(int)(Math.random() * stages.length)];
+        this.researchField = fields[(int)(random.nextDouble() * fields.length)];
+        this.institutionType = institutions[(int)(random.nextDouble() * institutions.length)];
+        this.careerStage = stages[(int)(random.nextDouble() * stages.length)];
     }
     
     @Override
@@ -116,7 +126,7 @@ public class ResearcherPESTELAgent extends PESTELAgent {
         }
         
         if (currentDay % 7 == 0) { // Weekly research progress
-            if (Math.random() < 0.4) { // 40% chance
+            if (random.nextDouble() < 0.4) { // 40% chance
                 String[] activities = {
                     "Conduct breakthrough experiment yielding significant results",
                     "Present research findings at international conference",
@@ -125,7 +135,7 @@ public class ResearcherPESTELAgent extends PESTELAgent {
                     "Publish high-impact paper in prestigious journal",
                     "Mentor graduate students and advance their research projects"
                 };
-                return activities[(int)(Math.random() * activities.length)];
+                return activities[(int)(random.nextDouble() * activities.length)];
             }
         }
         
@@ -0,0 +1,112 @@
+package simu.model;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * SHA-256 fingerprint of a simulation run: every action and change in order, the final global
+ * PESTEL state and the scenario probabilities. Doubles are hashed by their exact bits, so two
+ * runs have the same digest only if they are bit-identical.
+ *
+ * Factors are hashed by category and key rather than by slot, as slot numbers depend on the
+ * order in which factors were first seen in the JVM.
+ */
+public final class RunDigest {
+    private final MessageDigest sha;
+
+    public RunDigest() {
+        try {
+            this.sha = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Digest of a finished run
+     * @param futures Scenario manager of the run, or null for engines without alternative futures
+     */
+    public static String of(List<AgentAction> actions, List<PESTELChange> changes, PESTELView state,
+                            EnhancedFutureScenarioManager futures) {
+        RunDigest digest = new RunDigest();
+        for (AgentAction action : actions) {
+            digest.addAction(action);
+        }
+        for (PESTELChange change : changes) {
+            digest.addChange(change);
+        }
+        digest.addState(state);
+        if (futures != null) {
+            digest.addScenarios(futures);
+        }
+        return digest.toHex();
+    }
+
+    public RunDigest add(String value) {
+        byte[] bytes = (value == null ? "\u0000null" : value).getBytes(StandardCharsets.UTF_8);
+        add(bytes.length);
+        sha.update(bytes);
+        return this;
+    }
+
+    public RunDigest add(long value) {
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            sha.update((byte) (value >>> shift));
+        }
+        return this;
+    }
+
+    public RunDigest add(double value) {
+        return add(Double.doubleToLongBits(value));
+    }
+
+    public RunDigest addAction(AgentAction action) {
+        return add(action.getAgentIndex()).add(action.getDay()).add(action.getAgentId())
+            .add(action.getActionDescription()).add(action.getActionType());
+    }
+
+    public RunDigest addChange(PESTELChange change) {
+        return add(change.getSourceAgentIndex()).add(change.getDay()).add(change.getCategory()).add(change.getFactor())
+            .add(change.getOldValue()).add(change.getNewValue()).add(change.getReason());
+    }
+
+    public RunDigest addState(PESTELView state) {
+        for (PESTELCategory category : PESTELCategory.values()) {
+            int[] slots = PESTELFactorIndex.slotsOf(category);
+            Integer[] byKey = new Integer[slots.length];
+            for (int i = 0; i < slots.length; i++) {
+                byKey[i] = slots[i];
+            }
+            Arrays.sort(byKey, Comparator.comparing(PESTELFactorIndex::keyOf));
+            for (int slot : byKey) {
+                if (state.hasFactor(slot)) {
+                    add(category.getKey()).add(PESTELFactorIndex.keyOf(slot)).add(state.getFactor(slot))
+                        .add(state.getIndicator(slot));
+                }
+            }
+        }
+        return this;
+    }
+
+    public RunDigest addScenarios(EnhancedFutureScenarioManager futures) {
+        for (EnhancedFutureScenarioManager.FutureScenario scenario : futures.getAllScenarios()) {
+            add(scenario.getName()).add(scenario.getProbability()).add(scenario.getMomentum());
+        }
+        return this;
+    }
+
+    /**
+     * Hex digest of everything added; the digest is reset afterwards
+     */
+    public String toHex() {
+        StringBuilder hex = new StringBuilder(64);
+        for (byte b : sha.digest()) {
+            hex.append(String.format("%02x", b));
+        }
+        return hex.toString();
+    }
+}
@@ -0,0 +1,437 @@
+package simu.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Scenario tree of fallback-only runs, explored with a beam search.
+ *
+ * The tree starts from one FastFallbackEngine run. At every decision point, one every
+ * decisionInterval days, each branch of the beam is forked into several children that draw the
+ * decisions of the next interval from seeds of their own. Child c follows the scenario its parent
+ * rates c-th most probable: its run is steered toward that scenario, so its agents pick the
+ * decisions that boost it more often, and siblings drift toward different futures. A branch's
+ * score is the likelihood of its trajectory: the log of how likely its decisions are without
+ * steering relative to how likely they were with it, summed over its intervals. A branch whose
+ * future comes about with little steering scores highest.
+ *
+ * After every interval the children are pruned before they become the new beam:
+ * - Branches far less likely than the best one are dropped.
+ * - A branch is dropped as redundant when it ends in the same state as a better branch: its
+ *   scenario probabilities within redundancyDistance (L1) of the better branch's. The fallback
+ *   decisions of every branch leave the PESTEL factors with the same values, so the scenario
+ *   probabilities are what sets futures apart. The beam, and the branches returned, all end in
+ *   different states.
+ * - Only the beamWidth best branches are kept.
+ *
+ * Children are simulated concurrently. At most beamWidth * (branching + 1) engine states are
+ * alive at once, whatever the horizon. A branch keeps its seeds rather than its ancestors, so
+ * pruned states are freed at once and any branch can be replayed from the root. Children are
+ * ranked in a fixed order, so the same seed gives the same tree on any number of threads.
+ */
+public class ScenarioTreeExplorer {
+    public static final int DEFAULT_HORIZON = 90;
+    public static final int DEFAULT_DECISION_INTERVAL = 7; // The scenario probabilities move once a week
+    public static final int DEFAULT_BRANCHING = 4;
+    public static final int DEFAULT_BEAM_WIDTH = 8;
+    public static final double DEFAULT_MIN_RELATIVE_PROBABILITY = 1e-3;
+    public static final double DEFAULT_STEERING = 1.0; // Decisions boosting the followed scenario are twice as likely
+    public static final double DEFAULT_REDUNDANCY_DISTANCE = 1e-4;
+    public static final int DEFAULT_THREADS = Math.max(1, Runtime.getRuntime().availableProcessors());
+
+    private final long seed;
+    private final SyntheticPopulation population;
+    private final String[] scenarioNames;
+    private int horizon = DEFAULT_HORIZON;
+    private int decisionInterval = DEFAULT_DECISION_INTERVAL;
+    private int branching = DEFAULT_BRANCHING;
+    private int beamWidth = DEFAULT_BEAM_WIDTH;
+    private double minRelativeProbability = DEFAULT_MIN_RELATIVE_PROBABILITY;
+    private double steering = DEFAULT_STEERING;
+    private double redundancyDistance = DEFAULT_REDUNDANCY_DISTANCE;
+    private int threads = DEFAULT_THREADS;
+
+    private long expanded;
+    private long prunedUnlikely;
+    private long prunedRedundant;
+    private long prunedBeyondBeam;
+    private int peakLiveStates;
+
+    /**
+     * One path through the tree: a future up to some day, with the run that leads to it
+     */
+    public static final class Branch {
+        private final long[] seeds; // Seed drawn at each decision point
+        private final int[] futures; // Scenario followed during each interval
+        private final int day;
+        private final double score;
+        private final double[] probabilities;
+        private FastFallbackEngine engine; // Dropped once the branch leaves the beam
+
+        private Branch(long[] seeds, int[] futures, FastFallbackEngine engine) {
+            this.seeds = seeds;
+            this.futures = futures;
+            this.day = engine.getCurrentDay();
+            this.score = engine.getLogLikelihoodRatio();
+            List<EnhancedFutureScenarioManager.FutureScenario> scenarios = engine.getEnhancedFutureManager().getAllScenarios();
+            this.probabilities = new double[scenarios.size()];
+            for (int s = 0; s < probabilities.length; s++) {
+                probabilities[s] = scenarios.get(s).getProbability();
+            }
+            this.engine = engine;
+        }
+
+        public int getDay() { return day; }
+
+        /**
+         * Log likelihood of the branch's trajectory: how likely its decisions are without
+         * steering relative to how likely they were with it; 0 for an unsteered run
+         */
+        public double getScore() { return score; }
+
+        /**
+         * Seed of every interval, in order; the root seed and these rebuild the run
+         */
+        public long[] getSeeds() { return seeds.clone(); }
+
+        /**
+         * Scenario followed, by getAllScenarios position, during every interval
+         */
+        public int[] getFutures() { return futures.clone(); }
+
+        /**
+         * Probability of every scenario at the end of the branch
+         */
+        public double[] getProbabilities() { return probabilities.clone(); }
+
+        /**
+         * Run of the branch, or null once the branch has been pruned
+         */
+        public FastFallbackEngine getEngine() { return engine; }
+
+        /**
+         * Most probable scenario at the end of the branch
+         */
+        public int getLikeliestScenario() {
+            int likeliest = 0;
+            for (int s = 1; s < probabilities.length; s++) {
+                if (probabilities[s] > probabilities[likeliest]) {
+                    likeliest = s;
+                }
+            }
+            return likeliest;
+        }
+    }
+
+    /**
+     * @param population Entities of every branch, such as SyntheticPopulation.realWorld()
+     */
+    public ScenarioTreeExplorer(long seed, SyntheticPopulation population) {
+        if (population == null) {
+            throw new IllegalArgumentException("A scenario tree needs a population");
+        }
+        this.seed = seed;
+        this.population = population;
+
+        List<EnhancedFutureScenarioManager.FutureScenario> scenarios = new EnhancedFutureScenarioManager().getAllScenarios();
+        this.scenarioNames = new String[scenarios.size()];
+        for (int s = 0; s < scenarioNames.length; s++) {
+            scenarioNames[s] = scenarios.get(s).getName();
+        }
+    }
+
+    /**
+     * Explore the tree up to the horizon
+     * @return The k most likely trajectories at the horizon, most likely first, with their runs;
+     *         fewer if the tree holds fewer different futures
+     */
+    public List<Branch> explore(int k) {
+        if (k < 1) {
+            throw new IllegalArgumentException("At least one branch must be returned: " + k);
+        }
+        expanded = 0;
+        prunedUnlikely = 0;
+        prunedRedundant = 0;
+        prunedBeyondBeam = 0;
+        peakLiveStates = 1;
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "pestel-scenario-tree");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<Branch> beam = new ArrayList<>();
+            beam.add(new Branch(new long[0], new int[0], new FastFallbackEngine(seed, population)));
+            for (int day = 0; day < horizon; day += decisionInterval) {
+                int days = Math.min(decisionInterval, horizon - day);
+                List<Future<Branch>> pending = new ArrayList<>(beam.size() * branching);
+                for (Branch parent : beam) {
+                    Integer[] ranked = new Integer[parent.probabilities.length];
+                    for (int s = 0; s < ranked.length; s++) {
+                        ranked[s] = s;
+                    }
+                    // A stable sort ranks tied scenarios in getAllScenarios order
+                    Arrays.sort(ranked, Comparator.comparingDouble((Integer s) -> parent.probabilities[s]).reversed());
+                    for (int child = 0; child < branching; child++) {
+                        int future = ranked[child % ranked.length];
+                        long childSeed = childSeed(parent, child);
+                        pending.add(executor.submit(() -> expand(parent, childSeed, future, days)));
+                    }
+                }
+                peakLiveStates = Math.max(peakLiveStates, beam.size() + pending.size());
+
+                List<Branch> children = new ArrayList<>(pending.size());
+                for (Future<Branch> future : pending) {
+                    children.add(future.get());
+                }
+                expanded += children.size();
+                for (Branch parent : beam) {
+                    parent.engine = null;
+                }
+                beam = prune(children);
+            }
+            return new ArrayList<>(beam.subList(0, Math.min(k, beam.size())));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new ArrayList<>();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Scenario branch failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Fork a branch and run it to the next decision point steered toward a scenario
+     */
+    private Branch expand(Branch parent, long childSeed, int future, int days) {
+        FastFallbackEngine engine = parent.engine.fork(childSeed);
+        engine.steerToward(future, steering);
+        engine.run(days);
+
+        long[] seeds = Arrays.copyOf(parent.seeds, parent.seeds.length + 1);
+        seeds[seeds.length - 1] = childSeed;
+        int[] futures = Arrays.copyOf(parent.futures, parent.futures.length + 1);
+        futures[futures.length - 1] = future;
+        return new Branch(seeds, futures, engine);
+    }
+
+    /**
+     * Keep the best children that are neither far less likely than the best one nor redundant,
+     * up to the beam width
+     */
+    private List<Branch> prune(List<Branch> children) {
+        // A stable sort keeps equal scores in expansion order, so the beam does not depend on the threads
+        List<Branch> ranked = new ArrayList<>(children);
+        ranked.sort(Comparator.comparingDouble(Branch::getScore).reversed());
+        double threshold = ranked.get(0).score + Math.log(minRelativeProbability);
+
+        List<Branch> beam = new ArrayList<>(beamWidth);
+        for (Branch branch : ranked) {
+            if (branch.score < threshold) {
+                prunedUnlikely++;
+            } else if (isRedundant(branch, beam)) {
+                prunedRedundant++;
+            } else if (beam.size() == beamWidth) {
+                prunedBeyondBeam++;
+            } else {
+                beam.add(branch);
+                continue;
+            }
+            branch.engine = null;
+        }
+        return beam;
+    }
+
+    /**
+     * Whether a better branch already ends with the same scenario probabilities
+     */
+    private boolean isRedundant(Branch branch, List<Branch> beam) {
+        for (Branch kept : beam) {
+            if (distance(kept.probabilities, branch.probabilities) <= redundancyDistance) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * L1 distance between two scenario probability vectors
+     */
+    public static double distance(double[] a, double[] b) {
+        double distance = 0.0;
+        for (int s = 0; s < a.length; s++) {
+            distance += Math.abs(a[s] - b[s]);
+        }
+        return distance;
+    }
+
+    /**
+     * Seed of a child, mixed from its parent's last seed, its depth and its position
+     */
+    private long childSeed(Branch parent, int child) {
+        long base = parent.seeds.length == 0 ? seed : parent.seeds[parent.seeds.length - 1];
+        long z = base + ((long) parent.seeds.length << 32 | child + 1L) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Rebuild a branch's run from the root with its seeds and futures
+     */
+    public FastFallbackEngine replay(Branch branch) {
+        FastFallbackEngine engine = new FastFallbackEngine(seed, population);
+        int day = 0;
+        for (int level = 0; level < branch.seeds.length; level++) {
+            engine = engine.fork(branch.seeds[level]);
+            engine.steerToward(branch.futures[level], steering);
+            engine.run(Math.min(decisionInterval, horizon - day));
+            day += decisionInterval;
+        }
+        return engine;
+    }
+
+    /**
+     * Share of each branch in the total probability of the given branches
+     */
+    public static double[] relativeProbabilities(List<Branch> branches) {
+        double[] shares = new double[branches.size()];
+        double best = branches.stream().mapToDouble(Branch::getScore).max().orElse(0.0);
+        double total = 0.0;
+        for (int i = 0; i < shares.length; i++) {
+            shares[i] = Math.exp(branches.get(i).score - best);
+            total += shares[i];
+        }
+        for (int i = 0; i < shares.length; i++) {
+            shares[i] /= total;
+        }
+        return shares;
+    }
+
+    /**
+     * The given branches, with their share of the probability and their path of futures
+     */
+    public String report(List<Branch> branches) {
+        StringBuilder report = new StringBuilder();
+        report.append(String.format("Scenario tree: %d-day horizon, decision point every %d days, %d children per branch, beam of %d, steering %.2f (seed %d)%n",
+            horizon, decisionInterval, branching, beamWidth, steering, seed));
+        report.append(String.format("%,d branches simulated: %,d too unlikely, %,d redundant, %,d beyond the beam; at most %d states alive%n",
+            expanded, prunedUnlikely, prunedRedundant, prunedBeyondBeam, peakLiveStates));
+        double[] shares = relativeProbabilities(branches);
+        for (int i = 0; i < branches.size(); i++) {
+            Branch branch = branches.get(i);
+            int likeliest = branch.getLikeliestScenario();
+            report.append(String.format("#%d  %5.1f%% of the top %d, log likelihood ratio %.2f: %s at %.1f%%%n",
+                i + 1, shares[i] * 100, branches.size(), branch.score, scenarioNames[likeliest],
+                branch.probabilities[likeliest] * 100));
+            report.append("    followed:");
+            int previous = -1;
+            for (int level = 0; level < branch.futures.length; level++) {
+                if (branch.futures[level] != previous) {
+                    report.append(String.format(" day %d %s;", Math.min(horizon, (level + 1) * decisionInterval),
+                        scenarioNames[branch.futures[level]]));
+                    previous = branch.futures[level];
+                }
+            }
+            report.append(System.lineSeparator());
+        }
+        return report.toString();
+    }
+
+    public void setHorizon(int days) {
+        if (days < 1) {
+            throw new IllegalArgumentException("The horizon must be at least one day: " + days);
+        }
+        this.horizon = days;
+    }
+
+    public void setDecisionInterval(int days) {
+        if (days < 1) {
+            throw new IllegalArgumentException("Decision points must be at least one day apart: " + days);
+        }
+        this.decisionInterval = days;
+    }
+
+    /**
+     * @param children Branches forked from every branch of the beam at a decision point
+     */
+    public void setBranching(int children) {
+        if (children < 1) {
+            throw new IllegalArgumentException("At least one child per branch is needed: " + children);
+        }
+        this.branching = children;
+    }
+
+    public void setBeamWidth(int branches) {
+        if (branches < 1) {
+            throw new IllegalArgumentException("The beam must keep at least one branch: " + branches);
+        }
+        this.beamWidth = branches;
+    }
+
+    /**
+     * @param ratio Branches less likely than this fraction of the best branch are pruned
+     */
+    public void setMinRelativeProbability(double ratio) {
+        if (!(ratio > 0 && ratio <= 1)) {
+            throw new IllegalArgumentException("The relative probability must be in (0, 1]: " + ratio);
+        }
+        this.minRelativeProbability = ratio;
+    }
+
+    /**
+     * @param strength Extra pick weight of the decisions that boost a branch's scenario; 0 lets
+     *                 siblings differ only by their seeds
+     */
+    public void setSteering(double strength) {
+        if (!(strength >= 0)) {
+            throw new IllegalArgumentException("The steering strength cannot be negative: " + strength);
+        }
+        this.steering = strength;
+    }
+
+    /**
+     * @param distance Branches whose scenario probabilities end within this (L1) of a better
+     *                 branch's are pruned as redundant
+     */
+    public void setRedundancyDistance(double distance) {
+        if (!(distance >= 0)) {
+            throw new IllegalArgumentException("The redundancy distance cannot be negative: " + distance);
+        }
+        this.redundancyDistance = distance;
+    }
+
+    public void setThreads(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("At least one thread is needed: " + threads);
+        }
+        this.threads = threads;
+    }
+
+    public long getSeed() { return seed; }
+    public int getHorizon() { return horizon; }
+    public int getDecisionInterval() { return decisionInterval; }
+    public int getBranching() { return branching; }
+    public int getBeamWidth() { return beamWidth; }
+    public double getSteering() { return steering; }
+    public double getRedundancyDistance() { return redundancyDistance; }
+    public int getScenarioCount() { return scenarioNames.length; }
+    public String getScenarioName(int scenario) { return scenarioNames[scenario]; }
+    public long getExpandedCount() { return expanded; }
+    public long getPrunedUnlikelyCount() { return prunedUnlikely; }
+    public long getPrunedRedundantCount() { return prunedRedundant; }
+    public long getPrunedBeyondBeamCount() { return prunedBeyondBeam; }
+
+    /**
+     * Most engine states alive at once in the last exploration
+     */
+    public int getPeakLiveStates() { return peakLiveStates; }
+}
@@ -11,7 +11,8 @@ import java.nio.charset.StandardCharsets;
  * Much more reliable than trying to load 80B model in Java
  */
 public class SimpleLocalAIService {
-    private static final String LOCAL_SERVER_URL = "http://localhost:8000";
+    // Address of qwen_server.py, overridden with -Dqwen.server.url=http://host:port
+    private static final String LOCAL_SERVER_URL = System.getProperty("qwen.server.url", "http://localhost:8000");
     private boolean serverAvailable = false;
 
     public SimpleLocalAIService() {
@@ -0,0 +1,580 @@
+package simu.model;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact binary format for simulation data: PESTEL states, agent actions, PESTEL changes,
+ * agent decisions and future scenarios.
+ * A stream starts with a magic number and a format version, followed by tagged records.
+ * Integers are written as varints (zigzag for signed values) and doubles as their raw 8 bytes.
+ * Every string is stored once per stream and later occurrences refer back to it, so agent
+ * ids, factor keys and repeated descriptions cost one or two bytes after their first use.
+ * The Reader decodes straight from a ByteBuffer: heap buffers are never copied, strings are
+ * built from the backing array in place.
+ */
+public final class SimulationCodec {
+    public static final int FORMAT_VERSION = 1;
+
+    private static final byte MAGIC_0 = 'P';
+    private static final byte MAGIC_1 = 'S';
+
+    public static final int TAG_SNAPSHOT = 1;
+    public static final int TAG_ACTION = 2;
+    public static final int TAG_CHANGE = 3;
+    public static final int TAG_DECISION = 4;
+    public static final int TAG_SCENARIO = 5;
+    public static final int TAG_LIST = 6;
+    /** Tags from this value upwards are free for records defined outside this class */
+    public static final int FIRST_EXTERNAL_TAG = 32;
+
+    private SimulationCodec() {
+    }
+
+    /**
+     * Writes one stream into a growable byte array
+     */
+    public static final class Writer {
+        private byte[] buffer;
+        private int size;
+        private final Map<String, Integer> strings = new HashMap<>();
+
+        public Writer() {
+            this(256);
+        }
+
+        public Writer(int initialCapacity) {
+            this.buffer = new byte[Math.max(16, initialCapacity)];
+            writeHeader();
+        }
+
+        /**
+         * Start a new stream in the same buffer, forgetting the strings written so far
+         */
+        public Writer reset() {
+            size = 0;
+            strings.clear();
+            writeHeader();
+            return this;
+        }
+
+        private void writeHeader() {
+            writeByte(MAGIC_0);
+            writeByte(MAGIC_1);
+            writeByte(FORMAT_VERSION);
+        }
+
+        public void writeTag(int tag) {
+            writeVarInt(tag);
+        }
+
+        public void writeByte(int value) {
+            ensureCapacity(1);
+            buffer[size++] = (byte) value;
+        }
+
+        public void writeBoolean(boolean value) {
+            writeByte(value ? 1 : 0);
+        }
+
+        /**
+         * Unsigned varint, 7 bits per byte
+         */
+        public void writeVarInt(int value) {
+            ensureCapacity(5);
+            while ((value & ~0x7F) != 0) {
+                buffer[size++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buffer[size++] = (byte) value;
+        }
+
+        /**
+         * Zigzag varint, so small negative values stay short
+         */
+        public void writeSignedVarInt(int value) {
+            writeVarInt((value << 1) ^ (value >> 31));
+        }
+
+        public void writeDouble(double value) {
+            long bits = Double.doubleToRawLongBits(value);
+            ensureCapacity(8);
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                buffer[size++] = (byte) (bits >>> shift);
+            }
+        }
+
+        /**
+         * A string is written in full the first time and as a reference to that first
+         * occurrence afterwards. Tag 0 is null, odd tags carry the UTF-8 length of a new
+         * string, even tags the index of a known one.
+         */
+        public void writeString(String value) {
+            if (value == null) {
+                writeVarInt(0);
+                return;
+            }
+            Integer known = strings.get(value);
+            if (known != null) {
+                writeVarInt((known + 1) << 1);
+                return;
+            }
+            strings.put(value, strings.size());
+
+            int length = value.length();
+            boolean ascii = true;
+            for (int i = 0; i < length; i++) {
+                if (value.charAt(i) >= 0x80) {
+                    ascii = false;
+                    break;
+                }
+            }
+            if (ascii) {
+                writeVarInt((length << 1) | 1);
+                ensureCapacity(length);
+                for (int i = 0; i < length; i++) {
+                    buffer[size++] = (byte) value.charAt(i);
+                }
+            } else {
+                byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                writeVarInt((bytes.length << 1) | 1);
+                ensureCapacity(bytes.length);
+                System.arraycopy(bytes, 0, buffer, size, bytes.length);
+                size += bytes.length;
+            }
+        }
+
+        public void writeStringList(List<String> values) {
+            writeVarInt(values.size());
+            for (String value : values) {
+                writeString(value);
+            }
+        }
+
+        /**
+         * Every factor that has a value, with the state's last update time. The numeric
+         * indicators are derived from the values again when the state is read.
+         */
+        public void writeState(PESTELView state) {
+            writeTag(TAG_SNAPSHOT);
+            writeDouble(state.getLastUpdateTime());
+            int slots = PESTELFactorIndex.size();
+            int count = 0;
+            for (int slot = 0; slot < slots; slot++) {
+                if (state.hasFactor(slot)) {
+                    count++;
+                }
+            }
+            writeVarInt(count);
+            for (int slot = 0; slot < slots && count > 0; slot++) {
+                if (state.hasFactor(slot)) {
+                    writeByte(PESTELFactorIndex.categoryOf(slot).ordinal());
+                    writeString(PESTELFactorIndex.keyOf(slot));
+                    writeString(state.getFactor(slot));
+                    count--;
+                }
+            }
+        }
+
+        public void writeAction(AgentAction action) {
+            writeTag(TAG_ACTION);
+            writeSignedVarInt(action.getAgentIndex());
+            writeString(action.getAgentId());
+            writeSignedVarInt(action.getDay());
+            writeString(action.getActionDescription());
+            writeString(action.getActionType());
+            writeDouble(action.getTimestamp());
+        }
+
+        public void writeChange(PESTELChange change) {
+            writeTag(TAG_CHANGE);
+            writeString(change.getCategory());
+            writeString(change.getFactor());
+            writeString(change.getOldValue());
+            writeString(change.getNewValue());
+            writeString(change.getReason());
+            writeSignedVarInt(change.getSourceAgentIndex());
+            writeString(change.getSourceAgentId());
+            writeSignedVarInt(change.getDay());
+        }
+
+        public void writeDecision(AgentDecision decision) {
+            writeTag(TAG_DECISION);
+            writeString(decision.getAgentId());
+            writeSignedVarInt(decision.getDay());
+            writeString(decision.getDescription());
+            writeString(decision.getDecisionType());
+            writeDouble(decision.getConfidence());
+            writeDouble(decision.getDecisionTime());
+            writeDouble(decision.getExpectedImpact());
+            Map<String, Double> parameters = decision.getAllParameters();
+            writeVarInt(parameters.size());
+            for (Map.Entry<String, Double> parameter : parameters.entrySet()) {
+                writeString(parameter.getKey());
+                writeDouble(parameter.getValue());
+            }
+            Map<String, String> metadata = decision.getAllMetadata();
+            writeVarInt(metadata.size());
+            for (Map.Entry<String, String> entry : metadata.entrySet()) {
+                writeString(entry.getKey());
+                writeString(entry.getValue());
+            }
+        }
+
+        public void writeScenario(EnhancedFutureScenarioManager.FutureScenario scenario) {
+            writeTag(TAG_SCENARIO);
+            writeString(scenario.getName());
+            writeString(scenario.getDescription());
+            writeDouble(scenario.getProbability());
+            writeDouble(scenario.getBaseProbability());
+            writeString(scenario.getImplications());
+            writeStringList(scenario.getKeyIndicators());
+            writeStringList(scenario.getSupportingActions());
+            writeDouble(scenario.getMomentum());
+            writeString(scenario.getDominantSector());
+        }
+
+        public void writeActions(List<AgentAction> actions) {
+            writeTag(TAG_LIST);
+            writeVarInt(actions.size());
+            for (AgentAction action : actions) {
+                writeAction(action);
+            }
+        }
+
+        public void writeChanges(List<PESTELChange> changes) {
+            writeTag(TAG_LIST);
+            writeVarInt(changes.size());
+            for (PESTELChange change : changes) {
+                writeChange(change);
+            }
+        }
+
+        public void writeDecisions(List<AgentDecision> decisions) {
+            writeTag(TAG_LIST);
+            writeVarInt(decisions.size());
+            for (AgentDecision decision : decisions) {
+                writeDecision(decision);
+            }
+        }
+
+        public void writeScenarios(List<EnhancedFutureScenarioManager.FutureScenario> scenarios) {
+            writeTag(TAG_LIST);
+            writeVarInt(scenarios.size());
+            for (EnhancedFutureScenarioManager.FutureScenario scenario : scenarios) {
+                writeScenario(scenario);
+            }
+        }
+
+        /**
+         * Number of bytes written, header included
+         */
+        public int size() {
+            return size;
+        }
+
+        /**
+         * The written bytes, wrapping the internal buffer without copying it. Valid until
+         * the writer is written to or reset.
+         */
+        public ByteBuffer toByteBuffer() {
+            return ByteBuffer.wrap(buffer, 0, size);
+        }
+
+        public byte[] toByteArray() {
+            return Arrays.copyOf(buffer, size);
+        }
+
+        private void ensureCapacity(int extra) {
+            if (size + extra > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(size + extra, buffer.length * 2));
+            }
+        }
+    }
+
+    /**
+     * Reads one stream from a ByteBuffer, starting at its position and advancing it
+     */
+    public static final class Reader {
+        private final ByteBuffer buffer;
+        private final int version;
+        private String[] strings = new String[64];
+        private int stringCount;
+
+        public Reader(ByteBuffer buffer) {
+            this.buffer = buffer;
+            if (buffer.remaining() < 3 || buffer.get() != MAGIC_0 || buffer.get() != MAGIC_1) {
+                throw new IllegalArgumentException("Not a simulation codec stream");
+            }
+            this.version = buffer.get() & 0xFF;
+            if (version < 1 || version > FORMAT_VERSION) {
+                throw new IllegalArgumentException("Unsupported simulation codec version " + version
+                    + " (this build reads up to " + FORMAT_VERSION + ")");
+            }
+        }
+
+        public Reader(byte[] bytes) {
+            this(ByteBuffer.wrap(bytes));
+        }
+
+        /**
+         * Format version the stream was written with
+         */
+        public int getVersion() {
+            return version;
+        }
+
+        public boolean hasRemaining() {
+            return buffer.hasRemaining();
+        }
+
+        /**
+         * Tag of the next record, without consuming it
+         */
+        public int peekTag() {
+            int position = buffer.position();
+            int tag = readVarInt();
+            buffer.position(position);
+            return tag;
+        }
+
+        public void readTag(int expected) {
+            int tag = readVarInt();
+            if (tag != expected) {
+                throw new IllegalArgumentException("Expected record " + expected + " but found " + tag
+                    + " at byte " + (buffer.position() - 1));
+            }
+        }
+
+        public int readByte() {
+            return buffer.get() & 0xFF;
+        }
+
+        public boolean readBoolean() {
+            return buffer.get() != 0;
+        }
+
+        public int readVarInt() {
+            int value = 0;
+            for (int shift = 0; shift < 35; shift += 7) {
+                int b = buffer.get();
+                value |= (b & 0x7F) << shift;
+                if (b >= 0) {
+                    return value;
+                }
+            }
+            throw new IllegalArgumentException("Malformed varint at byte " + buffer.position());
+        }
+
+        public int readSignedVarInt() {
+            int value = readVarInt();
+            return (value >>> 1) ^ -(value & 1);
+        }
+
+        public double readDouble() {
+            long bits = 0;
+            for (int i = 0; i < 8; i++) {
+                bits = (bits << 8) | (buffer.get() & 0xFFL);
+            }
+            return Double.longBitsToDouble(bits);
+        }
+
+        public String readString() {
+            int tag = readVarInt();
+            if (tag == 0) {
+                return null;
+            }
+            if ((tag & 1) == 0) {
+                int index = (tag >>> 1) - 1;
+                if (index >= stringCount) {
+                    throw new IllegalArgumentException("Unknown string reference " + index + " at byte " + buffer.position());
+                }
+                return strings[index];
+            }
+
+            int length = tag >>> 1;
+            int position = buffer.position();
+            String value;
+            if (buffer.hasArray()) {
+                value = new String(buffer.array(), buffer.arrayOffset() + position, length, StandardCharsets.UTF_8);
+            } else {
+                byte[] bytes = new byte[length];
+                buffer.get(position, bytes);
+                value = new String(bytes, StandardCharsets.UTF_8);
+            }
+            buffer.position(position + length);
+
+            if (stringCount == strings.length) {
+                strings = Arrays.copyOf(strings, stringCount * 2);
+            }
+            strings[stringCount++] = value;
+            return value;
+        }
+
+        public List<String> readStringList() {
+            int count = readVarInt();
+            List<String> values = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                values.add(readString());
+            }
+            return values;
+        }
+
+        public PESTELSnapshot readSnapshot() {
+            readTag(TAG_SNAPSHOT);
+            double lastUpdateTime = readDouble();
+            int count = readVarInt();
+            int[] slots = new int[count];
+            String[] values = new String[count];
+            PESTELCategory[] categories = PESTELCategory.values();
+            for (int i = 0; i < count; i++) {
+                PESTELCategory category = categories[readByte()];
+                slots[i] = PESTELFactorIndex.slotOf(category, readString());
+                values[i] = readString();
+            }
+            return PESTELSnapshot.EMPTY.withFactors(slots, values, count, lastUpdateTime);
+        }
+
+        public PESTELState readState() {
+            return readSnapshot().toState();
+        }
+
+        public AgentAction readAction() {
+            readTag(TAG_ACTION);
+            int agentIndex = readSignedVarInt();
+            String agentId = readString();
+            int day = readSignedVarInt();
+            String description = readString();
+            String type = readString();
+            return new AgentAction(agentIndex, agentId, day, description, type, readDouble());
+        }
+
+        public PESTELChange readChange() {
+            readTag(TAG_CHANGE);
+            String category = readString();
+            String factor = readString();
+            String oldValue = readString();
+            String newValue = readString();
+            String reason = readString();
+            int sourceAgentIndex = readSignedVarInt();
+            String sourceAgentId = readString();
+            return new PESTELChange(category, factor, oldValue, newValue, reason, sourceAgentIndex, sourceAgentId,
+                readSignedVarInt());
+        }
+
+        public AgentDecision readDecision() {
+            readTag(TAG_DECISION);
+            String agentId = readString();
+            int day = readSignedVarInt();
+            String description = readString();
+            String type = readString();
+            double confidence = readDouble();
+            AgentDecision decision = new AgentDecision(agentId, day, description, type, confidence, readDouble());
+            decision.setExpectedImpact(readDouble());
+            int parameters = readVarInt();
+            for (int i = 0; i < parameters; i++) {
+                String key = readString();
+                decision.setParameter(key, readDouble());
+            }
+            int metadata = readVarInt();
+            for (int i = 0; i < metadata; i++) {
+                String key = readString();
+                decision.setMetadata(key, readString());
+            }
+            return decision;
+        }
+
+        public EnhancedFutureScenarioManager.FutureScenario readScenario() {
+            readTag(TAG_SCENARIO);
+            String name = readString();
+            String description = readString();
+            double probability = readDouble();
+            double baseProbability = readDouble();
+            String implications = readString();
+            List<String> keyIndicators = readStringList();
+            List<String> supportingActions = readStringList();
+            double momentum = readDouble();
+            return new EnhancedFutureScenarioManager.FutureScenario(name, description, probability, baseProbability,
+                implications, keyIndicators, supportingActions, momentum, readString());
+        }
+
+        public List<AgentAction> readActions() {
+            int count = readListHeader();
+            List<AgentAction> actions = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                actions.add(readAction());
+            }
+            return actions;
+        }
+
+        public List<PESTELChange> readChanges() {
+            int count = readListHeader();
+            List<PESTELChange> changes = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                changes.add(readChange());
+            }
+            return changes;
+        }
+
+        public List<AgentDecision> readDecisions() {
+            int count = readListHeader();
+            List<AgentDecision> decisions = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                decisions.add(readDecision());
+            }
+            return decisions;
+        }
+
+        public List<EnhancedFutureScenarioManager.FutureScenario> readScenarios() {
+            int count = readListHeader();
+            List<EnhancedFutureScenarioManager.FutureScenario> scenarios = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                scenarios.add(readScenario());
+            }
+            return scenarios;
+        }
+
+        private int readListHeader() {
+            readTag(TAG_LIST);
+            return readVarInt();
+        }
+    }
+
+    /**
+     * Encode a PESTEL state as a stream of its own
+     */
+    public static byte[] encode(PESTELView state) {
+        Writer writer = new Writer(2048);
+        writer.writeState(state);
+        return writer.toByteArray();
+    }
+
+    public static PESTELSnapshot decodeSnapshot(ByteBuffer buffer) {
+        return new Reader(buffer).readSnapshot();
+    }
+
+    public static byte[] encodeActions(List<AgentAction> actions) {
+        Writer writer = new Writer(64 * Math.max(1, actions.size()));
+        writer.writeActions(actions);
+        return writer.toByteArray();
+    }
+
+    public static List<AgentAction> decodeActions(ByteBuffer buffer) {
+        return new Reader(buffer).readActions();
+    }
+
+    public static byte[] encodeChanges(List<PESTELChange> changes) {
+        Writer writer = new Writer(64 * Math.max(1, changes.size()));
+        writer.writeChanges(changes);
+        return writer.toByteArray();
+    }
+
+    public static List<PESTELChange> decodeChanges(ByteBuffer buffer) {
+        return new Reader(buffer).readChanges();
+    }
+}
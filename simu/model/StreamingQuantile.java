@@ -0,0 +1,117 @@
+package simu.model;
+
+import java.util.Arrays;
+
+/**
+ * Running estimate of one quantile with the P-square algorithm of Jain and Chlamtac.
+ *
+ * Five markers track the minimum, the quantile, the maximum and two points between them;
+ * each observation moves the markers towards their ideal positions along a parabola through
+ * their neighbours. Memory is constant whatever the number of observations, and no
+ * observation is kept once the first five have set up the markers.
+ */
+public class StreamingQuantile {
+    private final double p;
+    private final double[] heights = new double[5];
+    private final int[] positions = {1, 2, 3, 4, 5};
+    private final double[] desired;
+    private final double[] increments;
+    private long count;
+
+    /**
+     * @param p Quantile to estimate, between 0 and 1
+     */
+    public StreamingQuantile(double p) {
+        if (!(p >= 0.0 && p <= 1.0)) {
+            throw new IllegalArgumentException("Quantile must be between 0 and 1: " + p);
+        }
+        this.p = p;
+        this.desired = new double[]{1, 1 + 2 * p, 1 + 4 * p, 3 + 2 * p, 5};
+        this.increments = new double[]{0, p / 2, p, (1 + p) / 2, 1};
+    }
+
+    public void add(double x) {
+        if (count < 5) {
+            heights[(int) count++] = x;
+            if (count == 5) {
+                Arrays.sort(heights);
+            }
+            return;
+        }
+        count++;
+
+        // Cell of the new observation, stretching the extreme markers if needed
+        int cell;
+        if (x < heights[0]) {
+            heights[0] = x;
+            cell = 0;
+        } else if (x >= heights[4]) {
+            heights[4] = x;
+            cell = 3;
+        } else {
+            cell = 0;
+            while (x >= heights[cell + 1]) {
+                cell++;
+            }
+        }
+        for (int i = cell + 1; i < 5; i++) {
+            positions[i]++;
+        }
+        for (int i = 0; i < 5; i++) {
+            desired[i] += increments[i];
+        }
+
+        // Move the three middle markers by at most one position each
+        for (int i = 1; i <= 3; i++) {
+            double offset = desired[i] - positions[i];
+            if ((offset >= 1 && positions[i + 1] - positions[i] > 1)
+                    || (offset <= -1 && positions[i - 1] - positions[i] < -1)) {
+                int step = offset > 0 ? 1 : -1;
+                double height = parabolic(i, step);
+                if (heights[i - 1] < height && height < heights[i + 1]) {
+                    heights[i] = height;
+                } else {
+                    heights[i] += step * (heights[i + step] - heights[i]) / (positions[i + step] - positions[i]);
+                }
+                positions[i] += step;
+            }
+        }
+    }
+
+    private double parabolic(int i, int step) {
+        return heights[i] + (double) step / (positions[i + 1] - positions[i - 1])
+            * ((positions[i] - positions[i - 1] + step) * (heights[i + 1] - heights[i]) / (positions[i + 1] - positions[i])
+            + (positions[i + 1] - positions[i] - step) * (heights[i] - heights[i - 1]) / (positions[i] - positions[i - 1]));
+    }
+
+    /**
+     * Current estimate; exact while fewer than five values were added, NaN before the first
+     */
+    public double getValue() {
+        if (count == 0) {
+            return Double.NaN;
+        }
+        if (count < 5) {
+            double[] values = Arrays.copyOf(heights, (int) count);
+            Arrays.sort(values);
+            return values[(int) Math.min(count - 1, Math.round(p * (count - 1)))];
+        }
+        return heights[2];
+    }
+
+    public double getQuantile() {
+        return p;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getMin() {
+        return count >= 5 ? heights[0] : count == 0 ? Double.NaN : Arrays.stream(heights, 0, (int) count).min().getAsDouble();
+    }
+
+    public double getMax() {
+        return count >= 5 ? heights[4] : count == 0 ? Double.NaN : Arrays.stream(heights, 0, (int) count).max().getAsDouble();
+    }
+}
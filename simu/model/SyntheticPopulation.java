@@ -0,0 +1,177 @@
+package simu.model;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Seeded synthetic companies, countries and research institutions for scaling runs.
+ *
+ * Every synthetic entity copies the categorical attributes of a real entity of
+ * UltraComprehensiveRealWorldData picked at random, so industries, regions, development levels
+ * and research fields follow the real mix. Sizes are drawn around the real values: country
+ * populations and GDP per capita vary log-normally around their template, company revenues
+ * follow a Pareto distribution, and companies and research institutions are placed in
+ * countries with a probability proportional to GDP. The same seed and sizes always produce
+ * the same population.
+ */
+public class SyntheticPopulation {
+    // Company revenue in millions USD: Pareto with the heavy tail of the largest firms, capped at the largest real one
+    private static final double MIN_REVENUE = 1_000;
+    private static final double MAX_REVENUE = 700_000;
+    private static final double REVENUE_PARETO_ALPHA = 1.16;
+
+    // Log-normal spread of country sizes around their template
+    private static final double POPULATION_SIGMA = 1.0;
+    private static final double GDP_PER_CAPITA_SIGMA = 0.4;
+
+    private final UltraComprehensiveRealWorldData.CompanyData[] companies;
+    private final UltraComprehensiveRealWorldData.CountryData[] countries;
+    private final UltraComprehensiveRealWorldData.ResearchData[] researchers;
+    private final long seed;
+    private final boolean realWorld;
+
+    private SyntheticPopulation(UltraComprehensiveRealWorldData.CompanyData[] companies,
+                                UltraComprehensiveRealWorldData.CountryData[] countries,
+                                UltraComprehensiveRealWorldData.ResearchData[] researchers, long seed, boolean realWorld) {
+        this.companies = companies;
+        this.countries = countries;
+        this.researchers = researchers;
+        this.seed = seed;
+        this.realWorld = realWorld;
+    }
+
+    /**
+     * The real-world entities themselves, to run the real data on the fallback logic only
+     */
+    public static SyntheticPopulation realWorld() {
+        return new SyntheticPopulation(UltraComprehensiveRealWorldData.TOP_COMPANIES.clone(),
+            UltraComprehensiveRealWorldData.TOP_COUNTRIES.clone(),
+            UltraComprehensiveRealWorldData.TOP_RESEARCH_CENTERS.clone(), 0L, true);
+    }
+
+    /**
+     * Population of about the given number of agents, with the real data's mix of companies,
+     * countries and research institutions
+     */
+    public static SyntheticPopulation ofSize(int agents, long seed) {
+        int realCompanies = UltraComprehensiveRealWorldData.TOP_COMPANIES.length;
+        int realCountries = UltraComprehensiveRealWorldData.TOP_COUNTRIES.length;
+        int realResearchers = UltraComprehensiveRealWorldData.TOP_RESEARCH_CENTERS.length;
+        double scale = (double) agents / (realCompanies + realCountries + realResearchers);
+        int countries = Math.max(1, (int) Math.round(realCountries * scale));
+        int researchers = (int) Math.round(realResearchers * scale);
+        int companies = Math.max(0, agents - countries - researchers);
+        return generate(companies, countries, researchers, seed);
+    }
+
+    public static SyntheticPopulation generate(int companyCount, int countryCount, int researcherCount, long seed) {
+        if (companyCount < 0 || countryCount < 1 || researcherCount < 0) {
+            throw new IllegalArgumentException("A population needs at least one country and no negative counts: "
+                + companyCount + " companies, " + countryCount + " countries, " + researcherCount + " researchers");
+        }
+        Random random = new Random(seed);
+
+        UltraComprehensiveRealWorldData.CountryData[] countries = new UltraComprehensiveRealWorldData.CountryData[countryCount];
+        double[] cumulativeGdp = new double[countryCount];
+        double totalGdp = 0;
+        for (int i = 0; i < countryCount; i++) {
+            UltraComprehensiveRealWorldData.CountryData template = pick(UltraComprehensiveRealWorldData.TOP_COUNTRIES, random);
+            double gdpPerCapita = (double) template.gdp / template.population;
+            long population = Math.max(10_000, Math.round(template.population * logNormal(random, POPULATION_SIGMA)));
+            long gdp = Math.max(1, Math.round(population * gdpPerCapita * logNormal(random, GDP_PER_CAPITA_SIGMA)));
+            countries[i] = new UltraComprehensiveRealWorldData.CountryData("Country " + (i + 1), template.region,
+                template.developmentLevel, template.governmentType, population, gdp, template.currency, template.language);
+            totalGdp += gdp;
+            cumulativeGdp[i] = totalGdp;
+        }
+
+        UltraComprehensiveRealWorldData.CompanyData[] companies = new UltraComprehensiveRealWorldData.CompanyData[companyCount];
+        for (int i = 0; i < companyCount; i++) {
+            UltraComprehensiveRealWorldData.CompanyData template = pick(UltraComprehensiveRealWorldData.TOP_COMPANIES, random);
+            double revenue = Math.min(MAX_REVENUE,
+                MIN_REVENUE / Math.pow(1.0 - random.nextDouble(), 1.0 / REVENUE_PARETO_ALPHA));
+            String country = countries[pickByGdp(cumulativeGdp, random)].name;
+            companies[i] = new UltraComprehensiveRealWorldData.CompanyData("Company " + (i + 1), Math.round(revenue),
+                template.industry, country, country, template.description);
+        }
+
+        UltraComprehensiveRealWorldData.ResearchData[] researchers = new UltraComprehensiveRealWorldData.ResearchData[researcherCount];
+        for (int i = 0; i < researcherCount; i++) {
+            UltraComprehensiveRealWorldData.ResearchData template = pick(UltraComprehensiveRealWorldData.TOP_RESEARCH_CENTERS, random);
+            String country = countries[pickByGdp(cumulativeGdp, random)].name;
+            researchers[i] = new UltraComprehensiveRealWorldData.ResearchData("Institute " + (i + 1), country,
+                template.fields, template.type, country, template.description);
+        }
+
+        return new SyntheticPopulation(companies, countries, researchers, seed, false);
+    }
+
+    private static <T> T pick(T[] values, Random random) {
+        return values[random.nextInt(values.length)];
+    }
+
+    /**
+     * Log-normal factor with median 1
+     */
+    private static double logNormal(Random random, double sigma) {
+        return Math.exp(sigma * random.nextGaussian());
+    }
+
+    /**
+     * Country position drawn with a probability proportional to its GDP
+     */
+    private static int pickByGdp(double[] cumulativeGdp, Random random) {
+        double target = random.nextDouble() * cumulativeGdp[cumulativeGdp.length - 1];
+        int position = Arrays.binarySearch(cumulativeGdp, target);
+        return Math.min(cumulativeGdp.length - 1, position >= 0 ? position + 1 : -position - 1);
+    }
+
+    public UltraComprehensiveRealWorldData.CompanyData[] getCompanies() {
+        return companies.clone();
+    }
+
+    public UltraComprehensiveRealWorldData.CountryData[] getCountries() {
+        return countries.clone();
+    }
+
+    public UltraComprehensiveRealWorldData.ResearchData[] getResearchers() {
+        return researchers.clone();
+    }
+
+    public int getCompanyCount() {
+        return companies.length;
+    }
+
+    public int getCountryCount() {
+        return countries.length;
+    }
+
+    public int getResearcherCount() {
+        return researchers.length;
+    }
+
+    /**
+     * Number of agents: companies, countries and research institutions
+     */
+    public int size() {
+        return companies.length + countries.length + researchers.length;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public boolean isRealWorld() {
+        return realWorld;
+    }
+
+    @Override
+    public String toString() {
+        if (realWorld) {
+            return String.format("Real-world population: %,d companies, %,d countries, %,d research institutions",
+                companies.length, countries.length, researchers.length);
+        }
+        return String.format("Synthetic population (seed %d): %,d companies, %,d countries, %,d research institutions",
+            seed, companies.length, countries.length, researchers.length);
+    }
+}
@@ -0,0 +1,64 @@
+package test;
+
+import simu.model.ActivityGate;
+
+import java.util.Arrays;
+
+/**
+ * Checks the two stages of the activity gate (minimum score, then the highest scores within
+ * the daily budget) and the counts of consulted and skipped agents it reports.
+ */
+public class ActivityGateTest {
+
+    public static void main(String[] args) {
+        System.out.println("=== ACTIVITY GATE TEST ===");
+
+        double[] scores = {0.32, 0.90, 0.60, 0.30, 0.60, 0.75};
+
+        ActivityGate open = new ActivityGate(0.0, ActivityGate.UNLIMITED);
+        boolean[] all = open.select(scores);
+        check(Arrays.equals(all, new boolean[]{true, true, true, true, true, true}), "open gate consults everyone");
+        check(open.getSkippedCount() == 0 && open.getSkipRate() == 0.0, "open gate skips nothing");
+
+        ActivityGate gate = new ActivityGate();
+        boolean[] candidates = gate.select(scores);
+        check(Arrays.equals(candidates, new boolean[]{false, true, true, false, true, true}), "minimum score");
+        check(gate.getLastConsultedCount() == 4 && gate.getLastBelowMinScoreCount() == 2
+            && gate.getLastOverBudgetCount() == 0, "first day counts");
+
+        gate.setDailyBudget(3);
+        boolean[] budgeted = gate.select(scores);
+        check(Arrays.equals(budgeted, new boolean[]{false, true, true, false, false, true}),
+            "budget keeps the highest scores, equal scores in agent order");
+        check(gate.getLastConsultedCount() == 3 && gate.getLastOverBudgetCount() == 1, "second day counts");
+
+        gate.setDailyBudget(0);
+        check(Arrays.equals(gate.select(scores), new boolean[6]), "zero budget consults nobody");
+
+        check(gate.getEvaluatedCount() == 18 && gate.getConsultedCount() == 7, "totals over three days");
+        check(gate.getBelowMinScoreCount() == 6 && gate.getOverBudgetCount() == 5 && gate.getSkippedCount() == 11,
+            "skipped totals");
+
+        check(gate.getEstimatedSkippedPromptChars() == 0, "no estimate before any prompt");
+        gate.recordPrompt(900);
+        gate.recordPrompt(1100);
+        check(gate.getPromptsBuilt() == 2 && gate.getPromptChars() == 2000, "prompt counts");
+        check(gate.getEstimatedSkippedPromptChars() == 11 * 1000, "skipped prompt text from the average prompt");
+
+        try {
+            gate.setDailyBudget(-1);
+            check(false, "negative budget rejected");
+        } catch (IllegalArgumentException expected) {
+            // Expected
+        }
+
+        System.out.println(gate);
+        System.out.println("\n=== ACTIVITY GATE TEST COMPLETED ===");
+    }
+
+    private static void check(boolean condition, String description) {
+        if (!condition) {
+            throw new IllegalStateException("Check failed: " + description);
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package test;
+
+import simu.model.AgentRegistry;
+import simu.model.ColumnarEventStore;
+import simu.model.PESTELCategory;
+import simu.model.PESTELChange;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+/**
+ * Appends a year of random PESTEL changes to a store keeping the full history and to one
+ * keeping a bounded window, and checks every windowed query and count of both against a plain
+ * filter over the changes. Views taken before the bounded store compacts must stay valid, and
+ * so must every query after changes are withdrawn from the middle of the history.
+ */
+public class ColumnarEventStoreTest {
+    private static final int DAYS = 365;
+    private static final int AGENTS = 40;
+    private static final int MAX_CHANGES_PER_DAY = 20;
+    private static final int RETENTION_DAYS = 10;
+
+    public static void main(String[] args) {
+        System.out.println("=== COLUMNAR EVENT STORE TEST ===");
+
+        Random random = new Random(42);
+        AgentRegistry registry = new AgentRegistry();
+        for (int agent = 0; agent < AGENTS; agent++) {
+            registry.registerName("Agent_" + agent);
+        }
+        ColumnarEventStore<PESTELChange> full = ColumnarEventStore.forChanges(registry, ColumnarEventStore.UNLIMITED);
+        ColumnarEventStore<PESTELChange> bounded = ColumnarEventStore.forChanges(registry, RETENTION_DAYS);
+        List<PESTELChange> changes = new ArrayList<>();
+
+        List<PESTELChange> earlyView = null;
+        List<PESTELChange> earlyExpected = null;
+        int maxRetained = 0;
+        for (int day = 1; day <= DAYS; day++) {
+            int count = random.nextInt(MAX_CHANGES_PER_DAY + 1);
+            for (int i = 0; i < count; i++) {
+                PESTELCategory category = PESTELCategory.values()[random.nextInt(PESTELCategory.count())];
+                int agent = random.nextInt(AGENTS);
+                PESTELChange change = new PESTELChange(category.getKey(), "factor_" + random.nextInt(5), "old", "new " + day,
+                    "Test change", agent, "Agent_" + agent, day);
+                changes.add(change);
+                full.append(change);
+                bounded.append(change);
+            }
+            if (day % 45 == 0 && !changes.isEmpty()) {
+                PESTELChange withdrawn = changes.remove(random.nextInt(changes.size()));
+                check(full.remove(withdrawn), "withdrawn change is found");
+                bounded.remove(withdrawn);
+                check(!full.remove(withdrawn), "withdrawn change is removed once");
+            }
+            full.applyRetention(day);
+            bounded.applyRetention(day);
+            maxRetained = Math.max(maxRetained, bounded.size());
+
+            if (day == RETENTION_DAYS) {
+                earlyView = bounded.since(1);
+                earlyExpected = new ArrayList<>(earlyView);
+            }
+            if (day % 30 == 0) {
+                checkQueries(full, changes, day, 1);
+                checkQueries(bounded, changes, day, day - RETENTION_DAYS);
+            }
+        }
+
+        check(full.size() == changes.size(), "unlimited retention keeps every change");
+        check(bounded.all().equals(since(changes, DAYS - RETENTION_DAYS)), "bounded store keeps exactly its window");
+        check(maxRetained < MAX_CHANGES_PER_DAY * (RETENTION_DAYS + 2), "bounded store stays within its window: " + maxRetained);
+        check(earlyView.equals(earlyExpected), "views stay valid after compaction");
+
+        System.out.printf("%,d changes over %d days; the %d-day store retains %,d (at most %,d)%n",
+            changes.size(), DAYS, RETENTION_DAYS, bounded.size(), maxRetained);
+        System.out.println("\n=== COLUMNAR EVENT STORE TEST COMPLETED ===");
+    }
+
+    /**
+     * Compare the queries of a store against a plain filter, for windows starting at or after its oldest retained day
+     */
+    private static void checkQueries(ColumnarEventStore<PESTELChange> store, List<PESTELChange> changes, int day, int oldestDay) {
+        for (int fromDay : new int[]{oldestDay, day - 7, day - 3, day, day + 1}) {
+            if (fromDay < oldestDay) {
+                continue;
+            }
+            List<PESTELChange> window = since(changes, fromDay);
+            check(store.since(fromDay).equals(window), "since day " + fromDay);
+
+            Map<String, Integer> expectedCounts = new LinkedHashMap<>();
+            for (PESTELChange change : window) {
+                expectedCounts.merge(change.getCategory(), 1, Integer::sum);
+            }
+            Map<String, Integer> counts = store.countByCategory(fromDay);
+            check(counts.equals(expectedCounts), "category counts since day " + fromDay + ": " + counts);
+
+            for (PESTELCategory category : PESTELCategory.values()) {
+                List<PESTELChange> expected = window.stream()
+                    .filter(change -> change.getCategory().equals(category.getKey())).collect(Collectors.toList());
+                check(store.byCategory(category, fromDay).equals(expected), "category " + category + " since day " + fromDay);
+                check(store.countByCategory(category, fromDay) == expected.size(), "category count " + category);
+            }
+            for (int agent = 0; agent < AGENTS; agent += 7) {
+                int index = agent;
+                List<PESTELChange> expected = window.stream()
+                    .filter(change -> change.getSourceAgentIndex() == index).collect(Collectors.toList());
+                check(store.byAgent(agent, fromDay, Integer.MAX_VALUE).equals(expected), "agent " + agent + " since day " + fromDay);
+                check(store.countByAgent(agent, fromDay) == expected.size(), "agent count " + agent);
+            }
+        }
+    }
+
+    private static List<PESTELChange> since(List<PESTELChange> changes, int fromDay) {
+        return changes.stream().filter(change -> change.getDay() >= fromDay).collect(Collectors.toList());
+    }
+
+    private static void check(boolean condition, String description) {
+        if (!condition) {
+            throw new IllegalStateException("Check failed: " + description);
+        }
+    }
+}
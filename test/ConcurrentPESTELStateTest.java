@@ -0,0 +1,171 @@
+package test;
+
+import simu.framework.Trace;
+import simu.framework.Trace.Level;
+import simu.model.*;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Checks and throughput numbers for ConcurrentPESTELState: conflict detection, no lost
+ * updates under contention, and read / commit throughput with 2 to 8 threads.
+ */
+public class ConcurrentPESTELStateTest {
+    private static final int COMMITS_PER_WRITER = 20_000;
+    private static final int WRITES_PER_BATCH = 8;
+    private static final int READS_PER_READER = 2_000_000;
+
+    public static void main(String[] args) throws Exception {
+        Trace.setTraceLevel(Level.WAR);
+
+        System.out.println("=== CONCURRENT PESTEL STATE TEST ===");
+        testSameDayConflict();
+        testConcurrentConflict();
+        testNoLostUpdates(8);
+
+        System.out.println("\nThroughput (" + WRITES_PER_BATCH + " factor writes per commit):");
+        System.out.printf("%-16s %16s %16s %10s %10s%n", "Writers+readers", "Commits/s", "Reads/s", "Retries", "Rebased");
+        for (int threads : new int[] {2, 4, 8}) {
+            runThroughput(threads);
+        }
+
+        System.out.println("\n=== CONCURRENT PESTEL STATE TEST COMPLETED ===");
+    }
+
+    private static void testSameDayConflict() {
+        ConcurrentPESTELState state = new ConcurrentPESTELState(new PESTELState());
+        ConcurrentPESTELState.Batch batch = state.begin(1);
+        batch.put(PESTELCategory.ECONOMIC, "growth", "GDP growth 3.0% annually", "Company_1");
+        batch.put(PESTELCategory.ECONOMIC, "growth", "GDP growth 1.0% annually", "Country_1");
+        batch.put(PESTELCategory.ECONOMIC, "inflation", "Inflation rate 2.0%", "Country_1");
+        List<ConcurrentPESTELState.Conflict> conflicts = batch.commit();
+
+        check(conflicts.size() == 1 && !conflicts.get(0).isConcurrent(), "same-day conflict detected");
+        check(state.getEconomic("growth").equals("GDP growth 1.0% annually"), "later write in the batch wins");
+        check(state.getVersion() == 1, "one version per committed batch");
+        System.out.println("  " + conflicts.get(0));
+    }
+
+    private static void testConcurrentConflict() {
+        ConcurrentPESTELState state = new ConcurrentPESTELState(new PESTELState());
+        ConcurrentPESTELState.Batch first = state.begin(1);
+        ConcurrentPESTELState.Batch second = state.begin(1);
+        first.put(PESTELCategory.POLITICAL, "stability", "Unstable coalition government", "Country_1");
+        second.put(PESTELCategory.POLITICAL, "stability", "Stable majority government", "Country_2");
+        second.put(PESTELCategory.LEGAL, "labour", "Flexible labour laws", "Country_2");
+
+        check(first.commit().isEmpty(), "first commit has no conflicts");
+        List<ConcurrentPESTELState.Conflict> conflicts = second.commit();
+        check(conflicts.size() == 1 && conflicts.get(0).isConcurrent()
+            && "Country_1".equals(conflicts.get(0).getFirstAgentId()), "concurrent conflict detected");
+        check(second.getBase().getPolitical("stability").equals("Stable democratic government"), "base snapshot is frozen");
+        check(state.getPolitical("stability").equals("Stable majority government"), "rebased commit applied");
+        check(state.getLegal("labour").equals("Flexible labour laws"), "non-conflicting write applied");
+        System.out.println("  " + conflicts.get(0));
+    }
+
+    private static void testNoLostUpdates(int threads) throws InterruptedException {
+        ConcurrentPESTELState state = new ConcurrentPESTELState(new PESTELState());
+        int commits = COMMITS_PER_WRITER / 4;
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            final int writer = t;
+            final int slot = PESTELFactorIndex.slotOf(PESTELCategory.SOCIAL, "counter_" + writer);
+            workers[t] = new Thread(() -> {
+                for (int i = 1; i <= commits; i++) {
+                    ConcurrentPESTELState.Batch batch = state.begin(i);
+                    batch.put(slot, "Update " + i, "Writer_" + writer);
+                    check(batch.commit().isEmpty(), "disjoint writers never conflict");
+                }
+            });
+            workers[t].start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        for (int t = 0; t < threads; t++) {
+            check(state.getSocial("counter_" + t).equals("Update " + commits), "last update of writer " + t + " kept");
+        }
+        check(state.getVersion() == (long) threads * commits, "every commit published exactly once");
+        System.out.printf("  %d writers x %,d commits: version %,d, %,d CAS retries, %,d rebased commits%n",
+            threads, commits, state.getVersion(), state.getRetryCount(), state.getRebasedCommitCount());
+    }
+
+    /**
+     * Half of the threads commit batches, the other half read the published version
+     */
+    private static void runThroughput(int threads) throws InterruptedException {
+        ConcurrentPESTELState state = new ConcurrentPESTELState(new PESTELState());
+        int writers = Math.max(1, threads / 2);
+        int readers = Math.max(1, threads - writers);
+        int[] slots = new int[WRITES_PER_BATCH * writers];
+        for (int i = 0; i < slots.length; i++) {
+            slots[i] = PESTELFactorIndex.slotOf(PESTELCategory.values()[i % PESTELCategory.count()], "bench_" + i);
+        }
+
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicLong writeNanos = new AtomicLong();
+        AtomicLong readNanos = new AtomicLong();
+        AtomicLong checksum = new AtomicLong();
+        Thread[] workers = new Thread[writers + readers];
+        for (int w = 0; w < writers; w++) {
+            final int writer = w;
+            workers[w] = new Thread(() -> {
+                await(start);
+                long begin = System.nanoTime();
+                for (int i = 0; i < COMMITS_PER_WRITER; i++) {
+                    ConcurrentPESTELState.Batch batch = state.begin(i);
+                    for (int j = 0; j < WRITES_PER_BATCH; j++) {
+                        batch.put(slots[writer * WRITES_PER_BATCH + j], "Level " + i, "Writer_" + writer);
+                    }
+                    batch.commit();
+                }
+                writeNanos.accumulateAndGet(System.nanoTime() - begin, Math::max);
+            });
+        }
+        for (int r = 0; r < readers; r++) {
+            workers[writers + r] = new Thread(() -> {
+                await(start);
+                long begin = System.nanoTime();
+                long sum = 0;
+                for (int i = 0; i < READS_PER_READER; i++) {
+                    PESTELSnapshot snapshot = state.current();
+                    double indicator = snapshot.getIndicator(slots[i % slots.length]);
+                    sum += Double.isNaN(indicator) ? 0 : (long) indicator;
+                }
+                checksum.addAndGet(sum);
+                readNanos.accumulateAndGet(System.nanoTime() - begin, Math::max);
+            });
+        }
+        for (Thread worker : workers) {
+            worker.start();
+        }
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        check(state.getVersion() == (long) writers * COMMITS_PER_WRITER, "every commit published exactly once");
+        double commitsPerSecond = (double) writers * COMMITS_PER_WRITER / (writeNanos.get() / 1e9);
+        double readsPerSecond = (double) readers * READS_PER_READER / (readNanos.get() / 1e9);
+        System.out.printf("%-16s %,16.0f %,16.0f %,10d %,10d%n",
+            writers + "+" + readers, commitsPerSecond, readsPerSecond, state.getRetryCount(), state.getRebasedCommitCount());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void check(boolean condition, String description) {
+        if (!condition) {
+            throw new IllegalStateException("Check failed: " + description);
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package test;
+
+import simu.model.DayDeadlineScheduler;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Simulates a day of AI calls where one answer is far slower than the rest: checks the day
+ * finishes within its budget, the slow agent falls back, and its answer is kept once it arrives.
+ * Then checks a submitted call still queued behind a slow one at its deadline is cancelled and
+ * never runs.
+ */
+public class DayDeadlineSchedulerTest {
+    private static final long BUDGET_MILLIS = 400;
+    private static final long SLOW_MILLIS = 1_500;
+    private static final long FAST_MILLIS = 20;
+
+    public static void main(String[] args) throws Exception {
+        System.out.println("=== DAY DEADLINE SCHEDULER TEST ===");
+
+        DayDeadlineScheduler scheduler = new DayDeadlineScheduler(BUDGET_MILLIS);
+        CountDownLatch lateAnswer = new CountDownLatch(1);
+        scheduler.setLateAnswerListener(late -> lateAnswer.countDown());
+
+        int agents = 6;
+        int parallelism = 2;
+        ExecutorService executor = Executors.newFixedThreadPool(agents);
+        long start = System.nanoTime();
+        scheduler.startDay(1, agents, parallelism);
+        check(scheduler.agentDeadline(0) == scheduler.agentDeadline(1), "agents of a wave share a deadline");
+        check(scheduler.agentDeadline(1) < scheduler.agentDeadline(2), "later waves get later deadlines");
+        check(scheduler.agentDeadline(agents - 1) == scheduler.getDayDeadline(), "the last wave ends with the day");
+
+        List<CompletableFuture<String>> calls = new ArrayList<>();
+        for (int i = 0; i < agents; i++) {
+            long delay = i == 1 ? SLOW_MILLIS : FAST_MILLIS;
+            String answer = "Agent_" + i + " answer";
+            calls.add(CompletableFuture.supplyAsync(() -> {
+                sleep(delay);
+                return answer;
+            }, executor));
+        }
+
+        List<String> decisions = new ArrayList<>();
+        for (int i = 0; i < agents; i++) {
+            try {
+                decisions.add(scheduler.await(calls.get(i), scheduler.agentDeadline(i), "Agent_" + i));
+            } catch (TimeoutException e) {
+                decisions.add("Agent_" + i + " fallback");
+            }
+        }
+        double dayMillis = (System.nanoTime() - start) / 1e6;
+
+        check(dayMillis < BUDGET_MILLIS + 100, "the day ends within its budget: " + dayMillis + " ms");
+        check(decisions.get(1).equals("Agent_1 fallback"), "the slow agent falls back");
+        check(scheduler.getOnTimeCount() == agents - 1 && scheduler.getMissedCount() == 1, "one missed deadline: " + scheduler);
+        check(scheduler.getDayMissedCount() == 1, "missed deadlines of the day");
+
+        check(lateAnswer.await(SLOW_MILLIS * 2, TimeUnit.MILLISECONDS), "the late answer arrives");
+        DayDeadlineScheduler.LateAnswer late = scheduler.getLateAnswers().get(0);
+        check(late.getAgentId().equals("Agent_1") && late.getAnswer().equals("Agent_1 answer") && late.getDay() == 1,
+            "late answer kept: " + late);
+        check(late.getOverrunMillis() > 0, "late answer arrived after its deadline");
+        executor.shutdownNow();
+
+        System.out.printf("Day of %d calls took %.0f ms with a %d ms budget%n", agents, dayMillis, BUDGET_MILLIS);
+        System.out.println(scheduler);
+        System.out.println(late);
+
+        testQueuedCallCancelled();
+
+        try {
+            new DayDeadlineScheduler(0);
+            check(false, "the budget must be positive");
+        } catch (IllegalArgumentException expected) {
+            // Expected
+        }
+
+        System.out.println("\n=== DAY DEADLINE SCHEDULER TEST COMPLETED ===");
+    }
+
+    private static void testQueuedCallCancelled() throws Exception {
+        DayDeadlineScheduler scheduler = new DayDeadlineScheduler(BUDGET_MILLIS);
+        CountDownLatch lateAnswer = new CountDownLatch(1);
+        scheduler.setLateAnswerListener(late -> lateAnswer.countDown());
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        AtomicBoolean queuedCallRan = new AtomicBoolean();
+
+        scheduler.startDay(2, 2, 1);
+        DayDeadlineScheduler.Call<String> running = scheduler.submit(() -> {
+            sleep(SLOW_MILLIS);
+            return "raw answer";
+        }, executor);
+        DayDeadlineScheduler.Call<String> queued = scheduler.submit(() -> {
+            queuedCallRan.set(true);
+            return "queued answer";
+        }, executor);
+        for (DayDeadlineScheduler.Call<String> call : List.of(running, queued)) {
+            try {
+                scheduler.await(call, scheduler.getDayDeadline(), call == running ? "Agent_0" : "Agent_1");
+                check(false, "both calls miss the deadline");
+            } catch (TimeoutException expected) {
+                // Expected
+            }
+        }
+
+        check(lateAnswer.await(SLOW_MILLIS * 2, TimeUnit.MILLISECONDS), "the running call answers late");
+        executor.shutdown();
+        check(executor.awaitTermination(SLOW_MILLIS, TimeUnit.MILLISECONDS), "the executor drains");
+        check(!queuedCallRan.get() && queued.getFuture().isCancelled(), "the queued call never ran");
+        check(scheduler.getCancelledCount() == 1 && scheduler.getMissedCount() == 2, "one call cancelled: " + scheduler);
+        check(scheduler.getLateAnswers().get(0).getAnswer().equals("raw answer"), "the raw answer is kept");
+        System.out.println(scheduler);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void check(boolean condition, String description) {
+        if (!condition) {
+            throw new IllegalStateException("Check failed: " + description);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package test;
+
+import simu.model.PESTELAIService.DecisionImpact;
+
+import java.util.List;
+
+/**
+ * Checks how a batched impact response is split into per-category impacts and the affected
+ * agents, and that missing or unusable sections are reported as missing so the engine asks
+ * for them separately.
+ */
+public class DecisionImpactParsingTest {
+
+    public static void main(String[] args) {
+        System.out.println("=== DECISION IMPACT PARSING TEST ===");
+
+        DecisionImpact complete = DecisionImpact.parse(String.join("\n",
+            "[POLITICAL]",
+            "NO_IMPACT",
+            "**[ECONOMIC]**",
+            "FACTOR: growth",
+            "NEW_VALUE: Investment boom lifts GDP growth to 3.1%",
+            "REASON: Large infrastructure programme",
+            "[SOCIAL]",
+            "NO_IMPACT",
+            "## [Technological]",
+            "FACTOR: innovation",
+            "NEW_VALUE: Faster AI adoption",
+            "[ENVIRONMENTAL]",
+            "NO_IMPACT",
+            "[LEGAL]",
+            "NO_IMPACT",
+            "[AFFECTED AGENTS]",
+            "Company_1, Country_2 , Researcher_1"));
+        check(complete.getAnsweredCategoryCount() == 6, "all six categories answered");
+        check(complete.getImpact("political").equals("NO_IMPACT"), "no impact section");
+        check(complete.getImpact("economic").equals(
+            "FACTOR:growth|NEW_VALUE:Investment boom lifts GDP growth to 3.1%|REASON:Large infrastructure programme"),
+            "impact section with reason");
+        check(complete.getImpact("technological").equals("FACTOR:innovation|NEW_VALUE:Faster AI adoption|REASON:"),
+            "impact section without reason");
+        check(complete.getAffectedAgents().equals(List.of("Company_1", "Country_2", "Researcher_1")), "affected agents");
+
+        DecisionImpact partial = DecisionImpact.parse(String.join("\n",
+            "Here is my analysis.",
+            "[ECONOMIC]",
+            "The economy will probably grow.",
+            "[LEGAL]",
+            "NO_IMPACT",
+            "[AFFECTED_AGENTS]",
+            "NONE"));
+        check(partial.getAnsweredCategoryCount() == 1, "only the legal section is usable");
+        check(partial.getImpact("economic") == null, "unstructured section counts as missing");
+        check(partial.getImpact("political") == null, "absent section is missing");
+        check(partial.getAffectedAgents().isEmpty(), "NONE means no affected agents");
+
+        DecisionImpact empty = DecisionImpact.parse("");
+        check(empty.getAnsweredCategoryCount() == 0 && empty.getAffectedAgents() == null, "empty response answers nothing");
+
+        System.out.println("Complete, partial and empty responses parsed as expected");
+        System.out.println("\n=== DECISION IMPACT PARSING TEST COMPLETED ===");
+    }
+
+    private static void check(boolean condition, String description) {
+        if (!condition) {
+            throw new IllegalStateException("Check failed: " + description);
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package test;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import simu.framework.Clock;
+import simu.framework.Trace;
+import simu.framework.Trace.Level;
+import simu.model.PESTELPromptContext;
+import simu.model.PESTELSimulationEngine;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs the PESTEL simulation against a stand-in for the Gemini API whose processing time grows
+ * with the prompt length, once with the full global state in every decision prompt and once
+ * delta-encoded. Checks the delta prompts carry the changes since each agent's last decision,
+ * and that they save tokens and time per day.
+ */
+public class DeltaPromptContextTest {
+    private static final long SEED = 20241015L;
+    private static final int DAYS = 4;
+    private static final int AGENTS = 7;
+    private static final int CHARS_PER_MILLI = 40; // Prompt processing speed of the stand-in model
+
+    private static final AtomicInteger changeNumber = new AtomicInteger();
+    private static final AtomicLong decisionPromptChars = new AtomicLong();
+    private static volatile boolean sawChangesSinceLastDecision;
+
+    public static void main(String[] args) throws Exception {
+        Trace.setTraceLevel(Level.WAR);
+        System.out.println("=== DELTA PROMPT CONTEXT TEST ===");
+
+        HttpServer server = startServer();
+        System.setProperty("gemini.api.url", "http://localhost:" + server.getAddress().getPort() + "/generate");
+        System.setProperty("GEMINI_API_KEY", "stand-in");
+        try {
+            decisionPromptChars.set(0);
+            PESTELPromptContext full = run(false).getPromptContext();
+            long fullPromptChars = decisionPromptChars.getAndSet(0);
+            PESTELPromptContext delta = run(true).getPromptContext();
+            long deltaPromptChars = decisionPromptChars.get();
+
+            check(full.getPromptCount() == (long) AGENTS * DAYS && delta.getPromptCount() == full.getPromptCount(),
+                "one decision prompt per agent and day");
+            check(full.getSavedTokens() == 0 && full.getTokens() == full.getFullTokens(), "full context saves nothing");
+            check(delta.getFullTokens() > 0 && delta.getSavedTokens() > 0, "full cost counted in delta mode");
+            check(delta.getTokens() < full.getTokens(), "delta context takes fewer PESTEL tokens: "
+                + delta.getTokens() + " vs " + full.getTokens());
+            check(deltaPromptChars < fullPromptChars, "shorter decision prompts reach the model");
+            check(sawChangesSinceLastDecision, "prompts list the changes since the agent's last decision");
+            check(delta.getDays().size() == DAYS && full.getDays().size() == DAYS, "every day reported");
+            check(delta.getMeanDayMillis() < full.getMeanDayMillis(), "delta days are faster");
+
+            System.out.print(full.report());
+            System.out.print(delta.report());
+            System.out.printf("Decision prompts: %,d chars full, %,d chars delta; %.0f ms/day saved%n",
+                fullPromptChars, deltaPromptChars, full.getMeanDayMillis() - delta.getMeanDayMillis());
+        } finally {
+            server.stop(0);
+        }
+
+        System.out.println("\n=== DELTA PROMPT CONTEXT TEST COMPLETED ===");
+    }
+
+    private static PESTELSimulationEngine run(boolean delta) {
+        Clock.getInstance().setClock(0.0);
+        PESTELSimulationEngine engine = new PESTELSimulationEngine(3, 2, 2, DAYS, SEED);
+        check(engine.isAIEnabled(), "the engine uses the stand-in model");
+        engine.setDeltaPromptContext(delta);
+        engine.setSimulationTime(DAYS);
+        engine.run();
+        return engine;
+    }
+
+    /**
+     * Stand-in for the Gemini API: every agent acts, every decision changes the economy, and a
+     * prompt takes time in proportion to its length
+     */
+    private static HttpServer startServer() throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/generate", exchange -> {
+            String prompt;
+            try (InputStream body = exchange.getRequestBody()) {
+                prompt = new String(body.readAllBytes(), StandardCharsets.UTF_8);
+            }
+            String answer;
+            if (prompt.contains("Do you want to take any action today?")) {
+                decisionPromptChars.addAndGet(prompt.length());
+                sawChangesSinceLastDecision |= prompt.contains("CHANGES SINCE YOUR LAST DECISION") && prompt.contains("- Day ");
+                answer = "Invest in regional technology partnerships";
+            } else if (prompt.contains("[AFFECTED_AGENTS]")) {
+                answer = "[ECONOMIC]\\nFACTOR: growth\\nNEW_VALUE: Growth revised " + changeNumber.incrementAndGet()
+                    + "\\nREASON: New investment\\n[POLITICAL]\\nNO_IMPACT\\n[SOCIAL]\\nNO_IMPACT\\n[TECHNOLOGICAL]\\nNO_IMPACT"
+                    + "\\n[ENVIRONMENTAL]\\nNO_IMPACT\\n[LEGAL]\\nNO_IMPACT\\n[AFFECTED_AGENTS]\\nNONE";
+            } else {
+                answer = "NO_IMPACT";
+            }
+            try {
+                Thread.sleep(prompt.length() / CHARS_PER_MILLI);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            respond(exchange, "{\"candidates\":[{\"content\":{\"parts\":[{\"text\":\"" + answer + "\"}]}}]}");
+        });
+        server.start();
+        return server;
+    }
+
+    private static void respond(HttpExchange exchange, String json) throws IOException {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static void check(boolean condition, String description) {
+        if (!condition) {
+            throw new IllegalStateException("Check failed: " + description);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package test;
+
+import simu.framework.Clock;
+import simu.framework.Trace;
+import simu.framework.Trace.Level;
+import simu.model.AIEnhancedPESTELEngine;
+import simu.model.AgentAction;
+import simu.model.SyntheticPopulation;
+
+import java.util.List;
+
+/**
+ * Runs the same synthetic population with the daily sweep and with event-driven activation,
+ * checks the event-driven runs are repeatable, keep every action inside the simulated days
+ * and act about as often as the sweep, then reports the time per day of both modes.
+ *
+ * Usage: java test.EventDrivenActivationTest [days] [sizes...]
+ */
+public class EventDrivenActivationTest {
+    private static final long SEED = 20241015L;
+    private static final int CHECK_SIZE = 2_000;
+    private static final int CHECK_DAYS = 10;
+    private static final int DEFAULT_DAYS = 5;
+    private static final int[] DEFAULT_SIZES = {10_000, 100_000};
+
+    public static void main(String[] args) {
+        Trace.setTraceLevel(Level.WAR);
+        System.out.println("=== EVENT-DRIVEN ACTIVATION TEST ===");
+
+        int days = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_DAYS;
+        int[] sizes = DEFAULT_SIZES;
+        if (args.length > 1) {
+            sizes = new int[args.length - 1];
+            for (int i = 1; i < args.length; i++) {
+                sizes[i - 1] = Integer.parseInt(args[i]);
+            }
+        }
+
+        SyntheticPopulation population = SyntheticPopulation.ofSize(CHECK_SIZE, SEED);
+        AIEnhancedPESTELEngine sweep = run(population, CHECK_DAYS, false);
+        AIEnhancedPESTELEngine first = run(population, CHECK_DAYS, true);
+        AIEnhancedPESTELEngine second = run(population, CHECK_DAYS, true);
+
+        List<AgentAction> actions = first.getActionLog().all();
+        List<AgentAction> repeated = second.getActionLog().all();
+        check(actions.size() == repeated.size(), "same number of actions with the same seed");
+        for (int i = 0; i < actions.size(); i++) {
+            AgentAction a = actions.get(i);
+            AgentAction b = repeated.get(i);
+            check(a.getAgentIndex() == b.getAgentIndex() && a.getDay() == b.getDay()
+                && a.getActionDescription().equals(b.getActionDescription()), "same action " + i);
+            check(a.getDay() >= 1 && a.getDay() <= CHECK_DAYS, "action inside the simulated days");
+        }
+        check(first.getActivationCount() == actions.size(), "every activation acts once");
+        check(first.getEarlyWakeUpCount() > 0, "relevant changes wake agents early");
+        check(first.getStaleActivationCount() <= first.getEarlyWakeUpCount(), "only wake-ups leave stale events");
+
+        int sweepActions = sweep.getActionLog().all().size();
+        double ratio = (double) actions.size() / sweepActions;
+        check(ratio > 0.8 && ratio < 2.0, "event-driven agents act about as often as in the sweep: " + ratio);
+        System.out.printf("%,d agents over %d days: %,d sweep actions, %,d activations (%,d early wake-ups, %,d stale events)%n",
+            population.size(), CHECK_DAYS, sweepActions, actions.size(),
+            first.getEarlyWakeUpCount(), first.getStaleActivationCount());
+
+        try {
+            first.setEventDrivenActivation(false);
+            check(false, "mode cannot change after the run");
+        } catch (IllegalStateException expected) {
+            // Expected
+        }
+
+        System.out.printf("%n%-10s %14s %14s %18s%n", "Agents", "Sweep ms/day", "Event ms/day", "Activations/day");
+        for (int size : sizes) {
+            SyntheticPopulation scaled = SyntheticPopulation.ofSize(size, SEED);
+            long start = System.nanoTime();
+            run(scaled, days, false);
+            long sweepNanos = System.nanoTime() - start;
+            start = System.nanoTime();
+            AIEnhancedPESTELEngine eventDriven = run(scaled, days, true);
+            long eventNanos = System.nanoTime() - start;
+            System.out.printf("%,10d %14.1f %14.1f %,18d%n", scaled.size(), sweepNanos / 1e6 / days,
+                eventNanos / 1e6 / days, eventDriven.getActivationCount() / days);
+        }
+
+        System.out.println("\n=== EVENT-DRIVEN ACTIVATION TEST COMPLETED ===");
+    }
+
+    private static AIEnhancedPESTELEngine run(SyntheticPopulation population, int days, boolean eventDriven) {
+        Clock.getInstance().setClock(0.0);
+        AIEnhancedPESTELEngine engine = new AIEnhancedPESTELEngine(days, SEED, population);
+        engine.setEventDrivenActivation(eventDriven);
+        engine.setSimulationTime(days);
+        engine.run();
+        return engine;
+    }
+
+    private static void check(boolean condition, String description) {
+        if (!condition) {
+            throw new IllegalStateException("Check failed: " + description);
+        }
+    }
+}
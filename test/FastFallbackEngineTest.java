@@ -0,0 +1,83 @@
+package test;
+
+import simu.framework.Clock;
+import simu.framework.Trace;
+import simu.framework.Trace.Level;
+import simu.model.AIEnhancedPESTELEngine;
+import simu.model.FastFallbackEngine;
+import simu.model.SyntheticPopulation;
+
+/**
+ * Checks the headless fast path makes the same run as the AI-enhanced engine on the fallback
+ * logic, by comparing run digests, then reports how fast both simulate the real-world population.
+ *
+ * Usage: java test.FastFallbackEngineTest [years]
+ */
+public class FastFallbackEngineTest {
+    private static final long SEED = 20241015L;
+    private static final int CHECK_DAYS = 45;
+    private static final int ENGINE_DAYS = 60;
+    private static final int DEFAULT_YEARS = 10;
+
+    public static void main(String[] args) {
+        Trace.setTraceLevel(Level.WAR);
+        System.out.println("=== FAST FALLBACK ENGINE TEST ===");
+
+        int years = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_YEARS;
+
+        SyntheticPopulation realWorld = SyntheticPopulation.realWorld();
+        SyntheticPopulation synthetic = SyntheticPopulation.ofSize(1_000, SEED);
+        for (SyntheticPopulation population : new SyntheticPopulation[]{realWorld, synthetic}) {
+            String expected = runEngine(population, CHECK_DAYS, SEED).getRunDigest();
+            FastFallbackEngine fast = new FastFallbackEngine(SEED, population);
+            fast.run(CHECK_DAYS);
+            check(fast.getRunDigest().equals(expected), "same digest as the AI-enhanced engine: " + population);
+            System.out.printf("%s: %,d actions and %,d changes over %d days, digest %s%n",
+                population, fast.getActionCount(), fast.getChangeCount(), CHECK_DAYS, expected.substring(0, 16));
+        }
+
+        FastFallbackEngine split = new FastFallbackEngine(SEED, realWorld);
+        split.run(20);
+        split.run(CHECK_DAYS - 20);
+        check(split.getRunDigest().equals(runEngine(realWorld, CHECK_DAYS, SEED).getRunDigest()),
+            "running in several steps gives the same run");
+        FastFallbackEngine other = new FastFallbackEngine(SEED + 1, realWorld);
+        other.run(CHECK_DAYS);
+        check(!other.getRunDigest().equals(split.getRunDigest()), "another seed gives another run");
+
+        long start = System.nanoTime();
+        runEngine(realWorld, ENGINE_DAYS, SEED);
+        double engineMillis = (System.nanoTime() - start) / 1e6;
+
+        int days = years * 365;
+        start = System.nanoTime();
+        FastFallbackEngine fast = new FastFallbackEngine(SEED, realWorld);
+        fast.run(days);
+        double fastMillis = (System.nanoTime() - start) / 1e6;
+        check(fast.getCurrentDay() == days, "every day simulated");
+
+        System.out.printf("%nAI-enhanced engine: %d days of %d agents in %,.0f ms (%.2f ms/day)%n",
+            ENGINE_DAYS, fast.getAgentCount(), engineMillis, engineMillis / ENGINE_DAYS);
+        System.out.printf("Fast fallback engine: %,d days (%d years) in %,.0f ms (%.4f ms/day, %,.0f days/s)%n",
+            days, years, fastMillis, fastMillis / days, days / (fastMillis / 1000));
+        System.out.printf("  %,d actions, %,d changes, %d decision codes, %d impact codes, dominant future %s%n",
+            fast.getActionCount(), fast.getChangeCount(), fast.getDecisionCount(), fast.getImpactCount(),
+            fast.getEnhancedFutureManager().getCurrentDominantScenario().getName());
+
+        System.out.println("\n=== FAST FALLBACK ENGINE TEST COMPLETED ===");
+    }
+
+    private static AIEnhancedPESTELEngine runEngine(SyntheticPopulation population, int days, long seed) {
+        Clock.getInstance().setClock(0.0);
+        AIEnhancedPESTELEngine engine = new AIEnhancedPESTELEngine(days, seed, population);
+        engine.setSimulationTime(days);
+        engine.run();
+        return engine;
+    }
+
+    private static void check(boolean condition, String description) {
+        if (!condition) {
+            throw new IllegalStateException("Check failed: " + description);
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package test;
+
+import simu.model.InfluenceDiffusion;
+import simu.model.InfluenceNetwork;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Checks the levels, sources and hops of a small hand-computed diffusion, then spreads
+ * impulses over a synthetic network with millions of edges on one and on several fork-join
+ * threads, checks both give the same levels and reports the time per hop.
+ */
+public class InfluenceDiffusionBenchmark {
+    private static final int NODES = 500_000;
+    private static final int EDGES_PER_NODE = 6;
+    private static final int CHANNELS = 4;
+    private static final int IMPULSES = 1_000;
+    private static final long SEED = 42L;
+
+    public static void main(String[] args) {
+        System.out.println("=== INFLUENCE DIFFUSION BENCHMARK ===");
+
+        checkSmallDiffusion();
+
+        InfluenceNetwork network = randomNetwork();
+        System.out.printf("Synthetic network: %,d nodes, %,d edges%n", network.size(), network.getEdgeCount());
+
+        int threads = Math.max(4, Runtime.getRuntime().availableProcessors());
+        ForkJoinPool single = new ForkJoinPool(1);
+        ForkJoinPool parallel = new ForkJoinPool(threads);
+        InfluenceDiffusion expected = new InfluenceDiffusion(network, CHANNELS, 0.5, 0.01, 4, single);
+        InfluenceDiffusion actual = new InfluenceDiffusion(network, CHANNELS, 0.5, 0.01, 4, parallel);
+
+        // Warm-up
+        propagate(expected);
+        propagate(actual);
+
+        long start = System.nanoTime();
+        int hops = propagate(expected);
+        long singleNanos = System.nanoTime() - start;
+        start = System.nanoTime();
+        propagate(actual);
+        long parallelNanos = System.nanoTime() - start;
+        single.shutdown();
+        parallel.shutdown();
+
+        check(actual.getLastHops() == hops && actual.getLastReachedCount() == expected.getLastReachedCount(),
+            "same hops and reach");
+        for (int node = 0; node < NODES; node++) {
+            for (int channel = 0; channel < CHANNELS; channel++) {
+                check(actual.getReceived(node, channel) == expected.getReceived(node, channel)
+                    && actual.getStrongestSource(node, channel) == expected.getStrongestSource(node, channel)
+                    && actual.getStrongestHop(node, channel) == expected.getStrongestHop(node, channel),
+                    "same result for node " + node + " channel " + channel);
+            }
+        }
+
+        System.out.printf("%,d impulses reached %,d nodes in %d hops%n", IMPULSES, expected.getLastReachedCount(), hops);
+        System.out.printf("1 thread: %.1f ms (%.1f ms per hop), %d threads: %.1f ms, identical levels%n",
+            singleNanos / 1e6, singleNanos / 1e6 / hops, threads, parallelNanos / 1e6);
+        System.out.println("\n=== INFLUENCE DIFFUSION BENCHMARK COMPLETED ===");
+    }
+
+    /**
+     * Chain 0 -> 1 -> 2 -> 3 and a stronger edge 4 -> 2, with impulses from 0 and 4
+     */
+    private static void checkSmallDiffusion() {
+        InfluenceNetwork network = new InfluenceNetwork.Builder(5)
+            .addEdge(0, 1, 0.8)
+            .addEdge(1, 2, 0.5)
+            .addEdge(2, 3, 0.5)
+            .addEdge(4, 2, 1.0)
+            .build();
+        InfluenceDiffusion diffusion = new InfluenceDiffusion(network, 1, 0.5, 0.05, 3, ForkJoinPool.commonPool());
+        diffusion.inject(0, 0, 1.0);
+        diffusion.inject(4, 0, 1.0);
+
+        check(diffusion.propagate() == 3, "stops after the third hop leaves nothing above the threshold");
+        check(near(diffusion.getReceived(1, 0), 0.4) && diffusion.getStrongestSource(1, 0) == 0
+            && diffusion.getStrongestHop(1, 0) == 1, "direct neighbour");
+        check(near(diffusion.getReceived(2, 0), 0.6) && near(diffusion.getStrongest(2, 0), 0.5)
+            && diffusion.getStrongestSource(2, 0) == 4 && diffusion.getStrongestHop(2, 0) == 1,
+            "levels add up over hops, strongest contribution wins");
+        check(near(diffusion.getReceived(3, 0), 0.125) && diffusion.getStrongestSource(3, 0) == 4
+            && diffusion.getStrongestHop(3, 0) == 2, "two hops away, weaker third hop dropped");
+        check(diffusion.getStrongestSource(0, 0) == -1 && diffusion.getReceived(4, 0) == 0.0, "sources receive nothing");
+        check(diffusion.getLastReachedCount() == 3, "three nodes reached");
+
+        check(diffusion.propagate() == 0 && diffusion.getStrongestSource(2, 0) == -1, "impulses are consumed");
+        System.out.println("Small diffusion matches the hand-computed levels");
+    }
+
+    private static InfluenceNetwork randomNetwork() {
+        Random random = new Random(SEED);
+        InfluenceNetwork.Builder builder = new InfluenceNetwork.Builder(NODES);
+        for (int node = 0; node < NODES; node++) {
+            for (int i = 0; i < EDGES_PER_NODE; i++) {
+                builder.addEdge(node, random.nextInt(NODES), 0.2 + 0.6 * random.nextDouble());
+            }
+        }
+        return builder.build();
+    }
+
+    private static int propagate(InfluenceDiffusion diffusion) {
+        Random random = new Random(SEED);
+        for (int i = 0; i < IMPULSES; i++) {
+            diffusion.inject(random.nextInt(NODES), random.nextInt(CHANNELS), 0.5 + random.nextDouble());
+        }
+        return diffusion.propagate();
+    }
+
+    private static boolean near(double actual, double expected) {
+        return Math.abs(actual - expected) < 1e-12;
+    }
+
+    private static void check(boolean condition, String description) {
+        if (!condition) {
+            throw new IllegalStateException("Check failed: " + description);
+        }
+    }
+}
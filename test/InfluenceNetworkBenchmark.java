@@ -0,0 +1,96 @@
+package test;
+
+import simu.model.AgentInfluenceIndex;
+import simu.model.InfluenceNetwork;
+
+import java.util.Arrays;
+
+/**
+ * Builds the influence network of growing synthetic populations of companies, countries and
+ * research institutions, checks the compressed sparse row layout and reports the build time
+ * per entity, which stays flat when construction is linear.
+ */
+public class InfluenceNetworkBenchmark {
+    private static final String[] INDUSTRIES = {
+        "Technology", "Healthcare", "Automotive", "Financial Services", "Energy", "Retail", "Telecommunications"
+    };
+    private static final String[] REGIONS = {"Europe", "Asia", "North America", "South America", "Africa", "Oceania"};
+    private static final String[] FIELDS = {
+        "Technology, AI", "Medicine", "Engineering", "Economics", "Physics", "AI, Engineering"
+    };
+    private static final int[] SIZES = {10_000, 50_000, 100_000};
+
+    public static void main(String[] args) {
+        System.out.println("=== INFLUENCE NETWORK BENCHMARK ===");
+
+        checkSmallNetwork();
+
+        // Warm-up
+        build(SIZES[0]);
+
+        for (int size : SIZES) {
+            long start = System.nanoTime();
+            InfluenceNetwork network = build(size);
+            long nanos = System.nanoTime() - start;
+            check(network.size() == size, "node count");
+            long edges = 0;
+            for (int node = 0; node < network.size(); node++) {
+                edges += network.degreeOf(node);
+            }
+            check(edges == network.getEdgeCount(), "degrees add up to the edge count");
+            System.out.printf("%,9d entities: %,10d edges in %7.1f ms (%.0f ns per entity)%n",
+                size, network.getEdgeCount(), nanos / 1e6, (double) nanos / size);
+        }
+
+        System.out.println("\n=== INFLUENCE NETWORK BENCHMARK COMPLETED ===");
+    }
+
+    /**
+     * Two companies in one country and industry, their country and a technology research institution
+     */
+    private static void checkSmallNetwork() {
+        AgentInfluenceIndex index = new AgentInfluenceIndex();
+        index.addCompany(0, "Technology", "Finland");
+        index.addCompany(1, "Technology", "Finland");
+        index.addCountry(2, "Finland", "Europe");
+        index.addResearcher(3, "AI, Robotics", "Finland");
+        InfluenceNetwork network = index.build(4);
+
+        check(network.getEdgeCount() == 12, "small network edge count");
+        check(Arrays.equals(network.targetsOf(0), new int[]{1, 2, 3}), "company edges in rule order");
+        check(Arrays.equals(network.targetsOf(2), new int[]{0, 1, 3}), "country edges in rule order");
+        check(Arrays.equals(network.targetsOf(3), new int[]{0, 1, 2}), "researcher edges in rule order");
+        check(Arrays.equals(network.targetsOf(2, 2), new int[]{0, 1}), "limited targets");
+        int edge = network.firstEdge(0);
+        check(network.getWeight(edge) == AgentInfluenceIndex.INDUSTRY_PEER_WEIGHT
+            && network.getWeight(edge + 1) == AgentInfluenceIndex.HOME_COUNTRY_WEIGHT
+            && network.getWeight(edge + 2) == AgentInfluenceIndex.TECHNOLOGY_RESEARCH_WEIGHT, "company edge weights");
+        check(network.degreeOf(-1) == 0 && network.degreeOf(4) == 0, "nodes outside of the network have no edges");
+        System.out.println("Small network laid out as expected");
+    }
+
+    /**
+     * Half companies, a tenth countries and the rest research institutions
+     */
+    private static InfluenceNetwork build(int size) {
+        int countries = size / 10;
+        int companies = size / 2;
+        AgentInfluenceIndex index = new AgentInfluenceIndex();
+        for (int i = 0; i < countries; i++) {
+            index.addCountry(i, "Country_" + i, REGIONS[i % REGIONS.length]);
+        }
+        for (int i = 0; i < companies; i++) {
+            index.addCompany(countries + i, INDUSTRIES[i % INDUSTRIES.length], "Country_" + (i * 31 % countries));
+        }
+        for (int i = countries + companies; i < size; i++) {
+            index.addResearcher(i, FIELDS[i % FIELDS.length], "Country_" + (i * 17 % countries));
+        }
+        return index.build(size);
+    }
+
+    private static void check(boolean condition, String description) {
+        if (!condition) {
+            throw new IllegalStateException("Check failed: " + description);
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package test;
+
+import simu.framework.Trace;
+import simu.framework.Trace.Level;
+import simu.model.MonteCarloEnsemble;
+import simu.model.StreamingQuantile;
+import simu.model.SyntheticPopulation;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Checks the streaming quantile estimates against exact quantiles, then runs a small Monte
+ * Carlo ensemble on one and on several threads, and in two parts, and checks all three give
+ * the same bands.
+ *
+ * Usage: java test.MonteCarloEnsembleTest [replications] [days]
+ */
+public class MonteCarloEnsembleTest {
+    private static final long SEED = 20241020L;
+    private static final int AGENTS = 30;
+    private static final int DEFAULT_REPLICATIONS = 24;
+    private static final int DEFAULT_DAYS = 28;
+
+    public static void main(String[] args) {
+        Trace.setTraceLevel(Level.WAR);
+        System.out.println("=== MONTE CARLO ENSEMBLE TEST ===");
+
+        int replications = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_REPLICATIONS;
+        int days = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_DAYS;
+
+        checkStreamingQuantiles();
+
+        SyntheticPopulation population = SyntheticPopulation.ofSize(AGENTS, SEED);
+        long start = System.nanoTime();
+        MonteCarloEnsemble single = new MonteCarloEnsemble(days, SEED, population, MonteCarloEnsemble.DEFAULT_QUANTILES, 1);
+        single.run(replications);
+        long singleNanos = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        MonteCarloEnsemble parallel = new MonteCarloEnsemble(days, SEED, population, MonteCarloEnsemble.DEFAULT_QUANTILES, 4);
+        parallel.run(replications);
+        long parallelNanos = System.nanoTime() - start;
+
+        MonteCarloEnsemble extended = new MonteCarloEnsemble(days, SEED, population, MonteCarloEnsemble.DEFAULT_QUANTILES, 2);
+        extended.run(replications / 2);
+        extended.run(replications - replications / 2);
+
+        check(single.getReplications() == replications && extended.getReplications() == replications, "replication count");
+        double dominantShares = 0;
+        for (int s = 0; s < single.getScenarioCount(); s++) {
+            dominantShares += single.getDominantShare(s);
+            check(single.getDominantShare(s) == parallel.getDominantShare(s), "same dominant share on 4 threads");
+            for (int day = 1; day <= days; day++) {
+                check(single.getMean(s, day) == parallel.getMean(s, day)
+                    && single.getMean(s, day) == extended.getMean(s, day), "same mean");
+                for (int q = 0; q < single.getQuantiles().length; q++) {
+                    check(single.getBand(s, q, day) == parallel.getBand(s, q, day)
+                        && single.getBand(s, q, day) == extended.getBand(s, q, day), "same band");
+                }
+                check(single.getBand(s, 0, day) <= single.getBand(s, 1, day)
+                    && single.getBand(s, 1, day) <= single.getBand(s, 2, day), "bands are ordered");
+            }
+        }
+        check(Math.abs(dominantShares - 1.0) < 1e-9, "one dominant scenario per replication");
+
+        double spread = 0;
+        for (int s = 0; s < single.getScenarioCount(); s++) {
+            spread = Math.max(spread, single.getBand(s, 2, days) - single.getBand(s, 0, days));
+        }
+        check(spread > 0, "replications differ");
+
+        System.out.print(single.report(7));
+        System.out.printf("%d replications of %d days: 1 thread %.1f s, 4 threads %.1f s, identical bands%n",
+            replications, days, singleNanos / 1e9, parallelNanos / 1e9);
+        System.out.println("\n=== MONTE CARLO ENSEMBLE TEST COMPLETED ===");
+    }
+
+    private static void checkStreamingQuantiles() {
+        StreamingQuantile few = new StreamingQuantile(0.5);
+        check(Double.isNaN(few.getValue()), "no estimate before any value");
+        few.add(3);
+        few.add(1);
+        few.add(2);
+        check(few.getValue() == 2 && few.getMin() == 1 && few.getMax() == 3, "exact median of a few values");
+
+        Random random = new Random(SEED);
+        int n = 100_000;
+        double[] normal = new double[n];
+        double[] exponential = new double[n];
+        double[] probabilities = {0.05, 0.5, 0.95};
+        StreamingQuantile[] normalEstimates = new StreamingQuantile[probabilities.length];
+        StreamingQuantile[] exponentialEstimates = new StreamingQuantile[probabilities.length];
+        for (int q = 0; q < probabilities.length; q++) {
+            normalEstimates[q] = new StreamingQuantile(probabilities[q]);
+            exponentialEstimates[q] = new StreamingQuantile(probabilities[q]);
+        }
+        for (int i = 0; i < n; i++) {
+            normal[i] = random.nextGaussian();
+            exponential[i] = -Math.log(1.0 - random.nextDouble());
+            for (int q = 0; q < probabilities.length; q++) {
+                normalEstimates[q].add(normal[i]);
+                exponentialEstimates[q].add(exponential[i]);
+            }
+        }
+        Arrays.sort(normal);
+        Arrays.sort(exponential);
+        for (int q = 0; q < probabilities.length; q++) {
+            int rank = (int) (probabilities[q] * (n - 1));
+            check(Math.abs(normalEstimates[q].getValue() - normal[rank]) < 0.02, "normal quantile " + probabilities[q]);
+            check(Math.abs(exponentialEstimates[q].getValue() - exponential[rank]) < 0.03 * Math.max(1, exponential[rank]),
+                "exponential quantile " + probabilities[q]);
+            System.out.printf("p%02.0f: normal %.4f (exact %.4f), exponential %.4f (exact %.4f)%n",
+                probabilities[q] * 100, normalEstimates[q].getValue(), normal[rank],
+                exponentialEstimates[q].getValue(), exponential[rank]);
+        }
+    }
+
+    private static void check(boolean condition, String description) {
+        if (!condition) {
+            throw new IllegalStateException("Check failed: " + description);
+        }
+    }
+}
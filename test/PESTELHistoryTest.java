@@ -0,0 +1,129 @@
+package test;
+
+import simu.framework.Trace;
+import simu.framework.Trace.Level;
+import simu.model.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Replays a ten-year run of random factor changes into PESTELHistory and checks every
+ * time-travel answer against a snapshot kept for each day, then times the queries.
+ */
+public class PESTELHistoryTest {
+    private static final int DAYS = 3650;
+    private static final int MAX_CHANGES_PER_DAY = 12;
+    private static final int QUERIES = 200_000;
+
+    public static void main(String[] args) {
+        Trace.setTraceLevel(Level.WAR);
+        System.out.println("=== PESTEL HISTORY TEST ===");
+
+        Random random = new Random(42);
+        PESTELState state = new PESTELState();
+        PESTELHistory history = new PESTELHistory(state.snapshot());
+        List<PESTELSnapshot> daily = new ArrayList<>();
+        List<PESTELChange> allChanges = new ArrayList<>();
+        daily.add(state.snapshot());
+
+        int[] slots = new int[PESTELFactorIndex.size()];
+        for (int slot = 0; slot < slots.length; slot++) {
+            slots[slot] = slot;
+        }
+
+        for (int day = 1; day <= DAYS; day++) {
+            int changes = random.nextInt(MAX_CHANGES_PER_DAY + 1);
+            for (int i = 0; i < changes; i++) {
+                int slot = slots[random.nextInt(slots.length)];
+                String oldValue = state.getFactor(slot);
+                String newValue = "Value " + random.nextInt(1000) + " set on day " + day;
+                state.updateFactor(slot, newValue);
+                PESTELChange change = new PESTELChange(PESTELFactorIndex.categoryOf(slot).getKey(),
+                    PESTELFactorIndex.keyOf(slot), oldValue, newValue, "Test", "Agent_" + (i % 5), day);
+                history.record(slot, change);
+                allChanges.add(change);
+            }
+            history.endDay(day, state);
+            daily.add(state.snapshot());
+        }
+        System.out.printf("Recorded %,d changes over %,d days, %d keyframes%n",
+            history.size(), DAYS, history.getKeyframeCount());
+
+        // Point queries and full states against the daily snapshots
+        for (int day = 0; day <= DAYS; day++) {
+            PESTELSnapshot expected = daily.get(day);
+            PESTELSnapshot rebuilt = history.stateAt(day);
+            for (int slot : slots) {
+                check(history.getFactorAt(slot, day).equals(expected.getFactor(slot)), "getFactorAt day " + day);
+                check(rebuilt.getFactor(slot).equals(expected.getFactor(slot)), "stateAt day " + day);
+            }
+        }
+        check(history.getFactorAt("economic", "growth", 0).equals("GDP growth 2.5% annually, steady economic expansion"),
+            "initial value before any change");
+
+        // Range scans against a linear filter of all changes
+        for (int i = 0; i < 200; i++) {
+            int from = random.nextInt(DAYS);
+            int to = from + random.nextInt(400);
+            PESTELCategory category = PESTELCategory.values()[random.nextInt(PESTELCategory.count())];
+            List<PESTELChange> expectedRange = new ArrayList<>();
+            List<PESTELChange> expectedCategory = new ArrayList<>();
+            for (PESTELChange change : allChanges) {
+                if (change.getDay() >= from && change.getDay() <= to) {
+                    expectedRange.add(change);
+                    if (change.getCategory().equals(category.getKey())) {
+                        expectedCategory.add(change);
+                    }
+                }
+            }
+            checkSame(history.changesBetween(from, to), expectedRange, "changesBetween");
+            checkSame(history.changesOf(category, from, to), expectedCategory, "changesOf " + category.getKey());
+        }
+        System.out.println("All point, state and range queries match the daily snapshots");
+
+        long start = System.nanoTime();
+        long found = 0;
+        for (int i = 0; i < QUERIES; i++) {
+            found += history.getFactorAt(slots[i % slots.length], random.nextInt(DAYS + 1)).length();
+        }
+        long pointNanos = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (int i = 0; i < 2_000; i++) {
+            found += history.stateAt(random.nextInt(DAYS + 1)).hasFactor(0) ? 1 : 0;
+        }
+        long stateNanos = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (int i = 0; i < 2_000; i++) {
+            found += history.changesOf(PESTELCategory.LEGAL, 0, DAYS).size();
+        }
+        long scanNanos = System.nanoTime() - start;
+
+        System.out.printf("getFactorAt:           %.2f us per query%n", pointNanos / 1e3 / QUERIES);
+        System.out.printf("stateAt:               %.2f us per state (keyframe every %d days)%n",
+            stateNanos / 1e3 / 2_000, history.getKeyframeInterval());
+        System.out.printf("changesOf(legal, run): %.2f us per scan (%,d changes)%n",
+            scanNanos / 1e3 / 2_000, history.changesOf(PESTELCategory.LEGAL, 0, DAYS).size());
+        System.out.println("(checksum " + found + ")");
+        System.out.println("\n=== PESTEL HISTORY TEST COMPLETED ===");
+    }
+
+    private static void checkSame(List<PESTELChange> actual, List<PESTELChange> expected, String description) {
+        check(actual.size() == expected.size(), description + " size");
+        for (int i = 0; i < actual.size(); i++) {
+            PESTELChange a = actual.get(i);
+            PESTELChange e = expected.get(i);
+            check(a.getDay() == e.getDay() && a.getFactor().equals(e.getFactor()) && a.getOldValue().equals(e.getOldValue())
+                && a.getNewValue().equals(e.getNewValue()) && a.getSourceAgentId().equals(e.getSourceAgentId()), description);
+        }
+    }
+
+    private static void check(boolean condition, String description) {
+        if (!condition) {
+            throw new IllegalStateException("Check failed: " + description);
+        }
+    }
+}
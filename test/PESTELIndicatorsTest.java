@@ -0,0 +1,82 @@
+package test;
+
+import simu.framework.Clock;
+import simu.model.PESTELCategory;
+import simu.model.PESTELFactorIndex;
+import simu.model.PESTELIndicators;
+import simu.model.PESTELIndicators.Kind;
+import simu.model.PESTELSnapshot;
+import simu.model.PESTELState;
+
+/**
+ * Checks how factor texts are parsed into indicators: thousands separators, K/M/B/T suffixes,
+ * signs, bare years skipped, NaN when there is no number. Then checks a state and its
+ * snapshots keep the parsed indicators, the previous ones and the category trends from them.
+ */
+public class PESTELIndicatorsTest {
+
+    public static void main(String[] args) {
+        System.out.println("=== PESTEL INDICATORS TEST ===");
+
+        checkParse("GDP growth 2.5% annually", 2.5, Kind.RATE);
+        checkParse("Median household income €45,000, moderate purchasing power", 45_000.0, Kind.LEVEL);
+        checkParse("Population 1,234,567 in the capital", 1_234_567.0, Kind.LEVEL);
+        checkParse("Population 5.5M", 5.5e6, Kind.LEVEL);
+        checkParse("Market of 40K users", 40e3, Kind.LEVEL);
+        checkParse("Sovereign funds hold 2B", 2e9, Kind.LEVEL);
+        checkParse("World output 1.2T.", 1.2e12, Kind.LEVEL);
+        checkParse("Broadband 5Mbps", 5.0, Kind.LEVEL);
+        checkParse("Low corruption index 88", 88.0, Kind.INDEX);
+        checkParse("Carbon neutral by 2035, renewables 40%", 40.0, Kind.RATE);
+        checkParse("Vision 2050 with 2,100 projects", 2_100.0, Kind.LEVEL);
+        checkParse("Budget 2030B", 2030e9, Kind.LEVEL);
+        checkParse("Target of 1950.5 units", 1950.5, Kind.LEVEL);
+        checkParse("Recession, growth -1.0%", -1.0, Kind.RATE);
+        checkParse("Plan 2024-2030 adds 12%", 12.0, Kind.RATE);
+        checkParse("1,00 is not a thousands group", 1.0, Kind.LEVEL);
+        checkParse("Carbon neutral by 2035", Double.NaN, Kind.NONE);
+        checkParse("Stable democratic government", Double.NaN, Kind.NONE);
+        checkParse("", Double.NaN, Kind.NONE);
+        checkParse(null, Double.NaN, Kind.NONE);
+
+        Clock.getInstance().setClock(0.0);
+        int growth = PESTELFactorIndex.slotOf(PESTELCategory.ECONOMIC, "growth");
+        int inflation = PESTELFactorIndex.slotOf(PESTELCategory.ECONOMIC, "inflation");
+        PESTELState state = new PESTELState();
+        check(state.getIndicator(growth) == 2.5 && state.getIndicatorKind(growth) == Kind.RATE, "default indicator parsed");
+        check(Double.isNaN(state.getPreviousIndicator(growth)), "no previous indicator before an update");
+        PESTELSnapshot before = state.snapshot();
+
+        state.updateFactor(growth, "GDP growth 3.0% annually");
+        state.updateFactor(inflation, "Inflation rate 2.1%, within target range");
+        check(state.getIndicator(growth) == 3.0 && state.getPreviousIndicator(growth) == 2.5, "update keeps the previous indicator");
+        check(state.getIndicatorTrend(growth) == 0.5, "indicator trend");
+        double expected = ((3.0 - 2.5) / 2.5 + 0.0) / 2;
+        check(Math.abs(state.getCategoryTrend(PESTELCategory.ECONOMIC) - expected) < 1e-12,
+            "category trend over the updated factors: " + state.getCategoryTrend(PESTELCategory.ECONOMIC));
+
+        PESTELSnapshot after = state.snapshot();
+        check(before.getIndicator(growth) == 2.5, "earlier snapshot keeps its indicator");
+        check(after.getIndicator(growth) == 3.0 && after.getPreviousIndicator(growth) == 2.5, "snapshot carries the indicators");
+        check(after.getCategoryTrend(PESTELCategory.ECONOMIC) == state.getCategoryTrend(PESTELCategory.ECONOMIC),
+            "snapshot and state agree on the trend");
+        PESTELSnapshot derived = after.withFactor(growth, "Recession, growth -1.0%");
+        check(derived.getIndicator(growth) == -1.0 && derived.getPreviousIndicator(growth) == 3.0, "derived snapshot reparses");
+        check(new PESTELState(after).getIndicatorKind(growth) == Kind.RATE, "state restored from a snapshot");
+
+        System.out.println("\n=== PESTEL INDICATORS TEST COMPLETED ===");
+    }
+
+    private static void checkParse(String text, double value, Kind kind) {
+        double parsed = PESTELIndicators.parseValue(text);
+        check(Double.compare(parsed, value) == 0 || Math.abs(parsed - value) <= 1e-9 * Math.abs(value),
+            "value of \"" + text + "\": " + parsed);
+        check(PESTELIndicators.classify(text) == kind, "kind of \"" + text + "\": " + PESTELIndicators.classify(text));
+    }
+
+    private static void check(boolean condition, String description) {
+        if (!condition) {
+            throw new IllegalStateException("Check failed: " + description);
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package test;
+
+import simu.framework.Trace;
+import simu.framework.Trace.Level;
+import simu.model.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Measures memoized PESTELState rendering on the AI-enhanced engine and its ~190 agents.
+ * Every agent builds its prompt context once per day while the global state changes
+ * a few times per day, which is the access pattern of the prompt builders.
+ */
+public class PESTELRenderingBenchmark {
+    private static final int DAYS = 30;
+    private static final int CHANGES_PER_DAY = 8;
+    private static final int ROUNDS = 5;
+
+    public static void main(String[] args) {
+        Trace.setTraceLevel(Level.WAR);
+
+        AIEnhancedPESTELEngine engine = new AIEnhancedPESTELEngine(DAYS);
+        List<PESTELAgent> agents = new ArrayList<>();
+        agents.addAll(engine.getCompanies());
+        agents.addAll(engine.getCountries());
+        agents.addAll(engine.getResearchers());
+        PESTELState global = engine.getGlobalPESTEL();
+
+        System.out.println("=== PESTEL RENDERING BENCHMARK ===");
+        System.out.println("Agents: " + agents.size() + ", days: " + DAYS + ", global changes per day: " + CHANGES_PER_DAY);
+
+        // Warm up both paths before measuring
+        runUncached(agents, global);
+        runCached(agents, global);
+
+        long uncached = Long.MAX_VALUE;
+        long cached = Long.MAX_VALUE;
+        long renderedChars = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            renderedChars = runUncached(agents, global);
+            uncached = Math.min(uncached, System.nanoTime() - start);
+
+            start = System.nanoTime();
+            long cachedChars = runCached(agents, global);
+            cached = Math.min(cached, System.nanoTime() - start);
+
+            if (cachedChars != renderedChars) {
+                throw new IllegalStateException("Cached rendering differs from uncached rendering");
+            }
+        }
+
+        long renders = (long) agents.size() * DAYS * 2;
+        System.out.printf("Renderings requested:      %,d (global + local per agent per day)%n", renders);
+        System.out.printf("Global state rebuilt:      %,d times per run with memoization%n", DAYS * CHANGES_PER_DAY);
+        System.out.printf("Uncached rendering:        %.2f ms (%.1f us per agent-day)%n",
+            uncached / 1e6, uncached / 1e3 / (agents.size() * DAYS));
+        System.out.printf("Memoized rendering:        %.2f ms (%.1f us per agent-day)%n",
+            cached / 1e6, cached / 1e3 / (agents.size() * DAYS));
+        System.out.printf("Speedup:                   %.1fx%n", (double) uncached / Math.max(1, cached));
+
+        long start = System.nanoTime();
+        for (int day = 1; day <= DAYS; day++) {
+            for (PESTELAgent agent : agents) {
+                agent.getCurrentContext(global, day, Collections.emptyList());
+            }
+        }
+        System.out.printf("Full agent contexts:       %.2f ms for %,d contexts%n",
+            (System.nanoTime() - start) / 1e6, agents.size() * DAYS);
+    }
+
+    private static long runUncached(List<PESTELAgent> agents, PESTELState global) {
+        long chars = 0;
+        for (int day = 1; day <= DAYS; day++) {
+            for (int i = 0; i < agents.size(); i++) {
+                applyScheduledChange(global, day, i, agents.size());
+                chars += PESTELView.summarize(global).length();
+                chars += PESTELView.summarize(agents.get(i).getLocalPESTEL()).length();
+            }
+        }
+        return chars;
+    }
+
+    private static long runCached(List<PESTELAgent> agents, PESTELState global) {
+        long chars = 0;
+        for (int day = 1; day <= DAYS; day++) {
+            for (int i = 0; i < agents.size(); i++) {
+                applyScheduledChange(global, day, i, agents.size());
+                chars += global.toString().length();
+                chars += agents.get(i).getLocalPESTEL().toString().length();
+            }
+        }
+        return chars;
+    }
+
+    /**
+     * Spread a fixed number of global changes evenly over the agents of each day
+     */
+    private static void applyScheduledChange(PESTELState global, int day, int agentIndex, int agentCount) {
+        int step = agentCount / CHANGES_PER_DAY;
+        if (agentIndex % step == 0 && agentIndex / step < CHANGES_PER_DAY) {
+            global.updateFactor(PESTELCategory.ECONOMIC, "growth", "Day " + day + " growth update " + agentIndex);
+        }
+    }
+}
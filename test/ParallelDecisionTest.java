@@ -0,0 +1,85 @@
+package test;
+
+import simu.framework.Clock;
+import simu.framework.Trace;
+import simu.framework.Trace.Level;
+import simu.model.*;
+
+import java.util.List;
+
+/**
+ * Runs the AI-enhanced engine with the fallback logic and a fixed seed, once with agents
+ * deciding one after the other and once with a pool of decision threads, and checks that
+ * both runs take the same actions and end in the same PESTEL state, published to the decision
+ * threads one commit at a time.
+ */
+public class ParallelDecisionTest {
+    private static final int DAYS = 30;
+    private static final long SEED = 20240917L;
+
+    public static void main(String[] args) {
+        Trace.setTraceLevel(Level.WAR);
+        System.out.println("=== PARALLEL DECISION TEST ===");
+
+        long start = System.nanoTime();
+        AIEnhancedPESTELEngine sequential = run(1);
+        long sequentialNanos = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        AIEnhancedPESTELEngine parallel = run(8);
+        long parallelNanos = System.nanoTime() - start;
+
+        List<AgentAction> expectedActions = sequential.getActionLog().all();
+        List<AgentAction> actualActions = parallel.getActionLog().all();
+        check(!expectedActions.isEmpty(), "fallback agents took actions");
+        check(actualActions.size() == expectedActions.size(), "same number of actions");
+        for (int i = 0; i < expectedActions.size(); i++) {
+            AgentAction e = expectedActions.get(i);
+            AgentAction a = actualActions.get(i);
+            check(a.getAgentId().equals(e.getAgentId()) && a.getDay() == e.getDay()
+                && a.getActionDescription().equals(e.getActionDescription()), "action " + i);
+        }
+
+        List<PESTELChange> expectedChanges = sequential.getChangeLog().all();
+        List<PESTELChange> actualChanges = parallel.getChangeLog().all();
+        check(actualChanges.size() == expectedChanges.size(), "same number of changes");
+        for (int i = 0; i < expectedChanges.size(); i++) {
+            PESTELChange e = expectedChanges.get(i);
+            PESTELChange a = actualChanges.get(i);
+            check(a.getFactor().equals(e.getFactor()) && a.getNewValue().equals(e.getNewValue())
+                && a.getSourceAgentId().equals(e.getSourceAgentId()) && a.getDay() == e.getDay(), "change " + i);
+        }
+        check(parallel.getGlobalPESTEL().toCompactString().equals(sequential.getGlobalPESTEL().toCompactString()),
+            "same final PESTEL state");
+        check(parallel.getPublishedPESTEL().toCompactString().equals(parallel.getGlobalPESTEL().toCompactString()),
+            "every global change is published");
+        check(parallel.getPublishedPESTEL().getCommitCount() > 0
+            && parallel.getPublishedPESTEL().getConflictCount() == sequential.getPublishedPESTEL().getConflictCount(),
+            "same conflicts reported");
+        check(parallel.getCrossAgentInteractions().size() == sequential.getCrossAgentInteractions().size(),
+            "same cross-agent interactions");
+
+        System.out.printf("%,d actions and %,d changes identical over %d days; %d commits, %d conflicting writes%n",
+            expectedActions.size(), expectedChanges.size(), DAYS,
+            parallel.getPublishedPESTEL().getCommitCount(), parallel.getPublishedPESTEL().getConflictCount());
+        System.out.printf("Sequential decisions: %.1f ms, 8 decision threads: %.1f ms%n",
+            sequentialNanos / 1e6, parallelNanos / 1e6);
+        System.out.println("\n=== PARALLEL DECISION TEST COMPLETED ===");
+    }
+
+    private static AIEnhancedPESTELEngine run(int threads) {
+        Clock.getInstance().setClock(0.0);
+        AIEnhancedPESTELEngine engine = new AIEnhancedPESTELEngine(DAYS, SEED);
+        engine.setAIEnabled(false);
+        engine.setDecisionThreads(threads);
+        engine.setSimulationTime(DAYS);
+        engine.run();
+        return engine;
+    }
+
+    private static void check(boolean condition, String description) {
+        if (!condition) {
+            throw new IllegalStateException("Check failed: " + description);
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package test;
+
+import simu.framework.Clock;
+import simu.framework.Engine;
+import simu.framework.Trace;
+import simu.framework.Trace.Level;
+import simu.model.*;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Generates seeded synthetic populations, checks they are repeatable and follow the real
+ * data's mix, then runs each engine on them with the fallback logic and reports simulated
+ * days per second and heap per agent.
+ *
+ * Usage: java test.PopulationScalingBenchmark [days] [AI-enhanced sizes...]
+ * The real-world engine re-applies every recent change to each affected agent, which grows
+ * with the square of the population, so it only runs 10k agents. The AI-enhanced engine
+ * needs about 6 KB of heap per agent, so 1M agents need -Xmx8g.
+ */
+public class PopulationScalingBenchmark {
+    private static final long SEED = 20241001L;
+    private static final int DEFAULT_DAYS = 5;
+    private static final int[] DEFAULT_SIZES = {10_000, 100_000};
+    private static final int REAL_WORLD_SIZE = 10_000;
+
+    public static void main(String[] args) {
+        Trace.setTraceLevel(Level.WAR);
+        System.out.println("=== POPULATION SCALING BENCHMARK ===");
+
+        int days = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_DAYS;
+        int[] sizes = DEFAULT_SIZES;
+        if (args.length > 1) {
+            sizes = new int[args.length - 1];
+            for (int i = 1; i < args.length; i++) {
+                sizes[i - 1] = Integer.parseInt(args[i]);
+            }
+        }
+
+        checkPopulation();
+
+        System.out.printf("%n%-22s %10s %10s %12s %14s%n", "Engine", "Agents", "Init (s)", "Days/sec", "Bytes/agent");
+        run("AIEnhancedPESTELEngine", REAL_WORLD_SIZE, days, true);
+        for (int size : sizes) {
+            run("AIEnhancedPESTELEngine", size, days, false);
+        }
+        run("RealWorldPESTELEngine", REAL_WORLD_SIZE, days, false);
+
+        System.out.println("\n=== POPULATION SCALING BENCHMARK COMPLETED ===");
+    }
+
+    private static void checkPopulation() {
+        SyntheticPopulation population = SyntheticPopulation.ofSize(10_000, SEED);
+        SyntheticPopulation again = SyntheticPopulation.ofSize(10_000, SEED);
+        check(population.size() == 10_000, "requested size");
+        UltraComprehensiveRealWorldData.CompanyData[] companies = population.getCompanies();
+        UltraComprehensiveRealWorldData.CompanyData[] sameSeed = again.getCompanies();
+        for (int i = 0; i < companies.length; i++) {
+            UltraComprehensiveRealWorldData.CompanyData a = companies[i];
+            UltraComprehensiveRealWorldData.CompanyData b = sameSeed[i];
+            check(a.name.equals(b.name) && a.revenue == b.revenue && a.industry.equals(b.industry)
+                && a.country.equals(b.country), "same seed, same company " + i);
+        }
+
+        // Industries follow the real top companies
+        Map<String, Integer> industries = new HashMap<>();
+        for (UltraComprehensiveRealWorldData.CompanyData company : companies) {
+            industries.merge(company.industry, 1, Integer::sum);
+        }
+        double realTechnology = 0;
+        for (UltraComprehensiveRealWorldData.CompanyData company : UltraComprehensiveRealWorldData.TOP_COMPANIES) {
+            realTechnology += company.industry.equals("Technology") ? 1 : 0;
+        }
+        realTechnology /= UltraComprehensiveRealWorldData.TOP_COMPANIES.length;
+        double syntheticTechnology = (double) industries.getOrDefault("Technology", 0) / population.getCompanyCount();
+        check(Math.abs(syntheticTechnology - realTechnology) < 0.03, "technology share close to the real mix");
+
+        // Revenues are heavy-tailed: the top 1% of companies hold a large share
+        double[] revenues = new double[population.getCompanyCount()];
+        double total = 0;
+        for (int i = 0; i < revenues.length; i++) {
+            revenues[i] = companies[i].revenue;
+            total += revenues[i];
+        }
+        Arrays.sort(revenues);
+        double top = 0;
+        for (int i = revenues.length - revenues.length / 100; i < revenues.length; i++) {
+            top += revenues[i];
+        }
+        check(revenues[0] >= 1_000 && top / total > 0.2, "Pareto revenues");
+
+        System.out.println(population);
+        System.out.printf("Technology share %.1f%% (real %.1f%%), top 1%% of companies hold %.0f%% of revenue%n",
+            syntheticTechnology * 100, realTechnology * 100, top / total * 100);
+    }
+
+    private static void run(String engineName, int agents, int days, boolean warmUp) {
+        long before = usedHeap();
+        SyntheticPopulation population = SyntheticPopulation.ofSize(agents, SEED);
+        Clock.getInstance().setClock(0.0);
+
+        long start = System.nanoTime();
+        Engine engine = engineName.equals("RealWorldPESTELEngine")
+            ? new RealWorldPESTELEngine(days, population)
+            : new AIEnhancedPESTELEngine(days, SEED, population);
+        long initNanos = System.nanoTime() - start;
+        long heap = usedHeap() - before; // Entities, their data and the engine's indexes
+
+        engine.setSimulationTime(days);
+        start = System.nanoTime();
+        engine.run();
+        long runNanos = System.nanoTime() - start;
+
+        if (!warmUp) {
+            System.out.printf("%-22s %,10d %10.2f %12.3f %,14d%n", engineName, population.size(), initNanos / 1e9,
+                days / (runNanos / 1e9), heap / population.size());
+        }
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static void check(boolean condition, String description) {
+        if (!condition) {
+            throw new IllegalStateException("Check failed: " + description);
+        }
+    }
+}
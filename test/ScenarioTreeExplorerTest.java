@@ -0,0 +1,144 @@
+package test;
+
+import simu.model.FastFallbackEngine;
+import simu.model.ScenarioTreeExplorer;
+import simu.model.ScenarioTreeExplorer.Branch;
+import simu.model.SyntheticPopulation;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Checks a forked fast run carries on exactly like the original and that steering a fork toward
+ * a scenario changes its decisions in the scenario's favour. Then explores the scenario tree of a
+ * synthetic population over 90 days on one thread and on several: both give the same top
+ * futures, ranked by likelihood, within the memory bound, each replayable from its seeds, after
+ * pruning both unlikely and redundant branches, and no two of them end in the same state. The
+ * real-world population acts often enough to even out every scenario each week, so most of its
+ * branches are redundant, but the ones returned must still end in different states.
+ */
+public class ScenarioTreeExplorerTest {
+    private static final long SEED = 20241015L;
+    private static final int TOP = 5;
+    private static final int POPULATION = 60;
+
+    public static void main(String[] args) {
+        System.out.println("=== SCENARIO TREE EXPLORER TEST ===");
+
+        SyntheticPopulation realWorld = SyntheticPopulation.realWorld();
+        FastFallbackEngine straight = new FastFallbackEngine(SEED, realWorld);
+        straight.run(30);
+        FastFallbackEngine forked = new FastFallbackEngine(SEED, realWorld);
+        forked.run(12);
+        FastFallbackEngine other = forked.fork(SEED + 1);
+        forked = forked.fork(SEED);
+        forked.run(18);
+        check(forked.getRunDigest().equals(straight.getRunDigest()), "a fork with the same seed carries on the run");
+        other.run(18);
+        check(!other.getRunDigest().equals(straight.getRunDigest()), "a fork with another seed branches off");
+        check(straight.getLogLikelihoodRatio() == 0.0 && straight.getSteeredScenario() == -1, "an unsteered run has nothing to weigh");
+
+        SyntheticPopulation synthetic = SyntheticPopulation.ofSize(POPULATION, SEED);
+        FastFallbackEngine root = new FastFallbackEngine(SEED, synthetic);
+        root.run(7);
+        FastFallbackEngine unsteered = root.fork(SEED);
+        unsteered.run(28);
+        int scenario = 3;
+        FastFallbackEngine steered = root.fork(SEED);
+        steered.steerToward(scenario, 4.0);
+        steered.run(28);
+        check(!steered.getRunDigest().equals(unsteered.getRunDigest()), "steering changes the decisions");
+        check(probability(steered, scenario) > probability(unsteered, scenario),
+            "steering raises the followed scenario: " + probability(steered, scenario) + " vs " + probability(unsteered, scenario));
+        check(steered.getLogLikelihoodRatio() < 0.0, "a steered run is less likely than its draws: " + steered.getLogLikelihoodRatio());
+        try {
+            steered.steerToward(-1, 1.0);
+            check(false, "steering needs a scenario");
+        } catch (IllegalArgumentException expected) {
+            // Expected
+        }
+
+        long start = System.nanoTime();
+        ScenarioTreeExplorer explorer = explorer(synthetic, 4);
+        List<Branch> top = explorer.explore(TOP);
+        double millis = (System.nanoTime() - start) / 1e6;
+        List<Branch> serial = explorer(synthetic, 1).explore(TOP);
+
+        check(top.size() == TOP, "top futures found: " + top.size());
+        check(top.size() == serial.size(), "same number of futures on any number of threads");
+        for (int i = 0; i < top.size(); i++) {
+            Branch branch = top.get(i);
+            check(Arrays.equals(branch.getSeeds(), serial.get(i).getSeeds())
+                && branch.getScore() == serial.get(i).getScore(), "same future #" + (i + 1) + " on any number of threads");
+            check(i == 0 || top.get(i - 1).getScore() >= branch.getScore(), "futures ranked by likelihood");
+            check(branch.getDay() == explorer.getHorizon(), "branches reach the horizon");
+            check(Math.abs(Arrays.stream(branch.getProbabilities()).sum() - 1.0) < 1e-9, "scenario probabilities add up");
+            check(explorer.replay(branch).getRunDigest().equals(branch.getEngine().getRunDigest()),
+                "future #" + (i + 1) + " replays from its seeds");
+        }
+
+        int levels = (explorer.getHorizon() + explorer.getDecisionInterval() - 1) / explorer.getDecisionInterval();
+        check(explorer.getPeakLiveStates() <= explorer.getBeamWidth() * (explorer.getBranching() + 1), "memory stays bounded");
+        check(explorer.getExpandedCount() <= (long) levels * explorer.getBeamWidth() * explorer.getBranching(), "beam width respected");
+        check(explorer.getPrunedUnlikelyCount() > 0, "unlikely branches are pruned");
+        check(explorer.getPrunedRedundantCount() > 0, "redundant branches are pruned");
+        check(top.get(0).getScore() > top.get(top.size() - 1).getScore(), "the top futures differ in likelihood");
+        checkDifferentStates(explorer, top);
+        double shares = Arrays.stream(ScenarioTreeExplorer.relativeProbabilities(top)).sum();
+        check(Math.abs(shares - 1.0) < 1e-9, "relative probabilities add up");
+
+        System.out.println(explorer.report(top));
+        System.out.printf("Explored in %.0f ms%n%n", millis);
+
+        ScenarioTreeExplorer realWorldExplorer = explorer(realWorld, 4);
+        List<Branch> realWorldTop = realWorldExplorer.explore(TOP);
+        check(!realWorldTop.isEmpty() && realWorldExplorer.getPrunedRedundantCount() > 0,
+            "real-world futures that even out are pruned as redundant");
+        checkDifferentStates(realWorldExplorer, realWorldTop);
+        System.out.println(realWorldExplorer.report(realWorldTop));
+
+        try {
+            explorer.setBeamWidth(0);
+            check(false, "the beam keeps at least one branch");
+        } catch (IllegalArgumentException expected) {
+            // Expected
+        }
+
+        System.out.println("\n=== SCENARIO TREE EXPLORER TEST COMPLETED ===");
+    }
+
+    private static ScenarioTreeExplorer explorer(SyntheticPopulation population, int threads) {
+        ScenarioTreeExplorer explorer = new ScenarioTreeExplorer(SEED, population);
+        explorer.setThreads(threads);
+        return explorer;
+    }
+
+    /**
+     * No two branches end in the same state, and siblings differ in more than their last label
+     */
+    private static void checkDifferentStates(ScenarioTreeExplorer explorer, List<Branch> branches) {
+        for (int i = 0; i < branches.size(); i++) {
+            for (int j = i + 1; j < branches.size(); j++) {
+                Branch a = branches.get(i);
+                Branch b = branches.get(j);
+                check(ScenarioTreeExplorer.distance(a.getProbabilities(), b.getProbabilities()) > explorer.getRedundancyDistance(),
+                    "futures #" + (i + 1) + " and #" + (j + 1) + " end in different states");
+                long[] seedsA = a.getSeeds();
+                long[] seedsB = b.getSeeds();
+                boolean siblings = Arrays.equals(Arrays.copyOf(seedsA, seedsA.length - 1), Arrays.copyOf(seedsB, seedsB.length - 1));
+                check(!siblings || !a.getEngine().getRunDigest().equals(b.getEngine().getRunDigest()),
+                    "sibling futures #" + (i + 1) + " and #" + (j + 1) + " run differently");
+            }
+        }
+    }
+
+    private static double probability(FastFallbackEngine engine, int scenario) {
+        return engine.getEnhancedFutureManager().getAllScenarios().get(scenario).getProbability();
+    }
+
+    private static void check(boolean condition, String description) {
+        if (!condition) {
+            throw new IllegalStateException("Check failed: " + description);
+        }
+    }
+}
@@ -0,0 +1,259 @@
+package test;
+
+import simu.framework.Trace;
+import simu.framework.Trace.Level;
+import simu.model.*;
+import simu.model.EnhancedFutureScenarioManager.FutureScenario;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Round-trip checks for SimulationCodec and a size / throughput comparison against Java
+ * serialization on a synthetic run: a PESTEL state, actions, changes, decisions and scenarios.
+ */
+public class SimulationCodecTest {
+    private static final int ACTIONS = 20_000;
+    private static final int CHANGES = 20_000;
+    private static final int DECISIONS = 5_000;
+    private static final int AGENTS = 190;
+    private static final int ROUNDS = 5;
+
+    private static final String[] ACTION_TEMPLATES = {
+        "Invest in AI research and development", "Expand operations into emerging markets",
+        "Launch sustainability initiative", "Form strategic partnership", "Lobby for regulatory changes",
+        "Increase R&D budget by 15%", "Publish research on climate adaptation", "Introduce carbon tax"
+    };
+    private static final String[] ACTION_TYPES = {"investment", "expansion", "policy", "research", "partnership"};
+
+    public static void main(String[] args) throws Exception {
+        Trace.setTraceLevel(Level.WAR);
+        System.out.println("=== SIMULATION CODEC TEST ===");
+
+        Random random = new Random(11);
+        PESTELState state = new PESTELState();
+        List<AgentAction> actions = new ArrayList<>();
+        List<PESTELChange> changes = new ArrayList<>();
+        List<AgentDecision> decisions = new ArrayList<>();
+        int[] slots = new int[PESTELFactorIndex.size()];
+        for (int slot = 0; slot < slots.length; slot++) {
+            slots[slot] = slot;
+        }
+
+        for (int i = 0; i < ACTIONS; i++) {
+            int agent = random.nextInt(AGENTS);
+            actions.add(new AgentAction(agent, "Agent_" + agent, i / 100,
+                ACTION_TEMPLATES[random.nextInt(ACTION_TEMPLATES.length)], ACTION_TYPES[random.nextInt(ACTION_TYPES.length)]));
+        }
+        for (int i = 0; i < CHANGES; i++) {
+            int slot = slots[random.nextInt(slots.length)];
+            int agent = random.nextInt(AGENTS);
+            String oldValue = state.getFactor(slot);
+            String newValue = "Level " + random.nextInt(100) + "% after policy shift";
+            state.updateFactor(slot, newValue);
+            changes.add(new PESTELChange(PESTELFactorIndex.categoryOf(slot).getKey(), PESTELFactorIndex.keyOf(slot),
+                oldValue, newValue, "Agent action impact", agent, "Agent_" + agent, i / 100));
+        }
+        state.updateFactor(PESTELCategory.SOCIAL, "culture", "Kulttuuri ja yhteisöt – ünïcödé värden");
+        for (int i = 0; i < DECISIONS; i++) {
+            AgentDecision decision = new AgentDecision("Agent_" + random.nextInt(AGENTS), i / 25,
+                ACTION_TEMPLATES[random.nextInt(ACTION_TEMPLATES.length)], ACTION_TYPES[random.nextInt(ACTION_TYPES.length)],
+                random.nextDouble());
+            decision.setParameter("investment", random.nextInt(1000) * 1e6);
+            decision.setParameter("risk", random.nextDouble());
+            decision.setMetadata("source", random.nextBoolean() ? "ai" : "fallback");
+            decision.setExpectedImpact(random.nextDouble() - 0.5);
+            decisions.add(decision);
+        }
+        List<FutureScenario> scenarios = new EnhancedFutureScenarioManager().getAllScenarios();
+
+        testRoundTrips(state, actions, changes, decisions, scenarios);
+        testErrors();
+
+        System.out.println("\nSize and encode + decode round trips per second against Java serialization:");
+        System.out.printf("%-22s %12s %12s %8s %14s %14s %8s%n",
+            "Payload", "Codec bytes", "Java bytes", "Size", "Codec trips/s", "Java trips/s", "Speedup");
+        Map<String, Map<String, String>> stateMap = new LinkedHashMap<>();
+        stateMap.put("political", state.getAllPolitical());
+        stateMap.put("economic", state.getAllEconomic());
+        stateMap.put("social", state.getAllSocial());
+        stateMap.put("technological", state.getAllTechnological());
+        stateMap.put("environmental", state.getAllEnvironmental());
+        stateMap.put("legal", state.getAllLegal());
+        compare("PESTEL state", 20_000,
+            writer -> writer.writeState(state), reader -> reader.readSnapshot(), stateMap);
+        compare(ACTIONS + " actions", 20,
+            writer -> writer.writeActions(actions), reader -> reader.readActions(), new ArrayList<>(actions));
+        compare(CHANGES + " changes", 20,
+            writer -> writer.writeChanges(changes), reader -> reader.readChanges(), new ArrayList<>(changes));
+        compare(DECISIONS + " decisions", 20,
+            writer -> writer.writeDecisions(decisions), reader -> reader.readDecisions(), new ArrayList<>(decisions));
+        compare(scenarios.size() + " scenarios", 20_000,
+            writer -> writer.writeScenarios(scenarios), reader -> reader.readScenarios(), new ArrayList<>(scenarios));
+
+        System.out.println("\n=== SIMULATION CODEC TEST COMPLETED ===");
+    }
+
+    private static void testRoundTrips(PESTELState state, List<AgentAction> actions, List<PESTELChange> changes,
+                                       List<AgentDecision> decisions, List<FutureScenario> scenarios) {
+        // All record types in one stream, sharing its string dictionary
+        SimulationCodec.Writer writer = new SimulationCodec.Writer();
+        writer.writeState(state);
+        writer.writeActions(actions);
+        writer.writeChanges(changes);
+        writer.writeDecisions(decisions);
+        writer.writeScenarios(scenarios);
+
+        // Read from a direct buffer too, which takes the copying path for strings
+        ByteBuffer heap = writer.toByteBuffer();
+        ByteBuffer direct = ByteBuffer.allocateDirect(writer.size());
+        direct.put(writer.toByteArray()).flip();
+        for (ByteBuffer buffer : new ByteBuffer[] {heap, direct}) {
+            SimulationCodec.Reader reader = new SimulationCodec.Reader(buffer);
+            check(reader.getVersion() == SimulationCodec.FORMAT_VERSION, "format version");
+            check(reader.peekTag() == SimulationCodec.TAG_SNAPSHOT, "peekTag");
+
+            PESTELSnapshot snapshot = reader.readSnapshot();
+            for (int slot = 0; slot < PESTELFactorIndex.size(); slot++) {
+                check(snapshot.hasFactor(slot) == state.hasFactor(slot)
+                    && snapshot.getFactor(slot).equals(state.getFactor(slot)), "state factor " + PESTELFactorIndex.keyOf(slot));
+                check(Double.compare(snapshot.getIndicator(slot), state.getIndicator(slot)) == 0, "state indicator");
+            }
+            check(snapshot.getLastUpdateTime() == state.getLastUpdateTime(), "state update time");
+
+            List<AgentAction> readActions = reader.readActions();
+            check(readActions.size() == actions.size(), "action count");
+            for (int i = 0; i < actions.size(); i++) {
+                AgentAction a = readActions.get(i);
+                AgentAction e = actions.get(i);
+                check(a.getAgentIndex() == e.getAgentIndex() && a.getAgentId().equals(e.getAgentId()) && a.getDay() == e.getDay()
+                    && a.getActionDescription().equals(e.getActionDescription()) && a.getActionType().equals(e.getActionType())
+                    && a.getTimestamp() == e.getTimestamp(), "action " + i);
+            }
+
+            List<PESTELChange> readChanges = reader.readChanges();
+            check(readChanges.size() == changes.size(), "change count");
+            for (int i = 0; i < changes.size(); i++) {
+                PESTELChange a = readChanges.get(i);
+                PESTELChange e = changes.get(i);
+                check(a.getCategory().equals(e.getCategory()) && a.getFactor().equals(e.getFactor())
+                    && a.getOldValue().equals(e.getOldValue()) && a.getNewValue().equals(e.getNewValue())
+                    && a.getReason().equals(e.getReason()) && a.getSourceAgentIndex() == e.getSourceAgentIndex()
+                    && a.getSourceAgentId().equals(e.getSourceAgentId()) && a.getDay() == e.getDay(), "change " + i);
+            }
+
+            List<AgentDecision> readDecisions = reader.readDecisions();
+            check(readDecisions.size() == decisions.size(), "decision count");
+            for (int i = 0; i < decisions.size(); i++) {
+                AgentDecision a = readDecisions.get(i);
+                AgentDecision e = decisions.get(i);
+                check(a.getAgentId().equals(e.getAgentId()) && a.getDay() == e.getDay()
+                    && a.getDescription().equals(e.getDescription()) && a.getDecisionType().equals(e.getDecisionType())
+                    && a.getConfidence() == e.getConfidence() && a.getDecisionTime() == e.getDecisionTime()
+                    && a.getExpectedImpact() == e.getExpectedImpact()
+                    && a.getAllParameters().equals(e.getAllParameters()) && a.getAllMetadata().equals(e.getAllMetadata()),
+                    "decision " + i);
+            }
+
+            List<FutureScenario> readScenarios = reader.readScenarios();
+            check(readScenarios.size() == scenarios.size(), "scenario count");
+            for (int i = 0; i < scenarios.size(); i++) {
+                FutureScenario a = readScenarios.get(i);
+                FutureScenario e = scenarios.get(i);
+                check(a.getName().equals(e.getName()) && a.getDescription().equals(e.getDescription())
+                    && a.getProbability() == e.getProbability() && a.getBaseProbability() == e.getBaseProbability()
+                    && a.getImplications().equals(e.getImplications()) && a.getKeyIndicators().equals(e.getKeyIndicators())
+                    && a.getSupportingActions().equals(e.getSupportingActions()) && a.getMomentum() == e.getMomentum()
+                    && a.getDominantSector().equals(e.getDominantSector()), "scenario " + i);
+            }
+            check(!reader.hasRemaining(), "stream fully consumed");
+        }
+        System.out.printf("Round trip of all record types: %,d bytes, heap and direct buffers match%n", writer.size());
+    }
+
+    private static void testErrors() {
+        byte[] bytes = SimulationCodec.encodeActions(new ArrayList<>());
+        bytes[2] = (byte) (SimulationCodec.FORMAT_VERSION + 1);
+        check(fails(() -> new SimulationCodec.Reader(bytes)), "newer format version rejected");
+        check(fails(() -> new SimulationCodec.Reader(new byte[] {1, 2, 3})), "bad magic rejected");
+        check(fails(() -> new SimulationCodec.Reader(SimulationCodec.encode(new PESTELState())).readAction()),
+            "record tag mismatch rejected");
+        System.out.println("Unsupported versions, foreign data and mismatched records are rejected");
+    }
+
+    private interface Encoder {
+        void write(SimulationCodec.Writer writer);
+    }
+
+    private interface Decoder {
+        Object read(SimulationCodec.Reader reader);
+    }
+
+    private static void compare(String name, int iterations, Encoder encoder, Decoder decoder, Object javaObject)
+            throws IOException, ClassNotFoundException {
+        SimulationCodec.Writer writer = new SimulationCodec.Writer();
+        encoder.write(writer);
+        int codecBytes = writer.size();
+        byte[] javaBytes = javaSerialize(javaObject);
+
+        long codecNanos = Long.MAX_VALUE;
+        long javaNanos = Long.MAX_VALUE;
+        long checksum = 0;
+        for (int round = 0; round < ROUNDS + 1; round++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                encoder.write(writer.reset());
+                checksum += decoder.read(new SimulationCodec.Reader(writer.toByteBuffer())).hashCode() & 1;
+            }
+            codecNanos = Math.min(codecNanos, System.nanoTime() - start);
+
+            start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                byte[] serialized = javaSerialize(javaObject);
+                try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(serialized))) {
+                    checksum += in.readObject().hashCode() & 1;
+                }
+            }
+            javaNanos = Math.min(javaNanos, System.nanoTime() - start);
+        }
+
+        System.out.printf("%-22s %,12d %,12d %7.1f%% %,14.0f %,14.0f %7.1fx%n", name, codecBytes, javaBytes.length,
+            100.0 * codecBytes / javaBytes.length, iterations / (codecNanos / 1e9), iterations / (javaNanos / 1e9),
+            (double) javaNanos / codecNanos);
+        if (checksum < 0) {
+            System.out.println(checksum);
+        }
+    }
+
+    private static byte[] javaSerialize(Object value) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(value);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static boolean fails(Runnable action) {
+        try {
+            action.run();
+            return false;
+        } catch (IllegalArgumentException e) {
+            return true;
+        }
+    }
+
+    private static void check(boolean condition, String description) {
+        if (!condition) {
+            throw new IllegalStateException("Check failed: " + description);
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package test;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import simu.framework.Clock;
+import simu.framework.Trace;
+import simu.framework.Trace.Level;
+import simu.model.AIEnhancedPESTELEngine;
+import simu.model.PESTELCategory;
+import simu.model.PESTELChange;
+import simu.model.PESTELFactorIndex;
+import simu.model.PESTELSnapshot;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Runs the AI-enhanced engine against a stand-in for qwen_server.py that answers slowly, once
+ * waiting for every answer and once speculating with the fallback decisions. Checks every
+ * speculation is settled exactly once by the end of the run, that the mispredicted ones are
+ * withdrawn with their writes, that factors left with a withdrawn value get an earlier value
+ * back, and that the change log, undo changes included, replays to the final global state.
+ */
+public class SpeculativeExecutionTest {
+    private static final long SEED = 20241015L;
+    private static final int BLOCKING_DAYS = 1;
+    private static final int SPECULATIVE_DAYS = 8;
+    private static final long ANSWER_MILLIS = 5;
+    private static final int THREADS = 8;
+    private static final Pattern AGENT = Pattern.compile("You are (.+?) on day");
+
+    public static void main(String[] args) throws Exception {
+        Trace.setTraceLevel(Level.WAR);
+        System.out.println("=== SPECULATIVE EXECUTION TEST ===");
+
+        ExecutorService serverThreads = Executors.newFixedThreadPool(THREADS);
+        HttpServer server = startServer(serverThreads);
+        System.setProperty("qwen.server.url", "http://localhost:" + server.getAddress().getPort());
+        try {
+            long start = System.nanoTime();
+            AIEnhancedPESTELEngine blocking = run(BLOCKING_DAYS, false);
+            double blockingMillis = (System.nanoTime() - start) / 1e6 / BLOCKING_DAYS;
+            check(blocking.getSpeculationCount() == 0, "no speculation unless asked for");
+
+            start = System.nanoTime();
+            AIEnhancedPESTELEngine speculative = run(SPECULATIVE_DAYS, true);
+            double speculativeMillis = (System.nanoTime() - start) / 1e6 / SPECULATIVE_DAYS;
+
+            long settled = speculative.getConfirmedSpeculationCount() + speculative.getReconciledSpeculationCount()
+                + speculative.getFailedSpeculationCount() + speculative.getExpiredSpeculationCount();
+            check(speculative.getSpeculationCount() > 0, "agents speculate");
+            check(settled == speculative.getSpeculationCount(), "every speculation settled once: " + settled
+                + " of " + speculative.getSpeculationCount());
+            check(speculative.getReconciledSpeculationCount() > 0, "mispredicted decisions are reconciled");
+            check(speculative.getPendingSpeculationCount() == 0, "the run ends with every answer settled");
+
+            long undos = speculative.getChangeLog().all().stream()
+                .filter(change -> change.getReason().startsWith("Undo speculative decision")).count();
+            check(speculative.getWithdrawnDecisionCount() > 0, "mispredicted decisions are withdrawn");
+            check(speculative.getUndoneChangeCount() > 0, "speculative writes are undone");
+            check(speculative.getRestoredFactorCount() > 0, "factors left with a withdrawn value are restored");
+            check(undos == speculative.getRestoredFactorCount() && undos <= speculative.getUndoneChangeCount(),
+                "every restored factor is logged");
+            checkRestoredValues(speculative);
+            checkReplay(speculative);
+            check(speculativeMillis < blockingMillis, "speculative days are faster than waiting for the answers");
+
+            System.out.printf("Waiting for every answer: %.0f ms/day%n", blockingMillis);
+            System.out.printf("Speculative execution:    %.0f ms/day%n", speculativeMillis);
+            System.out.printf("%d speculations: %d confirmed, %d reconciled, %d failed, %d expired%n",
+                speculative.getSpeculationCount(), speculative.getConfirmedSpeculationCount(),
+                speculative.getReconciledSpeculationCount(), speculative.getFailedSpeculationCount(),
+                speculative.getExpiredSpeculationCount());
+            System.out.printf("%d decisions withdrawn, %d speculative writes undone, %d factors restored%n",
+                speculative.getWithdrawnDecisionCount(), speculative.getUndoneChangeCount(),
+                speculative.getRestoredFactorCount());
+            System.out.printf("Waited for %d answers while the AI had fallen behind%n", speculative.getAnswerWaitCount());
+        } finally {
+            server.stop(0);
+            serverThreads.shutdownNow();
+        }
+
+        System.out.println("\n=== SPECULATIVE EXECUTION TEST COMPLETED ===");
+    }
+
+    /**
+     * An undo must take the factor from its withdrawn value back to one it held earlier in the run
+     */
+    private static void checkRestoredValues(AIEnhancedPESTELEngine engine) {
+        PESTELSnapshot initial = engine.getPESTELSnapshot(0);
+        List<Set<String>> held = new ArrayList<>();
+        for (int slot = 0; slot < PESTELFactorIndex.size(); slot++) {
+            held.add(new HashSet<>(Collections.singleton(initial.getFactor(slot))));
+        }
+        for (PESTELChange change : engine.getChangeLog().all()) {
+            int slot = PESTELFactorIndex.slotOf(PESTELCategory.fromName(change.getCategory()), change.getFactor());
+            if (change.getReason().startsWith("Undo speculative decision")) {
+                check(!change.getNewValue().equals(change.getOldValue()), "an undo changes the factor: " + change);
+                check(held.get(slot).contains(change.getNewValue()), "an undo restores an earlier value: " + change);
+            }
+            held.get(slot).add(change.getNewValue());
+        }
+    }
+
+    /**
+     * Every change must start from the value the previous changes left, and all of them together
+     * must lead from the initial state to the final one
+     */
+    private static void checkReplay(AIEnhancedPESTELEngine engine) {
+        PESTELSnapshot initial = engine.getPESTELSnapshot(0);
+        String[] state = new String[PESTELFactorIndex.size()];
+        for (int slot = 0; slot < state.length; slot++) {
+            state[slot] = initial.getFactor(slot);
+        }
+        for (PESTELChange change : engine.getChangeLog().all()) {
+            int slot = PESTELFactorIndex.slotOf(PESTELCategory.fromName(change.getCategory()), change.getFactor());
+            check(change.getOldValue().equals(state[slot]), "change applies to the current value: " + change);
+            state[slot] = change.getNewValue();
+        }
+        for (int slot = 0; slot < state.length; slot++) {
+            check(state[slot].equals(engine.getGlobalPESTEL().getFactor(slot)), "replayed state of slot " + slot);
+        }
+    }
+
+    private static AIEnhancedPESTELEngine run(int days, boolean speculative) {
+        Clock.getInstance().setClock(0.0);
+        AIEnhancedPESTELEngine engine = new AIEnhancedPESTELEngine(days, SEED);
+        check(engine.isAIEnabled(), "the engine reaches the stand-in server");
+        engine.setDecisionThreads(THREADS);
+        engine.setSpeculativeExecution(speculative);
+        engine.setSimulationTime(days);
+        engine.run();
+        return engine;
+    }
+
+    /**
+     * Stand-in for qwen_server.py: each agent always gives the same answer, a quarter of them no action
+     */
+    private static HttpServer startServer(ExecutorService threads) throws Exception {
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/health", exchange -> respond(exchange, "{\"status\":\"ok\"}"));
+        server.createContext("/generate", exchange -> {
+            String prompt;
+            try (InputStream body = exchange.getRequestBody()) {
+                prompt = new String(body.readAllBytes(), StandardCharsets.UTF_8);
+            }
+            Matcher agent = AGENT.matcher(prompt);
+            String answer = "NO_IMPACT";
+            if (agent.find()) {
+                String agentId = agent.group(1);
+                answer = (agentId.hashCode() & 3) == 0 ? "NO_ACTION"
+                    : "INVESTMENT|Expand " + agentId + " research and development investment|0.8";
+            }
+            try {
+                Thread.sleep(ANSWER_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            respond(exchange, "{\"response\":\"" + answer + "\"}");
+        });
+        server.setExecutor(threads);
+        server.start();
+        return server;
+    }
+
+    private static void respond(HttpExchange exchange, String json) throws IOException {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static void check(boolean condition, String description) {
+        if (!condition) {
+            throw new IllegalStateException("Check failed: " + description);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package test;
+
+import simu.framework.Clock;
+import simu.framework.Trace;
+import simu.framework.Trace.Level;
+import simu.model.RealWorldCountry;
+import simu.model.RealWorldPESTELEngine;
+import simu.model.RealWorldPESTELEngine.CountryUnion;
+
+import java.util.List;
+
+/**
+ * Runs the real-world engine with the country unions coordinating on one thread and on several,
+ * with union decisions raising their members' influence, checks both runs are the same and that
+ * every union's collective influence, kept up to date change by change, still equals the sum of
+ * its members' influence. By default union decisions leave the influence alone.
+ */
+public class UnionCoordinationTest {
+    private static final long SEED = 20241015L;
+    private static final int DAYS = 60;
+    private static final double INFLUENCE_GAIN = 0.002;
+
+    public static void main(String[] args) {
+        Trace.setTraceLevel(Level.WAR);
+        System.out.println("=== UNION COORDINATION TEST ===");
+
+        RealWorldPESTELEngine serial = run(1, INFLUENCE_GAIN);
+        RealWorldPESTELEngine parallel = run(4, INFLUENCE_GAIN);
+        check(serial.getRunDigest().equals(parallel.getRunDigest()), "same run on one and four union threads");
+
+        List<CountryUnion> unions = parallel.getCountryUnions();
+        List<CountryUnion> serialUnions = serial.getCountryUnions();
+        for (int i = 0; i < unions.size(); i++) {
+            CountryUnion union = unions.get(i);
+            double sum = 0.0;
+            for (RealWorldCountry member : union.getMemberCountries()) {
+                sum += member.getGeopoliticalInfluence();
+            }
+            check(Math.abs(sum - union.getCollectiveInfluence()) < 1e-9, "collective influence of " + union.getName());
+            check(union.getCollectiveInfluence() == serialUnions.get(i).getCollectiveInfluence(),
+                "same collective influence on any number of threads: " + union.getName());
+            check(union.getUnionPESTEL().toString().equals(serialUnions.get(i).getUnionPESTEL().toString()),
+                "same union PESTEL state on any number of threads: " + union.getName());
+            System.out.printf("%-45s %2d members, collective influence %.3f%n",
+                union.getName(), union.getMemberCountries().size(), union.getCollectiveInfluence());
+        }
+
+        List<CountryUnion> initialUnions = new RealWorldPESTELEngine(DAYS, SEED).getCountryUnions();
+        List<CountryUnion> defaultUnions = run(4, 0.0).getCountryUnions();
+        boolean raised = false;
+        for (int i = 0; i < defaultUnions.size(); i++) {
+            double collective = defaultUnions.get(i).getCollectiveInfluence();
+            check(collective == initialUnions.get(i).getCollectiveInfluence(),
+                "union decisions leave the influence alone by default: " + defaultUnions.get(i).getName());
+            check(collective <= unions.get(i).getCollectiveInfluence(), "the gain never lowers the influence");
+            raised |= collective < unions.get(i).getCollectiveInfluence();
+        }
+        check(raised, "the gain raises the collective influence");
+
+        try {
+            parallel.setUnionInfluenceGain(-0.1);
+            check(false, "the gain must not be negative");
+        } catch (IllegalArgumentException expected) {
+            // Expected
+        }
+        try {
+            parallel.setUnionThreads(0);
+            check(false, "at least one union thread");
+        } catch (IllegalArgumentException expected) {
+            // Expected
+        }
+
+        System.out.println("\n=== UNION COORDINATION TEST COMPLETED ===");
+    }
+
+    private static RealWorldPESTELEngine run(int threads, double influenceGain) {
+        Clock.getInstance().setClock(0.0);
+        RealWorldPESTELEngine engine = new RealWorldPESTELEngine(DAYS, SEED);
+        engine.setUnionThreads(threads);
+        engine.setUnionInfluenceGain(influenceGain);
+        engine.setSimulationTime(DAYS);
+        engine.run();
+        return engine;
+    }
+
+    private static void check(boolean condition, String description) {
+        if (!condition) {
+            throw new IllegalStateException("Check failed: " + description);
+        }
+    }
+}